@@ -30,6 +30,11 @@ android {
         targetCompatibility = JavaVersion.VERSION_11
     }
 
+    testOptions {
+        // Log calls in code under unit test return defaults instead of throwing
+        unitTests.isReturnDefaultValues = true
+    }
+
     buildFeatures {
         viewBinding = true
     }
@@ -44,14 +49,17 @@ android {
 
 dependencies {
 
+    // Domain model, pricing and repository interfaces (plain Java)
+    implementation(project(":core"))
+
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
 
-    // Room database for SQLite storage
-    implementation("androidx.room:room-runtime:2.6.1")
-    annotationProcessor("androidx.room:room-compiler:2.6.1")
+    // Room database for SQLite storage; same catalog version as room-common in :core
+    implementation(libs.room.runtime)
+    annotationProcessor(libs.room.compiler)
 
     // RecyclerView and CardView for tour listings
     implementation("androidx.recyclerview:recyclerview:1.3.2")
@@ -63,6 +71,7 @@ dependencies {
 
     // Image loading
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0")
 
     // Fragment navigation
     implementation("androidx.navigation:navigation-fragment:2.7.6")
@@ -75,6 +84,20 @@ dependencies {
     implementation("com.sun.mail:android-mail:1.6.7")
     implementation("com.sun.mail:android-activation:1.6.7")
 
+    // WorkManager for persistent background jobs (email outbox)
+    implementation("androidx.work:work-runtime:2.9.1")
+
+    // ViewModels with saved state, keeping screen data across configuration changes
+    implementation("androidx.lifecycle:lifecycle-viewmodel:2.8.7")
+    implementation("androidx.lifecycle:lifecycle-livedata:2.8.7")
+    implementation("androidx.lifecycle:lifecycle-viewmodel-savedstate:2.8.7")
+
+    // Embedded HTTP server for the optional local API (front desk terminals)
+    implementation("org.nanohttpd:nanohttpd:2.3.1")
+
+    // Plain-Java LRU cache for the entity cache, usable in JVM unit tests
+    implementation("androidx.collection:collection:1.4.2")
+
     // Test dependencies
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
@@ -0,0 +1,108 @@
+package com.example.tourmanagement;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.CapacityReconciler;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented benchmark of the capacity reconciler on an in-memory database
+ * with 100,000 tours and 200,000 bookings, 1% of the tours carrying a wrong
+ * seat counter. Reports the time of the repairing run and of a clean run to
+ * logcat under "ReconcileBenchmark". Both must finish within seconds.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CapacityReconcilerBenchmark {
+
+    private static final String TAG = "ReconcileBenchmark";
+    private static final int USERS = 100;
+    private static final int TOURS = 100_000;
+    private static final int BOOKINGS_PER_TOUR = 2;
+    private static final int DRIFT_EVERY = 100;
+    private static final long MAX_RUN_MS = 10_000;
+    private static final String[] STATUSES = {"PENDING", "CONFIRMED", "CANCELLED"};
+
+    private TourManagementDatabase database;
+    private int driftedTours;
+
+    @Before
+    public void seed() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class).build();
+        long now = System.currentTimeMillis();
+
+        Random random = new Random(42);
+        long start = SystemClock.elapsedRealtime();
+        database.runInTransaction(() -> {
+            for (int i = 0; i < USERS; i++) {
+                database.userDao().insertUser(new User("user" + i, "secret", "user" + i + "@example.com",
+                    "0900000000", "User " + i));
+            }
+            for (int i = 0; i < TOURS; i++) {
+                Tour tour = new Tour("Tour " + i, null, "Location " + i % 50, now + i * 60_000L,
+                    "Description", 100.0, 20, 1);
+                int tourId = (int) database.tourDao().insertTour(tour);
+
+                int seats = 0;
+                for (int b = 0; b < BOOKINGS_PER_TOUR; b++) {
+                    int people = 1 + random.nextInt(4);
+                    Booking booking = new Booking(1 + random.nextInt(USERS), tourId, people, people * 100.0);
+                    booking.setBookingStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                    database.bookingDao().insertBooking(booking);
+                    if (!"CANCELLED".equals(booking.getBookingStatus())) {
+                        seats += people;
+                    }
+                }
+                if (i % DRIFT_EVERY == 0) {
+                    seats += 1 + random.nextInt(3);
+                    driftedTours++;
+                }
+                database.tourDao().setBookingCount(tourId, seats);
+            }
+        });
+        Log.i(TAG, "Seeded " + TOURS + " tours in " + (SystemClock.elapsedRealtime() - start) + "ms");
+    }
+
+    @After
+    public void close() {
+        database.close();
+    }
+
+    @Test
+    public void reconcileHundredThousandTours() {
+        long start = SystemClock.elapsedRealtime();
+        CapacityReconciler.Report repair = CapacityReconciler.reconcile(database);
+        long repairMs = SystemClock.elapsedRealtime() - start;
+
+        start = SystemClock.elapsedRealtime();
+        CapacityReconciler.Report clean = CapacityReconciler.reconcile(database);
+        long cleanMs = SystemClock.elapsedRealtime() - start;
+
+        Log.i(TAG, String.format(Locale.US, "%d tours, %d bookings: repaired %d tours in %d ms, clean run %d ms",
+            TOURS, TOURS * BOOKINGS_PER_TOUR, repair.driftedTours, repairMs, cleanMs));
+
+        assertEquals(driftedTours, repair.driftedTours);
+        assertEquals(0, clean.driftedTours);
+        assertTrue("repairing run took " + repairMs + " ms", repairMs < MAX_RUN_MS);
+        assertTrue("clean run took " + cleanMs + " ms", cleanMs < MAX_RUN_MS);
+    }
+}
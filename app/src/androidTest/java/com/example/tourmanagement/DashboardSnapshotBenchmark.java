@@ -0,0 +1,145 @@
+package com.example.tourmanagement;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.dao.BookingDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.DashboardSnapshot;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.RevenueRollup;
+import com.example.tourmanagement.utils.RevenueSeries;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented benchmark of the time-to-data of the dashboard, booking
+ * management and revenue screens: one aggregate query per number (previous
+ * behaviour) versus one DashboardSnapshot query, on an in-memory database
+ * with 20,000 bookings. Reports the average load time of each approach to
+ * logcat under "DashboardBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class DashboardSnapshotBenchmark {
+
+    private static final String TAG = "DashboardBenchmark";
+    private static final int USERS = 200;
+    private static final int TOURS = 100;
+    private static final int BOOKINGS = 20_000;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 50;
+    private static final String[] STATUSES = {"PENDING", "CONFIRMED", "CANCELLED"};
+
+    private TourManagementDatabase database;
+    private long monthStart;
+
+    @Before
+    public void seed() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class).build();
+        long now = System.currentTimeMillis();
+        monthStart = RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, 0, now);
+
+        Random random = new Random(42);
+        database.runInTransaction(() -> {
+            for (int i = 0; i < USERS; i++) {
+                database.userDao().insertUser(new User("user" + i, "secret", "user" + i + "@example.com",
+                    "0900000000", "User " + i));
+            }
+            for (int i = 0; i < TOURS; i++) {
+                Tour tour = new Tour("Tour " + i, null, "Location " + i, now + i * 86_400_000L,
+                    "Description", 100.0, 1_000, 3);
+                tour.setActive(i % 4 != 0);
+                database.tourDao().insertTour(tour);
+            }
+            for (int i = 0; i < BOOKINGS; i++) {
+                int people = 1 + random.nextInt(4);
+                Booking booking = new Booking(1 + random.nextInt(USERS), 1 + random.nextInt(TOURS), people,
+                    people * 100.0);
+                String status = STATUSES[random.nextInt(STATUSES.length)];
+                booking.setBookingStatus(status);
+                booking.setPaymentStatus("CONFIRMED".equals(status) ? "PAID" : "PENDING");
+                booking.setBookingDate(now - random.nextInt(365) * 86_400_000L);
+                database.bookingDao().insertBooking(booking);
+            }
+        });
+        // In-memory databases are built without the app's callbacks, so fill the rollup directly
+        RevenueRollup.rebuild(database);
+    }
+
+    @After
+    public void close() {
+        database.close();
+    }
+
+    @Test
+    public void loadHeadlineNumbers() {
+        for (int i = 0; i < WARMUP; i++) {
+            loadPerQuery();
+            database.dashboardDao().getSnapshot(1, monthStart);
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        int[] perQuery = null;
+        for (int i = 0; i < RUNS; i++) {
+            perQuery = loadPerQuery();
+        }
+        double perQueryMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0 / RUNS;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        DashboardSnapshot snapshot = null;
+        for (int i = 0; i < RUNS; i++) {
+            snapshot = database.dashboardDao().getSnapshot(1, monthStart);
+        }
+        double snapshotMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0 / RUNS;
+
+        Log.i(TAG, String.format(Locale.US,
+            "%d bookings: per-query %.2fms, snapshot %.2fms (%.1fx)",
+            BOOKINGS, perQueryMs, snapshotMs, perQueryMs / snapshotMs));
+
+        BookingDao bookingDao = database.bookingDao();
+        assertEquals(perQuery[0], snapshot.activeTours);
+        assertEquals(perQuery[1], snapshot.userBookings);
+        assertEquals(perQuery[2], snapshot.totalBookings);
+        assertEquals(perQuery[3], snapshot.pendingBookings);
+        assertEquals(perQuery[4], snapshot.confirmedBookings);
+        assertEquals(perQuery[5], snapshot.cancelledBookings);
+        assertEquals(bookingDao.getTotalConfirmedRevenue(), snapshot.totalRevenue, 0.01);
+        assertEquals(bookingDao.getMonthlyRevenue(monthStart), snapshot.monthlyRevenue, 0.01);
+    }
+
+    /**
+     * Loads the numbers of the three screens the way they were loaded before the snapshot
+     */
+    private int[] loadPerQuery() {
+        BookingDao bookingDao = database.bookingDao();
+        // Dashboard
+        int activeTours = database.tourDao().getActiveTours().size();
+        int userBookings = bookingDao.getUserBookingsCount(1);
+        int totalBookings = bookingDao.getTotalBookingsCount();
+        // Booking management
+        int pending = bookingDao.getBookingCountByStatus("PENDING");
+        int confirmed = bookingDao.getBookingCountByStatus("CONFIRMED");
+        int cancelled = bookingDao.getBookingCountByStatus("CANCELLED");
+        // Revenue management
+        bookingDao.getTotalConfirmedRevenue();
+        bookingDao.getMonthlyRevenue(monthStart);
+        bookingDao.getTotalBookingsCount();
+        return new int[] {activeTours, userBookings, totalBookings, pending, confirmed, cancelled};
+    }
+}
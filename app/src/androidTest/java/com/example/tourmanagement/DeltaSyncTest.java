@@ -0,0 +1,234 @@
+package com.example.tourmanagement;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.DeltaSync;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented end-to-end check of the delta sync between two devices.
+ * Two in-memory databases sync through an in-process stand-in server: rows
+ * created on one device reach the other, concurrent bookings of the last
+ * seats are settled by the server, deletions travel as tombstones, batches
+ * split large change sets, a failed run recovers on retry, and passwords
+ * and roles stay on their device. Reports the sync times to logcat under
+ * "DeltaSyncTest".
+ */
+@RunWith(AndroidJUnit4.class)
+public class DeltaSyncTest {
+
+    private static final String TAG = "DeltaSyncTest";
+    private static final int CAPACITY = 5;
+
+    private SyncStandInServer server;
+    private TourManagementDatabase deviceA;
+    private TourManagementDatabase deviceB;
+
+    @Before
+    public void setUp() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        server = new SyncStandInServer();
+        deviceA = openDevice(context);
+        deviceB = openDevice(context);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        deviceA.close();
+        deviceB.close();
+        server.close();
+    }
+
+    @Test
+    public void rowsReachTheOtherDevice() throws IOException {
+        deviceA.userDao().insertUser(new User("sync_a", "secret", "a@example.com", "0900000001", "Device A"));
+        deviceA.tourDao().insertTour(newTour());
+
+        DeltaSync.Report pushed = sync("A shares", deviceA);
+        assertEquals(2, pushed.pushed);
+        DeltaSync.Report pulled = sync("B receives", deviceB);
+        assertEquals(2, pulled.applied);
+        assertEquals(0, pulled.waiting);
+
+        Tour tour = findTour(deviceB, "Sync Bay");
+        assertNotNull(tour);
+        assertEquals(CAPACITY, tour.getNumberOfPeoples());
+        User user = deviceB.userDao().getUserByUsername("sync_a");
+        assertNotNull(user);
+        assertEquals("a@example.com", user.getEmail());
+        assertEquals("Device A", user.getFullName());
+
+        // Nothing changed since: an immediate re-sync moves nothing
+        DeltaSync.Report again = sync("B again", deviceB);
+        assertEquals(0, again.pushed);
+        assertEquals(0, again.pulled);
+    }
+
+    @Test
+    public void credentialsAndRolesStayOnTheDevice() throws IOException {
+        User admin = new User("sync_admin", "secret", "admin@example.com", "0900000002", "Sync Admin");
+        admin.setAdmin(true);
+        admin.setMustChangePassword(true);
+        admin.setProfileImagePath("/data/profile.jpg");
+        deviceA.userDao().insertUser(admin);
+
+        sync("A shares", deviceA);
+        sync("B receives", deviceB);
+
+        User onB = deviceB.userDao().getUserByUsername("sync_admin");
+        assertNotNull(onB);
+        assertEquals("admin@example.com", onB.getEmail());
+        assertEquals("Sync Admin", onB.getFullName());
+        assertNull(onB.getPassword());
+        assertFalse(onB.isAdmin());
+        assertTrue(onB.isMustChangePassword());
+        assertNull(onB.getProfileImagePath());
+        assertNull(deviceB.userDao().authenticateUser("sync_admin", "secret"));
+    }
+
+    @Test
+    public void serverSettlesConcurrentBookingsOfTheLastSeats() throws IOException {
+        deviceA.userDao().insertUser(new User("sync_a", "secret", "a@example.com", "0900000001", "Device A"));
+        deviceA.tourDao().insertTour(newTour());
+        sync("A shares", deviceA);
+        sync("B receives", deviceB);
+
+        // Both devices book 3 of the 5 seats while offline
+        Booking bookingA = book(deviceA);
+        Booking bookingB = book(deviceB);
+
+        DeltaSync.Report first = sync("A books", deviceA);
+        assertEquals(0, first.conflicts);
+        DeltaSync.Report second = sync("B books", deviceB);
+        assertEquals(1, second.conflicts);
+        sync("A catches up", deviceA);
+
+        assertEquals("CANCELLED", deviceB.bookingDao().getBookingByReference(bookingB.getBookingReference()).getBookingStatus());
+        assertEquals("CANCELLED", deviceA.bookingDao().getBookingByReference(bookingB.getBookingReference()).getBookingStatus());
+        assertEquals("PENDING", deviceA.bookingDao().getBookingByReference(bookingA.getBookingReference()).getBookingStatus());
+        assertEquals("PENDING", deviceB.bookingDao().getBookingByReference(bookingA.getBookingReference()).getBookingStatus());
+        assertEquals(3, findTour(deviceA, "Sync Bay").getCurrentBookings());
+        assertEquals(3, findTour(deviceB, "Sync Bay").getCurrentBookings());
+    }
+
+    @Test
+    public void deletionsTravelAsTombstones() throws IOException {
+        deviceA.userDao().insertUser(new User("sync_a", "secret", "a@example.com", "0900000001", "Device A"));
+        deviceA.tourDao().insertTour(newTour());
+        sync("A shares", deviceA);
+        sync("B receives", deviceB);
+        Booking booking = book(deviceB);
+        sync("B books", deviceB);
+        sync("A receives", deviceA);
+        Booking onA = deviceA.bookingDao().getBookingByReference(booking.getBookingReference());
+        assertNotNull(onA);
+
+        deviceA.bookingDao().deleteBooking(onA);
+        DeltaSync.Report deleted = sync("A deletes", deviceA);
+        assertEquals(1, deleted.pushed);
+        sync("B receives deletion", deviceB);
+
+        assertNull(deviceB.bookingDao().getBookingByReference(booking.getBookingReference()));
+    }
+
+    @Test
+    public void largeChangeSetsGoInBatches() throws IOException {
+        int users = 450;
+        deviceA.runInTransaction(() -> {
+            for (int i = 0; i < users; i++) {
+                deviceA.userDao().insertUser(new User("bulk_" + i, "secret", "bulk" + i + "@example.com",
+                    "09" + String.format(Locale.US, "%08d", i), "Bulk " + i));
+            }
+        });
+
+        DeltaSync.Report pushed = sync("A bulk push", deviceA);
+        assertEquals(users, pushed.pushed);
+        assertTrue("pushed in " + server.getPushRequestCount() + " request(s)", server.getPushRequestCount() >= 3);
+        int pullsBefore = server.getPullRequestCount();
+        DeltaSync.Report pulled = sync("B bulk pull", deviceB);
+        assertEquals(users, pulled.applied);
+        assertTrue(server.getPullRequestCount() - pullsBefore >= 3);
+        Log.i(TAG, String.format(Locale.US, "%d request(s) over %d connection(s)",
+            server.getPushRequestCount() + server.getPullRequestCount(), server.getConnectionCount()));
+    }
+
+    @Test
+    public void failedSyncRecoversOnRetry() throws IOException {
+        deviceA.tourDao().insertTour(newTour());
+        server.failNextRequests(1);
+        try {
+            DeltaSync.sync(deviceA, server.getUrl());
+            fail("Sync should fail while the server is unavailable");
+        } catch (IOException expected) {
+            Log.i(TAG, "Failed as expected: " + expected.getMessage());
+        }
+
+        DeltaSync.Report retried = sync("A retries", deviceA);
+        assertEquals(1, retried.pushed);
+        sync("B receives", deviceB);
+        assertNotNull(findTour(deviceB, "Sync Bay"));
+    }
+
+    private DeltaSync.Report sync(String label, TourManagementDatabase device) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+        DeltaSync.Report report = DeltaSync.sync(device, server.getUrl());
+        Log.i(TAG, String.format(Locale.US, "%s: %s in %d ms", label, report.getSummary(),
+            SystemClock.elapsedRealtime() - start));
+        return report;
+    }
+
+    /**
+     * Books 3 seats of the shared tour for the shared user, as the booking screen does
+     */
+    private static Booking book(TourManagementDatabase device) {
+        Tour tour = findTour(device, "Sync Bay");
+        User user = device.userDao().getUserByUsername("sync_a");
+        Booking booking = new Booking(user.getId(), tour.getId(), 3, 3 * tour.getTourCost());
+        device.runInTransaction(() -> {
+            device.bookingDao().insertBooking(booking);
+            device.tourDao().updateBookingCount(tour.getId(), 3);
+        });
+        return booking;
+    }
+
+    private static Tour findTour(TourManagementDatabase device, String name) {
+        List<Tour> tours = device.tourDao().getAllTours();
+        for (Tour tour : tours) {
+            if (name.equals(tour.getTourName())) {
+                return device.tourDao().getTourById(tour.getId());
+            }
+        }
+        return null;
+    }
+
+    private static Tour newTour() {
+        return new Tour("Sync Bay", "", "Ha Long", System.currentTimeMillis() + 86_400_000L,
+            "Shared between devices", 100.0, CAPACITY, 2);
+    }
+
+    private static TourManagementDatabase openDevice(Context context) {
+        return Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class)
+            .addCallback(TourManagementDatabase.SYNC_CALLBACK)
+            .build();
+    }
+}
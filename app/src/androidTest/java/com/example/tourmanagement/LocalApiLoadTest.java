@@ -0,0 +1,288 @@
+package com.example.tourmanagement;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.LocalApiServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented load test of the local API: several keep-alive clients send a
+ * mix of tour searches, availability checks and ticket lookups, and the
+ * throughput and p50/p99 latency are reported to logcat under
+ * "LocalApiLoadTest". Also checks that concurrent bookings of the last seats
+ * never overbook, and the token and gzip handling.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LocalApiLoadTest {
+
+    private static final String TAG = "LocalApiLoadTest";
+    private static final String DATABASE_NAME = "local-api-loadtest.db";
+    private static final String TOKEN = "test-token";
+    private static final String[] LOCATIONS = {"Ha Long", "Hoi An", "Da Lat", "Sapa", "Hue", "Nha Trang"};
+    private static final int TOURS = 200;
+    private static final int BOOKINGS = 500;
+    private static final int CLIENTS = 8;
+    private static final int REQUESTS_PER_CLIENT = 500;
+    private static final int WARMUP_REQUESTS = 200;
+    private static final long MAX_P99_MS = 500;
+
+    private Context context;
+    private TourManagementDatabase database;
+    private LocalApiServer server;
+    private String baseUrl;
+    private int userId;
+    private final List<String> references = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        database = Room.databaseBuilder(context, TourManagementDatabase.class, DATABASE_NAME).build();
+        long now = System.currentTimeMillis();
+
+        database.runInTransaction(() -> {
+            userId = (int) database.userDao().insertUser(new User("front_desk", "secret", "desk@example.com",
+                "0900000000", "Front Desk"));
+            for (int i = 0; i < TOURS; i++) {
+                String location = LOCATIONS[i % LOCATIONS.length];
+                database.tourDao().insertTour(new Tour(location + " Tour " + i, "", location,
+                    now + (i + 1) * 86_400_000L, "Load test tour", 50 + i, 40, 2));
+            }
+            for (int i = 0; i < BOOKINGS; i++) {
+                Booking booking = new Booking(userId, 1 + i % TOURS, 1, 100.0);
+                booking.setBookingReference("BKLOAD" + i);
+                database.bookingDao().insertBooking(booking);
+                references.add(booking.getBookingReference());
+            }
+        });
+
+        server = new LocalApiServer(context, database, 0, TOKEN);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getListeningPort() + "/api";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        database.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void mixedLoadReportsThroughputAndP99() throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            assertEquals(200, request("GET", mixedPath(i), null, false, TOKEN).status);
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            final int client = c;
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[REQUESTS_PER_CLIENT];
+                start.await();
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    long begin = System.nanoTime();
+                    Reply reply = request("GET", mixedPath(client * REQUESTS_PER_CLIENT + i), null, false, TOKEN);
+                    latencies[i] = System.nanoTime() - begin;
+                    assertEquals(200, reply.status);
+                }
+                return latencies;
+            }));
+        }
+
+        long begin = SystemClock.elapsedRealtime();
+        start.countDown();
+        long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        for (int c = 0; c < CLIENTS; c++) {
+            System.arraycopy(futures.get(c).get(), 0, all, c * REQUESTS_PER_CLIENT, REQUESTS_PER_CLIENT);
+        }
+        long elapsedMs = SystemClock.elapsedRealtime() - begin;
+        clients.shutdown();
+
+        Arrays.sort(all);
+        double p50 = all[all.length / 2] / 1e6;
+        double p99 = all[(int) Math.ceil(all.length * 0.99) - 1] / 1e6;
+        double perSecond = all.length * 1000.0 / Math.max(1, elapsedMs);
+        Log.i(TAG, String.format(Locale.US,
+            "%d requests from %d keep-alive clients in %d ms: %.0f req/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+            all.length, CLIENTS, elapsedMs, perSecond, p50, p99, all[all.length - 1] / 1e6));
+
+        assertTrue("p99 was " + p99 + " ms", p99 < MAX_P99_MS);
+    }
+
+    @Test
+    public void concurrentBookingsNeverOverbook() throws Exception {
+        int tourId = (int) database.tourDao().insertTour(new Tour("Last Seats", "", "Phu Quoc",
+            System.currentTimeMillis() + 86_400_000L, "", 120.0, 10, 1));
+        int attempts = 20;
+
+        ExecutorService clients = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Reply>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            Callable<Reply> book = () -> {
+                start.await();
+                String body = new JSONObject().put("userId", userId).put("tourId", tourId).put("people", 1).toString();
+                return request("POST", "/bookings", body, false, TOKEN);
+            };
+            futures.add(clients.submit(book));
+        }
+        start.countDown();
+
+        int created = 0;
+        int refused = 0;
+        String reference = null;
+        for (Future<Reply> future : futures) {
+            Reply reply = future.get();
+            if (reply.status == 201) {
+                created++;
+                reference = new JSONObject(reply.body).getString("bookingReference");
+            } else {
+                assertEquals(409, reply.status);
+                refused++;
+            }
+        }
+        clients.shutdown();
+        Log.i(TAG, String.format(Locale.US, "%d bookings of 10 seats: %d created, %d refused", attempts, created, refused));
+
+        assertEquals(10, created);
+        assertEquals(10, refused);
+        assertEquals(10, database.tourDao().getTourById(tourId).getCurrentBookings());
+        assertEquals(10, database.bookingDao().getBookingsByTourId(tourId).size());
+
+        Reply ticket = request("GET", "/tickets/" + reference, null, false, TOKEN);
+        assertEquals(200, ticket.status);
+        assertEquals(tourId, new JSONObject(ticket.body).getJSONObject("tour").getInt("id"));
+    }
+
+    @Test
+    public void tokenAndGzipAreHonoured() throws Exception {
+        assertEquals(401, request("GET", "/tours", null, false, "wrong").status);
+        assertEquals(401, request("GET", "/tours", null, false, null).status);
+
+        Reply tours = request("GET", "/tours?q=hoi%20an&limit=5", null, false, TOKEN);
+        assertEquals("gzip", tours.encoding);
+        assertEquals(5, new JSONObject(tours.body).getJSONArray("tours").length());
+
+        String body = new JSONObject().put("userId", userId).put("tourId", 1).put("people", 2).toString();
+        Reply booked = request("POST", "/bookings", body, true, TOKEN);
+        assertEquals(201, booked.status);
+        assertEquals(2, new JSONObject(booked.body).getInt("people"));
+
+        assertEquals(404, request("GET", "/tickets/NOPE", null, false, TOKEN).status);
+        assertEquals(400, request("POST", "/bookings", "not json", false, TOKEN).status);
+    }
+
+    /**
+     * Search, list, availability and ticket lookups in turn
+     */
+    private String mixedPath(int i) {
+        switch (i % 4) {
+            case 0:
+                return "/tours?q=" + LOCATIONS[i % LOCATIONS.length].replace(" ", "%20") + "&limit=10";
+            case 1:
+                return "/tours/" + (1 + i % TOURS) + "/availability";
+            case 2:
+                return "/tickets/" + references.get(i % references.size());
+            default:
+                return "/tours?limit=20";
+        }
+    }
+
+    /**
+     * Sends one request, asking for a gzipped response, and reads the whole
+     * body so the connection can be reused
+     */
+    private Reply request(String method, String path, String body, boolean gzipBody, String token) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        if (token != null) {
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            if (gzipBody) {
+                ByteArrayOutputStream packed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(packed)) {
+                    gzip.write(bytes);
+                }
+                bytes = packed.toByteArray();
+                connection.setRequestProperty("Content-Encoding", "gzip");
+            }
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+
+        int status = connection.getResponseCode();
+        String encoding = connection.getContentEncoding();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null && "gzip".equals(encoding)) {
+            in = new GZIPInputStream(in);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                for (int n; (n = stream.read(buffer)) > 0; ) {
+                    out.write(buffer, 0, n);
+                }
+            }
+        }
+        return new Reply(status, encoding, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static final class Reply {
+        final int status;
+        final String encoding;
+        final String body;
+
+        Reply(int status, String encoding, String body) {
+            this.status = status;
+            this.encoding = encoding;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tourmanagement;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import android.widget.ImageView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.utils.QrCodeRenderer;
+import com.google.zxing.BarcodeFormat;
+import com.journeyapps.barcodescanner.BarcodeEncoder;
+
+import java.util.Locale;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented benchmark comparing QR rendering for twenty rapid +/- taps on
+ * the booking screen: encoding on every tap on the main thread (previous
+ * behaviour) versus QrCodeRenderer with debounce, cache and bitmap reuse.
+ * Reports encode latency and GC count to logcat under "QrBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class QrCodeRendererBenchmark {
+
+    private static final String TAG = "QrBenchmark";
+    private static final int TAPS = 20;
+    private static final int SIZE_PX = 400;
+    private static final long TAP_INTERVAL_MS = 60;
+
+    @Test
+    public void tapPlusMinusTwentyTimes() throws Exception {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+
+        // Previous behaviour: encode a new bitmap on every tap
+        BarcodeEncoder encoder = new BarcodeEncoder();
+        long gcBefore = gcCount();
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < TAPS; i++) {
+            Bitmap bitmap = encoder.encodeBitmap(paymentContent(i), BarcodeFormat.QR_CODE, SIZE_PX, SIZE_PX);
+            assertNotNull(bitmap);
+        }
+        double baselineMs = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000.0;
+        long baselineGcs = gcCount() - gcBefore;
+
+        // Renderer: debounced background encodes into an ImageView
+        QrCodeRenderer renderer = QrCodeRenderer.getInstance();
+        ImageView[] view = new ImageView[1];
+        instrumentation.runOnMainSync(() -> view[0] = new ImageView(context));
+
+        long encodesBefore = renderer.getEncodeCount();
+        gcBefore = gcCount();
+        for (int i = 0; i < TAPS; i++) {
+            final String content = paymentContent(i % 2 == 0 ? i : i - 1);
+            instrumentation.runOnMainSync(() ->
+                renderer.render(view[0], content, SIZE_PX, QrCodeRenderer.DEFAULT_DEBOUNCE_MS));
+            SystemClock.sleep(TAP_INTERVAL_MS);
+        }
+        SystemClock.sleep(QrCodeRenderer.DEFAULT_DEBOUNCE_MS * 4);
+        instrumentation.waitForIdleSync();
+
+        long rendererEncodes = renderer.getEncodeCount() - encodesBefore;
+        long rendererGcs = gcCount() - gcBefore;
+
+        Log.i(TAG, String.format(Locale.US,
+            "baseline: %d encodes, %.1fms total, %.1fms/encode, gcs=%d",
+            TAPS, baselineMs, baselineMs / TAPS, baselineGcs));
+        Log.i(TAG, String.format(Locale.US,
+            "renderer: %d encodes, gcs=%d, %s",
+            rendererEncodes, rendererGcs, renderer.getSummary()));
+
+        assertTrue("debounce should collapse rapid taps", rendererEncodes < TAPS);
+        instrumentation.runOnMainSync(() -> {
+            assertTrue(view[0].getDrawable() instanceof BitmapDrawable);
+            renderer.cancel(view[0]);
+        });
+    }
+
+    private static String paymentContent(int tap) {
+        int people = 1 + tap / 2;
+        return "2|1|0896210393|TOUR MANAGEMENT|" + (people * 2_400_000L) + "|108|0|Tour%20-%20" + people + "|transfer";
+    }
+
+    private static long gcCount() {
+        String value = Debug.getRuntimeStat("art.gc.gc-count");
+        return value != null ? Long.parseLong(value) : -1;
+    }
+}
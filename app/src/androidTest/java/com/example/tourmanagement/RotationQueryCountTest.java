@@ -0,0 +1,103 @@
+package com.example.tourmanagement;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.activity.BookingManagementActivity;
+import com.example.tourmanagement.activity.DashboardActivity;
+import com.example.tourmanagement.activity.RevenueManagementActivity;
+import com.example.tourmanagement.activity.SearchToursActivity;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.utils.SessionStore;
+
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented check that the ViewModel-backed screens do not query the
+ * database again when recreated by a configuration change. Counts the SQL
+ * statements of the first load and of a recreation (as on rotation) of each
+ * screen and reports them to logcat under "RotationQueries". Needs a debug
+ * build, where the database counts statements.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RotationQueryCountTest {
+
+    private static final String TAG = "RotationQueries";
+    private static final long SETTLE_POLL_MS = 200;
+    private static final long SETTLE_TIMEOUT_MS = 10_000;
+
+    @Before
+    public void signIn() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        TourManagementDatabase.getDatabase(context);
+        SessionStore.getInstance(context).signInAdmin();
+    }
+
+    @Test
+    public void dashboard() {
+        measure(DashboardActivity.class);
+    }
+
+    @Test
+    public void bookingManagement() {
+        measure(BookingManagementActivity.class);
+    }
+
+    @Test
+    public void revenueManagement() {
+        measure(RevenueManagementActivity.class);
+    }
+
+    @Test
+    public void searchTours() {
+        measure(SearchToursActivity.class);
+    }
+
+    private <A extends Activity> void measure(Class<A> activityClass) {
+        long start = TourManagementDatabase.getStatementCount();
+        try (ActivityScenario<A> scenario = ActivityScenario.launch(activityClass)) {
+            long loaded = settle();
+            scenario.recreate();
+            long recreated = settle();
+
+            long loadStatements = loaded - start;
+            long rotationStatements = recreated - loaded;
+            Log.i(TAG, String.format(Locale.US, "%s: %d statements on first load, %d on recreation",
+                activityClass.getSimpleName(), loadStatements, rotationStatements));
+            assertTrue(activityClass.getSimpleName() + " loaded nothing", loadStatements > 0);
+            assertTrue(activityClass.getSimpleName() + " reloaded on recreation: " + rotationStatements,
+                rotationStatements < loadStatements);
+        }
+    }
+
+    /**
+     * Waits until background loads finish, i.e. the statement count stops moving
+     */
+    private long settle() {
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        long deadline = SystemClock.elapsedRealtime() + SETTLE_TIMEOUT_MS;
+        long count = TourManagementDatabase.getStatementCount();
+        while (SystemClock.elapsedRealtime() < deadline) {
+            SystemClock.sleep(SETTLE_POLL_MS);
+            long next = TourManagementDatabase.getStatementCount();
+            if (next == count) {
+                break;
+            }
+            count = next;
+        }
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        return TourManagementDatabase.getStatementCount();
+    }
+}
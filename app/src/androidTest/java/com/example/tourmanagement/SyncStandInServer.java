@@ -0,0 +1,329 @@
+package com.example.tourmanagement;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Minimal in-process sync server for instrumented tests.
+ * Speaks the DeltaSync protocol over HTTP/1.1 with keep-alive and gzip
+ * bodies. Keeps the latest version of every row in one change feed ordered
+ * by server position, and is authoritative for seats: a pushed booking that
+ * would overbook its tour is cancelled, and every booking change re-emits
+ * its tour with the booked seats recounted. Can be told to fail requests.
+ */
+class SyncStandInServer implements AutoCloseable {
+
+    private static final String[] ACTIVE_STATUSES = {"PENDING", "CONFIRMED"};
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger pushRequests = new AtomicInteger();
+    private final AtomicInteger pullRequests = new AtomicInteger();
+
+    /**
+     * Latest change of every row by server position, and the position of every global ID
+     */
+    private final TreeMap<Long, JSONObject> feed = new TreeMap<>();
+    private final Map<String, Long> positions = new HashMap<>();
+    private long lastSeq;
+
+    /**
+     * Number of upcoming requests to answer with 503
+     */
+    private volatile int failures;
+
+    SyncStandInServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptLoop, "sync-stand-in");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/api";
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    int getPushRequestCount() {
+        return pushRequests.get();
+    }
+
+    int getPullRequestCount() {
+        return pullRequests.get();
+    }
+
+    void failNextRequests(int count) {
+        failures = count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread handler = new Thread(() -> serve(socket), "sync-stand-in-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Serves requests on one connection until the client closes it
+     */
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = s.getOutputStream();
+            String requestLine;
+            while ((requestLine = readLine(in)) != null && !requestLine.isEmpty()) {
+                Map<String, String> headers = new HashMap<>();
+                String line;
+                while ((line = readLine(in)) != null && !line.isEmpty()) {
+                    int colon = line.indexOf(':');
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.US), line.substring(colon + 1).trim());
+                }
+                int length = headers.containsKey("content-length") ? Integer.parseInt(headers.get("content-length")) : 0;
+                byte[] body = new byte[length];
+                for (int read = 0; read < length; ) {
+                    int n = in.read(body, read, length - read);
+                    if (n < 0) {
+                        return;
+                    }
+                    read += n;
+                }
+                respond(out, requestLine, headers, body);
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private void respond(OutputStream out, String requestLine, Map<String, String> headers, byte[] body)
+            throws IOException {
+        String[] parts = requestLine.split(" ");
+        String target = parts[1];
+        int status = 200;
+        JSONObject answer;
+        try {
+            if (failures > 0) {
+                failures--;
+                status = 503;
+                answer = new JSONObject().put("error", "unavailable");
+            } else if ("POST".equals(parts[0]) && target.startsWith("/api/sync/push")) {
+                pushRequests.incrementAndGet();
+                if (!"gzip".equals(headers.get("content-encoding"))) {
+                    status = 415;
+                    answer = new JSONObject().put("error", "gzip body expected");
+                } else {
+                    answer = push(new JSONObject(new String(gunzip(body), StandardCharsets.UTF_8)));
+                }
+            } else if ("GET".equals(parts[0]) && target.startsWith("/api/sync/pull")) {
+                pullRequests.incrementAndGet();
+                Map<String, String> query = parseQuery(target);
+                answer = pull(query.containsKey("since") ? Long.parseLong(query.get("since")) : 0,
+                    Integer.parseInt(query.get("limit")));
+            } else {
+                status = 404;
+                answer = new JSONObject().put("error", "not found");
+            }
+        } catch (JSONException e) {
+            status = 400;
+            answer = new JSONObject();
+        }
+
+        byte[] payload = answer.toString().getBytes(StandardCharsets.UTF_8);
+        boolean gzip = "gzip".equals(headers.get("accept-encoding"));
+        if (gzip) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream zip = new GZIPOutputStream(buffer)) {
+                zip.write(payload);
+            }
+            payload = buffer.toByteArray();
+        }
+        String head = "HTTP/1.1 " + status + " " + (status == 200 ? "OK" : "Error") + "\r\n" +
+            "Content-Type: application/json\r\n" +
+            (gzip ? "Content-Encoding: gzip\r\n" : "") +
+            "Content-Length: " + payload.length + "\r\n" +
+            "Connection: keep-alive\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(payload);
+        out.flush();
+    }
+
+    private synchronized JSONObject push(JSONObject request) throws JSONException {
+        JSONArray changes = request.getJSONArray("changes");
+        int conflicts = 0;
+        for (int i = 0; i < changes.length(); i++) {
+            JSONObject change = changes.getJSONObject(i);
+            String table = change.getString("table");
+            JSONObject row = change.optJSONObject("row");
+            if ("bookings".equals(table) && row != null && isActive(row) && !fits(change.getString("id"), row)) {
+                // Another device got the last seats first
+                row.put("bookingStatus", "CANCELLED");
+                row.put("paymentStatus", "CANCELLED");
+                conflicts++;
+            }
+            if ("tours".equals(table) && row != null) {
+                // Seats are counted here, not taken from the device
+                row.put("currentBookings", bookedSeats(change.getString("id")));
+            }
+            JSONObject previous = latest(change.getString("id"));
+            store(change);
+            if ("bookings".equals(table)) {
+                recountTour(row != null ? row : previous != null ? previous.optJSONObject("row") : null);
+            }
+        }
+        return new JSONObject().put("accepted", changes.length()).put("conflicts", conflicts);
+    }
+
+    private synchronized JSONObject pull(long since, int limit) throws JSONException {
+        JSONArray changes = new JSONArray();
+        long token = since;
+        for (Map.Entry<Long, JSONObject> entry : feed.tailMap(since, false).entrySet()) {
+            if (changes.length() == limit) {
+                break;
+            }
+            changes.put(new JSONObject(entry.getValue().toString()).put("seq", entry.getKey()));
+            token = entry.getKey();
+        }
+        return new JSONObject()
+            .put("changes", changes)
+            .put("token", String.valueOf(token))
+            .put("hasMore", feed.higherKey(token) != null);
+    }
+
+    private void store(JSONObject change) throws JSONException {
+        String id = change.getString("id");
+        Long previous = positions.remove(id);
+        if (previous != null) {
+            feed.remove(previous);
+        }
+        lastSeq++;
+        feed.put(lastSeq, new JSONObject(change.toString()));
+        positions.put(id, lastSeq);
+    }
+
+    private JSONObject latest(String id) {
+        Long position = positions.get(id);
+        return position != null ? feed.get(position) : null;
+    }
+
+    private boolean fits(String bookingId, JSONObject booking) throws JSONException {
+        JSONObject tour = latest(booking.getString("tourId"));
+        if (tour == null || tour.optJSONObject("row") == null) {
+            return true;
+        }
+        int capacity = tour.getJSONObject("row").getInt("numberOfPeoples");
+        int others = bookedSeats(booking.getString("tourId"), bookingId);
+        return others + booking.getInt("numberOfPeople") <= capacity;
+    }
+
+    private void recountTour(JSONObject booking) throws JSONException {
+        if (booking == null) {
+            return;
+        }
+        JSONObject tour = latest(booking.getString("tourId"));
+        if (tour == null || tour.optJSONObject("row") == null) {
+            return;
+        }
+        JSONObject updated = new JSONObject(tour.toString());
+        updated.getJSONObject("row").put("currentBookings", bookedSeats(booking.getString("tourId")));
+        store(updated);
+    }
+
+    private int bookedSeats(String tourId) throws JSONException {
+        return bookedSeats(tourId, null);
+    }
+
+    private int bookedSeats(String tourId, String exceptBookingId) throws JSONException {
+        int seats = 0;
+        for (JSONObject change : feed.values()) {
+            JSONObject row = change.optJSONObject("row");
+            if ("bookings".equals(change.getString("table")) && row != null && !change.optBoolean("deleted")
+                    && tourId.equals(row.optString("tourId")) && isActive(row)
+                    && !change.getString("id").equals(exceptBookingId)) {
+                seats += row.getInt("numberOfPeople");
+            }
+        }
+        return seats;
+    }
+
+    private static boolean isActive(JSONObject booking) {
+        String status = booking.optString("bookingStatus");
+        for (String active : ACTIVE_STATUSES) {
+            if (active.equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> parseQuery(String target) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        int start = target.indexOf('?');
+        if (start < 0) {
+            return query;
+        }
+        for (String pair : target.substring(start + 1).split("&")) {
+            int equals = pair.indexOf('=');
+            query.put(pair.substring(0, equals), URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+        }
+        return query;
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new java.io.ByteArrayInputStream(data))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int end = line.length();
+                return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+            }
+            line.append((char) c);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+}
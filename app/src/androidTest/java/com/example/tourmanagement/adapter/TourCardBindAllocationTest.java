@@ -0,0 +1,94 @@
+package com.example.tourmanagement.adapter;
+
+import android.content.Context;
+import android.os.Debug;
+import android.util.Log;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented before/after allocation check of binding tour cards. "Before"
+ * formats the card while binding, as onBindViewHolder did before card models
+ * were precomputed; "after" binds the precomputed TourCardModel. Reports the
+ * objects allocated per bind to logcat under "CardBindAllocations".
+ */
+@RunWith(AndroidJUnit4.class)
+public class TourCardBindAllocationTest {
+
+    private static final String TAG = "CardBindAllocations";
+    private static final int TOURS = 50;
+    private static final int HOLDERS = 8;
+    private static final int WARMUP = 200;
+    private static final int BINDS = 2_000;
+
+    @Test
+    public void bindingPrecomputedCardsAllocatesLessThanFormattingOnBind() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        long now = System.currentTimeMillis();
+
+        List<Tour> tours = new ArrayList<>(TOURS);
+        for (int i = 0; i < TOURS; i++) {
+            Tour tour = new Tour("Tour " + i, "", i % 2 == 0 ? "Hoi An" : "Da Lat",
+                now + (i + 1) * 86_400_000L, "", 100.0 + i, 20, 1 + i % 5);
+            tour.setId(i + 1);
+            tour.setCurrentBookings(i % 21);
+            tours.add(tour);
+        }
+        List<Discount> discounts = Collections.singletonList(new Discount(null, "Summer",
+            Discount.DiscountType.PERCENTAGE, 10, now - 86_400_000L, now + 86_400_000L));
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            TourAdapter adapter = new TourAdapter(context, null);
+            FrameLayout parent = new FrameLayout(context);
+            TourAdapter.TourViewHolder[] holders = new TourAdapter.TourViewHolder[HOLDERS];
+            for (int i = 0; i < HOLDERS; i++) {
+                holders[i] = adapter.onCreateViewHolder(parent, 0);
+            }
+            TourCardModelFactory factory = new TourCardModelFactory(context);
+            List<TourCardModel> cards = factory.build(tours, discounts);
+
+            // Before: every bind formats its own card
+            for (int i = 0; i < WARMUP; i++) {
+                holders[i % HOLDERS].bind(factory.build(tours.subList(i % TOURS, i % TOURS + 1), discounts).get(0));
+            }
+            Debug.startAllocCounting();
+            Debug.resetThreadAllocCount();
+            for (int i = 0; i < BINDS; i++) {
+                holders[i % HOLDERS].bind(factory.build(tours.subList(i % TOURS, i % TOURS + 1), discounts).get(0));
+            }
+            int before = Debug.getThreadAllocCount();
+
+            // After: binds only assign the precomputed fields
+            for (int i = 0; i < WARMUP; i++) {
+                holders[i % HOLDERS].bind(cards.get(i % TOURS));
+            }
+            Debug.resetThreadAllocCount();
+            for (int i = 0; i < BINDS; i++) {
+                holders[i % HOLDERS].bind(cards.get(i % TOURS));
+            }
+            int after = Debug.getThreadAllocCount();
+            Debug.stopAllocCounting();
+
+            Log.i(TAG, String.format(Locale.US, "%d binds: %.1f objects per bind formatting on bind, %.1f precomputed",
+                BINDS, before / (double) BINDS, after / (double) BINDS));
+            assertTrue("formatting on bind allocated nothing", before > 0);
+            assertTrue("precomputed binds allocated " + after + " objects, formatting on bind " + before,
+                after * 2 < before);
+        });
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.tourmanagement.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.BookingEvent;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for the booking event log on an in-memory database:
+ * inserts and status updates append one event per transition in a fixed
+ * order, repeated or unrelated updates append nothing, a rolled back update
+ * leaves no event, and the 17 to 18 migration backfills the history of live
+ * and archived bookings before installing the triggers.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BookingEventsTriggerTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private TourManagementDatabase database;
+    private SupportSQLiteDatabase db;
+    private long now;
+    private int userId;
+    private int tourId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class)
+            .addCallback(TourManagementDatabase.BOOKING_EVENTS_CALLBACK)
+            .build();
+        db = database.getOpenHelper().getWritableDatabase();
+        now = System.currentTimeMillis();
+        userId = (int) database.userDao().insertUser(new User("traveller", "secret", "traveller@example.com",
+            "0900000000", "Traveller"));
+        tourId = (int) database.tourDao().insertTour(new Tour("Tour", "", "Hue", now + 30 * DAY_MS, "", 100.0,
+            1_000, 1));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void statusUpdatesAppendOneEventPerTransition() {
+        long bookingDate = now - DAY_MS;
+        int id = book(3, 300.0, "PENDING", "PENDING", bookingDate);
+        assertTypes(id, BookingEvent.TYPE_CREATED);
+
+        long updatedFrom = System.currentTimeMillis();
+        database.bookingDao().updateBookingAndPaymentStatus(id, "CONFIRMED", "PAID");
+        assertTypes(id, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_CONFIRMED, BookingEvent.TYPE_PAID);
+
+        // Writing the same status again is not a transition
+        database.bookingDao().updateBookingStatus(id, "CONFIRMED");
+        database.bookingDao().updatePaymentStatus(id, "PAID");
+        assertTypes(id, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_CONFIRMED, BookingEvent.TYPE_PAID);
+
+        database.bookingDao().updateBookingStatus(id, "CANCELLED");
+        List<BookingEvent> events = database.bookingEventDao().getEventsForBooking(id);
+        assertTypes(id, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_CONFIRMED, BookingEvent.TYPE_PAID,
+            BookingEvent.TYPE_CANCELLED);
+
+        assertEquals(bookingDate, events.get(0).getOccurredAt());
+        for (BookingEvent event : events) {
+            assertEquals(tourId, event.getTourId());
+            assertEquals(bookingDate, event.getBookingCreatedAt());
+            assertEquals(300.0, event.getAmount(), 0.001);
+            assertEquals(3, event.getPeople());
+        }
+        for (BookingEvent event : events.subList(1, events.size())) {
+            // Dated by SQLite; allow for the clock read rounding to the millisecond
+            assertTrue(event.getOccurredAt() >= updatedFrom - 1);
+        }
+    }
+
+    @Test
+    public void bookingsWrittenInAFinalStateLogTheirHistory() {
+        int paid = book(2, 200.0, "CONFIRMED", "PAID", now);
+        int cancelled = book(1, 100.0, "CANCELLED", "CANCELLED", now);
+
+        assertTypes(paid, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_CONFIRMED, BookingEvent.TYPE_PAID);
+        assertTypes(cancelled, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_CANCELLED);
+        for (BookingEvent event : database.bookingEventDao().getEventsForBooking(paid)) {
+            assertEquals(now, event.getOccurredAt());
+        }
+    }
+
+    @Test
+    public void wholeRowUpdatesLogOnlyStatusChanges() {
+        int id = book(2, 200.0, "PENDING", "PENDING", now);
+        Booking booking = database.bookingDao().getBookingById(id);
+
+        booking.setNotes("Window seat");
+        booking.setNumberOfPeople(3);
+        database.bookingDao().updateBooking(booking);
+        assertTypes(id, BookingEvent.TYPE_CREATED);
+
+        booking.setPaymentStatus("PAID");
+        database.bookingDao().updateBooking(booking);
+        assertTypes(id, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_PAID);
+
+        // Back to pending is not a logged transition
+        booking.setBookingStatus("CONFIRMED");
+        database.bookingDao().updateBooking(booking);
+        booking.setBookingStatus("PENDING");
+        database.bookingDao().updateBooking(booking);
+        assertTypes(id, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_PAID, BookingEvent.TYPE_CONFIRMED);
+    }
+
+    @Test
+    public void rolledBackUpdateLeavesNoEvent() {
+        int id = book(2, 200.0, "PENDING", "PENDING", now);
+        long latest = database.bookingEventDao().getLatestSeq();
+
+        try {
+            database.runInTransaction(() -> {
+                database.bookingDao().updateBookingAndPaymentStatus(id, "CONFIRMED", "PAID");
+                throw new IllegalStateException("Interrupted");
+            });
+            fail("The update should fail");
+        } catch (IllegalStateException expected) {
+            // The events rolled back with the booking
+        }
+
+        assertEquals("PENDING", database.bookingDao().getBookingById(id).getBookingStatus());
+        assertEquals(latest, database.bookingEventDao().getLatestSeq());
+        assertTypes(id, BookingEvent.TYPE_CREATED);
+    }
+
+    @Test
+    public void migrationBackfillsHistoryAndInstallsTriggers() {
+        int paid = book(2, 200.0, "CONFIRMED", "PAID", now - 2 * DAY_MS);
+        int pending = book(1, 100.0, "PENDING", "PENDING", now - 3 * DAY_MS);
+        int cancelled = book(1, 50.0, "CANCELLED", "CANCELLED", now - DAY_MS);
+        int archived = book(4, 400.0, "CONFIRMED", "PAID", now - 500 * DAY_MS);
+        List<Integer> ids = Collections.singletonList(archived);
+        database.bookingArchiveDao().copyToArchive(ids);
+        database.bookingArchiveDao().deleteFromBookings(ids);
+
+        // Back to the version 17 schema: no event tables, no triggers
+        for (String[] trigger : rows("SELECT name FROM sqlite_master WHERE type = 'trigger' " +
+                "AND name LIKE 'booking_events_%'")) {
+            db.execSQL("DROP TRIGGER " + trigger[0]);
+        }
+        db.execSQL("DROP TABLE booking_events");
+        db.execSQL("DROP TABLE booking_event_offsets");
+
+        TourManagementDatabase.MIGRATION_17_18.migrate(db);
+
+        // Oldest booking first, transitions in a fixed order, all dated at the booking date
+        List<String> expected = Arrays.asList(
+            archived + " " + BookingEvent.TYPE_CREATED, archived + " " + BookingEvent.TYPE_CONFIRMED,
+            archived + " " + BookingEvent.TYPE_PAID,
+            pending + " " + BookingEvent.TYPE_CREATED,
+            paid + " " + BookingEvent.TYPE_CREATED, paid + " " + BookingEvent.TYPE_CONFIRMED,
+            paid + " " + BookingEvent.TYPE_PAID,
+            cancelled + " " + BookingEvent.TYPE_CREATED, cancelled + " " + BookingEvent.TYPE_CANCELLED);
+        List<BookingEvent> events = database.bookingEventDao().getEventsAfter(0, 100);
+        List<String> actual = new ArrayList<>();
+        for (BookingEvent event : events) {
+            actual.add(event.getBookingId() + " " + event.getType());
+            assertEquals(event.getBookingCreatedAt(), event.getOccurredAt());
+        }
+        assertEquals(expected, actual);
+        assertEquals(400.0, events.get(0).getAmount(), 0.001);
+        // Consumers start from the first event
+        assertTrue(rows("SELECT consumer FROM booking_event_offsets").isEmpty());
+
+        // Triggers are live after the migration
+        assertEquals(2, rows("SELECT name FROM sqlite_master WHERE type = 'trigger' " +
+            "AND name LIKE 'booking_events_%'").size());
+        database.bookingDao().updateBookingAndPaymentStatus(pending, "CONFIRMED", "PAID");
+        assertTypes(pending, BookingEvent.TYPE_CREATED, BookingEvent.TYPE_CONFIRMED, BookingEvent.TYPE_PAID);
+    }
+
+    private int book(int people, double amount, String status, String paymentStatus, long bookingDate) {
+        Booking booking = new Booking(userId, tourId, people, amount);
+        booking.setBookingStatus(status);
+        booking.setPaymentStatus(paymentStatus);
+        booking.setBookingDate(bookingDate);
+        return (int) database.bookingDao().insertBooking(booking);
+    }
+
+    private void assertTypes(int bookingId, String... types) {
+        List<String> actual = new ArrayList<>();
+        for (BookingEvent event : database.bookingEventDao().getEventsForBooking(bookingId)) {
+            actual.add(event.getType());
+        }
+        assertEquals(Arrays.asList(types), actual);
+    }
+
+    private List<String[]> rows(String sql) {
+        List<String[]> rows = new ArrayList<>();
+        try (Cursor cursor = db.query(sql)) {
+            while (cursor.moveToNext()) {
+                String[] row = new String[cursor.getColumnCount()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = cursor.getString(i);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.tourmanagement.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for the revenue_daily rollup on an in-memory database:
+ * after inserts, status changes, edits, deletes and archiving, and after the
+ * 14 to 15 migration backfill, the table must equal a full GROUP BY over the
+ * confirmed live and archived bookings.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RevenueRollupTriggerTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Rollup recomputed from scratch, in the same shape as revenue_daily
+     */
+    private static final String EXPECTED = "SELECT date(bookingDate / 1000, 'unixepoch', 'localtime') AS day, tourId, " +
+        "printf('%.2f', SUM(totalAmount)), COUNT(*), SUM(numberOfPeople) FROM (" +
+        "SELECT tourId, totalAmount, numberOfPeople, bookingDate FROM bookings WHERE bookingStatus = 'CONFIRMED' " +
+        "UNION ALL SELECT tourId, totalAmount, numberOfPeople, bookingDate FROM bookings_archive " +
+        "WHERE bookingStatus = 'CONFIRMED') GROUP BY 1, 2 ORDER BY 1, 2";
+    private static final String ACTUAL = "SELECT day, tourId, printf('%.2f', revenue), bookingCount, peopleCount " +
+        "FROM revenue_daily ORDER BY 1, 2";
+
+    private TourManagementDatabase database;
+    private SupportSQLiteDatabase db;
+    private long now;
+    private int userId;
+    private int tourA;
+    private int tourB;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class)
+            .addCallback(TourManagementDatabase.REVENUE_ROLLUP_CALLBACK)
+            .build();
+        db = database.getOpenHelper().getWritableDatabase();
+        now = System.currentTimeMillis();
+        userId = (int) database.userDao().insertUser(new User("traveller", "secret", "traveller@example.com",
+            "0900000000", "Traveller"));
+        tourA = (int) database.tourDao().insertTour(new Tour("Tour A", "", "Hue", now, "", 100.0, 1_000, 1));
+        tourB = (int) database.tourDao().insertTour(new Tour("Tour B", "", "Hoi An", now, "", 100.0, 1_000, 1));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void insertsAndStatusChangesKeepTheRollupExact() {
+        int confirmed = book(tourA, 2, 200.0, "CONFIRMED", now - DAY_MS);
+        book(tourA, 1, 100.0, "CONFIRMED", now - DAY_MS);
+        book(tourB, 3, 300.0, "CONFIRMED", now - 2 * DAY_MS);
+        int pending = book(tourB, 4, 400.0, "PENDING", now - 2 * DAY_MS);
+        assertRollupMatches();
+        assertEquals(2, database.revenueRollupDao().getRowCount());
+
+        database.bookingDao().updateBookingAndPaymentStatus(pending, "CONFIRMED", "PAID");
+        assertRollupMatches();
+
+        database.bookingDao().updateBookingAndPaymentStatus(confirmed, "CANCELLED", "CANCELLED");
+        assertRollupMatches();
+
+        // Cancelling back to pending and confirming again must not count twice
+        database.bookingDao().updateBookingStatus(pending, "PENDING");
+        database.bookingDao().updateBookingStatus(pending, "CONFIRMED");
+        database.bookingDao().updateBookingStatus(pending, "CONFIRMED");
+        assertRollupMatches();
+        assertEquals(800.0, database.revenueRollupDao().getTotalRevenue(), 0.001);
+    }
+
+    @Test
+    public void editsMoveRevenueBetweenDaysAndTours() {
+        int id = book(tourA, 2, 200.0, "CONFIRMED", now - 3 * DAY_MS);
+        book(tourA, 1, 50.0, "CONFIRMED", now - 3 * DAY_MS);
+        assertRollupMatches();
+
+        Booking booking = database.bookingDao().getBookingById(id);
+        booking.setNumberOfPeople(5);
+        booking.setTotalAmount(500.0);
+        database.bookingDao().updateBooking(booking);
+        assertRollupMatches();
+
+        booking.setTourId(tourB);
+        booking.setBookingDate(now - 10 * DAY_MS);
+        database.bookingDao().updateBooking(booking);
+        assertRollupMatches();
+        assertEquals(2, database.revenueRollupDao().getRowCount());
+    }
+
+    @Test
+    public void deletesRemoveRevenueAndEmptyRows() {
+        int only = book(tourA, 2, 200.0, "CONFIRMED", now - DAY_MS);
+        int cancelled = book(tourB, 1, 100.0, "CANCELLED", now - DAY_MS);
+        assertRollupMatches();
+
+        database.bookingDao().deleteBooking(database.bookingDao().getBookingById(cancelled));
+        assertRollupMatches();
+
+        database.bookingDao().deleteBooking(database.bookingDao().getBookingById(only));
+        assertRollupMatches();
+        assertEquals(0, database.revenueRollupDao().getRowCount());
+    }
+
+    @Test
+    public void archivingLeavesTheRollupUnchanged() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String status = i % 3 == 0 ? "CANCELLED" : "CONFIRMED";
+            ids.add(book(i % 2 == 0 ? tourA : tourB, 1 + i % 4, 100.0 + i, status, now - (400 + i % 5) * DAY_MS));
+        }
+        book(tourA, 2, 200.0, "CONFIRMED", now - DAY_MS);
+        List<String[]> before = rows(ACTUAL);
+
+        database.runInTransaction(() -> {
+            database.bookingArchiveDao().copyToArchive(ids);
+            database.bookingArchiveDao().deleteFromBookings(ids);
+        });
+
+        assertRollupMatches();
+        assertRowsEqual(before, rows(ACTUAL));
+
+        // Changes to archived bookings are rolled up as well
+        db.execSQL("UPDATE bookings_archive SET bookingStatus = 'CANCELLED' WHERE id = " + ids.get(1));
+        db.execSQL("DELETE FROM bookings_archive WHERE id = " + ids.get(2));
+        assertRollupMatches();
+    }
+
+    @Test
+    public void migrationBackfillsAndInstallsTriggers() {
+        book(tourA, 2, 200.0, "CONFIRMED", now - DAY_MS);
+        book(tourB, 3, 300.0, "CONFIRMED", now - 2 * DAY_MS);
+        book(tourB, 1, 100.0, "PENDING", now - 2 * DAY_MS);
+        int archived = book(tourA, 4, 400.0, "CONFIRMED", now - 500 * DAY_MS);
+        List<Integer> ids = Collections.singletonList(archived);
+        database.bookingArchiveDao().copyToArchive(ids);
+        database.bookingArchiveDao().deleteFromBookings(ids);
+
+        // Back to the version 14 schema: no rollup table, no triggers
+        for (String[] trigger : rows("SELECT name FROM sqlite_master WHERE type = 'trigger' " +
+                "AND name LIKE 'revenue_daily_%'")) {
+            db.execSQL("DROP TRIGGER " + trigger[0]);
+        }
+        db.execSQL("DROP TABLE revenue_daily");
+
+        TourManagementDatabase.MIGRATION_14_15.migrate(db);
+        assertRollupMatches();
+        assertEquals(3, database.revenueRollupDao().getRowCount());
+
+        // Triggers are live after the migration
+        int later = book(tourB, 2, 250.0, "PENDING", now);
+        database.bookingDao().updateBookingAndPaymentStatus(later, "CONFIRMED", "PAID");
+        assertRollupMatches();
+        assertEquals(6, rows("SELECT name FROM sqlite_master WHERE type = 'trigger' " +
+            "AND name LIKE 'revenue_daily_%'").size());
+    }
+
+    private int book(int tourId, int people, double amount, String status, long bookingDate) {
+        Booking booking = new Booking(userId, tourId, people, amount);
+        booking.setBookingStatus(status);
+        booking.setBookingDate(bookingDate);
+        return (int) database.bookingDao().insertBooking(booking);
+    }
+
+    private void assertRollupMatches() {
+        assertRowsEqual(rows(EXPECTED), rows(ACTUAL));
+    }
+
+    private static void assertRowsEqual(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(Arrays.toString(expected.get(i)) + " vs " + Arrays.toString(actual.get(i)),
+                expected.get(i), actual.get(i));
+        }
+    }
+
+    private List<String[]> rows(String sql) {
+        List<String[]> rows = new ArrayList<>();
+        try (Cursor cursor = db.query(sql)) {
+            while (cursor.moveToNext()) {
+                String[] row = new String[cursor.getColumnCount()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = cursor.getString(i);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for the booking archive on an in-memory database:
+ * finished bookings past the horizon move in batches, the watermark covers
+ * them, the *IncludingArchive queries still see every booking, and a run
+ * after an interrupted batch neither fails nor duplicates rows.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BookingArchiveTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final int HORIZON_DAYS = 90;
+    private static final int OLD_CANCELLED = 2 * BookingArchive.BATCH_SIZE + 50;
+
+    private Context context;
+    private TourManagementDatabase database;
+    private long now;
+    private int userId;
+    private int pastTourId;
+    private int futureTourId;
+    private int bookings;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        clearPreferences();
+        BookingArchive.setHorizonDays(context, HORIZON_DAYS);
+
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class).build();
+        now = System.currentTimeMillis();
+        userId = (int) database.userDao().insertUser(new User("traveller", "secret", "traveller@example.com",
+            "0900000000", "Traveller"));
+        pastTourId = (int) database.tourDao().insertTour(new Tour("Past Tour", "", "Hue",
+            now - 200 * DAY_MS, "", 100.0, 1_000, 1));
+        futureTourId = (int) database.tourDao().insertTour(new Tour("Future Tour", "", "Hoi An",
+            now + 10 * DAY_MS, "", 100.0, 1_000, 1));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        clearPreferences();
+    }
+
+    @Test
+    public void finishedBookingsPastTheHorizonAreArchivedInBatches() {
+        int oldConfirmed = book(pastTourId, "CONFIRMED", "PAID", now - 200 * DAY_MS);
+        for (int i = 0; i < OLD_CANCELLED; i++) {
+            book(i % 2 == 0 ? pastTourId : futureTourId, "CANCELLED", "CANCELLED", now - (100 + i % 50) * DAY_MS);
+        }
+        int confirmedUpcoming = book(futureTourId, "CONFIRMED", "PAID", now - 200 * DAY_MS);
+        int oldPending = book(pastTourId, "PENDING", "PENDING", now - 200 * DAY_MS);
+        int recentCancelled = book(pastTourId, "CANCELLED", "CANCELLED", now - 10 * DAY_MS);
+
+        BookingArchive.Report report = BookingArchive.archive(context, database);
+
+        int archived = OLD_CANCELLED + 1;
+        assertEquals(archived, report.archived);
+        assertEquals(archived, database.bookingArchiveDao().getArchivedBookingCount());
+        assertEquals(bookings - archived, database.bookingDao().getTotalBookingsCount());
+        assertNull(database.bookingDao().getBookingById(oldConfirmed));
+        assertNotNull(database.bookingDao().getBookingById(confirmedUpcoming));
+        assertNotNull(database.bookingDao().getBookingById(oldPending));
+        assertNotNull(database.bookingDao().getBookingById(recentCancelled));
+
+        Booking moved = database.bookingArchiveDao().getArchivedBookingById(oldConfirmed);
+        assertEquals("CONFIRMED", moved.getBookingStatus());
+        assertEquals("PAID", moved.getPaymentStatus());
+        assertEquals("BKARC0", moved.getBookingReference());
+        assertEquals(now - 200 * DAY_MS, moved.getBookingDate());
+
+        // Every archived booking was made before the watermark
+        assertEquals(report.cutoff, BookingArchive.getArchivedBefore(context));
+        assertTrue(BookingArchive.needsArchive(context, now - 200 * DAY_MS));
+        assertFalse(BookingArchive.needsArchive(context, report.cutoff));
+
+        // Reads that include the archive still see every booking
+        assertEquals(bookings, database.bookingDao().getTotalBookingsCountIncludingArchive());
+        assertEquals(bookings, database.bookingDao().getUserBookingsCountIncludingArchive(userId));
+        List<Booking> history = database.bookingDao().getBookingsByUserIdIncludingArchive(userId);
+        assertEquals(bookings, history.size());
+        assertEquals(recentCancelled, history.get(0).getId());
+        assertEquals(OLD_CANCELLED / 2 + 3,
+            database.bookingDao().getBookingsByTourIdIncludingArchive(pastTourId).size());
+
+        assertEquals(0, BookingArchive.archive(context, database).archived);
+    }
+
+    @Test
+    public void runAfterAnInterruptedBatchIsSafe() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < BookingArchive.BATCH_SIZE + 10; i++) {
+            ids.add(book(pastTourId, "CANCELLED", "CANCELLED", now - (100 + i) * DAY_MS));
+        }
+        int live = book(futureTourId, "PENDING", "PENDING", now - DAY_MS);
+
+        // A batch that failed mid-way rolls back completely
+        try {
+            database.runInTransaction(() -> {
+                database.bookingArchiveDao().copyToArchive(ids.subList(0, 50));
+                throw new IllegalStateException("Interrupted");
+            });
+            fail("The batch should fail");
+        } catch (IllegalStateException expected) {
+            // Nothing was copied
+        }
+        assertEquals(0, database.bookingArchiveDao().getArchivedBookingCount());
+
+        // A copy left behind without its delete is replaced, not duplicated
+        database.bookingArchiveDao().copyToArchive(ids.subList(0, 50));
+
+        BookingArchive.Report report = BookingArchive.archive(context, database);
+
+        assertEquals(ids.size(), report.archived);
+        assertEquals(ids.size(), database.bookingArchiveDao().getArchivedBookingCount());
+        assertEquals(1, database.bookingDao().getTotalBookingsCount());
+        assertNotNull(database.bookingDao().getBookingById(live));
+        assertEquals(bookings, database.bookingDao().getTotalBookingsCountIncludingArchive());
+        assertEquals(bookings, database.bookingDao().getBookingsByUserIdIncludingArchive(userId).size());
+    }
+
+    private int book(int tourId, String status, String paymentStatus, long bookingDate) {
+        Booking booking = new Booking(userId, tourId, 2, 200.0);
+        booking.setBookingStatus(status);
+        booking.setPaymentStatus(paymentStatus);
+        booking.setBookingDate(bookingDate);
+        booking.setBookingReference("BKARC" + bookings++);
+        return (int) database.bookingDao().insertBooking(booking);
+    }
+
+    private void clearPreferences() {
+        context.getSharedPreferences(BookingArchive.PREF_NAME, Context.MODE_PRIVATE).edit()
+            .remove(BookingArchive.KEY_HORIZON_DAYS)
+            .remove(BookingArchive.KEY_ARCHIVED_BEFORE)
+            .commit();
+    }
+}
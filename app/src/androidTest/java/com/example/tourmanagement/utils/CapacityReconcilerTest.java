@@ -0,0 +1,120 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for the capacity reconciler on an in-memory database:
+ * seeded counter drift is found, reported and repaired, counting live and
+ * archived bookings and ignoring cancelled ones.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CapacityReconcilerTest {
+
+    private TourManagementDatabase database;
+    private int userId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class).build();
+        userId = (int) database.userDao().insertUser(new User("traveller", "secret", "traveller@example.com",
+            "0900000000", "Traveller"));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void driftIsReportedAndRepaired() {
+        int counted = tour(10);
+        book(counted, 3, "PENDING");
+        book(counted, 2, "CONFIRMED");
+        book(counted, 4, "CANCELLED");
+        database.tourDao().setBookingCount(counted, 9);
+
+        int overbooked = tour(4);
+        book(overbooked, 3, "CONFIRMED");
+        book(overbooked, 2, "PENDING");
+        database.tourDao().setBookingCount(overbooked, 1);
+
+        int archived = tour(10);
+        book(archived, 2, "PENDING");
+        List<Integer> old = new ArrayList<>();
+        old.add(book(archived, 1, "CONFIRMED"));
+        old.add(book(archived, 2, "CONFIRMED"));
+        old.add(book(archived, 6, "CANCELLED"));
+        database.bookingArchiveDao().copyToArchive(old);
+        database.bookingArchiveDao().deleteFromBookings(old);
+        database.tourDao().setBookingCount(archived, 2);
+
+        int correct = tour(10);
+        book(correct, 1, "PENDING");
+        database.tourDao().setBookingCount(correct, 1);
+
+        int empty = tour(10);
+        database.tourDao().setBookingCount(empty, 6);
+
+        CapacityReconciler.Report report = CapacityReconciler.reconcile(database);
+
+        assertEquals(4, report.driftedTours);
+        assertEquals(4 + 4 + 3 + 6, report.seatDrift);
+        assertEquals(1, report.overbookedTours);
+        assertEquals(5, seats(counted));
+        assertEquals(5, seats(overbooked));
+        assertEquals(5, seats(archived));
+        assertEquals(1, seats(correct));
+        assertEquals(0, seats(empty));
+
+        CapacityReconciler.Report again = CapacityReconciler.reconcile(database);
+        assertEquals(0, again.driftedTours);
+        assertEquals(0, again.seatDrift);
+    }
+
+    @Test
+    public void noDriftChangesNothing() {
+        int tourId = tour(10);
+        book(tourId, 2, "CONFIRMED");
+        database.tourDao().setBookingCount(tourId, 2);
+
+        CapacityReconciler.Report report = CapacityReconciler.reconcile(database);
+
+        assertEquals(0, report.driftedTours);
+        assertEquals(2, seats(tourId));
+    }
+
+    private int tour(int capacity) {
+        return (int) database.tourDao().insertTour(new Tour("Tour", "", "Da Nang",
+            System.currentTimeMillis() + 86_400_000L, "", 100.0, capacity, 1));
+    }
+
+    private int book(int tourId, int people, String status) {
+        Booking booking = new Booking(userId, tourId, people, people * 100.0);
+        booking.setBookingStatus(status);
+        return (int) database.bookingDao().insertBooking(booking);
+    }
+
+    private int seats(int tourId) {
+        return database.tourDao().getTourById(tourId).getCurrentBookings();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.RevenueBucket;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for the SQL bucketing of revenue series on an in-memory
+ * database: bookings on the first and last minute of weeks and months land in
+ * the right bucket, range ends are exclusive, and periods without revenue are
+ * zero-filled by the recursive CTE.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RevenueSeriesRoomTest {
+
+    private TourManagementDatabase database;
+    private int userId;
+    private int tourId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class).build();
+        userId = (int) database.userDao().insertUser(new User("traveller", "secret", "traveller@example.com",
+            "0900000000", "Traveller"));
+        tourId = (int) database.tourDao().insertTour(new Tour("Tour", "", "Da Lat",
+            at(2025, Calendar.JUNE, 1, 8, 0), "", 100.0, 1_000, 1));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void weeksRunFromMondayAndEmptyWeeksAreZero() {
+        // 3 March 2025 is a Monday
+        book(at(2025, Calendar.MARCH, 2, 23, 59), 1.0, "CONFIRMED");     // Sunday before the range
+        book(at(2025, Calendar.MARCH, 3, 0, 0), 10.0, "CONFIRMED");
+        book(at(2025, Calendar.MARCH, 9, 23, 59), 20.0, "CONFIRMED");    // Sunday, same week
+        book(at(2025, Calendar.MARCH, 10, 0, 0), 40.0, "CONFIRMED");     // Monday, next week
+        book(at(2025, Calendar.MARCH, 12, 12, 0), 80.0, "CANCELLED");
+        book(at(2025, Calendar.MARCH, 30, 23, 59), 160.0, "CONFIRMED");
+        book(at(2025, Calendar.MARCH, 31, 0, 0), 320.0, "CONFIRMED");    // range end, excluded
+        RevenueRollup.rebuild(database);
+
+        List<RevenueBucket> weeks = RevenueSeries.load(database, RevenueSeries.Granularity.WEEK,
+            at(2025, Calendar.MARCH, 3, 0, 0), at(2025, Calendar.MARCH, 31, 0, 0));
+
+        assertBuckets(weeks,
+            new String[] {"2025-03-03", "2025-03-10", "2025-03-17", "2025-03-24"},
+            new double[] {30.0, 40.0, 0.0, 160.0},
+            new int[] {2, 1, 0, 1});
+    }
+
+    @Test
+    public void rangeStartingMidWeekKeysItsFirstBucketByMonday() {
+        book(at(2025, Calendar.MARCH, 4, 23, 59), 10.0, "CONFIRMED");    // before the start day
+        book(at(2025, Calendar.MARCH, 5, 0, 0), 20.0, "CONFIRMED");
+        RevenueRollup.rebuild(database);
+
+        List<RevenueBucket> weeks = RevenueSeries.load(database, RevenueSeries.Granularity.WEEK,
+            at(2025, Calendar.MARCH, 5, 15, 0), at(2025, Calendar.MARCH, 11, 0, 0));
+
+        assertBuckets(weeks,
+            new String[] {"2025-03-03", "2025-03-10"},
+            new double[] {20.0, 0.0},
+            new int[] {1, 0});
+    }
+
+    @Test
+    public void monthsIncludeTheirLastMinuteAndArchivedBookings() {
+        book(at(2024, Calendar.DECEMBER, 31, 23, 59), 1.0, "CONFIRMED"); // before the range
+        book(at(2025, Calendar.JANUARY, 31, 23, 59), 10.0, "CONFIRMED");
+        book(at(2025, Calendar.FEBRUARY, 1, 0, 0), 20.0, "CONFIRMED");
+        book(at(2025, Calendar.FEBRUARY, 28, 23, 59), 40.0, "CONFIRMED");
+        book(at(2025, Calendar.FEBRUARY, 14, 12, 0), 80.0, "PENDING");
+        int archived = book(at(2025, Calendar.APRIL, 30, 23, 59), 160.0, "CONFIRMED");
+        book(at(2025, Calendar.MAY, 1, 0, 0), 320.0, "CONFIRMED");       // range end, excluded
+        List<Integer> ids = Collections.singletonList(archived);
+        database.bookingArchiveDao().copyToArchive(ids);
+        database.bookingArchiveDao().deleteFromBookings(ids);
+        RevenueRollup.rebuild(database);
+
+        List<RevenueBucket> months = RevenueSeries.load(database, RevenueSeries.Granularity.MONTH,
+            at(2025, Calendar.JANUARY, 1, 0, 0), at(2025, Calendar.MAY, 1, 0, 0));
+
+        assertBuckets(months,
+            new String[] {"2025-01-01", "2025-02-01", "2025-03-01", "2025-04-01"},
+            new double[] {10.0, 60.0, 0.0, 160.0},
+            new int[] {1, 2, 0, 1});
+    }
+
+    @Test
+    public void rangeWithoutBookingsIsAllZeros() {
+        List<RevenueBucket> months = RevenueSeries.load(database, RevenueSeries.Granularity.MONTH,
+            at(2024, Calendar.NOVEMBER, 15, 0, 0), at(2025, Calendar.FEBRUARY, 1, 0, 0));
+
+        assertBuckets(months,
+            new String[] {"2024-11-01", "2024-12-01", "2025-01-01"},
+            new double[] {0.0, 0.0, 0.0},
+            new int[] {0, 0, 0});
+    }
+
+    private int book(long bookingDate, double amount, String status) {
+        Booking booking = new Booking(userId, tourId, 1, amount);
+        booking.setBookingStatus(status);
+        booking.setBookingDate(bookingDate);
+        return (int) database.bookingDao().insertBooking(booking);
+    }
+
+    private static void assertBuckets(List<RevenueBucket> buckets, String[] keys, double[] revenue, int[] counts) {
+        assertEquals(keys.length, buckets.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], buckets.get(i).periodKey);
+            assertEquals(keys[i], revenue[i], buckets.get(i).revenue, 0.001);
+            assertEquals(keys[i], counts[i], buckets.get(i).bookingCount);
+        }
+    }
+
+    /**
+     * Local time, as the rollup and the series use the device time zone
+     */
+    private static long at(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, 0);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for the session store: registered users keep their
+ * admin role when they sign in, and the built-in admin is always an admin.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SessionStoreTest {
+
+    private SessionStore sessionStore;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        sessionStore = SessionStore.getInstance(context);
+        sessionStore.signOut();
+    }
+
+    @After
+    public void tearDown() {
+        sessionStore.signOut();
+    }
+
+    @Test
+    public void adminUserSignsInAsAdmin() {
+        User admin = new User("manager", "secret", "manager@example.com", "0900000001", "Tour Manager");
+        admin.setId(7);
+        admin.setAdmin(true);
+
+        sessionStore.signIn(admin);
+
+        SessionStore.Principal principal = sessionStore.getPrincipal();
+        assertTrue(principal.isLoggedIn());
+        assertTrue(principal.isAdmin());
+        assertEquals(7, principal.getUserId());
+        assertEquals("Tour Manager", principal.getDisplayName());
+
+        sessionStore.updateDisplayName("Head Manager");
+        assertTrue(sessionStore.isAdmin());
+    }
+
+    @Test
+    public void regularUserSignsInWithoutAdminRights() {
+        User user = new User("traveller", "secret", "traveller@example.com", "0900000002", "Traveller");
+        user.setId(8);
+
+        sessionStore.signIn(user);
+
+        assertTrue(sessionStore.isLoggedIn());
+        assertFalse(sessionStore.isAdmin());
+        assertEquals(8, sessionStore.getUserId());
+    }
+
+    @Test
+    public void builtInAdminIsAdmin() {
+        sessionStore.signInAdmin();
+
+        assertTrue(sessionStore.isAdmin());
+        assertEquals(SessionStore.ADMIN_USER_ID, sessionStore.getUserId());
+
+        sessionStore.signOut();
+        assertFalse(sessionStore.isLoggedIn());
+        assertFalse(sessionStore.isAdmin());
+    }
+}
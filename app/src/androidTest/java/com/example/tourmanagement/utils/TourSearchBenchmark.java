@@ -0,0 +1,102 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Tour;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented benchmark of the fuzzy tour search on 100,000 tours: builds
+ * the dictionary once, then runs accent-free, misspelled and partially typed
+ * queries and reports the build time and the median and p95 query time to
+ * logcat under "SearchBenchmark". Queries must answer in single-digit
+ * milliseconds.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TourSearchBenchmark {
+
+    private static final String TAG = "SearchBenchmark";
+    private static final int TOURS = 100_000;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 200;
+    private static final long MAX_MEDIAN_NANOS = 10_000_000L;
+    private static final String[] PLACES = {"Hạ Long", "Hội An", "Đà Nẵng", "Đà Lạt", "Phú Quốc", "Sa Pa",
+        "Huế", "Nha Trang", "Cần Thơ", "Mũi Né", "Ninh Bình", "Côn Đảo"};
+    private static final String[] KINDS = {"Cruise", "Trek", "Food Tour", "Heritage Walk", "Island Hopping",
+        "Cycling", "Photography", "Kayak"};
+    private static final String[] QUERIES = {"ha long", "Ha Lnog cruise", "da nang food", "hoi an herit",
+        "phu quoc islnd", "sa pa trek", "nha trang kay", "can tho", "ninh binh cycl", "con dao"};
+
+    private TourManagementDatabase database;
+
+    @Before
+    public void seed() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, TourManagementDatabase.class).build();
+        long now = System.currentTimeMillis();
+
+        Random random = new Random(42);
+        long start = SystemClock.elapsedRealtime();
+        database.runInTransaction(() -> {
+            for (int i = 0; i < TOURS; i++) {
+                String place = PLACES[random.nextInt(PLACES.length)];
+                String kind = KINDS[random.nextInt(KINDS.length)];
+                database.tourDao().insertTour(new Tour(place + " " + kind + " " + i, "", place,
+                    now + i * 60_000L, "", 100, 20, 1));
+            }
+        });
+        Log.i(TAG, "Seeded " + TOURS + " tours in " + (SystemClock.elapsedRealtime() - start) + "ms");
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void searchAnswersInSingleDigitMilliseconds() {
+        TourSearchIndex index = new TourSearchIndex(database);
+
+        long buildStart = SystemClock.elapsedRealtime();
+        List<Integer> first = index.search(QUERIES[0], 20);
+        long buildMs = SystemClock.elapsedRealtime() - buildStart;
+        assertEquals(20, first.size());
+
+        for (int i = 0; i < WARMUP; i++) {
+            index.search(QUERIES[i % QUERIES.length], 20);
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            List<Integer> found = index.search(QUERIES[i % QUERIES.length], 20);
+            nanos[i] = System.nanoTime() - start;
+            assertFalse("no result for " + QUERIES[i % QUERIES.length], found.isEmpty());
+        }
+
+        Arrays.sort(nanos);
+        long median = nanos[RUNS / 2];
+        long p95 = nanos[RUNS * 95 / 100];
+        Log.i(TAG, String.format(Locale.US, "%d tours: build %d ms, query median %.2f ms, p95 %.2f ms",
+            TOURS, buildMs, median / 1e6, p95 / 1e6));
+
+        assertTrue("median query took " + median / 1e6 + " ms", median < MAX_MEDIAN_NANOS);
+    }
+}
@@ -31,16 +31,17 @@ import com.example.tourmanagement.adapter.TourAdapter;
 import com.example.tourmanagement.dao.TourDao;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Tour;
-import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.EntityCache;
 import com.example.tourmanagement.utils.SampleDataUtil;
+import com.example.tourmanagement.utils.SessionStore;
+import com.example.tourmanagement.utils.TaskScheduler;
+import com.example.tourmanagement.utils.TextNormalizer;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * MainActivity with live search functionality for tours.
@@ -145,8 +146,7 @@ public class MainActivity extends AppCompatActivity {
                 // Navigate to booking page
                 Intent intent = new Intent(MainActivity.this, BookTourActivity.class);
                 intent.putExtra("TOUR_ID", tour.getId());
-                intent.putExtra("USER_ID", getSharedPreferences("TourManagementPrefs", MODE_PRIVATE)
-                        .getInt("user_id", -1));
+                intent.putExtra("USER_ID", SessionStore.getInstance(MainActivity.this).getUserId());
 
                 // Debug logging to see what tour ID we're passing
                 android.util.Log.d("MainActivity", "Booking tour with ID: " + tour.getId());
@@ -158,9 +158,7 @@ public class MainActivity extends AppCompatActivity {
             @Override
             public void onEditTourClick(Tour tour) {
                 // Check if user is admin and navigate to edit tour (admin only)
-                boolean isAdmin = getSharedPreferences("TourManagementPrefs", MODE_PRIVATE)
-                        .getBoolean("is_admin", false);
-                if (isAdmin) {
+                if (SessionStore.getInstance(MainActivity.this).isAdmin()) {
                     Intent intent = new Intent(MainActivity.this, AddEditTourActivity.class);
                     intent.putExtra("tour_id", tour.getId());
                     startActivity(intent);
@@ -179,6 +177,7 @@ public class MainActivity extends AppCompatActivity {
         tourAdapter = new TourAdapter(this, clickListener);
         rvTours.setLayoutManager(new LinearLayoutManager(this));
         rvTours.setAdapter(tourAdapter);
+        rvTours.addOnScrollListener(tourAdapter.createImagePreloader());
     }
 
     /**
@@ -235,8 +234,8 @@ public class MainActivity extends AppCompatActivity {
             // Show all tours if search is empty
             applyFiltersToTours(allTours);
         } else {
-            // Use the live search DAO method
-            tourDao.searchToursLive(query).observe(this, new Observer<List<Tour>>() {
+            // Use the accent-insensitive live search DAO method
+            tourDao.searchToursFoldedLive(TextNormalizer.fold(query)).observe(this, new Observer<List<Tour>>() {
                 @Override
                 public void onChanged(List<Tour> tours) {
                     if (tours != null) {
@@ -376,8 +375,8 @@ public class MainActivity extends AppCompatActivity {
                 layoutEmptyState.setVisibility(View.GONE);
             }
 
-            // Notify adapter of data changes
-            tourAdapter.notifyDataSetChanged();
+            // Submit the filtered list; the adapter diffs it off the main thread
+            tourAdapter.updateTours(filteredTours);
         });
     }
 
@@ -392,9 +391,9 @@ public class MainActivity extends AppCompatActivity {
                 .setPositiveButton("Yes", new DialogInterface.OnClickListener() {
                     public void onClick(DialogInterface dialog, int which) {
                         // Delete tour in background
-                        ExecutorService executor = Executors.newSingleThreadExecutor();
-                        executor.execute(() -> {
+                        TaskScheduler.getInstance().execute(TaskScheduler.Pool.WRITE, () -> {
                             tourDao.deleteTour(tour);
+                            EntityCache.getInstance(MainActivity.this).invalidateTour(tour.getId());
 
                             // Refresh tour list
                             runOnUiThread(() -> {
@@ -415,27 +414,8 @@ public class MainActivity extends AppCompatActivity {
      * @return true if current user has admin privileges, false otherwise
      */
     private boolean isCurrentUserAdmin() {
-        // Get current user ID from SharedPreferences
-        int currentUserId = getSharedPreferences("TourManagementPrefs", MODE_PRIVATE)
-                .getInt("user_id", -1);
-
-        if (currentUserId == -1) {
-            return false; // No user logged in
-        }
-
-        // Check if this is the admin user (username: admin, password: admin)
-        // Query the database to check if the current user is the admin
-        TourManagementDatabase database = TourManagementDatabase.getDatabase(this);
-        try {
-            User currentUser = database.userDao().getUserById(currentUserId);
-            if (currentUser != null && "admin".equals(currentUser.getUsername())) {
-                return true; // This is the admin user
-            }
-        } catch (Exception e) {
-            android.util.Log.e("MainActivity", "Error checking admin status: " + e.getMessage());
-        }
-
-        return false; // Not admin
+        // The role is part of the cached session, no database lookup needed
+        return SessionStore.getInstance(this).isAdmin();
     }
 
     /**
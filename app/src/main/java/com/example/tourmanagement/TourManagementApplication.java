@@ -3,10 +3,18 @@ package com.example.tourmanagement;
 import android.app.Application;
 import android.content.SharedPreferences;
 import androidx.appcompat.app.AppCompatDelegate;
+import com.example.tourmanagement.utils.BookingArchive;
+import com.example.tourmanagement.utils.BookingExpiry;
+import com.example.tourmanagement.utils.CapacityReconciler;
+import com.example.tourmanagement.utils.DeltaSync;
+import com.example.tourmanagement.utils.LocalApiServer;
+import com.example.tourmanagement.utils.LocalMediaStore;
 
 /**
  * Custom Application class for Tour Management app.
- * Handles app-wide initialization including theme setup.
+ * Handles app-wide initialization including theme setup,
+ * cleanup of unreferenced local media, background maintenance jobs
+ * and the optional local API for front desk terminals.
  *
  * @author Tour Management Team
  * @version 1.0
@@ -23,6 +31,24 @@ public class TourManagementApplication extends Application {
 
         // Initialize theme based on saved preference
         initializeTheme();
+
+        // Remove locally stored images no user or tour references anymore
+        LocalMediaStore.getInstance(this).collectGarbageAsync();
+
+        // Repair drifted tour seat counts once a day
+        CapacityReconciler.schedulePeriodic(this);
+
+        // Move old finished bookings to the archive once a week
+        BookingArchive.schedulePeriodic(this);
+
+        // Make sure unpaid bookings expire even if the app was updated or restored
+        BookingExpiry.reschedule(this);
+
+        // Sync with other devices hourly while a sync server is set
+        DeltaSync.schedulePeriodic(this);
+
+        // Serve other terminals at the front desk if the admin turned the local API on
+        LocalApiServer.startIfEnabled(this);
     }
 
     /**
@@ -18,14 +18,13 @@ import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Discount;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.TaskScheduler;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Activity for adding new discounts or editing existing discounts.
@@ -47,7 +46,7 @@ public class AddEditDiscountActivity extends AppCompatActivity {
 
     // Data
     private TourManagementDatabase database;
-    private ExecutorService executorService;
+    private TaskScheduler scheduler;
     private Discount currentDiscount;
     private List<Tour> availableTours;
     private ArrayAdapter<String> tourAdapter;
@@ -83,7 +82,7 @@ public class AddEditDiscountActivity extends AppCompatActivity {
 
     private void setupDatabase() {
         database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newSingleThreadExecutor();
+        scheduler = TaskScheduler.getInstance();
     }
 
     private void checkEditMode() {
@@ -112,7 +111,7 @@ public class AddEditDiscountActivity extends AppCompatActivity {
     }
 
     private void setupTourSpinner() {
-        executorService.execute(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             try {
                 availableTours = database.tourDao().getActiveTours();
                 List<String> tourNames = new ArrayList<>();
@@ -173,7 +172,7 @@ public class AddEditDiscountActivity extends AppCompatActivity {
             return;
         }
 
-        executorService.execute(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             try {
                 Discount discount = isEditMode ? currentDiscount : new Discount();
 
@@ -241,7 +240,7 @@ public class AddEditDiscountActivity extends AppCompatActivity {
     }
 
     private void loadDiscountData() {
-        executorService.execute(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             try {
                 currentDiscount = database.discountDao().getDiscountById(discountId);
                 runOnUiThread(() -> {
@@ -283,7 +282,7 @@ public class AddEditDiscountActivity extends AppCompatActivity {
         editDiscountCode.setText(currentDiscount.getDiscountCode());
 
         // Tour selection
-        executorService.execute(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             try {
                 availableTours = database.tourDao().getActiveTours();
                 runOnUiThread(() -> {
@@ -319,12 +318,4 @@ public class AddEditDiscountActivity extends AppCompatActivity {
         }
         return super.onOptionsItemSelected(item);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
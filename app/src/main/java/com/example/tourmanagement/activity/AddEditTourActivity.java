@@ -3,6 +3,7 @@ package com.example.tourmanagement.activity;
 import android.app.DatePickerDialog;
 import android.app.TimePickerDialog;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -10,10 +11,15 @@ import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.Switch;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
+import com.bumptech.glide.Glide;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.LocalMediaStore;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -27,7 +33,7 @@ import java.util.Locale;
  * - Add new tour with complete information
  * - Edit existing tour details
  * - Date and time picker for tour scheduling
- * - Image URL input for tour visuals
+ * - Image URL input or gallery image imported into the local media store
  * - Input validation and error handling
  * - Active/inactive tour status management
  *
@@ -42,7 +48,7 @@ public class AddEditTourActivity extends AppCompatActivity {
      */
     private EditText etTourName, etTourLocation, etTourDescription, etTourCost;
     private EditText etNumberOfPeople, etDuration, etTourImage;
-    private Button btnSelectDateTime, btnSaveTour, btnCancel;
+    private Button btnSelectDateTime, btnSaveTour, btnCancel, btnPickTourImage;
     private Switch switchActive;
     private ImageView ivPreviewImage;
 
@@ -55,6 +61,11 @@ public class AddEditTourActivity extends AppCompatActivity {
     private SimpleDateFormat dateTimeFormatter;
     private boolean isEditMode = false;
 
+    /**
+     * Gallery picker for the tour image
+     */
+    private ActivityResultLauncher<String> imagePickerLauncher;
+
     /**
      * Called when the activity is first created.
      * Initializes UI components and determines if in add or edit mode.
@@ -70,6 +81,14 @@ public class AddEditTourActivity extends AppCompatActivity {
         database = TourManagementDatabase.getDatabase(this);
         dateTimeFormatter = new SimpleDateFormat("MMM dd, yyyy 'at' hh:mm a", Locale.getDefault());
 
+        imagePickerLauncher = registerForActivityResult(
+            new ActivityResultContracts.GetContent(),
+            uri -> {
+                if (uri != null) {
+                    importTourImage(uri);
+                }
+            });
+
         // Check if editing existing tour
         checkEditMode();
 
@@ -115,6 +134,7 @@ public class AddEditTourActivity extends AppCompatActivity {
         btnSelectDateTime = findViewById(R.id.btn_select_date_time);
         btnSaveTour = findViewById(R.id.btn_save_tour);
         btnCancel = findViewById(R.id.btn_cancel);
+        btnPickTourImage = findViewById(R.id.btn_pick_tour_image);
         switchActive = findViewById(R.id.switch_active);
         ivPreviewImage = findViewById(R.id.iv_preview_image);
 
@@ -141,6 +161,7 @@ public class AddEditTourActivity extends AppCompatActivity {
             etNumberOfPeople.setText(String.valueOf(editingTour.getNumberOfPeoples()));
             etDuration.setText(String.valueOf(editingTour.getDuration()));
             etTourImage.setText(editingTour.getTourImage());
+            updateImagePreview();
             switchActive.setChecked(editingTour.isActive());
 
             selectedDateTime = editingTour.getTourTime();
@@ -176,6 +197,9 @@ public class AddEditTourActivity extends AppCompatActivity {
             }
         });
 
+        // Gallery image picker
+        btnPickTourImage.setOnClickListener(v -> imagePickerLauncher.launch("image/*"));
+
         // Image URL preview (optional feature)
         etTourImage.setOnFocusChangeListener((v, hasFocus) -> {
             if (!hasFocus) {
@@ -252,14 +276,46 @@ public class AddEditTourActivity extends AppCompatActivity {
     }
 
     /**
-     * Updates image preview (placeholder implementation)
+     * Imports a gallery image into the local media store and uses it as the tour image
+     *
+     * @param uri Content URI of the picked image
+     */
+    private void importTourImage(Uri uri) {
+        btnPickTourImage.setEnabled(false);
+        LocalMediaStore.getInstance(this).importImage(uri, new LocalMediaStore.ImportCallback() {
+            @Override
+            public void onImported(String ref) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                btnPickTourImage.setEnabled(true);
+                etTourImage.setText(ref);
+                updateImagePreview();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                btnPickTourImage.setEnabled(true);
+                showToast("Could not import image");
+            }
+        });
+    }
+
+    /**
+     * Updates image preview from the URL or media store reference
      */
     private void updateImagePreview() {
         String imageUrl = etTourImage.getText().toString().trim();
         if (!imageUrl.isEmpty()) {
-            // Could use Glide here to load image preview
-            // For now, just show a placeholder
-            ivPreviewImage.setImageResource(R.drawable.placeholder_tour);
+            Glide.with(this)
+                .load(LocalMediaStore.getInstance(this).resolve(imageUrl, LocalMediaStore.Variant.CARD))
+                .placeholder(R.drawable.placeholder_tour)
+                .error(R.drawable.placeholder_tour)
+                .centerCrop()
+                .into(ivPreviewImage);
             ivPreviewImage.setVisibility(View.VISIBLE);
         } else {
             ivPreviewImage.setVisibility(View.GONE);
@@ -292,7 +348,12 @@ public class AddEditTourActivity extends AppCompatActivity {
 
             // Save to database
             if (isEditMode) {
-                database.tourDao().updateTour(tour);
+                // Keep the live booking count; the one loaded with the form may be stale
+                database.runInTransaction(() -> {
+                    tour.setCurrentBookings(database.tourDao().getBookingCount(tour.getId()));
+                    database.tourDao().updateTour(tour);
+                });
+                EntityCache.getInstance(this).invalidateTour(tour.getId());
                 showToast("Tour updated successfully!");
             } else {
                 long tourId = database.tourDao().insertTour(tour);
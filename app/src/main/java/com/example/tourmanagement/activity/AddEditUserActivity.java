@@ -11,8 +11,8 @@ import androidx.appcompat.widget.Toolbar;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.User;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.TaskScheduler;
 
 /**
  * Activity for adding new users or editing existing users.
@@ -32,7 +32,7 @@ public class AddEditUserActivity extends AppCompatActivity {
     private Button buttonSave;
 
     private TourManagementDatabase database;
-    private ExecutorService executorService;
+    private TaskScheduler scheduler;
     private User currentUser;
     private boolean isEditMode = false;
 
@@ -70,7 +70,7 @@ public class AddEditUserActivity extends AppCompatActivity {
 
     private void setupDatabase() {
         database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newFixedThreadPool(2);
+        scheduler = TaskScheduler.getInstance();
     }
 
     private void checkEditMode() {
@@ -82,7 +82,7 @@ public class AddEditUserActivity extends AppCompatActivity {
     }
 
     private void loadUserData(long userId) {
-        executorService.execute(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             currentUser = database.userDao().getUserById((int) userId);
             if (currentUser != null) {
                 runOnUiThread(() -> {
@@ -114,7 +114,7 @@ public class AddEditUserActivity extends AppCompatActivity {
             return;
         }
 
-        executorService.execute(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             if (isEditMode && currentUser != null) {
                 // Update existing user
                 currentUser.setUsername(username);
@@ -125,6 +125,7 @@ public class AddEditUserActivity extends AppCompatActivity {
                 currentUser.setFullName(fullName);
                 currentUser.setAdmin(isAdmin);
                 database.userDao().updateUser(currentUser);
+                EntityCache.getInstance(this).invalidateUser(currentUser.getId());
             } else {
                 // Create new user
                 User newUser = new User();
@@ -157,12 +158,4 @@ public class AddEditUserActivity extends AppCompatActivity {
         }
         return super.onOptionsItemSelected(item);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
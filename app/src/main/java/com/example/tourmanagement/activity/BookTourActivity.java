@@ -1,7 +1,6 @@
 package com.example.tourmanagement.activity;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -11,16 +10,19 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.WriterException;
-import com.journeyapps.barcodescanner.BarcodeEncoder;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
 import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.pricing.PricingEngine;
+import com.example.tourmanagement.utils.BookingCreator;
+import com.example.tourmanagement.utils.BookingExpiry;
 import com.example.tourmanagement.utils.EmailService;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.QrCodeRenderer;
+import com.example.tourmanagement.utils.TaskScheduler;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
@@ -64,6 +66,8 @@ public class BookTourActivity extends AppCompatActivity {
      * Database and data objects
      */
     private TourManagementDatabase database;
+    private EntityCache entityCache;
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
     private Tour selectedTour;
     private User currentUser;
     private int numberOfPeople = 1;
@@ -88,6 +92,11 @@ public class BookTourActivity extends AppCompatActivity {
     private static final String BANK_NAME = "SCB";
     private static final String ACCOUNT_HOLDER = "TOUR MANAGEMENT";
 
+    /**
+     * Payment QR code size in pixels
+     */
+    private static final int QR_CODE_SIZE_PX = 400;
+
     /**
      * Called when the activity is first created.
      * Initializes UI components and loads tour/user data.
@@ -101,6 +110,7 @@ public class BookTourActivity extends AppCompatActivity {
 
         // Initialize database and formatter
         database = TourManagementDatabase.getDatabase(this);
+        entityCache = EntityCache.getInstance(this);
         currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
 
         // Initialize UI components first
@@ -130,9 +140,12 @@ public class BookTourActivity extends AppCompatActivity {
             return;
         }
 
-        // Use background thread for database access
-        new Thread(() -> {
-            selectedTour = database.tourDao().getTourById(tourId);
+        // Load the tour and the user off the main thread; cache misses query the database
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, TaskScheduler.Priority.HIGH, () -> {
+            selectedTour = entityCache.getTour(tourId);
+            // For now, create a mock user if no user ID is provided
+            // TODO: Replace with proper user authentication system
+            currentUser = userId != -1 ? entityCache.getUser(userId) : createMockUser();
 
             android.util.Log.d("BookTourActivity", "Tour found in database: " + (selectedTour != null));
             if (selectedTour != null) {
@@ -145,27 +158,18 @@ public class BookTourActivity extends AppCompatActivity {
                     finish();
                     return;
                 }
+                if (currentUser == null) {
+                    showToast("Error loading user data");
+                    finish();
+                    return;
+                }
 
                 // Now that we have the tour data, initialize the UI
                 displayTourInfo();
                 calculateTotalCost();
-                generateQRCode();
+                generateQRCode(0);
             });
-        }).start();
-
-        // For now, create a mock user if no user ID is provided
-        // TODO: Replace with proper user authentication system
-        if (userId != -1) {
-            currentUser = database.userDao().getUserById(userId);
-        } else {
-            // Create a temporary user for testing
-            currentUser = createMockUser();
-        }
-
-        if (currentUser == null) {
-            showToast("Error loading user data");
-            finish();
-        }
+        });
     }
 
     /**
@@ -287,7 +291,7 @@ public class BookTourActivity extends AppCompatActivity {
     private void updatePeopleCount() {
         etNumberOfPeople.setText(String.valueOf(numberOfPeople));
         calculateTotalCost();
-        generateQRCode();
+        generateQRCode(QrCodeRenderer.DEFAULT_DEBOUNCE_MS);
     }
 
     /**
@@ -295,29 +299,27 @@ public class BookTourActivity extends AppCompatActivity {
      */
     private void calculateTotalCost() {
         if (selectedTour != null) {
+            long now = System.currentTimeMillis();
             double originalPrice = selectedTour.getTourCost() * numberOfPeople;
 
             // Get best available discount for this tour
             Discount bestDiscount = database.discountDao().getBestDiscountForTour(
                 selectedTour.getId(),
                 originalPrice,
-                System.currentTimeMillis()
+                now
             );
+            PricingEngine.Quote quote = PricingEngine.quote(selectedTour, numberOfPeople, bestDiscount, now);
+            totalCost = quote.total;
 
-            if (bestDiscount != null && bestDiscount.isValid()) {
-                // Apply discount
-                totalCost = bestDiscount.applyDiscount(originalPrice);
-
+            if (quote.isDiscounted()) {
                 // Show discount information
-                double savings = originalPrice - totalCost;
-                String costText = "Original: " + currencyFormatter.format(originalPrice) + "\n" +
-                                "Discount: " + bestDiscount.getDiscountName() + "\n" +
-                                "You save: " + currencyFormatter.format(savings) + "\n" +
+                String costText = "Original: " + currencyFormatter.format(quote.originalPrice) + "\n" +
+                                "Discount: " + quote.discount.getDiscountName() + "\n" +
+                                "You save: " + currencyFormatter.format(quote.discountAmount) + "\n" +
                                 "Total: " + currencyFormatter.format(totalCost);
                 tvTotalCost.setText(costText);
             } else {
                 // No discount available
-                totalCost = originalPrice;
                 tvTotalCost.setText("Total Cost: " + currencyFormatter.format(totalCost));
             }
         }
@@ -325,22 +327,15 @@ public class BookTourActivity extends AppCompatActivity {
 
     /**
      * Generates QR code for payment with tour and cost information
+     *
+     * @param debounceMs Delay before encoding, so repeated changes encode once
      */
-    private void generateQRCode() {
-        try {
-            // Create QR code content with payment information
-            String qrContent = createPaymentQRCodeContent();
-
-            // Generate QR code bitmap
-            BarcodeEncoder barcodeEncoder = new BarcodeEncoder();
-            Bitmap bitmap = barcodeEncoder.encodeBitmap(qrContent, BarcodeFormat.QR_CODE, 400, 400);
-
-            // Display QR code
-            ivQRCode.setImageBitmap(bitmap);
+    private void generateQRCode(long debounceMs) {
+        // Create QR code content with payment information
+        String qrContent = createPaymentQRCodeContent();
 
-        } catch (WriterException e) {
-            showToast("Error generating QR code: " + e.getMessage());
-        }
+        // Encode in the background; rapid +/- taps only encode the final amount
+        QrCodeRenderer.getInstance().render(ivQRCode, qrContent, QR_CODE_SIZE_PX, debounceMs);
     }
 
     /**
@@ -511,7 +506,7 @@ public class BookTourActivity extends AppCompatActivity {
         }
 
         // Use background thread for database operations
-        new Thread(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             try {
                 // Create booking object
                 Booking booking = new Booking(
@@ -526,16 +521,17 @@ public class BookTourActivity extends AppCompatActivity {
                 booking.setQrCode(createPaymentQRCodeContent());
                 booking.setBookingStatus("PENDING"); // Changed from CONFIRMED to PENDING
                 booking.setPaymentStatus("PENDING"); // Changed from PAID to PENDING - wait for admin confirmation
+                booking.setExpiresAt(BookingExpiry.expiresAt(booking.getBookingDate())); // Seats are held until then
 
-                // Insert booking into database
-                long bookingId = database.bookingDao().insertBooking(booking);
+                // Take the seats and insert the booking together; the seats may
+                // have gone to another device or the local API since the screen loaded
+                BookingCreator.Result result = BookingCreator.create(database).place(booking);
 
-                if (bookingId > 0) {
-                    // Update tour booking count
-                    database.tourDao().updateBookingCount(selectedTour.getId(), numberOfPeople);
+                if (result.isCreated()) {
+                    long bookingId = booking.getId();
 
-                    // Update booking with the generated ID
-                    booking.setId((int) bookingId);
+                    // Refresh the tour, wake the expiry job, sync and notify the admin
+                    BookingCreator.onCreated(BookTourActivity.this, currentUser, result);
 
                     // Switch back to main thread for UI operations
                     runOnUiThread(() -> {
@@ -547,6 +543,10 @@ public class BookTourActivity extends AppCompatActivity {
                         // Send booking confirmation email in background (don't wait for it)
                         sendBookingConfirmationEmail(booking);
                     });
+                } else if (result.status == BookingCreator.Status.NOT_ENOUGH_SEATS) {
+                    runOnUiThread(() -> {
+                        showToast("Not enough available slots");
+                    });
                 } else {
                     runOnUiThread(() -> {
                         showToast("Failed to create booking. Please try again.");
@@ -559,7 +559,7 @@ public class BookTourActivity extends AppCompatActivity {
                     Log.e("BookTourActivity", "Booking error", e);
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -688,7 +688,7 @@ public class BookTourActivity extends AppCompatActivity {
         booking.setId((int) booking.getId());
 
         // Send email using the enhanced EmailService
-        EmailService.sendBookingConfirmationEmail(currentUser, selectedTour, booking, new EmailService.EmailCallback() {
+        EmailService.sendBookingConfirmationEmail(this, currentUser, selectedTour, booking, new EmailService.EmailCallback() {
             @Override
             public void onSuccess() {
                 runOnUiThread(() -> {
@@ -708,4 +708,13 @@ public class BookTourActivity extends AppCompatActivity {
             }
         });
     }
+
+    /**
+     * Drops pending QR work and releases the QR bitmap
+     */
+    @Override
+    protected void onDestroy() {
+        QrCodeRenderer.getInstance().cancel(ivQRCode);
+        super.onDestroy();
+    }
 }
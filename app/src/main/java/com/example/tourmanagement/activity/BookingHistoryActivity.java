@@ -2,6 +2,7 @@ package com.example.tourmanagement.activity;
 
 import android.os.Bundle;
 import android.view.View;
+import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
@@ -11,6 +12,10 @@ import com.example.tourmanagement.R;
 import com.example.tourmanagement.adapter.BookingHistoryAdapter;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.utils.BookingArchive;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.NotificationDigests;
 import java.util.List;
 
 /**
@@ -23,6 +28,7 @@ import java.util.List;
  * - Filter bookings by status
  * - Cancel pending bookings
  * - Booking statistics and summary
+ * - Older bookings from the archive on request
  *
  * UI Components:
  * - RecyclerView for booking list
@@ -41,6 +47,7 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
      */
     private TextView tvBookingCount, tvTotalSpent, tvEmptyMessage;
     private RecyclerView recyclerViewBookings;
+    private Button btnShowArchived;
 
     /**
      * Adapter for booking history
@@ -51,8 +58,15 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
      * Database and user data
      */
     private TourManagementDatabase database;
+    private EntityCache entityCache;
     private int currentUserId;
 
+    /**
+     * Number of the user's archived bookings, and whether they are shown
+     */
+    private int archivedCount;
+    private boolean showArchived;
+
     /**
      * Called when the activity is first created.
      * Initializes UI components and loads booking history.
@@ -66,17 +80,17 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
 
         // Initialize database
         database = TourManagementDatabase.getDatabase(this);
+        entityCache = EntityCache.getInstance(this);
 
-        // Get user ID from intent or SharedPreferences as fallback
+        // Get user ID from intent or the session as fallback
         currentUserId = getIntent().getIntExtra("user_id", -1);
 
-        // If no user_id passed via intent, try to get it from SharedPreferences
+        // If no user_id passed via intent, fall back to the logged-in user
         if (currentUserId == -1) {
-            android.content.SharedPreferences sharedPreferences = getSharedPreferences("TourManagementPrefs", MODE_PRIVATE);
-            currentUserId = sharedPreferences.getInt("user_id", -1);
+            currentUserId = com.example.tourmanagement.utils.SessionStore.getInstance(this).getUserId();
 
             // Log for debugging
-            android.util.Log.d("BookingHistoryActivity", "No user_id in intent, retrieved from SharedPreferences: " + currentUserId);
+            android.util.Log.d("BookingHistoryActivity", "No user_id in intent, retrieved from session: " + currentUserId);
         } else {
             android.util.Log.d("BookingHistoryActivity", "Received user_id from intent: " + currentUserId);
         }
@@ -109,6 +123,11 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
         tvTotalSpent = findViewById(R.id.tv_total_spent);
         tvEmptyMessage = findViewById(R.id.tv_empty_message);
         recyclerViewBookings = findViewById(R.id.recycler_view_bookings);
+        btnShowArchived = findViewById(R.id.btn_show_archived);
+        btnShowArchived.setOnClickListener(v -> {
+            showArchived = !showArchived;
+            loadBookingHistory();
+        });
 
         // Setup toolbar
         setSupportActionBar(findViewById(R.id.toolbar));
@@ -132,7 +151,13 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
      */
     private void loadBookingHistory() {
         try {
-            List<Booking> bookings = database.bookingDao().getBookingsByUserId(currentUserId);
+            // The archive is only read when the user has archived bookings and asks for them
+            archivedCount = BookingArchive.needsArchive(this, 0)
+                ? database.bookingArchiveDao().getArchivedBookingCount(currentUserId) : 0;
+            List<Booking> bookings = showArchived && archivedCount > 0
+                ? database.bookingDao().getBookingsByUserIdIncludingArchive(currentUserId)
+                : database.bookingDao().getBookingsByUserId(currentUserId);
+            updateArchivedButton();
 
             // Add debugging to see what booking IDs we're getting from database
             android.util.Log.d("BookingHistoryActivity", "Loaded " + bookings.size() + " bookings for user " + currentUserId);
@@ -160,7 +185,10 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
      */
     private void loadBookingStatistics() {
         try {
-            List<Booking> userBookings = database.bookingDao().getBookingsByUserId(currentUserId);
+            // Lifetime totals include archived bookings, if the user has any
+            List<Booking> userBookings = archivedCount > 0
+                ? database.bookingDao().getBookingsByUserIdIncludingArchive(currentUserId)
+                : database.bookingDao().getBookingsByUserId(currentUserId);
             int bookingCount = userBookings.size();
 
             double totalSpent = 0.0;
@@ -178,6 +206,18 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
         }
     }
 
+    /**
+     * Shows the archived bookings toggle if the user has archived bookings
+     */
+    private void updateArchivedButton() {
+        if (archivedCount == 0) {
+            btnShowArchived.setVisibility(View.GONE);
+            return;
+        }
+        btnShowArchived.setVisibility(View.VISIBLE);
+        btnShowArchived.setText(showArchived ? "Hide older bookings" : "Show older bookings (" + archivedCount + ")");
+    }
+
     /**
      * Shows empty state when user has no bookings
      */
@@ -265,29 +305,40 @@ public class BookingHistoryActivity extends AppCompatActivity implements Booking
      */
     private void cancelBooking(Booking booking) {
         try {
-            String originalStatus = booking.getBookingStatus();
+            // The booking may have expired unpaid since the list was loaded
+            Booking current = database.bookingDao().getBookingById(booking.getId());
+            if (current == null || "CANCELLED".equals(current.getBookingStatus())) {
+                showToast("This booking has already been cancelled");
+                loadBookingHistory();
+                return;
+            }
 
-            // Update booking status
-            booking.setBookingStatus("CANCELLED");
+            String originalStatus = booking.getBookingStatus();
 
             // If the booking was paid, set payment status to refunded
-            if ("PAID".equals(booking.getPaymentStatus())) {
-                booking.setPaymentStatus("REFUNDED");
-            }
+            String paymentStatus = "PAID".equals(booking.getPaymentStatus()) ? "REFUNDED" : booking.getPaymentStatus();
 
-            database.bookingDao().updateBooking(booking);
+            // Update booking status without mutating the row shown by the adapter
+            database.bookingDao().updateBookingAndPaymentStatus(booking.getId(), "CANCELLED", paymentStatus);
+            Booking cancelledBooking = database.bookingDao().getBookingById(booking.getId());
 
             // Update tour booking count (decrease available spots)
             database.tourDao().updateBookingCount(booking.getTourId(), -booking.getNumberOfPeople());
+            entityCache.invalidateTour(booking.getTourId());
 
             // Get user and tour information for email
-            com.example.tourmanagement.model.User user = database.userDao().getUserById(currentUserId);
-            com.example.tourmanagement.model.Tour tour = database.tourDao().getTourById(booking.getTourId());
+            com.example.tourmanagement.model.User user = entityCache.getUser(currentUserId);
+            com.example.tourmanagement.model.Tour tour = entityCache.getTour(booking.getTourId());
+
+            // Add the cancellation to the admin digest
+            if (user != null && tour != null) {
+                NotificationDigests.notifyAdmin(this, NotificationEvent.Type.CANCELLED, user, tour, cancelledBooking);
+            }
 
             // Send cancellation confirmation email
             if (user != null && tour != null && user.getEmail() != null && !user.getEmail().isEmpty()) {
                 com.example.tourmanagement.utils.EmailService.sendBookingCancellationEmail(
-                    user, tour, booking, new com.example.tourmanagement.utils.EmailService.EmailCallback() {
+                    BookingHistoryActivity.this, user, tour, cancelledBooking, new com.example.tourmanagement.utils.EmailService.EmailCallback() {
                         @Override
                         public void onSuccess() {
                             android.util.Log.d("BookingHistoryActivity", "Cancellation email sent successfully");
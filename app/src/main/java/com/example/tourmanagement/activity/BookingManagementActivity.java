@@ -2,10 +2,13 @@ package com.example.tourmanagement.activity;
 
 import android.os.Bundle;
 import android.view.View;
+import android.widget.Button;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.tourmanagement.R;
@@ -14,7 +17,11 @@ import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.BulkBookingActions;
 import com.example.tourmanagement.utils.EmailService;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.TaskScheduler;
+import com.example.tourmanagement.viewmodel.BookingManagementViewModel;
 import java.util.List;
 
 /**
@@ -32,7 +39,7 @@ import java.util.List;
  * - Reject pending bookings (changes status to CANCELLED)
  * - View booking details and customer information
  * - Filter bookings by status
- * - Bulk actions for multiple bookings
+ * - Bulk approve/reject of selected pending bookings in one transaction
  *
  * @author Tour Management Team
  * @version 1.0
@@ -45,6 +52,10 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
      */
     private TextView tvPendingCount, tvConfirmedCount, tvCancelledCount, tvEmptyMessage;
     private RecyclerView recyclerViewBookings;
+    private View layoutBulkActions;
+    private TextView tvSelectionCount;
+    private ProgressBar progressBulk;
+    private Button btnBulkConfirm, btnBulkCancel;
 
     /**
      * Adapter for booking management
@@ -55,11 +66,13 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
      * Database instance
      */
     private TourManagementDatabase database;
+    private EntityCache entityCache;
+    private final TaskScheduler scheduler = TaskScheduler.getInstance();
 
     /**
-     * Current filter status
+     * Holds the bookings, statistics and current filter (ALL, PENDING, CONFIRMED, CANCELLED)
      */
-    private String currentFilter = "ALL"; // ALL, PENDING, CONFIRMED, CANCELLED
+    private BookingManagementViewModel viewModel;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -68,6 +81,7 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
 
         // Initialize database
         database = TourManagementDatabase.getDatabase(this);
+        entityCache = EntityCache.getInstance(this);
 
         // Initialize UI components
         initializeViews();
@@ -75,11 +89,10 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
         // Setup RecyclerView
         setupRecyclerView();
 
-        // Load bookings
-        loadBookings();
-
-        // Load statistics
-        loadBookingStatistics();
+        // Bookings and statistics are loaded once by the ViewModel and kept across rotations
+        viewModel = new ViewModelProvider(this).get(BookingManagementViewModel.class);
+        observeBookings();
+        updateFilterButtonStates();
     }
 
     /**
@@ -91,6 +104,11 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
         tvCancelledCount = findViewById(R.id.tv_cancelled_count);
         tvEmptyMessage = findViewById(R.id.tv_empty_message);
         recyclerViewBookings = findViewById(R.id.recycler_view_bookings);
+        layoutBulkActions = findViewById(R.id.layout_bulk_actions);
+        tvSelectionCount = findViewById(R.id.tv_selection_count);
+        progressBulk = findViewById(R.id.progress_bulk);
+        btnBulkConfirm = findViewById(R.id.btn_bulk_confirm);
+        btnBulkCancel = findViewById(R.id.btn_bulk_cancel);
 
         // Setup toolbar
         setSupportActionBar(findViewById(R.id.toolbar));
@@ -104,6 +122,12 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
         findViewById(R.id.btn_filter_pending).setOnClickListener(v -> filterBookings("PENDING"));
         findViewById(R.id.btn_filter_confirmed).setOnClickListener(v -> filterBookings("CONFIRMED"));
         findViewById(R.id.btn_filter_cancelled).setOnClickListener(v -> filterBookings("CANCELLED"));
+
+        // Setup bulk action buttons
+        findViewById(R.id.btn_select_all_pending).setOnClickListener(v -> bookingAdapter.selectAllPending());
+        findViewById(R.id.btn_clear_selection).setOnClickListener(v -> bookingAdapter.clearSelection());
+        btnBulkConfirm.setOnClickListener(v -> onBulkAction(BulkBookingActions.CONFIRM));
+        btnBulkCancel.setOnClickListener(v -> onBulkAction(BulkBookingActions.CANCEL));
     }
 
     /**
@@ -116,75 +140,38 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
     }
 
     /**
-     * Loads bookings based on current filter
+     * Binds the screen to the ViewModel, which keeps the bookings, counts and
+     * filter across configuration changes
      */
-    private void loadBookings() {
-        new Thread(() -> {
-            try {
-                List<Booking> bookings;
-
-                switch (currentFilter) {
-                    case "PENDING":
-                        bookings = database.bookingDao().getBookingsByStatus("PENDING");
-                        break;
-                    case "CONFIRMED":
-                        bookings = database.bookingDao().getBookingsByStatus("CONFIRMED");
-                        break;
-                    case "CANCELLED":
-                        bookings = database.bookingDao().getBookingsByStatus("CANCELLED");
-                        break;
-                    default:
-                        bookings = database.bookingDao().getAllBookings();
-                        break;
-                }
-
-                runOnUiThread(() -> {
-                    if (bookings.isEmpty()) {
-                        showEmptyState();
-                    } else {
-                        hideEmptyState();
-                        bookingAdapter.updateBookings(bookings);
-                    }
-                });
-
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    showToast("Error loading bookings: " + e.getMessage());
-                });
+    private void observeBookings() {
+        viewModel.getBookings().observe(this, bookings -> {
+            if (bookings.isEmpty()) {
+                showEmptyState();
+            } else {
+                hideEmptyState();
+                bookingAdapter.updateBookings(bookings);
             }
-        }).start();
-    }
-
-    /**
-     * Loads and displays booking statistics
-     */
-    private void loadBookingStatistics() {
-        new Thread(() -> {
-            try {
-                int pendingCount = database.bookingDao().getBookingCountByStatus("PENDING");
-                int confirmedCount = database.bookingDao().getBookingCountByStatus("CONFIRMED");
-                int cancelledCount = database.bookingDao().getBookingCountByStatus("CANCELLED");
+        });
 
-                runOnUiThread(() -> {
-                    tvPendingCount.setText("Pending: " + pendingCount);
-                    tvConfirmedCount.setText("Confirmed: " + confirmedCount);
-                    tvCancelledCount.setText("Cancelled: " + cancelledCount);
-                });
+        viewModel.getCounts().observe(this, snapshot -> {
+            tvPendingCount.setText("Pending: " + snapshot.pendingBookings);
+            tvConfirmedCount.setText("Confirmed: " + snapshot.confirmedBookings);
+            tvCancelledCount.setText("Cancelled: " + snapshot.cancelledBookings);
+        });
 
-            } catch (Exception e) {
-                runOnUiThread(() -> {
-                    showToast("Error loading statistics: " + e.getMessage());
-                });
+        viewModel.getError().observe(this, error -> {
+            if (error != null) {
+                showToast(error);
+                viewModel.clearError();
             }
-        }).start();
+        });
     }
 
     /**
      * Filters bookings by status
      */
     private void filterBookings(String status) {
-        currentFilter = status;
-        loadBookings();
+        viewModel.setFilter(status);
 
         // Update button states (you can add visual feedback here)
         updateFilterButtonStates();
@@ -201,7 +188,7 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
         findViewById(R.id.btn_filter_cancelled).setSelected(false);
 
         // Set selected button
-        switch (currentFilter) {
+        switch (viewModel.getFilter()) {
             case "ALL":
                 findViewById(R.id.btn_filter_all).setSelected(true);
                 break;
@@ -267,29 +254,110 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
         showBookingDetailsDialog(booking);
     }
 
+    /**
+     * Shows or hides the bulk action bar as bookings are selected
+     */
+    @Override
+    public void onSelectionChanged(int selectedCount) {
+        layoutBulkActions.setVisibility(selectedCount > 0 ? View.VISIBLE : View.GONE);
+        tvSelectionCount.setText(selectedCount + " selected");
+    }
+
+    /**
+     * Asks for confirmation before approving or rejecting the selected bookings
+     */
+    private void onBulkAction(String action) {
+        List<Integer> bookingIds = bookingAdapter.getSelectedIds();
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        boolean confirm = BulkBookingActions.CONFIRM.equals(action);
+        showConfirmationDialog(
+            confirm ? "Approve Bookings" : "Reject Bookings",
+            "Are you sure you want to " + (confirm ? "approve " : "reject ") + bookingIds.size() +
+            " booking(s)?\n\n" +
+            (confirm ? "This will confirm the bookings and notify the customers."
+                     : "This will cancel the bookings, release their seats and notify the customers."),
+            () -> runBulkAction(action, bookingIds)
+        );
+    }
+
+    /**
+     * Applies a bulk action in the background, showing its progress
+     */
+    private void runBulkAction(String action, List<Integer> bookingIds) {
+        setBulkInProgress(true);
+        progressBulk.setMax(bookingIds.size());
+        progressBulk.setProgress(0);
+
+        BulkBookingActions.applyAsync(this, action, bookingIds, new BulkBookingActions.Callback() {
+            @Override
+            public void onProgress(int processed, int total) {
+                progressBulk.setMax(total);
+                progressBulk.setProgress(processed);
+            }
+
+            @Override
+            public void onComplete(BulkBookingActions.Result result) {
+                setBulkInProgress(false);
+                bookingAdapter.clearSelection();
+                viewModel.refresh();
+
+                if (result.isPartial()) {
+                    new AlertDialog.Builder(BookingManagementActivity.this)
+                        .setTitle("Bulk Action Finished")
+                        .setMessage(result.getSummary())
+                        .setPositiveButton("OK", null)
+                        .show();
+                } else {
+                    showToast(result.getSummary());
+                }
+            }
+
+            @Override
+            public void onError(Exception error) {
+                setBulkInProgress(false);
+                viewModel.refresh();
+                showToast("No bookings were changed: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Disables the bulk buttons while a bulk action runs
+     */
+    private void setBulkInProgress(boolean inProgress) {
+        progressBulk.setVisibility(inProgress ? View.VISIBLE : View.GONE);
+        btnBulkConfirm.setEnabled(!inProgress);
+        btnBulkCancel.setEnabled(!inProgress);
+        findViewById(R.id.btn_select_all_pending).setEnabled(!inProgress);
+        findViewById(R.id.btn_clear_selection).setEnabled(!inProgress);
+    }
+
     /**
      * Approves a booking and updates status to CONFIRMED
      */
     private void approveBooking(Booking booking) {
-        new Thread(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             try {
-                // Update booking status
-                booking.setBookingStatus("CONFIRMED");
-                booking.setPaymentStatus("PAID");
-                database.bookingDao().updateBooking(booking);
+                // Only a booking that is still pending is confirmed; the row shown by the adapter is not mutated
+                if (database.bookingDao().updatePendingBookingStatus(booking.getId(), "CONFIRMED", "PAID") != 1) {
+                    onNoLongerPending();
+                    return;
+                }
+                Booking updatedBooking = database.bookingDao().getBookingById(booking.getId());
 
                 // Get user and tour information for email
-                User user = database.userDao().getUserById(booking.getUserId());
-                Tour tour = database.tourDao().getTourById(booking.getTourId());
+                User user = entityCache.getUser(booking.getUserId());
+                Tour tour = entityCache.getTour(booking.getTourId());
 
                 runOnUiThread(() -> {
                     showToast("Booking approved successfully!");
-                    loadBookings();
-                    loadBookingStatistics();
+                    viewModel.refresh();
 
                     // Send confirmation email
                     if (user != null && tour != null && user.getEmail() != null && !user.getEmail().isEmpty()) {
-                        sendBookingApprovalEmail(user, tour, booking);
+                        sendBookingApprovalEmail(user, tour, updatedBooking);
                     }
                 });
 
@@ -298,35 +366,41 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
                     showToast("Error approving booking: " + e.getMessage());
                 });
             }
-        }).start();
+        });
     }
 
     /**
      * Rejects a booking and updates status to CANCELLED
      */
     private void rejectBooking(Booking booking) {
-        new Thread(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             try {
-                // Update booking status
-                booking.setBookingStatus("CANCELLED");
-                booking.setPaymentStatus("CANCELLED");
-                database.bookingDao().updateBooking(booking);
-
-                // Release tour slots
-                database.tourDao().updateBookingCount(booking.getTourId(), -booking.getNumberOfPeople());
+                // Only a booking that is still pending is rejected, and only then are its seats released
+                boolean rejected = database.runInTransaction(() -> {
+                    if (database.bookingDao().updatePendingBookingStatus(booking.getId(), "CANCELLED", "CANCELLED") != 1) {
+                        return false;
+                    }
+                    database.tourDao().updateBookingCount(booking.getTourId(), -booking.getNumberOfPeople());
+                    return true;
+                });
+                if (!rejected) {
+                    onNoLongerPending();
+                    return;
+                }
+                entityCache.invalidateTour(booking.getTourId());
+                Booking updatedBooking = database.bookingDao().getBookingById(booking.getId());
 
                 // Get user and tour information for email
-                User user = database.userDao().getUserById(booking.getUserId());
-                Tour tour = database.tourDao().getTourById(booking.getTourId());
+                User user = entityCache.getUser(booking.getUserId());
+                Tour tour = entityCache.getTour(booking.getTourId());
 
                 runOnUiThread(() -> {
                     showToast("Booking rejected successfully!");
-                    loadBookings();
-                    loadBookingStatistics();
+                    viewModel.refresh();
 
                     // Send rejection email
                     if (user != null && tour != null && user.getEmail() != null && !user.getEmail().isEmpty()) {
-                        sendBookingRejectionEmail(user, tour, booking);
+                        sendBookingRejectionEmail(user, tour, updatedBooking);
                     }
                 });
 
@@ -335,7 +409,18 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
                     showToast("Error rejecting booking: " + e.getMessage());
                 });
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Reports a booking that was cancelled or confirmed (e.g. expired unpaid) since the list was loaded
+     * and refreshes the list
+     */
+    private void onNoLongerPending() {
+        runOnUiThread(() -> {
+            showToast("This booking is no longer pending");
+            viewModel.refresh();
+        });
     }
 
     /**
@@ -354,10 +439,10 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
      * Shows detailed booking information dialog
      */
     private void showBookingDetailsDialog(Booking booking) {
-        new Thread(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             try {
-                User user = database.userDao().getUserById(booking.getUserId());
-                Tour tour = database.tourDao().getTourById(booking.getTourId());
+                User user = entityCache.getUser(booking.getUserId());
+                Tour tour = entityCache.getTour(booking.getTourId());
 
                 runOnUiThread(() -> {
                     String details = buildBookingDetailsText(booking, user, tour);
@@ -374,7 +459,7 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
                     showToast("Error loading booking details: " + e.getMessage());
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -416,7 +501,7 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
      * Sends booking approval email to customer
      */
     private void sendBookingApprovalEmail(User user, Tour tour, Booking booking) {
-        EmailService.sendBookingConfirmationEmail(user, tour, booking, new EmailService.EmailCallback() {
+        EmailService.sendBookingConfirmationEmail(this, user, tour, booking, new EmailService.EmailCallback() {
             @Override
             public void onSuccess() {
                 android.util.Log.d("BookingManagement", "Approval email sent successfully");
@@ -433,7 +518,7 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
      * Sends booking rejection email to customer
      */
     private void sendBookingRejectionEmail(User user, Tour tour, Booking booking) {
-        EmailService.sendBookingCancellationEmail(user, tour, booking, new EmailService.EmailCallback() {
+        EmailService.sendBookingCancellationEmail(this, user, tour, booking, new EmailService.EmailCallback() {
             @Override
             public void onSuccess() {
                 android.util.Log.d("BookingManagement", "Rejection email sent successfully");
@@ -447,10 +532,10 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadBookings();
-        loadBookingStatistics();
+    protected void onRestart() {
+        super.onRestart();
+        // Back from another screen, bookings may have changed meanwhile
+        viewModel.refresh();
     }
 
     /**
@@ -460,6 +545,16 @@ public class BookingManagementActivity extends AppCompatActivity implements Book
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
 
+    @Override
+    public void onBackPressed() {
+        // Leave selection mode before leaving the screen
+        if (bookingAdapter.isSelectionMode()) {
+            bookingAdapter.clearSelection();
+            return;
+        }
+        super.onBackPressed();
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
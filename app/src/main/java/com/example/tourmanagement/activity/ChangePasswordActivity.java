@@ -1,7 +1,6 @@
 package com.example.tourmanagement.activity;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -11,8 +10,9 @@ import androidx.activity.OnBackPressedCallback;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.SessionStore;
+import com.example.tourmanagement.utils.TaskScheduler;
 
 /**
  * Activity for mandatory password change after password reset.
@@ -34,14 +34,9 @@ public class ChangePasswordActivity extends AppCompatActivity {
     private EditText etCurrentPassword, etNewPassword, etConfirmPassword;
     private Button btnChangePassword;
     private TourManagementDatabase database;
-    private ExecutorService executorService;
-    private SharedPreferences sharedPreferences;
+    private TaskScheduler scheduler;
     private int userId;
 
-    // SharedPreferences constants
-    private static final String PREF_NAME = "TourManagementPrefs";
-    private static final String KEY_USER_ID = "user_id";
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -50,11 +45,10 @@ public class ChangePasswordActivity extends AppCompatActivity {
         // Initialize components
         initializeViews();
         database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newSingleThreadExecutor();
-        sharedPreferences = getSharedPreferences(PREF_NAME, MODE_PRIVATE);
+        scheduler = TaskScheduler.getInstance();
 
-        // Get user ID from preferences
-        userId = sharedPreferences.getInt(KEY_USER_ID, -1);
+        // Get user ID from the session
+        userId = SessionStore.getInstance(this).getUserId();
         if (userId == -1) {
             Toast.makeText(this, "Session expired. Please login again.", Toast.LENGTH_LONG).show();
             redirectToLogin();
@@ -113,7 +107,7 @@ public class ChangePasswordActivity extends AppCompatActivity {
         btnChangePassword.setEnabled(false);
 
         // Process password change
-        executorService.execute(new Runnable() {
+        scheduler.execute(TaskScheduler.Pool.WRITE, new Runnable() {
             @Override
             public void run() {
                 processPasswordChange(currentPassword, newPassword);
@@ -202,6 +196,7 @@ public class ChangePasswordActivity extends AppCompatActivity {
 
             // Update password and clear change requirement
             database.userDao().updateUserPassword(userId, newPassword, false, System.currentTimeMillis());
+            EntityCache.getInstance(this).invalidateUser(userId);
 
             runOnUiThread(new Runnable() {
                 @Override
@@ -239,12 +234,4 @@ public class ChangePasswordActivity extends AppCompatActivity {
         startActivity(intent);
         finish();
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
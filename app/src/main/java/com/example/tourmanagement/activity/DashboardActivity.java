@@ -1,7 +1,6 @@
 package com.example.tourmanagement.activity;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -10,6 +9,7 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
@@ -17,9 +17,14 @@ import com.google.android.material.card.MaterialCardView;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.adapter.TourAdapter;
 import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.DashboardSnapshot;
+import com.example.tourmanagement.model.Discount;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.SessionStore;
 import com.example.tourmanagement.utils.SlidingPopupMenu;
+import com.example.tourmanagement.viewmodel.DashboardViewModel;
 import java.util.List;
 
 /**
@@ -54,14 +59,22 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
      * Database and user session management
      */
     private TourManagementDatabase database;
-    private SharedPreferences sharedPreferences;
+    private EntityCache entityCache;
+    private SessionStore sessionStore;
+    private DashboardViewModel viewModel;
     private User currentUser;
     private boolean isAdmin;
-    private static final String PREF_NAME = "TourManagementPrefs";
-    private static final String KEY_USER_ID = "user_id";
-    private static final String KEY_IS_LOGGED_IN = "is_logged_in";
-    private static final String KEY_IS_ADMIN = "is_admin";
-    private static final int ADMIN_USER_ID = -999;
+    private static final int ADMIN_USER_ID = SessionStore.ADMIN_USER_ID;
+
+    /**
+     * Keeps the welcome message in sync when the user renames themselves
+     */
+    private final SessionStore.Listener sessionListener = principal -> {
+        if (tvWelcome != null && principal.isLoggedIn() && !principal.isAdmin()
+                && principal.getDisplayName() != null) {
+            tvWelcome.setText("Welcome, " + principal.getDisplayName() + "!");
+        }
+    };
 
     /**
      * Custom sliding popup menu
@@ -77,9 +90,11 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_dashboard);
 
-        // Initialize database and preferences
+        // Initialize database and session
         database = TourManagementDatabase.getDatabase(this);
-        sharedPreferences = getSharedPreferences(PREF_NAME, MODE_PRIVATE);
+        entityCache = EntityCache.getInstance(this);
+        sessionStore = SessionStore.getInstance(this);
+        sessionStore.addListener(sessionListener);
 
         // Load current user
         loadCurrentUser();
@@ -90,17 +105,11 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
         // Setup RecyclerView
         setupRecyclerView();
 
-        // Load and display tours
-        loadTours();
-
         // Setup event listeners
         setupEventListeners();
 
-        // Load dashboard statistics
-        loadDashboardStats();
-
-        // Load discount suggestions for users
-        loadDiscountSuggestions();
+        // Tours, discounts and statistics survive rotation in the ViewModel
+        observeDashboardData();
 
         // Initialize custom sliding popup menu
         initializeSlidingMenu();
@@ -108,16 +117,18 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
         // Update admin menu visibility after menu is initialized
         updateAdminMenuVisibility();
 
-        // Populate sample discount data (will only run once)
-        com.example.tourmanagement.utils.DiscountDataPopulator.populateSampleDiscounts(this);
+        // Populate sample discount data (will only run once; not again on recreation)
+        if (savedInstanceState == null) {
+            com.example.tourmanagement.utils.DiscountDataPopulator.populateSampleDiscounts(this);
+        }
     }
 
     /**
      * Loads current user information from session
      */
     private void loadCurrentUser() {
-        int userId = sharedPreferences.getInt(KEY_USER_ID, -1);
-        isAdmin = sharedPreferences.getBoolean(KEY_IS_ADMIN, false);
+        int userId = sessionStore.getUserId();
+        isAdmin = sessionStore.isAdmin();
 
         // Debug logging
         android.util.Log.d("DashboardActivity", "Loading user - userId: " + userId + ", isAdmin: " + isAdmin);
@@ -136,7 +147,7 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
         } else if (userId != -1) {
             // Handle regular user
             android.util.Log.d("DashboardActivity", "Loading regular user from database");
-            currentUser = database.userDao().getUserById(userId);
+            currentUser = entityCache.getUser(userId);
             if (currentUser == null) {
                 android.util.Log.e("DashboardActivity", "User not found in database, logging out");
                 // User not found, logout
@@ -201,6 +212,7 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
         recyclerViewTours.setLayoutManager(new LinearLayoutManager(this));
         tourAdapter = new TourAdapter(this, this);
         recyclerViewTours.setAdapter(tourAdapter);
+        recyclerViewTours.addOnScrollListener(tourAdapter.createImagePreloader());
 
         // Setup RecyclerView for discount suggestions
         recyclerDiscountSuggestions.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
@@ -209,60 +221,47 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
     }
 
     /**
-     * Loads all active tours from database and displays them
+     * Observes tours, discount suggestions and statistics from the ViewModel
+     * The first observer of a new activity gets the retained data without a query.
      */
-    private void loadTours() {
-        try {
-            List<Tour> tours = database.tourDao().getActiveTours();
-
-            // Filter out tours with 0 available slots for regular users
-            // Admin users can see all tours for management purposes
-            if (!isCurrentUserAdmin()) {
-                tours = tours.stream()
-                    .filter(tour -> tour.getAvailableSlots() > 0)
-                    .collect(java.util.stream.Collectors.toList());
-            }
-
-            tourAdapter.updateTours(tours);
-
-            if (tours.isEmpty()) {
-                String message = isCurrentUserAdmin() ?
-                    "No tours available at the moment" :
-                    "No tours with available slots at the moment";
-                showToast(message);
-            }
-        } catch (Exception e) {
-            showToast("Error loading tours: " + e.getMessage());
+    private void observeDashboardData() {
+        viewModel = new ViewModelProvider(this).get(DashboardViewModel.class);
+        viewModel.getTours().observe(this, this::showTours);
+        viewModel.getDiscounts().observe(this, this::showDiscountSuggestions);
+        viewModel.getStats().observe(this, this::showDashboardStats);
+        if (currentUser != null) {
+            viewModel.start(currentUser.getId(), isCurrentUserAdmin());
         }
     }
 
     /**
-     * Loads discount suggestions for the user
+     * Displays the tours loaded by the ViewModel
+     * Regular users only get tours with available slots; admins see all tours.
      */
-    private void loadDiscountSuggestions() {
-        try {
-            if (currentUser != null) {
-                // Load discount suggestions for the user
-                List<com.example.tourmanagement.model.Discount> discounts = database.discountDao().getActiveDiscounts();
-
-                // For admin, show all discounts
-                if (isCurrentUserAdmin()) {
-                    discounts = database.discountDao().getAllDiscounts();
-                }
+    private void showTours(List<Tour> tours) {
+        tourAdapter.updateTours(tours);
+
+        if (tours.isEmpty()) {
+            String message = isCurrentUserAdmin() ?
+                "No tours available at the moment" :
+                "No tours with available slots at the moment";
+            showToast(message);
+        }
+    }
 
-                discountSuggestionAdapter.updateDiscounts(discounts);
+    /**
+     * Displays the discount suggestions loaded by the ViewModel
+     */
+    private void showDiscountSuggestions(List<Discount> discounts) {
+        discountSuggestionAdapter.updateDiscounts(discounts);
 
-                // Show/hide discount suggestions section
-                if (discounts.isEmpty()) {
-                    discountSuggestionsSection.setVisibility(View.GONE);
-                    tvNoDiscountsAvailable.setVisibility(View.VISIBLE);
-                } else {
-                    discountSuggestionsSection.setVisibility(View.VISIBLE);
-                    tvNoDiscountsAvailable.setVisibility(View.GONE);
-                }
-            }
-        } catch (Exception e) {
-            showToast("Error loading discounts: " + e.getMessage());
+        // Show/hide discount suggestions section
+        if (discounts.isEmpty()) {
+            discountSuggestionsSection.setVisibility(View.GONE);
+            tvNoDiscountsAvailable.setVisibility(View.VISIBLE);
+        } else {
+            discountSuggestionsSection.setVisibility(View.VISIBLE);
+            tvNoDiscountsAvailable.setVisibility(View.GONE);
         }
     }
 
@@ -307,27 +306,16 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
     }
 
     /**
-     * Loads dashboard statistics for the stats cards
+     * Displays the headline numbers loaded by the ViewModel
      */
-    private void loadDashboardStats() {
-        try {
-            // Load total tours count
-            List<Tour> allTours = database.tourDao().getActiveTours();
-            tvTotalTours.setText(String.valueOf(allTours.size()));
+    private void showDashboardStats(DashboardSnapshot snapshot) {
+        tvTotalTours.setText(String.valueOf(snapshot.activeTours));
 
-            // Load user bookings count
-            if (currentUser != null && !isAdmin) {
-                int bookingsCount = database.bookingDao().getUserBookingsCount(currentUser.getId());
-                tvUserBookings.setText(String.valueOf(bookingsCount));
-            } else {
-                // For admin, show total bookings in system
-                int totalBookings = database.bookingDao().getTotalBookingsCount();
-                tvUserBookings.setText(String.valueOf(totalBookings));
-            }
-        } catch (Exception e) {
-            // Handle error gracefully
-            tvTotalTours.setText("0");
-            tvUserBookings.setText("0");
+        if (currentUser != null && !isAdmin) {
+            tvUserBookings.setText(String.valueOf(snapshot.userBookings));
+        } else {
+            // For admin, show total bookings in system
+            tvUserBookings.setText(String.valueOf(snapshot.totalBookings));
         }
     }
 
@@ -560,8 +548,9 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
             .setPositiveButton("Delete", (dialog, which) -> {
                 try {
                     database.tourDao().deleteTour(tour);
+                    entityCache.invalidateTour(tour.getId());
                     showToast("Tour deleted successfully");
-                    loadTours(); // Refresh the list
+                    viewModel.refresh(); // Refresh the list
                 } catch (Exception e) {
                     showToast("Error deleting tour: " + e.getMessage());
                 }
@@ -584,9 +573,7 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
      * Clears session data and redirects to login
      */
     private void logout() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.clear();
-        editor.apply();
+        sessionStore.signOut();
 
         showToast("Logged out successfully");
         redirectToLogin();
@@ -603,13 +590,19 @@ public class DashboardActivity extends AppCompatActivity implements TourAdapter.
     }
 
     /**
-     * Refreshes tour list when returning from other activities
+     * Refreshes tours and statistics when returning from other activities
+     * Not called on rotation or recreation, which reuse the ViewModel's data.
      */
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadTours();
-        loadDashboardStats();
+    protected void onRestart() {
+        super.onRestart();
+        viewModel.refresh();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        sessionStore.removeListener(sessionListener);
     }
 
     /**
@@ -124,9 +124,9 @@ public class DiscountManagementActivity extends AppCompatActivity
     @Override
     public void onToggleDiscountStatus(Discount discount) {
         try {
-            discount.setActive(!discount.isActive());
-            database.discountDao().updateDiscount(discount);
-            String message = discount.isActive() ? "Discount activated" : "Discount deactivated";
+            boolean activate = !discount.isActive();
+            database.discountDao().updateDiscountStatus(discount.getId(), activate);
+            String message = activate ? "Discount activated" : "Discount deactivated";
             Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
             loadDiscounts(); // Refresh the list
         } catch (Exception e) {
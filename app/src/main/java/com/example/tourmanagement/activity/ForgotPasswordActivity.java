@@ -12,8 +12,8 @@ import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.User;
 import com.example.tourmanagement.utils.EmailService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.TaskScheduler;
 
 /**
  * Activity for handling forgot password functionality.
@@ -37,7 +37,7 @@ public class ForgotPasswordActivity extends AppCompatActivity {
     private TextView tvBackToLogin;
     private ProgressBar progressBar;
     private TourManagementDatabase database;
-    private ExecutorService executorService;
+    private TaskScheduler scheduler;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,7 +47,7 @@ public class ForgotPasswordActivity extends AppCompatActivity {
         // Initialize components
         initializeViews();
         database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newSingleThreadExecutor();
+        scheduler = TaskScheduler.getInstance();
 
         setupEventListeners();
     }
@@ -96,7 +96,7 @@ public class ForgotPasswordActivity extends AppCompatActivity {
         showProgress(true);
 
         // Process forgot password request
-        executorService.execute(new Runnable() {
+        scheduler.execute(TaskScheduler.Pool.IO, new Runnable() {
             @Override
             public void run() {
                 processForgotPasswordRequest(email);
@@ -149,9 +149,11 @@ public class ForgotPasswordActivity extends AppCompatActivity {
             // Update user with temporary password
             long resetTimestamp = System.currentTimeMillis();
             database.userDao().updateUserPassword(user.getId(), temporaryPassword, true, resetTimestamp);
+            EntityCache.getInstance(this).invalidateUser(user.getId());
 
             // Send email with temporary password
             EmailService.sendPasswordResetEmail(
+                ForgotPasswordActivity.this,
                 user.getEmail(),
                 user.getFullName(),
                 temporaryPassword,
@@ -205,12 +207,4 @@ public class ForgotPasswordActivity extends AppCompatActivity {
         btnSendReset.setEnabled(!show);
         etEmail.setEnabled(!show);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
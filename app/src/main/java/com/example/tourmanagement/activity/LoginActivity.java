@@ -1,7 +1,6 @@
 package com.example.tourmanagement.activity;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -12,6 +11,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.SessionStore;
 
 /**
  * Login Activity for user authentication in the tour management system.
@@ -19,7 +19,7 @@ import com.example.tourmanagement.model.User;
  * Features:
  * - User login with username and password
  * - Input validation and error handling
- * - Session management with SharedPreferences
+ * - Session management with SessionStore
  * - Navigation to registration and main dashboard
  * - Remember user login state
  *
@@ -49,13 +49,9 @@ public class LoginActivity extends AppCompatActivity {
     private TourManagementDatabase database;
 
     /**
-     * SharedPreferences for session management
+     * Session of the logged-in user
      */
-    private SharedPreferences sharedPreferences;
-    private static final String PREF_NAME = "TourManagementPrefs";
-    private static final String KEY_USER_ID = "user_id";
-    private static final String KEY_IS_LOGGED_IN = "is_logged_in";
-    private static final String KEY_IS_ADMIN = "is_admin";
+    private SessionStore sessionStore;
 
     // Admin credentials
     private static final String ADMIN_USERNAME = "admin";
@@ -72,9 +68,9 @@ public class LoginActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
 
-        // Initialize database and shared preferences
+        // Initialize database and session
         database = TourManagementDatabase.getDatabase(this);
-        sharedPreferences = getSharedPreferences(PREF_NAME, MODE_PRIVATE);
+        sessionStore = SessionStore.getInstance(this);
 
         // Check if user is already logged in
         checkLoginStatus();
@@ -90,8 +86,7 @@ public class LoginActivity extends AppCompatActivity {
      * Checks if user is already logged in and redirects to dashboard
      */
     private void checkLoginStatus() {
-        boolean isLoggedIn = sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
-        if (isLoggedIn) {
+        if (sessionStore.isLoggedIn()) {
             navigateToDashboard();
         }
     }
@@ -152,7 +147,7 @@ public class LoginActivity extends AppCompatActivity {
         // Check for admin login first
         if (ADMIN_USERNAME.equals(username) && ADMIN_PASSWORD.equals(password)) {
             // Admin login successful
-            saveAdminSession();
+            sessionStore.signInAdmin();
             showToast("Admin login successful! Welcome Administrator");
             navigateToDashboard();
             return;
@@ -164,7 +159,7 @@ public class LoginActivity extends AppCompatActivity {
 
             if (user != null) {
                 // Login successful
-                saveUserSession(user.getId());
+                sessionStore.signIn(user);
 
                 // Check if user must change password (for reset functionality)
                 if (user.isMustChangePassword()) {
@@ -219,33 +214,6 @@ public class LoginActivity extends AppCompatActivity {
         return true;
     }
 
-    /**
-     * Saves user session information in SharedPreferences
-     *
-     * @param userId User ID to save in session
-     */
-    private void saveUserSession(int userId) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putInt(KEY_USER_ID, userId);
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putBoolean(KEY_IS_ADMIN, false);
-        editor.apply();
-    }
-
-    /**
-     * Saves admin session information in SharedPreferences
-     */
-    private void saveAdminSession() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putInt(KEY_USER_ID, -999); // Special admin user ID
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putBoolean(KEY_IS_ADMIN, true);
-        editor.apply();
-
-        // Debug logging
-        android.util.Log.d("LoginActivity", "Admin session saved - userId: -999, isAdmin: true");
-    }
-
     /**
      * Navigates to the main dashboard activity
      */
@@ -2,7 +2,6 @@ package com.example.tourmanagement.activity;
 
 import android.app.AlertDialog;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
@@ -27,16 +26,16 @@ import com.example.tourmanagement.R;
 import com.example.tourmanagement.dao.UserDao;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.LocalMediaStore;
+import com.example.tourmanagement.utils.SessionStore;
+import com.example.tourmanagement.utils.TaskScheduler;
 import com.google.android.material.textfield.TextInputEditText;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * ProfileActivity for user profile management.
@@ -64,14 +63,8 @@ public class ProfileActivity extends AppCompatActivity {
     // Database and utilities
     private TourManagementDatabase database;
     private UserDao userDao;
-    private SharedPreferences sharedPreferences;
-    private ExecutorService executorService;
-
-    // Session management constants (matching existing login system)
-    private static final String PREF_NAME = "TourManagementPrefs";
-    private static final String KEY_USER_ID = "user_id";
-    private static final String KEY_IS_LOGGED_IN = "is_logged_in";
-    private static final String KEY_IS_ADMIN = "is_admin";
+    private SessionStore sessionStore;
+    private TaskScheduler scheduler;
 
     // User data
     private User currentUser;
@@ -133,8 +126,8 @@ public class ProfileActivity extends AppCompatActivity {
         // Initialize database and utilities
         database = TourManagementDatabase.getDatabase(this);
         userDao = database.userDao();
-        sharedPreferences = getSharedPreferences(PREF_NAME, MODE_PRIVATE);
-        executorService = Executors.newSingleThreadExecutor();
+        sessionStore = SessionStore.getInstance(this);
+        scheduler = TaskScheduler.getInstance();
 
         // Set click listeners
         setupClickListeners();
@@ -169,7 +162,7 @@ public class ProfileActivity extends AppCompatActivity {
      * Load user profile data from database
      */
     private void loadUserProfile() {
-        int userId = sharedPreferences.getInt(KEY_USER_ID, -1);
+        int userId = sessionStore.getUserId();
 
         if (userId == -1) {
             Log.e(TAG, "No user session found");
@@ -178,7 +171,7 @@ public class ProfileActivity extends AppCompatActivity {
             return;
         }
 
-        executorService.execute(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             try {
                 currentUser = userDao.getUserById(userId);
 
@@ -258,7 +251,7 @@ public class ProfileActivity extends AppCompatActivity {
         currentUser.setPhoneNumber(etPhoneNumber.getText().toString().trim());
         currentUser.setAddress(etAddress.getText().toString().trim());
 
-        executorService.execute(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             try {
                 // Check if email is already taken by another user
                 User existingUser = userDao.getUserByEmail(currentUser.getEmail());
@@ -270,6 +263,8 @@ public class ProfileActivity extends AppCompatActivity {
                 }
 
                 userDao.updateUser(currentUser);
+                EntityCache.getInstance(this).invalidateUser(currentUser.getId());
+                sessionStore.updateDisplayName(currentUser.getFullName());
 
                 runOnUiThread(() -> {
                     Toast.makeText(this, "Profile updated successfully!", Toast.LENGTH_SHORT).show();
@@ -387,9 +382,10 @@ public class ProfileActivity extends AppCompatActivity {
      * Update user password in database
      */
     private void updatePassword(String currentPassword, String newPassword, AlertDialog dialog) {
-        executorService.execute(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             try {
                 userDao.updatePassword(currentUser.getId(), newPassword);
+                EntityCache.getInstance(this).invalidateUser(currentUser.getId());
                 currentUser.setPassword(newPassword); // Update local object
 
                 runOnUiThread(() -> {
@@ -410,9 +406,7 @@ public class ProfileActivity extends AppCompatActivity {
      * Redirect to login activity
      */
     private void redirectToLogin() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.clear();
-        editor.apply();
+        sessionStore.signOut();
 
         Intent intent = new Intent(this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -422,64 +416,31 @@ public class ProfileActivity extends AppCompatActivity {
 
     /**
      * Handle the selected image from gallery
+     * The image is imported into the local media store in the background
      */
     private void handleImageSelection(Uri imageUri) {
-        try {
-            // Save the image to internal storage
-            String savedImagePath = saveImageToInternalStorage(imageUri);
-
-            if (savedImagePath != null) {
-                // Update the current user's profile image path
-                currentUser.setProfileImagePath(savedImagePath);
+        LocalMediaStore.getInstance(this).importImage(imageUri, new LocalMediaStore.ImportCallback() {
+            @Override
+            public void onImported(String ref) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                // Update the current user's profile image reference
+                currentUser.setProfileImagePath(ref);
 
                 // Load the image into the ImageView
                 loadProfileImage();
 
-                Toast.makeText(this, "Profile image updated", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(this, "Failed to save image", Toast.LENGTH_SHORT).show();
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling image selection", e);
-            Toast.makeText(this, "Error processing image", Toast.LENGTH_SHORT).show();
-        }
-    }
-
-    /**
-     * Save selected image to internal storage
-     */
-    private String saveImageToInternalStorage(Uri imageUri) {
-        try {
-            // Create a unique filename for the profile image
-            String fileName = "profile_" + currentUser.getId() + "_" + System.currentTimeMillis() + ".jpg";
-
-            // Get the internal storage directory for profile images
-            File profileImagesDir = new File(getFilesDir(), "profile_images");
-            if (!profileImagesDir.exists()) {
-                profileImagesDir.mkdirs();
+                Toast.makeText(ProfileActivity.this, "Profile image updated", Toast.LENGTH_SHORT).show();
             }
 
-            File imageFile = new File(profileImagesDir, fileName);
-
-            // Copy the image from URI to internal storage
-            try (java.io.InputStream inputStream = getContentResolver().openInputStream(imageUri);
-                 FileOutputStream outputStream = new FileOutputStream(imageFile)) {
-
-                if (inputStream != null) {
-                    byte[] buffer = new byte[1024];
-                    int bytesRead;
-                    while ((bytesRead = inputStream.read(buffer)) != -1) {
-                        outputStream.write(buffer, 0, bytesRead);
-                    }
+            @Override
+            public void onError(Exception error) {
+                if (!isFinishing() && !isDestroyed()) {
+                    Toast.makeText(ProfileActivity.this, "Failed to save image", Toast.LENGTH_SHORT).show();
                 }
             }
-
-            return imageFile.getAbsolutePath();
-
-        } catch (IOException e) {
-            Log.e(TAG, "Error saving image to internal storage", e);
-            return null;
-        }
+        });
     }
 
     /**
@@ -487,7 +448,8 @@ public class ProfileActivity extends AppCompatActivity {
      */
     private void loadProfileImage() {
         if (currentUser != null && !TextUtils.isEmpty(currentUser.getProfileImagePath())) {
-            File imageFile = new File(currentUser.getProfileImagePath());
+            File imageFile = new File(LocalMediaStore.getInstance(this)
+                .resolve(currentUser.getProfileImagePath(), LocalMediaStore.Variant.AVATAR));
             if (imageFile.exists()) {
                 Glide.with(this)
                     .load(imageFile)
@@ -504,12 +466,4 @@ public class ProfileActivity extends AppCompatActivity {
             imgProfilePicture.setImageResource(R.drawable.ic_default_profile);
         }
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
@@ -1,19 +1,36 @@
 package com.example.tourmanagement.activity;
 
+import android.content.Intent;
 import android.graphics.Color;
+import android.net.Uri;
 import android.os.Bundle;
+import android.view.Menu;
 import android.view.MenuItem;
+import android.widget.LinearLayout;
+import android.widget.ProgressBar;
 import android.widget.TextView;
+import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.adapter.RevenueReportAdapter;
-import com.example.tourmanagement.database.TourManagementDatabase;
-import com.example.tourmanagement.model.Booking;
-import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.DashboardSnapshot;
+import com.example.tourmanagement.model.RevenueBucket;
+import com.example.tourmanagement.model.TourRevenue;
+import com.example.tourmanagement.utils.BookingExport;
+import com.example.tourmanagement.utils.BookingFunnel;
+import com.example.tourmanagement.utils.RevenueSeries;
+import com.example.tourmanagement.viewmodel.RevenueManagementViewModel;
+import com.example.tourmanagement.worker.BookingExportWorker;
 import com.github.mikephil.charting.charts.LineChart;
 import com.github.mikephil.charting.charts.PieChart;
 import com.github.mikephil.charting.components.Description;
@@ -25,10 +42,7 @@ import com.github.mikephil.charting.formatter.IndexAxisValueFormatter;
 import com.github.mikephil.charting.formatter.ValueFormatter;
 import com.github.mikephil.charting.utils.ColorTemplate;
 import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Revenue Management Activity for admin users.
@@ -40,6 +54,8 @@ import java.util.concurrent.Executors;
  * - Tour-wise revenue breakdown
  * - Top performing tours
  * - Revenue analytics
+ * - Booking funnel: conversion, time to confirm and cancellation rate
+ * - Streaming CSV/PDF export of the booking ledger and monthly revenue
  *
  * @author Tour Management Team
  * @version 1.0
@@ -49,15 +65,20 @@ public class RevenueManagementActivity extends AppCompatActivity {
 
     // UI Components
     private TextView tvTotalRevenue, tvMonthlyRevenue, tvTotalBookings, tvAverageBookingValue;
+    private TextView tvConversionRate, tvTimeToConfirm, tvCancellationRate;
     private RecyclerView recyclerViewRevenueDetails;
     private LineChart lineChartRevenue;
     private PieChart pieChartTours;
 
-    // Data and Database
-    private TourManagementDatabase database;
-    private ExecutorService executorService;
+    // Data, kept across configuration changes by the ViewModel
+    private RevenueManagementViewModel viewModel;
     private RevenueReportAdapter revenueAdapter;
 
+    // Export: one SAF launcher per MIME type, since CreateDocument fixes it
+    private ActivityResultLauncher<String> csvExportLauncher;
+    private ActivityResultLauncher<String> pdfExportLauncher;
+    private AlertDialog exportDialog;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -65,9 +86,17 @@ public class RevenueManagementActivity extends AppCompatActivity {
 
         initializeViews();
         setupToolbar();
-        setupDatabase();
         setupRecyclerView();
-        loadRevenueData();
+        setupCharts();
+        setupExportLaunchers();
+        observeRevenueData();
+
+        // Re-attach to an export started before a rotation
+        UUID exportWorkId = viewModel.getExportWorkId();
+        BookingExport.Report exportReport = viewModel.getExportReport();
+        if (exportWorkId != null && exportReport != null) {
+            showExportProgress(exportWorkId, exportReport);
+        }
     }
 
     private void initializeViews() {
@@ -75,6 +104,9 @@ public class RevenueManagementActivity extends AppCompatActivity {
         tvMonthlyRevenue = findViewById(R.id.tv_monthly_revenue);
         tvTotalBookings = findViewById(R.id.tv_total_bookings);
         tvAverageBookingValue = findViewById(R.id.tv_average_booking_value);
+        tvConversionRate = findViewById(R.id.tv_conversion_rate);
+        tvTimeToConfirm = findViewById(R.id.tv_time_to_confirm);
+        tvCancellationRate = findViewById(R.id.tv_cancellation_rate);
         recyclerViewRevenueDetails = findViewById(R.id.recycler_view_revenue_details);
         lineChartRevenue = findViewById(R.id.line_chart_revenue);
         pieChartTours = findViewById(R.id.pie_chart_tours);
@@ -90,79 +122,42 @@ public class RevenueManagementActivity extends AppCompatActivity {
         }
     }
 
-    private void setupDatabase() {
-        database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newFixedThreadPool(2);
-    }
-
     private void setupRecyclerView() {
         revenueAdapter = new RevenueReportAdapter(this);
         recyclerViewRevenueDetails.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewRevenueDetails.setAdapter(revenueAdapter);
     }
 
-    private void loadRevenueData() {
-        executorService.execute(() -> {
-            // Get total revenue
-            Double totalRevenueResult = database.bookingDao().getTotalRevenue();
-            final double totalRevenue = totalRevenueResult != null ? totalRevenueResult : 0.0;
-
-            // Get monthly revenue
-            Calendar calendar = Calendar.getInstance();
-            calendar.set(Calendar.DAY_OF_MONTH, 1);
-            calendar.set(Calendar.HOUR_OF_DAY, 0);
-            calendar.set(Calendar.MINUTE, 0);
-            calendar.set(Calendar.SECOND, 0);
-            long monthStart = calendar.getTimeInMillis();
-            final double monthlyRevenue = database.bookingDao().getMonthlyRevenue(monthStart);
-
-            // Get total bookings
-            final int totalBookings = database.bookingDao().getTotalBookingsCount();
-
+    private void observeRevenueData() {
+        viewModel = new ViewModelProvider(this).get(RevenueManagementViewModel.class);
+        viewModel.getRevenueData().observe(this, data -> {
+            DashboardSnapshot snapshot = data.snapshot;
             // Calculate average booking value
-            final double averageBookingValue = totalBookings > 0 ? totalRevenue / totalBookings : 0.0;
-
-            // Get tour-wise revenue data
-            List<RevenueReportAdapter.RevenueItem> revenueItems = generateRevenueItems();
+            double averageBookingValue = snapshot.totalBookings > 0 ? snapshot.totalRevenue / snapshot.totalBookings : 0.0;
+            updateUI(snapshot.totalRevenue, snapshot.monthlyRevenue, snapshot.totalBookings, averageBookingValue);
+            if (data.funnel != null) {
+                showFunnel(data.funnel);
+            }
 
-            runOnUiThread(() -> {
-                updateUI(totalRevenue, monthlyRevenue, totalBookings, averageBookingValue);
-                revenueAdapter.updateRevenueItems(revenueItems);
-                setupCharts();
-                loadChartData();
-            });
+            List<RevenueReportAdapter.RevenueItem> revenueItems = generateRevenueItems(data.tourRevenues);
+            revenueAdapter.updateRevenueItems(revenueItems);
+            showLineChart(data.monthlyRevenues);
+            showPieChart(revenueItems);
         });
     }
 
-    private List<RevenueReportAdapter.RevenueItem> generateRevenueItems() {
+    private List<RevenueReportAdapter.RevenueItem> generateRevenueItems(List<TourRevenue> tourRevenues) {
         List<RevenueReportAdapter.RevenueItem> items = new ArrayList<>();
 
-        // Get all tours and calculate revenue for each
-        List<Tour> tours = database.tourDao().getAllTours();
-        for (Tour tour : tours) {
-            List<Booking> tourBookings = database.bookingDao().getBookingsByTourId(tour.getId());
-            double tourRevenue = 0.0;
-            int confirmedBookings = 0;
-
-            for (Booking booking : tourBookings) {
-                if ("CONFIRMED".equals(booking.getBookingStatus())) {
-                    tourRevenue += booking.getTotalAmount();
-                    confirmedBookings++;
-                }
-            }
-
-            if (confirmedBookings > 0) {
-                items.add(new RevenueReportAdapter.RevenueItem(
-                    tour.getTourName(),
-                    tourRevenue,
-                    confirmedBookings
-                ));
-            }
+        // One row per tour with confirmed revenue, already sorted highest first
+        for (TourRevenue tourRevenue : tourRevenues) {
+            items.add(new RevenueReportAdapter.RevenueItem(
+                tourRevenue.tourName,
+                tourRevenue.revenue,
+                tourRevenue.bookingCount
+            ));
         }
 
-        // Sort by revenue (highest first)
-        items.sort((a, b) -> Double.compare(b.getRevenue(), a.getRevenue()));
-
         return items;
     }
 
@@ -175,6 +170,14 @@ public class RevenueManagementActivity extends AppCompatActivity {
         tvAverageBookingValue.setText(currencyFormat.format(averageBookingValue));
     }
 
+    private void showFunnel(BookingFunnel.Report funnel) {
+        tvConversionRate.setText(String.format(Locale.US, "%.1f%%", funnel.conversionRate * 100));
+        tvCancellationRate.setText(String.format(Locale.US, "%.1f%%", funnel.cancellationRate * 100));
+        long minutes = funnel.averageTimeToConfirmMs / 60_000L;
+        tvTimeToConfirm.setText(funnel.averageTimeToConfirmMs == 0 ? "-"
+            : minutes < 120 ? minutes + " min" : String.format(Locale.US, "%.1f h", minutes / 60.0));
+    }
+
     private void setupCharts() {
         // Line Chart setup
         Description lineDesc = new Description();
@@ -213,103 +216,190 @@ public class RevenueManagementActivity extends AppCompatActivity {
         pieLegend.setDrawInside(false);
     }
 
-    private void loadChartData() {
-        executorService.execute(() -> {
-            // Calculate start date for last 12 months
-            Calendar calendar = Calendar.getInstance();
-            calendar.add(Calendar.MONTH, -12);
-            long startDate = calendar.getTimeInMillis();
-
-            // Prepare data for line chart (monthly revenue trend)
-            List<Double> monthlyRevenues = database.bookingDao().getMonthlyRevenueData(startDate);
-            List<String> months = new ArrayList<>();
-            SimpleDateFormat monthFormat = new SimpleDateFormat("MMM yyyy", Locale.US);
-
-            // Generate month labels for the last 12 months
-            calendar = Calendar.getInstance();
-            calendar.add(Calendar.MONTH, -11); // Start from 11 months ago
-            for (int i = 0; i < 12; i++) {
-                months.add(monthFormat.format(calendar.getTime()));
-                calendar.add(Calendar.MONTH, 1);
-            }
+    private void showLineChart(List<RevenueBucket> monthlyRevenues) {
+        List<String> months = new ArrayList<>();
+        for (RevenueBucket bucket : monthlyRevenues) {
+            months.add(RevenueSeries.label(RevenueSeries.Granularity.MONTH, bucket.periodKey));
+        }
 
-            // Ensure we have data for all 12 months (fill with 0 if no data)
-            while (monthlyRevenues.size() < 12) {
-                monthlyRevenues.add(0.0);
+        LineDataSet lineDataSet = new LineDataSet(createLineDataEntries(monthlyRevenues), "Revenue");
+        lineDataSet.setColor(ContextCompat.getColor(this, R.color.primary_color));
+        lineDataSet.setValueTextColor(Color.BLACK);
+        lineDataSet.setLineWidth(3f);
+        lineDataSet.setCircleColor(ContextCompat.getColor(this, R.color.primary_color));
+        lineDataSet.setCircleRadius(6f);
+        lineDataSet.setDrawValues(true);
+        lineDataSet.setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getFormattedValue(float value) {
+                return "$" + Math.round(value);
             }
+        });
+
+        lineChartRevenue.setData(new LineData(lineDataSet));
+        lineChartRevenue.getXAxis().setValueFormatter(new IndexAxisValueFormatter(months));
+        lineChartRevenue.invalidate();
+    }
+
+    private void showPieChart(List<RevenueReportAdapter.RevenueItem> revenueItems) {
+        // Prepare data for pie chart (tour-wise revenue breakdown)
+        ArrayList<PieEntry> pieEntries = new ArrayList<>();
+
+        // Only show top 5 tours to avoid cluttered chart
+        int maxTours = Math.min(5, revenueItems.size());
+        for (int i = 0; i < maxTours; i++) {
+            RevenueReportAdapter.RevenueItem item = revenueItems.get(i);
+            pieEntries.add(new PieEntry((float) item.getRevenue(), item.getTourName()));
+        }
 
-            LineDataSet lineDataSet = new LineDataSet(createLineDataEntries(monthlyRevenues), "Revenue");
-            lineDataSet.setColor(ContextCompat.getColor(this, R.color.primary_color));
-            lineDataSet.setValueTextColor(Color.BLACK);
-            lineDataSet.setLineWidth(3f);
-            lineDataSet.setCircleColor(ContextCompat.getColor(this, R.color.primary_color));
-            lineDataSet.setCircleRadius(6f);
-            lineDataSet.setDrawValues(true);
-            lineDataSet.setValueFormatter(new ValueFormatter() {
+        if (!pieEntries.isEmpty()) {
+            PieDataSet pieDataSet = new PieDataSet(pieEntries, "Tours");
+            pieDataSet.setColors(ColorTemplate.MATERIAL_COLORS);
+            pieDataSet.setValueTextColor(Color.WHITE);
+            pieDataSet.setValueTextSize(12f);
+            pieDataSet.setValueFormatter(new ValueFormatter() {
                 @Override
                 public String getFormattedValue(float value) {
                     return "$" + Math.round(value);
                 }
             });
 
-            LineData lineData = new LineData(lineDataSet);
-            runOnUiThread(() -> {
-                lineChartRevenue.setData(lineData);
-                lineChartRevenue.getXAxis().setValueFormatter(new IndexAxisValueFormatter(months));
-                lineChartRevenue.invalidate();
-            });
+            pieChartTours.setData(new PieData(pieDataSet));
+        } else {
+            // Handle case when no revenue data is available
+            pieChartTours.clear();
+            pieChartTours.setNoDataText("No revenue data available");
+        }
+        pieChartTours.invalidate();
+    }
 
-            // Prepare data for pie chart (tour-wise revenue breakdown)
-            List<RevenueReportAdapter.RevenueItem> revenueItems = generateRevenueItems();
-            ArrayList<PieEntry> pieEntries = new ArrayList<>();
+    private List<Entry> createLineDataEntries(List<RevenueBucket> monthlyRevenues) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < monthlyRevenues.size(); i++) {
+            entries.add(new Entry(i, (float) monthlyRevenues.get(i).revenue));
+        }
+        return entries;
+    }
 
-            // Only show top 5 tours to avoid cluttered chart
-            int maxTours = Math.min(5, revenueItems.size());
-            for (int i = 0; i < maxTours; i++) {
-                RevenueReportAdapter.RevenueItem item = revenueItems.get(i);
-                pieEntries.add(new PieEntry((float) item.getRevenue(), item.getTourName()));
-            }
+    private void setupExportLaunchers() {
+        csvExportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(BookingExport.Format.CSV.mimeType),
+            uri -> startExport(uri, BookingExport.Format.CSV)
+        );
+        pdfExportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(BookingExport.Format.PDF.mimeType),
+            uri -> startExport(uri, BookingExport.Format.PDF)
+        );
+    }
+
+    private void requestExport(BookingExport.Report report, BookingExport.Format format) {
+        // Kept in saved state, since the activity may be recreated behind the file picker
+        viewModel.setPendingExport(report);
+        String fileName = BookingExport.suggestFileName(report, format);
+        if (format == BookingExport.Format.PDF) {
+            pdfExportLauncher.launch(fileName);
+        } else {
+            csvExportLauncher.launch(fileName);
+        }
+    }
+
+    private void startExport(Uri uri, BookingExport.Format format) {
+        BookingExport.Report report = viewModel.getPendingExport();
+        viewModel.setPendingExport(null);
+        if (uri == null || report == null) {
+            return;
+        }
+        try {
+            // Keeps write access if the export outlives this activity
+            getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_WRITE_URI_PERMISSION);
+        } catch (SecurityException e) {
+            // Not every provider offers persistable grants; the worker runs in this process anyway
+        }
+        UUID workId = BookingExport.enqueue(this, uri, report, format);
+        viewModel.setExport(workId, report);
+        showExportProgress(workId, report);
+    }
 
-            if (!pieEntries.isEmpty()) {
-                PieDataSet pieDataSet = new PieDataSet(pieEntries, "Tours");
-                pieDataSet.setColors(ColorTemplate.MATERIAL_COLORS);
-                pieDataSet.setValueTextColor(Color.WHITE);
-                pieDataSet.setValueTextSize(12f);
-                pieDataSet.setValueFormatter(new ValueFormatter() {
-                    @Override
-                    public String getFormattedValue(float value) {
-                        return "$" + Math.round(value);
-                    }
-                });
-
-                PieData pieData = new PieData(pieDataSet);
-                runOnUiThread(() -> {
-                    pieChartTours.setData(pieData);
-                    pieChartTours.invalidate();
-                });
-            } else {
-                // Handle case when no revenue data is available
-                runOnUiThread(() -> {
-                    pieChartTours.setNoDataText("No revenue data available");
-                    pieChartTours.invalidate();
-                });
+    private void showExportProgress(UUID workId, BookingExport.Report report) {
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        LinearLayout content = new LinearLayout(this);
+        content.setOrientation(LinearLayout.VERTICAL);
+        content.setPadding(padding, padding / 2, padding, 0);
+        ProgressBar progressBar = new ProgressBar(this, null, android.R.attr.progressBarStyleHorizontal);
+        progressBar.setIndeterminate(true);
+        progressBar.setMax(1000);
+        TextView tvProgress = new TextView(this);
+        tvProgress.setText("Preparing export...");
+        content.addView(progressBar);
+        content.addView(tvProgress);
+
+        WorkManager workManager = WorkManager.getInstance(this);
+        exportDialog = new AlertDialog.Builder(this)
+            .setTitle("Exporting " + report.title)
+            .setView(content)
+            .setCancelable(false)
+            .setNegativeButton("Cancel", (dialog, which) -> workManager.cancelWorkById(workId))
+            // Hidden exports still report their result here, but not after a rotation
+            .setPositiveButton("Hide", (dialog, which) -> viewModel.setExport(null, null))
+            .show();
+
+        NumberFormat numberFormat = NumberFormat.getIntegerInstance();
+        workManager.getWorkInfoByIdLiveData(workId).observe(this, info -> {
+            if (info == null) {
+                return;
+            }
+            if (info.getState() == WorkInfo.State.BLOCKED) {
+                tvProgress.setText("Waiting for the previous export to finish...");
+            } else if (info.getState() == WorkInfo.State.RUNNING) {
+                long rows = info.getProgress().getLong(BookingExportWorker.KEY_ROWS, 0);
+                long total = info.getProgress().getLong(BookingExportWorker.KEY_TOTAL_ROWS, 0);
+                if (total > 0) {
+                    progressBar.setIndeterminate(false);
+                    progressBar.setProgress((int) Math.min(1000, rows * 1000 / total));
+                    tvProgress.setText(numberFormat.format(rows) + " of " + numberFormat.format(total) + " rows");
+                }
+            } else if (info.getState().isFinished()) {
+                viewModel.setExport(null, null);
+                if (exportDialog != null) {
+                    exportDialog.dismiss();
+                    exportDialog = null;
+                }
+                if (info.getState() == WorkInfo.State.SUCCEEDED) {
+                    long rows = info.getOutputData().getLong(BookingExportWorker.KEY_ROWS, 0);
+                    Toast.makeText(this, "Exported " + numberFormat.format(rows) + " rows", Toast.LENGTH_SHORT).show();
+                } else if (info.getState() == WorkInfo.State.CANCELLED) {
+                    Toast.makeText(this, "Export cancelled", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(this, "Export failed", Toast.LENGTH_LONG).show();
+                }
             }
         });
     }
 
-    private List<Entry> createLineDataEntries(List<Double> monthlyRevenues) {
-        List<Entry> entries = new ArrayList<>();
-        for (int i = 0; i < monthlyRevenues.size(); i++) {
-            entries.add(new Entry(i, monthlyRevenues.get(i).floatValue()));
-        }
-        return entries;
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.revenue_menu, menu);
+        return true;
     }
 
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
-        if (item.getItemId() == android.R.id.home) {
+        int id = item.getItemId();
+        if (id == android.R.id.home) {
             onBackPressed();
             return true;
+        } else if (id == R.id.action_export_ledger_csv) {
+            requestExport(BookingExport.Report.LEDGER, BookingExport.Format.CSV);
+            return true;
+        } else if (id == R.id.action_export_ledger_pdf) {
+            requestExport(BookingExport.Report.LEDGER, BookingExport.Format.PDF);
+            return true;
+        } else if (id == R.id.action_export_revenue_csv) {
+            requestExport(BookingExport.Report.MONTHLY_REVENUE, BookingExport.Format.CSV);
+            return true;
+        } else if (id == R.id.action_export_revenue_pdf) {
+            requestExport(BookingExport.Report.MONTHLY_REVENUE, BookingExport.Format.PDF);
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -317,8 +407,8 @@ public class RevenueManagementActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
+        if (exportDialog != null) {
+            exportDialog.dismiss();
         }
     }
 }
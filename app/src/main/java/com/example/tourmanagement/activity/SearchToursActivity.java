@@ -12,6 +12,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.tourmanagement.R;
@@ -19,15 +20,17 @@ import com.example.tourmanagement.adapter.TourAdapter;
 import com.example.tourmanagement.dao.TourDao;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.SessionStore;
+import com.example.tourmanagement.utils.TaskScheduler;
+import com.example.tourmanagement.viewmodel.SearchToursViewModel;
 import com.google.android.material.textfield.TextInputEditText;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Activity for searching and filtering tours by name and location.
  * Implements live search functionality with real-time filtering.
+ * Matching is accent- and typo-tolerant via TourSearchIndex.
  *
  * @author Tour Management Team
  * @version 1.0
@@ -40,9 +43,13 @@ public class SearchToursActivity extends AppCompatActivity {
     private TextView tvNoResults;
     private TourAdapter tourAdapter;
     private TourDao tourDAO;
-    private ExecutorService executorService;
+    private TaskScheduler scheduler;
+
+    /**
+     * Holds the tour list, query and results across configuration changes
+     */
+    private SearchToursViewModel viewModel;
 
-    private final List<Tour> allTours = new ArrayList<>();
     private final List<Tour> filteredTours = new ArrayList<>();
 
     @Override
@@ -54,8 +61,8 @@ public class SearchToursActivity extends AppCompatActivity {
         setupToolbar();
         setupDatabase();
         setupRecyclerView();
+        observeResults();
         setupSearchFunctionality();
-        loadAllTours();
     }
 
     private void initializeViews() {
@@ -76,7 +83,7 @@ public class SearchToursActivity extends AppCompatActivity {
     private void setupDatabase() {
         TourManagementDatabase database = TourManagementDatabase.getDatabase(this);
         tourDAO = database.tourDao();
-        executorService = Executors.newFixedThreadPool(2);
+        scheduler = TaskScheduler.getInstance();
     }
 
     private void setupRecyclerView() {
@@ -95,17 +102,14 @@ public class SearchToursActivity extends AppCompatActivity {
                 // Navigate to booking page
                 Intent intent = new Intent(SearchToursActivity.this, BookTourActivity.class);
                 intent.putExtra("TOUR_ID", tour.getId());
-                intent.putExtra("USER_ID", getSharedPreferences("TourManagementPrefs", MODE_PRIVATE)
-                        .getInt("user_id", -1));
+                intent.putExtra("USER_ID", SessionStore.getInstance(SearchToursActivity.this).getUserId());
                 startActivity(intent);
             }
 
             @Override
             public void onEditTourClick(Tour tour) {
                 // Check if user is admin and navigate to edit tour (admin only)
-                boolean isAdmin = getSharedPreferences("TourManagementPrefs", MODE_PRIVATE)
-                        .getBoolean("is_admin", false);
-                if (isAdmin) {
+                if (SessionStore.getInstance(SearchToursActivity.this).isAdmin()) {
                     Intent intent = new Intent(SearchToursActivity.this, AddEditTourActivity.class);
                     intent.putExtra("tour_id", tour.getId());
                     startActivity(intent);
@@ -124,6 +128,7 @@ public class SearchToursActivity extends AppCompatActivity {
         tourAdapter = new TourAdapter(this, clickListener);
         recyclerViewSearchResults.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewSearchResults.setAdapter(tourAdapter);
+        recyclerViewSearchResults.addOnScrollListener(tourAdapter.createImagePreloader());
     }
 
     private void setupSearchFunctionality() {
@@ -147,45 +152,19 @@ public class SearchToursActivity extends AppCompatActivity {
         });
     }
 
-    private void loadAllTours() {
-        executorService.execute(() -> {
-            List<Tour> tours = tourDAO.getAllTours();
-            runOnUiThread(() -> {
-                allTours.clear();
-                allTours.addAll(tours);
-
-                // Update the adapter's tour list
-                tourAdapter.updateTours(allTours);
-
-                // Initially show all tours
-                filteredTours.clear();
-                filteredTours.addAll(allTours);
-                updateResultsVisibility();
-            });
-        });
+    private void observeResults() {
+        viewModel = new ViewModelProvider(this).get(SearchToursViewModel.class);
+        viewModel.getResults().observe(this, this::showResults);
     }
 
     private void performSearch(String query) {
-        if (query.isEmpty()) {
-            // Show all tours when search is empty
-            filteredTours.clear();
-            filteredTours.addAll(allTours);
-        } else {
-            // Filter tours by name or location
-            filteredTours.clear();
-            String lowercaseQuery = query.toLowerCase();
-
-            for (Tour tour : allTours) {
-                boolean matchesName = tour.getTourName() != null &&
-                    tour.getTourName().toLowerCase().contains(lowercaseQuery);
-                boolean matchesLocation = tour.getTourLocation() != null &&
-                    tour.getTourLocation().toLowerCase().contains(lowercaseQuery);
-
-                if (matchesName || matchesLocation) {
-                    filteredTours.add(tour);
-                }
-            }
-        }
+        // Ignored by the ViewModel when the restored text matches the shown results
+        viewModel.setQuery(query);
+    }
+
+    private void showResults(List<Tour> results) {
+        filteredTours.clear();
+        filteredTours.addAll(results);
 
         // Update the adapter with filtered results
         tourAdapter.updateTours(filteredTours);
@@ -197,8 +176,7 @@ public class SearchToursActivity extends AppCompatActivity {
             recyclerViewSearchResults.setVisibility(View.GONE);
             tvNoResults.setVisibility(View.VISIBLE);
 
-            String searchQuery = etSearchQuery.getText() != null ?
-                etSearchQuery.getText().toString().trim() : "";
+            String searchQuery = viewModel.getQuery();
             if (searchQuery.isEmpty()) {
                 tvNoResults.setText(R.string.no_tours_available);
             } else {
@@ -225,11 +203,11 @@ public class SearchToursActivity extends AppCompatActivity {
     }
 
     private void deleteTour(Tour tour) {
-        executorService.execute(() -> {
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
             tourDAO.deleteTour(tour);
             runOnUiThread(() -> {
                 // Refresh tour list after deletion
-                loadAllTours();
+                viewModel.refresh();
                 Toast.makeText(SearchToursActivity.this, "Tour deleted successfully", Toast.LENGTH_SHORT).show();
             });
         });
@@ -243,12 +221,4 @@ public class SearchToursActivity extends AppCompatActivity {
         }
         return super.onOptionsItemSelected(item);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
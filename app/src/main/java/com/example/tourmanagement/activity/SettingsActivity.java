@@ -2,18 +2,39 @@ package com.example.tourmanagement.activity;
 
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.text.InputType;
+import android.view.View;
+import android.widget.Button;
 import android.widget.CompoundButton;
+import android.widget.EditText;
 import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.example.tourmanagement.R;
+import com.example.tourmanagement.model.NotificationPreference;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.BookingArchive;
+import com.example.tourmanagement.utils.CapacityReconciler;
+import com.example.tourmanagement.utils.DeltaSync;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.LocalApiServer;
+import com.example.tourmanagement.utils.NotificationDigests;
+import com.example.tourmanagement.utils.RevenueRollup;
+import com.example.tourmanagement.utils.SessionStore;
 
 /**
  * Settings Activity for managing app preferences and configurations.
  *
  * Features:
  * - Dark/Light theme toggle
+ * - Booking email digest preference
+ * - Admin booking notification address
+ * - Admin seat count reconciliation
+ * - Admin sync server and on-demand device sync
+ * - Admin local API for front desk terminals
  * - App version information
  * - User preferences management
  * - Theme persistence across app sessions
@@ -29,6 +50,11 @@ public class SettingsActivity extends AppCompatActivity {
      */
     private SwitchMaterial switchDarkMode;
     private TextView tvThemeStatus;
+    private SwitchMaterial switchEmailDigest;
+    private TextView tvEmailDigestStatus;
+    private SwitchMaterial switchAdminDigest;
+    private TextView tvAdminDigestStatus;
+    private EditText etAdminEmail;
 
     /**
      * Preferences management
@@ -37,6 +63,11 @@ public class SettingsActivity extends AppCompatActivity {
     private static final String PREF_NAME = "TourManagementPrefs";
     private static final String KEY_DARK_MODE = "dark_mode";
 
+    /**
+     * Email address of the logged-in user (null if unknown)
+     */
+    private String userEmail;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -53,6 +84,12 @@ public class SettingsActivity extends AppCompatActivity {
 
         // Setup event listeners
         setupEventListeners();
+
+        // Load notification preferences
+        setupNotificationSettings();
+
+        // Admin maintenance tools
+        setupMaintenanceSettings();
     }
 
     /**
@@ -70,6 +107,11 @@ public class SettingsActivity extends AppCompatActivity {
         // Initialize switches and text views
         switchDarkMode = findViewById(R.id.switch_dark_mode);
         tvThemeStatus = findViewById(R.id.tv_theme_status);
+        switchEmailDigest = findViewById(R.id.switch_email_digest);
+        tvEmailDigestStatus = findViewById(R.id.tv_email_digest_status);
+        switchAdminDigest = findViewById(R.id.switch_admin_digest);
+        tvAdminDigestStatus = findViewById(R.id.tv_admin_digest_status);
+        etAdminEmail = findViewById(R.id.et_admin_email);
 
         // Set app version safely
         TextView tvAppVersion = findViewById(R.id.tv_app_version);
@@ -111,6 +153,279 @@ public class SettingsActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Shows the notification settings that apply to the logged-in account
+     * Customers choose between one email per booking update and a digest;
+     * admins set the address that receives the booking digest.
+     */
+    private void setupNotificationSettings() {
+        SessionStore.Principal principal = SessionStore.getInstance(this).getPrincipal();
+        int userId = principal.getUserId();
+        boolean isAdmin = principal.isAdmin();
+
+        User user = userId > 0 ? EntityCache.getInstance(this).getUser(userId) : null;
+        if (user != null && user.getEmail() != null && !user.getEmail().trim().isEmpty()) {
+            userEmail = user.getEmail();
+            findViewById(R.id.card_notifications).setVisibility(View.VISIBLE);
+            findViewById(R.id.layout_email_digest).setVisibility(View.VISIBLE);
+
+            NotificationDigests.loadPreference(this, userEmail, NotificationPreference.Mode.IMMEDIATE, preference -> {
+                switchEmailDigest.setChecked(preference.isDigest());
+                updateEmailDigestStatus(preference.isDigest());
+                switchEmailDigest.setOnCheckedChangeListener((buttonView, isChecked) -> {
+                    NotificationDigests.savePreference(this, userEmail, isChecked);
+                    updateEmailDigestStatus(isChecked);
+                });
+            });
+        }
+
+        if (isAdmin) {
+            findViewById(R.id.card_notifications).setVisibility(View.VISIBLE);
+            findViewById(R.id.layout_admin_notifications).setVisibility(View.VISIBLE);
+
+            String adminEmail = NotificationDigests.getAdminEmail(this);
+            etAdminEmail.setText(adminEmail);
+            switchAdminDigest.setChecked(true);
+            updateAdminDigestStatus(true);
+            if (!adminEmail.isEmpty()) {
+                NotificationDigests.loadPreference(this, adminEmail, NotificationPreference.Mode.DIGEST, preference -> {
+                    switchAdminDigest.setChecked(preference.isDigest());
+                    updateAdminDigestStatus(preference.isDigest());
+                });
+            }
+            switchAdminDigest.setOnCheckedChangeListener((buttonView, isChecked) -> updateAdminDigestStatus(isChecked));
+
+            Button btnSaveAdminEmail = findViewById(R.id.btn_save_admin_email);
+            btnSaveAdminEmail.setOnClickListener(v -> saveAdminNotificationSettings());
+        }
+    }
+
+    /**
+     * Shows the maintenance tools to admins
+     */
+    private void setupMaintenanceSettings() {
+        if (!SessionStore.getInstance(this).isAdmin()) {
+            return;
+        }
+        findViewById(R.id.card_maintenance).setVisibility(View.VISIBLE);
+
+        TextView tvReconcileStatus = findViewById(R.id.tv_reconcile_status);
+        Button btnReconcile = findViewById(R.id.btn_reconcile_capacity);
+        btnReconcile.setOnClickListener(v -> {
+            btnReconcile.setEnabled(false);
+            tvReconcileStatus.setText("Recounting booked seats...");
+            CapacityReconciler.reconcileAsync(this, new CapacityReconciler.Callback() {
+                @Override
+                public void onComplete(CapacityReconciler.Report report) {
+                    btnReconcile.setEnabled(true);
+                    tvReconcileStatus.setText(report.getSummary());
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    btnReconcile.setEnabled(true);
+                    tvReconcileStatus.setText("Recount failed: " + error.getMessage());
+                }
+            });
+        });
+
+        TextView tvArchiveStatus = findViewById(R.id.tv_archive_status);
+        Button btnArchiveHorizon = findViewById(R.id.btn_archive_horizon);
+        Button btnArchiveNow = findViewById(R.id.btn_archive_now);
+        btnArchiveHorizon.setText("Horizon: " + BookingArchive.getHorizonDays(this) + " days");
+        btnArchiveHorizon.setOnClickListener(v -> showArchiveHorizonDialog(btnArchiveHorizon));
+        btnArchiveNow.setOnClickListener(v -> {
+            btnArchiveNow.setEnabled(false);
+            tvArchiveStatus.setText("Archiving old bookings...");
+            BookingArchive.archiveAsync(this, new BookingArchive.Callback() {
+                @Override
+                public void onComplete(BookingArchive.Report report) {
+                    btnArchiveNow.setEnabled(true);
+                    tvArchiveStatus.setText(report.getSummary());
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    btnArchiveNow.setEnabled(true);
+                    tvArchiveStatus.setText("Archive failed: " + error.getMessage());
+                }
+            });
+        });
+
+        TextView tvRollupStatus = findViewById(R.id.tv_rollup_status);
+        Button btnRebuildRollup = findViewById(R.id.btn_rebuild_rollup);
+        btnRebuildRollup.setOnClickListener(v -> {
+            btnRebuildRollup.setEnabled(false);
+            tvRollupStatus.setText("Rebuilding daily revenue...");
+            RevenueRollup.rebuildAsync(this, new RevenueRollup.Callback() {
+                @Override
+                public void onComplete(RevenueRollup.Report report) {
+                    btnRebuildRollup.setEnabled(true);
+                    tvRollupStatus.setText(report.getSummary());
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    btnRebuildRollup.setEnabled(true);
+                    tvRollupStatus.setText("Rebuild failed: " + error.getMessage());
+                }
+            });
+        });
+
+        TextView tvSyncStatus = findViewById(R.id.tv_sync_status);
+        Button btnSyncServer = findViewById(R.id.btn_sync_server);
+        Button btnSyncNow = findViewById(R.id.btn_sync_now);
+        updateSyncServerButton(btnSyncServer, btnSyncNow);
+        btnSyncServer.setOnClickListener(v -> showSyncServerDialog(btnSyncServer, btnSyncNow));
+        btnSyncNow.setOnClickListener(v -> {
+            btnSyncNow.setEnabled(false);
+            tvSyncStatus.setText("Syncing with the server...");
+            DeltaSync.syncAsync(this, new DeltaSync.Callback() {
+                @Override
+                public void onComplete(DeltaSync.Report report) {
+                    btnSyncNow.setEnabled(true);
+                    tvSyncStatus.setText(report.getSummary());
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    btnSyncNow.setEnabled(true);
+                    tvSyncStatus.setText("Sync failed: " + error.getMessage());
+                }
+            });
+        });
+
+        TextView tvLocalApiStatus = findViewById(R.id.tv_local_api_status);
+        Button btnLocalApi = findViewById(R.id.btn_local_api);
+        LocalApiServer.Report localApi = LocalApiServer.getReport(this);
+        if (localApi.running) {
+            showLocalApiState(localApi, tvLocalApiStatus, btnLocalApi);
+        }
+        btnLocalApi.setOnClickListener(v -> {
+            btnLocalApi.setEnabled(false);
+            LocalApiServer.setEnabledAsync(this, !LocalApiServer.isEnabled(this), new LocalApiServer.Callback() {
+                @Override
+                public void onComplete(LocalApiServer.Report report) {
+                    btnLocalApi.setEnabled(true);
+                    showLocalApiState(report, tvLocalApiStatus, btnLocalApi);
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    btnLocalApi.setEnabled(true);
+                    btnLocalApi.setText("Local API: Off");
+                    tvLocalApiStatus.setText("Local API failed to start: " + error.getMessage());
+                }
+            });
+        });
+    }
+
+    private void showLocalApiState(LocalApiServer.Report report, TextView tvLocalApiStatus, Button btnLocalApi) {
+        btnLocalApi.setText(report.running ? "Local API: On" : "Local API: Off");
+        tvLocalApiStatus.setText(report.getSummary());
+    }
+
+    /**
+     * Lets the admin set the sync server URL; an empty URL turns sync off.
+     * Cleartext http URLs are refused and the dialog stays open.
+     */
+    private void showSyncServerDialog(Button btnSyncServer, Button btnSyncNow) {
+        EditText etServerUrl = new EditText(this);
+        etServerUrl.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_VARIATION_URI);
+        etServerUrl.setHint("https://sync.example.com/api");
+        etServerUrl.setText(DeltaSync.getServerUrl(this));
+
+        AlertDialog dialog = new AlertDialog.Builder(this)
+            .setTitle("Sync server")
+            .setView(etServerUrl)
+            .setPositiveButton("Save", null)
+            .setNegativeButton("Cancel", null)
+            .show();
+        // Set after show() so an invalid URL does not dismiss the dialog
+        dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+            String serverUrl = etServerUrl.getText().toString();
+            if (!DeltaSync.isValidServerUrl(serverUrl)) {
+                etServerUrl.setError("Sync server URL must start with https://");
+                return;
+            }
+            DeltaSync.setServerUrl(this, serverUrl);
+            updateSyncServerButton(btnSyncServer, btnSyncNow);
+            dialog.dismiss();
+        });
+    }
+
+    private void updateSyncServerButton(Button btnSyncServer, Button btnSyncNow) {
+        boolean on = !DeltaSync.getServerUrl(this).isEmpty();
+        btnSyncServer.setText(on ? "Server: On" : "Server: Off");
+        btnSyncNow.setEnabled(on);
+    }
+
+    /**
+     * Lets the admin choose after how many days finished bookings are archived
+     */
+    private void showArchiveHorizonDialog(Button btnArchiveHorizon) {
+        int[] choices = BookingArchive.HORIZON_CHOICES;
+        String[] labels = new String[choices.length];
+        int checked = -1;
+        for (int i = 0; i < choices.length; i++) {
+            labels[i] = choices[i] + " days";
+            if (choices[i] == BookingArchive.getHorizonDays(this)) {
+                checked = i;
+            }
+        }
+
+        new AlertDialog.Builder(this)
+            .setTitle("Archive bookings older than")
+            .setSingleChoiceItems(labels, checked, (dialog, which) -> {
+                BookingArchive.setHorizonDays(this, choices[which]);
+                btnArchiveHorizon.setText("Horizon: " + choices[which] + " days");
+                dialog.dismiss();
+            })
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    /**
+     * Saves the admin notification address and its digest preference
+     */
+    private void saveAdminNotificationSettings() {
+        String email = etAdminEmail.getText().toString().trim();
+        if (!email.isEmpty() && !android.util.Patterns.EMAIL_ADDRESS.matcher(email).matches()) {
+            etAdminEmail.setError("Please enter a valid email address");
+            return;
+        }
+
+        NotificationDigests.setAdminEmail(this, email);
+        if (email.isEmpty()) {
+            Toast.makeText(this, "Admin booking notifications turned off", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        NotificationDigests.savePreference(this, email, switchAdminDigest.isChecked());
+        Toast.makeText(this, "Notification settings saved", Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Update booking email digest status text
+     */
+    private void updateEmailDigestStatus(boolean digest) {
+        if (digest) {
+            tvEmailDigestStatus.setText("One summary email every " + NotificationDigests.DEFAULT_WINDOW_MINUTES + " minutes");
+        } else {
+            tvEmailDigestStatus.setText("One email per booking update");
+        }
+    }
+
+    /**
+     * Update admin digest status text
+     */
+    private void updateAdminDigestStatus(boolean digest) {
+        if (digest) {
+            tvAdminDigestStatus.setText("One summary email every " + NotificationDigests.DEFAULT_WINDOW_MINUTES + " minutes");
+        } else {
+            tvAdminDigestStatus.setText("One email per booking update");
+        }
+    }
+
     /**
      * Update theme status text
      */
@@ -1,6 +1,5 @@
 package com.example.tourmanagement.activity;
 
-import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -9,14 +8,13 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.WriterException;
-import com.journeyapps.barcodescanner.BarcodeEncoder;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.QrCodeRenderer;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -60,6 +58,7 @@ public class TicketActivity extends AppCompatActivity {
      * Database and data objects
      */
     private TourManagementDatabase database;
+    private EntityCache entityCache;
     private Booking currentBooking;
     private Tour bookedTour;
     private User customer;
@@ -70,6 +69,11 @@ public class TicketActivity extends AppCompatActivity {
     private NumberFormat currencyFormatter;
     private SimpleDateFormat dateFormatter;
 
+    /**
+     * Ticket QR code size in pixels
+     */
+    private static final int QR_CODE_SIZE_PX = 300;
+
     /**
      * Called when the activity is first created.
      * Initializes UI components and loads booking data.
@@ -83,6 +87,7 @@ public class TicketActivity extends AppCompatActivity {
 
         // Initialize database and formatters
         database = TourManagementDatabase.getDatabase(this);
+        entityCache = EntityCache.getInstance(this);
         currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
         dateFormatter = new SimpleDateFormat("EEEE, MMM dd, yyyy 'at' hh:mm a", Locale.getDefault());
 
@@ -135,13 +140,17 @@ public class TicketActivity extends AppCompatActivity {
         try {
             // Load booking data from database
             currentBooking = database.bookingDao().getBookingById(bookingId);
+            if (currentBooking == null) {
+                // Older bookings may have been moved to the archive
+                currentBooking = database.bookingArchiveDao().getArchivedBookingById(bookingId);
+            }
             android.util.Log.d("TicketActivity", "Loaded booking: " + (currentBooking != null ? currentBooking.getBookingReference() : "null"));
 
             if (currentBooking != null) {
-                bookedTour = database.tourDao().getTourById(currentBooking.getTourId());
+                bookedTour = entityCache.getTour(currentBooking.getTourId());
                 android.util.Log.d("TicketActivity", "Loaded tour: " + (bookedTour != null ? bookedTour.getTourName() : "null"));
 
-                customer = database.userDao().getUserById(currentBooking.getUserId());
+                customer = entityCache.getUser(currentBooking.getUserId());
                 android.util.Log.d("TicketActivity", "Loaded customer: " + (customer != null ? customer.getFullName() : "null"));
             }
         } catch (Exception e) {
@@ -277,20 +286,11 @@ public class TicketActivity extends AppCompatActivity {
      * Generates QR code for ticket verification
      */
     private void generateTicketQRCode() {
-        try {
-            // Create QR code content with ticket verification data
-            String qrContent = createTicketQRContent();
-
-            // Generate QR code bitmap
-            BarcodeEncoder barcodeEncoder = new BarcodeEncoder();
-            Bitmap bitmap = barcodeEncoder.encodeBitmap(qrContent, BarcodeFormat.QR_CODE, 300, 300);
-
-            // Display QR code
-            ivTicketQRCode.setImageBitmap(bitmap);
+        // Create QR code content with ticket verification data
+        String qrContent = createTicketQRContent();
 
-        } catch (WriterException e) {
-            showToast("Error generating ticket QR code: " + e.getMessage());
-        }
+        // Encode in the background; reopening a ticket hits the renderer cache
+        QrCodeRenderer.getInstance().render(ivTicketQRCode, qrContent, QR_CODE_SIZE_PX, 0);
     }
 
     /**
@@ -396,4 +396,13 @@ public class TicketActivity extends AppCompatActivity {
         onBackPressed();
         return true;
     }
+
+    /**
+     * Drops pending QR work and releases the QR bitmap
+     */
+    @Override
+    protected void onDestroy() {
+        QrCodeRenderer.getInstance().cancel(ivTicketQRCode);
+        super.onDestroy();
+    }
 }
@@ -12,6 +12,9 @@ import com.bumptech.glide.Glide;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.LocalMediaStore;
+import com.example.tourmanagement.utils.SessionStore;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -33,6 +36,7 @@ public class TourDetailsActivity extends AppCompatActivity {
     private Button btnBookTour;
 
     private TourManagementDatabase database;
+    private EntityCache entityCache;
     private Tour currentTour;
     private NumberFormat currencyFormatter;
     private SimpleDateFormat dateFormatter;
@@ -43,6 +47,7 @@ public class TourDetailsActivity extends AppCompatActivity {
         setContentView(R.layout.activity_tour_details);
 
         database = TourManagementDatabase.getDatabase(this);
+        entityCache = EntityCache.getInstance(this);
         currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
         dateFormatter = new SimpleDateFormat("EEEE, MMM dd, yyyy 'at' hh:mm a", Locale.getDefault());
 
@@ -72,7 +77,7 @@ public class TourDetailsActivity extends AppCompatActivity {
     private void loadTourData() {
         int tourId = getIntent().getIntExtra("TOUR_ID", -1);
         if (tourId != -1) {
-            currentTour = database.tourDao().getTourById(tourId);
+            currentTour = entityCache.getTour(tourId);
             if (currentTour != null) {
                 displayTourInfo();
             } else {
@@ -100,7 +105,8 @@ public class TourDetailsActivity extends AppCompatActivity {
 
         if (currentTour.getTourImage() != null && !currentTour.getTourImage().isEmpty()) {
             Glide.with(this)
-                .load(currentTour.getTourImage())
+                .load(LocalMediaStore.getInstance(this)
+                    .resolve(currentTour.getTourImage(), LocalMediaStore.Variant.DETAIL))
                 .placeholder(R.drawable.placeholder_tour)
                 .error(R.drawable.placeholder_tour)
                 .into(ivTourImage);
@@ -124,8 +130,7 @@ public class TourDetailsActivity extends AppCompatActivity {
                 if (currentTour.hasAvailableSlots()) {
                     Intent intent = new Intent(TourDetailsActivity.this, BookTourActivity.class);
                     intent.putExtra("TOUR_ID", currentTour.getId());
-                    intent.putExtra("USER_ID", getSharedPreferences("TourManagementPrefs", MODE_PRIVATE)
-                            .getInt("user_id", -1));
+                    intent.putExtra("USER_ID", SessionStore.getInstance(TourDetailsActivity.this).getUserId());
                     startActivity(intent);
                 } else {
                     showToast("Sorry, this tour is fully booked");
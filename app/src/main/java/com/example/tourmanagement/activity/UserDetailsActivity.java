@@ -8,8 +8,7 @@ import androidx.appcompat.widget.Toolbar;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.User;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.example.tourmanagement.utils.TaskScheduler;
 
 /**
  * Activity for displaying detailed user information.
@@ -29,7 +28,7 @@ public class UserDetailsActivity extends AppCompatActivity {
     private TextView textViewLastLogin;
 
     private TourManagementDatabase database;
-    private ExecutorService executorService;
+    private TaskScheduler scheduler;
     private User currentUser;
 
     @Override
@@ -65,13 +64,13 @@ public class UserDetailsActivity extends AppCompatActivity {
 
     private void setupDatabase() {
         database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newFixedThreadPool(2);
+        scheduler = TaskScheduler.getInstance();
     }
 
     private void loadUserDetails() {
         long userId = getIntent().getLongExtra("user_id", -1);
         if (userId != -1) {
-            executorService.execute(() -> {
+            scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
                 currentUser = database.userDao().getUserById((int) userId);
                 if (currentUser != null) {
                     runOnUiThread(this::displayUserDetails);
@@ -108,12 +107,4 @@ public class UserDetailsActivity extends AppCompatActivity {
         }
         return super.onOptionsItemSelected(item);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
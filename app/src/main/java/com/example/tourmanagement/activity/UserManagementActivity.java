@@ -13,10 +13,10 @@ import com.example.tourmanagement.R;
 import com.example.tourmanagement.adapter.UserManagementAdapter;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.TaskScheduler;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * User Management Activity for admin users.
@@ -39,7 +39,7 @@ public class UserManagementActivity extends AppCompatActivity implements UserMan
     private UserManagementAdapter userAdapter;
     private FloatingActionButton fabAddUser;
     private TourManagementDatabase database;
-    private ExecutorService executorService;
+    private TaskScheduler scheduler;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -71,7 +71,7 @@ public class UserManagementActivity extends AppCompatActivity implements UserMan
 
     private void setupDatabase() {
         database = TourManagementDatabase.getDatabase(this);
-        executorService = Executors.newFixedThreadPool(2);
+        scheduler = TaskScheduler.getInstance();
     }
 
     private void setupRecyclerView() {
@@ -89,7 +89,7 @@ public class UserManagementActivity extends AppCompatActivity implements UserMan
     }
 
     private void loadUsers() {
-        executorService.execute(() -> {
+        scheduler.execute(this, TaskScheduler.Pool.UI_READ, () -> {
             List<User> users = database.userDao().getAllUsers();
             runOnUiThread(() -> {
                 userAdapter.updateUsers(users);
@@ -110,8 +110,9 @@ public class UserManagementActivity extends AppCompatActivity implements UserMan
             .setTitle("Delete User")
             .setMessage("Are you sure you want to delete user '" + user.getUsername() + "'?")
             .setPositiveButton("Delete", (dialog, which) -> {
-                executorService.execute(() -> {
+                scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
                     database.userDao().deleteUser(user);
+                    EntityCache.getInstance(this).invalidateUser(user.getId());
                     runOnUiThread(() -> {
                         loadUsers();
                         Toast.makeText(this, "User deleted successfully", Toast.LENGTH_SHORT).show();
@@ -129,12 +130,13 @@ public class UserManagementActivity extends AppCompatActivity implements UserMan
             .setTitle("Change Admin Status")
             .setMessage("Are you sure you want to " + action + " user '" + user.getUsername() + "'?")
             .setPositiveButton("Confirm", (dialog, which) -> {
-                executorService.execute(() -> {
-                    user.setAdmin(!user.isAdmin());
-                    database.userDao().updateUser(user);
+                boolean grantAdmin = !user.isAdmin();
+                scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
+                    database.userDao().updateAdminStatus(user.getId(), grantAdmin);
+                    EntityCache.getInstance(this).invalidateUser(user.getId());
                     runOnUiThread(() -> {
                         loadUsers();
-                        String message = user.isAdmin() ? "Admin privileges granted" : "Admin privileges removed";
+                        String message = grantAdmin ? "Admin privileges granted" : "Admin privileges removed";
                         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
                     });
                 });
@@ -164,12 +166,4 @@ public class UserManagementActivity extends AppCompatActivity implements UserMan
         }
         return super.onOptionsItemSelected(item);
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (executorService != null) {
-            executorService.shutdown();
-        }
-    }
 }
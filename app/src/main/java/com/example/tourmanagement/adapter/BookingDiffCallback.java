@@ -0,0 +1,52 @@
+package com.example.tourmanagement.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import com.example.tourmanagement.model.Booking;
+import java.util.Objects;
+
+/**
+ * DiffUtil callback shared by the booking list adapters.
+ * Bookings are matched by primary key; when only the booking or payment status
+ * changed, a status payload is emitted so the row rebinds just its status views.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-24
+ */
+class BookingDiffCallback extends DiffUtil.ItemCallback<Booking> {
+
+    /**
+     * Change payload emitted when only the booking or payment status changed
+     */
+    static final Object PAYLOAD_STATUS = new Object();
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Booking oldItem, @NonNull Booking newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Booking oldItem, @NonNull Booking newItem) {
+        return isSameExceptStatus(oldItem, newItem) && isSameStatus(oldItem, newItem);
+    }
+
+    @Override
+    public Object getChangePayload(@NonNull Booking oldItem, @NonNull Booking newItem) {
+        return isSameExceptStatus(oldItem, newItem) ? PAYLOAD_STATUS : null;
+    }
+
+    private static boolean isSameStatus(Booking oldItem, Booking newItem) {
+        return Objects.equals(oldItem.getBookingStatus(), newItem.getBookingStatus())
+            && Objects.equals(oldItem.getPaymentStatus(), newItem.getPaymentStatus());
+    }
+
+    private static boolean isSameExceptStatus(Booking oldItem, Booking newItem) {
+        return oldItem.getUserId() == newItem.getUserId()
+            && oldItem.getTourId() == newItem.getTourId()
+            && oldItem.getNumberOfPeople() == newItem.getNumberOfPeople()
+            && oldItem.getTotalAmount() == newItem.getTotalAmount()
+            && oldItem.getBookingDate() == newItem.getBookingDate()
+            && Objects.equals(oldItem.getBookingReference(), newItem.getBookingReference());
+    }
+}
@@ -7,11 +7,13 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.EntityCache;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -29,23 +31,19 @@ import java.util.Locale;
  * - Cancel booking functionality
  * - Navigate to ticket view
  * - Tour information lookup
+ * - Background list diffing with stable IDs and status-only rebinds
  *
  * @author Tour Management Team
  * @version 1.0
  * @since 2025-07-22
  */
-public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAdapter.BookingViewHolder> {
+public class BookingHistoryAdapter extends ListAdapter<Booking, BookingHistoryAdapter.BookingViewHolder> {
 
     /**
      * Context for accessing resources
      */
     private Context context;
 
-    /**
-     * List of bookings to display
-     */
-    private List<Booking> bookings;
-
     /**
      * Click listener interface
      */
@@ -55,6 +53,7 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
      * Database for tour information lookup
      */
     private TourManagementDatabase database;
+    private EntityCache entityCache;
 
     /**
      * Formatters
@@ -86,12 +85,14 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
      * @param listener Click event listener
      */
     public BookingHistoryAdapter(Context context, OnBookingClickListener listener) {
+        super(new BookingDiffCallback());
         this.context = context;
         this.listener = listener;
-        this.bookings = new ArrayList<>();
         this.database = TourManagementDatabase.getDatabase(context);
+        this.entityCache = EntityCache.getInstance(context);
         this.currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
         this.dateFormatter = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        setHasStableIds(true);
     }
 
     /**
@@ -116,29 +117,44 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
      */
     @Override
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
-        Booking booking = bookings.get(position);
+        Booking booking = getItem(position);
         holder.bind(booking);
     }
 
     /**
-     * Returns the total number of bookings
+     * Binds a partial update when only the booking status changed
      *
-     * @return Booking count
+     * @param holder ViewHolder to bind data to
+     * @param position Position in the list
+     * @param payloads Change payloads from the diff
      */
     @Override
-    public int getItemCount() {
-        return bookings.size();
+    public void onBindViewHolder(@NonNull BookingViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(BookingDiffCallback.PAYLOAD_STATUS)) {
+            holder.bindStatus(getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     /**
-     * Updates the booking list and refreshes the RecyclerView
+     * Returns the booking's primary key as its stable ID
+     *
+     * @param position Position in the list
+     * @return Stable item ID
+     */
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
+
+    /**
+     * Submits a new booking list; the diff runs on a background thread
      *
      * @param newBookings New list of bookings
      */
     public void updateBookings(List<Booking> newBookings) {
-        this.bookings.clear();
-        this.bookings.addAll(newBookings);
-        notifyDataSetChanged();
+        submitList(new ArrayList<>(newBookings));
     }
 
     /**
@@ -178,7 +194,7 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onBookingClick(bookings.get(position));
+                        listener.onBookingClick(getItem(position));
                     }
                 }
             });
@@ -188,7 +204,7 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onBookingClick(bookings.get(position));
+                        listener.onBookingClick(getItem(position));
                     }
                 }
             });
@@ -198,7 +214,7 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onCancelBooking(bookings.get(position));
+                        listener.onCancelBooking(getItem(position));
                     }
                 }
             });
@@ -214,7 +230,7 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
             tvBookingReference.setText("Ref: " + booking.getBookingReference());
 
             // Get and display tour information
-            Tour tour = database.tourDao().getTourById(booking.getTourId());
+            Tour tour = entityCache.getTour(booking.getTourId());
             if (tour != null) {
                 tvTourName.setText(tour.getTourName());
             } else {
@@ -231,6 +247,15 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
             // Set number of people
             tvNumberOfPeople.setText(booking.getNumberOfPeople() + " people");
 
+            bindStatus(booking);
+        }
+
+        /**
+         * Binds only the status-dependent views (status chips and action buttons)
+         *
+         * @param booking Booking object to display
+         */
+        public void bindStatus(Booking booking) {
             // Set booking status with color
             String bookingStatus = booking.getBookingStatus();
             tvBookingStatus.setText(bookingStatus);
@@ -301,6 +326,7 @@ public class BookingHistoryAdapter extends RecyclerView.Adapter<BookingHistoryAd
                     colorResId = R.color.warning_color;
                     break;
                 case "REFUNDED":
+                case "EXPIRED":
                     colorResId = R.color.error_color;
                     break;
                 default:
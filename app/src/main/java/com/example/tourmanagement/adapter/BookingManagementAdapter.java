@@ -5,20 +5,26 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.EntityCache;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * RecyclerView Adapter for admin booking management.
@@ -29,20 +35,32 @@ import java.util.Locale;
  * - Admin action buttons (Approve, Reject, View Details)
  * - Status-based color coding and button visibility
  * - Real-time booking status updates
+ * - Background list diffing with stable IDs and status-only rebinds
+ * - Multi-select of pending bookings for bulk actions (long-press to start)
  *
  * @author Tour Management Team
  * @version 1.0
  * @since 2025-07-24
  */
-public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManagementAdapter.BookingViewHolder> {
+public class BookingManagementAdapter extends ListAdapter<Booking, BookingManagementAdapter.BookingViewHolder> {
 
     private Context context;
-    private List<Booking> bookings;
     private OnBookingActionListener listener;
     private TourManagementDatabase database;
+    private EntityCache entityCache;
     private NumberFormat currencyFormatter;
     private SimpleDateFormat dateFormatter;
 
+    /**
+     * IDs of the selected pending bookings
+     */
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
+
+    /**
+     * Change payload emitted when only the selection changed
+     */
+    private static final Object PAYLOAD_SELECTION = new Object();
+
     /**
      * Interface for handling admin booking actions
      */
@@ -50,15 +68,18 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
         void onApproveBooking(Booking booking);
         void onRejectBooking(Booking booking);
         void onViewBookingDetails(Booking booking);
+        void onSelectionChanged(int selectedCount);
     }
 
     public BookingManagementAdapter(Context context, OnBookingActionListener listener) {
+        super(new BookingDiffCallback());
         this.context = context;
         this.listener = listener;
-        this.bookings = new ArrayList<>();
         this.database = TourManagementDatabase.getDatabase(context);
+        this.entityCache = EntityCache.getInstance(context);
         this.currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
         this.dateFormatter = new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm", Locale.getDefault());
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -70,22 +91,112 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
 
     @Override
     public void onBindViewHolder(@NonNull BookingViewHolder holder, int position) {
-        Booking booking = bookings.get(position);
+        Booking booking = getItem(position);
         holder.bind(booking);
     }
 
     @Override
-    public int getItemCount() {
-        return bookings.size();
+    public void onBindViewHolder(@NonNull BookingViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(BookingDiffCallback.PAYLOAD_STATUS)) {
+            // Only the status changed, so leave customer and tour lookups alone
+            holder.bindStatus(getItem(position));
+        } else if (payloads.contains(PAYLOAD_SELECTION)) {
+            holder.bindSelection(getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     /**
-     * Updates the booking list and refreshes the RecyclerView
+     * Submits a new booking list; the diff runs on a background thread
      */
     public void updateBookings(List<Booking> newBookings) {
-        this.bookings.clear();
-        this.bookings.addAll(newBookings);
-        notifyDataSetChanged();
+        // Drop selected bookings that left the list or are no longer pending
+        Set<Integer> stillPending = new HashSet<>();
+        for (Booking booking : newBookings) {
+            if (isSelectable(booking)) {
+                stillPending.add(booking.getId());
+            }
+        }
+        if (selectedIds.retainAll(stillPending)) {
+            notifySelectionChanged();
+        }
+        submitList(new ArrayList<>(newBookings));
+    }
+
+    /**
+     * Gets the IDs of the selected bookings, in selection order
+     */
+    public List<Integer> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    /**
+     * Checks whether any booking is selected
+     */
+    public boolean isSelectionMode() {
+        return !selectedIds.isEmpty();
+    }
+
+    /**
+     * Selects every pending booking in the list
+     */
+    public void selectAllPending() {
+        for (Booking booking : getCurrentList()) {
+            if (isSelectable(booking)) {
+                selectedIds.add(booking.getId());
+            }
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        notifySelectionChanged();
+    }
+
+    /**
+     * Clears the selection
+     */
+    public void clearSelection() {
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        notifySelectionChanged();
+    }
+
+    /**
+     * Selects or deselects a pending booking
+     */
+    private void toggleSelection(int position) {
+        Booking booking = getItem(position);
+        if (!isSelectable(booking)) {
+            return;
+        }
+        boolean wasSelectionMode = isSelectionMode();
+        if (!selectedIds.remove(booking.getId())) {
+            selectedIds.add(booking.getId());
+        }
+        if (wasSelectionMode != isSelectionMode()) {
+            // Checkboxes appear or disappear on every row
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        } else {
+            notifyItemChanged(position, PAYLOAD_SELECTION);
+        }
+        notifySelectionChanged();
+    }
+
+    private void notifySelectionChanged() {
+        if (listener != null) {
+            listener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    private static boolean isSelectable(Booking booking) {
+        return "PENDING".equals(booking.getBookingStatus());
     }
 
     /**
@@ -97,6 +208,7 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
         private TextView tvBookingDate, tvTotalAmount, tvNumberOfPeople;
         private TextView tvBookingStatus, tvPaymentStatus, tvCustomerEmail;
         private Button btnApprove, btnReject, btnViewDetails;
+        private CheckBox cbSelect;
         private View statusIndicator;
 
         public BookingViewHolder(@NonNull View itemView) {
@@ -116,26 +228,44 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
             btnReject = itemView.findViewById(R.id.btn_reject);
             btnViewDetails = itemView.findViewById(R.id.btn_view_details);
             statusIndicator = itemView.findViewById(R.id.status_indicator);
+            cbSelect = itemView.findViewById(R.id.cb_select);
+
+            // Long-press starts selecting; while selecting, a tap toggles the row
+            itemView.setOnLongClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION || !isSelectable(getItem(position))) {
+                    return false;
+                }
+                toggleSelection(position);
+                return true;
+            });
+
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && isSelectionMode()) {
+                    toggleSelection(position);
+                }
+            });
 
             // Set up click listeners
             btnApprove.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onApproveBooking(bookings.get(position));
+                    listener.onApproveBooking(getItem(position));
                 }
             });
 
             btnReject.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onRejectBooking(bookings.get(position));
+                    listener.onRejectBooking(getItem(position));
                 }
             });
 
             btnViewDetails.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onViewBookingDetails(bookings.get(position));
+                    listener.onViewBookingDetails(getItem(position));
                 }
             });
         }
@@ -148,7 +278,7 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
             tvBookingReference.setText("Ref: " + booking.getBookingReference());
 
             // Get and display customer information
-            User customer = database.userDao().getUserById(booking.getUserId());
+            User customer = entityCache.getUser(booking.getUserId());
             if (customer != null) {
                 tvCustomerName.setText(customer.getFullName());
                 tvCustomerEmail.setText(customer.getEmail());
@@ -158,7 +288,7 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
             }
 
             // Get and display tour information
-            Tour tour = database.tourDao().getTourById(booking.getTourId());
+            Tour tour = entityCache.getTour(booking.getTourId());
             if (tour != null) {
                 tvTourName.setText(tour.getTourName());
             } else {
@@ -171,6 +301,13 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
             tvTotalAmount.setText(currencyFormatter.format(booking.getTotalAmount()));
             tvNumberOfPeople.setText(booking.getNumberOfPeople() + " people");
 
+            bindStatus(booking);
+        }
+
+        /**
+         * Binds only the status-dependent views (status chip, payment status, buttons)
+         */
+        public void bindStatus(Booking booking) {
             // Set booking status with color
             String bookingStatus = booking.getBookingStatus();
             tvBookingStatus.setText(bookingStatus);
@@ -186,6 +323,17 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
 
             // Set status indicator color
             setStatusIndicatorColor(bookingStatus);
+
+            bindSelection(booking);
+        }
+
+        /**
+         * Binds the selection checkbox
+         */
+        public void bindSelection(Booking booking) {
+            boolean selectable = isSelectable(booking);
+            cbSelect.setVisibility(isSelectionMode() && selectable ? View.VISIBLE : View.GONE);
+            cbSelect.setChecked(selectable && selectedIds.contains(booking.getId()));
         }
 
         /**
@@ -236,6 +384,7 @@ public class BookingManagementAdapter extends RecyclerView.Adapter<BookingManage
                     break;
                 case "CANCELLED":
                 case "REFUNDED":
+                case "EXPIRED":
                     colorResId = R.color.error_color;
                     break;
                 default:
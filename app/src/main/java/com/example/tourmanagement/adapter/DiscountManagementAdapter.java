@@ -8,29 +8,56 @@ import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Discount;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.EntityCache;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 /**
- * Adapter for displaying discounts in the discount management interface
+ * Adapter for displaying discounts in the discount management interface.
+ * List updates are diffed on a background thread and rows use the discount ID as stable ID.
  */
-public class DiscountManagementAdapter extends RecyclerView.Adapter<DiscountManagementAdapter.DiscountViewHolder> {
+public class DiscountManagementAdapter extends ListAdapter<Discount, DiscountManagementAdapter.DiscountViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Discount> DIFF_CALLBACK = new DiffUtil.ItemCallback<Discount>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Discount oldItem, @NonNull Discount newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Discount oldItem, @NonNull Discount newItem) {
+            return oldItem.isActive() == newItem.isActive()
+                && oldItem.getDiscountValue() == newItem.getDiscountValue()
+                && oldItem.getMinOrderAmount() == newItem.getMinOrderAmount()
+                && oldItem.getStartDate() == newItem.getStartDate()
+                && oldItem.getEndDate() == newItem.getEndDate()
+                && oldItem.getUsageLimit() == newItem.getUsageLimit()
+                && oldItem.getCurrentUsage() == newItem.getCurrentUsage()
+                && Objects.equals(oldItem.getTourId(), newItem.getTourId())
+                && Objects.equals(oldItem.getDiscountType(), newItem.getDiscountType())
+                && Objects.equals(oldItem.getDiscountName(), newItem.getDiscountName())
+                && Objects.equals(oldItem.getDescription(), newItem.getDescription());
+        }
+    };
 
     private Context context;
-    private List<Discount> discounts;
     private OnDiscountActionListener listener;
     private NumberFormat currencyFormatter;
     private SimpleDateFormat dateFormatter;
     private TourManagementDatabase database;
+    private EntityCache entityCache;
 
     public interface OnDiscountActionListener {
         void onEditDiscount(Discount discount);
@@ -39,12 +66,14 @@ public class DiscountManagementAdapter extends RecyclerView.Adapter<DiscountMana
     }
 
     public DiscountManagementAdapter(Context context, OnDiscountActionListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
         this.listener = listener;
-        this.discounts = new ArrayList<>();
         this.currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
         this.dateFormatter = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
         this.database = TourManagementDatabase.getDatabase(context);
+        this.entityCache = EntityCache.getInstance(context);
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -56,19 +85,17 @@ public class DiscountManagementAdapter extends RecyclerView.Adapter<DiscountMana
 
     @Override
     public void onBindViewHolder(@NonNull DiscountViewHolder holder, int position) {
-        Discount discount = discounts.get(position);
+        Discount discount = getItem(position);
         holder.bind(discount);
     }
 
     @Override
-    public int getItemCount() {
-        return discounts.size();
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     public void updateDiscounts(List<Discount> newDiscounts) {
-        this.discounts.clear();
-        this.discounts.addAll(newDiscounts);
-        notifyDataSetChanged();
+        submitList(new ArrayList<>(newDiscounts));
     }
 
     public class DiscountViewHolder extends RecyclerView.ViewHolder {
@@ -99,21 +126,21 @@ public class DiscountManagementAdapter extends RecyclerView.Adapter<DiscountMana
             btnEdit.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEditDiscount(discounts.get(position));
+                    listener.onEditDiscount(getItem(position));
                 }
             });
 
             btnDelete.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onDeleteDiscount(discounts.get(position));
+                    listener.onDeleteDiscount(getItem(position));
                 }
             });
 
             btnToggleStatus.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onToggleDiscountStatus(discounts.get(position));
+                    listener.onToggleDiscountStatus(getItem(position));
                 }
             });
         }
@@ -149,7 +176,7 @@ public class DiscountManagementAdapter extends RecyclerView.Adapter<DiscountMana
 
             // Tour-specific or global
             if (discount.getTourId() != null) {
-                Tour tour = database.tourDao().getTourById(discount.getTourId());
+                Tour tour = entityCache.getTour(discount.getTourId());
                 if (tour != null) {
                     tvTourName.setText("Tour: " + tour.getTourName());
                     tvTourName.setVisibility(View.VISIBLE);
@@ -12,6 +12,8 @@ import com.example.tourmanagement.R;
 import com.example.tourmanagement.model.Discount;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.TaskScheduler;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -31,6 +33,7 @@ public class DiscountSuggestionAdapter extends RecyclerView.Adapter<DiscountSugg
     private NumberFormat currencyFormatter;
     private SimpleDateFormat dateFormatter;
     private TourManagementDatabase database;
+    private EntityCache entityCache;
 
     public interface OnDiscountActionListener {
         void onUseDiscount(Discount discount);
@@ -44,6 +47,7 @@ public class DiscountSuggestionAdapter extends RecyclerView.Adapter<DiscountSugg
         this.currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
         this.dateFormatter = new SimpleDateFormat("MMM dd", Locale.getDefault());
         this.database = TourManagementDatabase.getDatabase(context);
+        this.entityCache = EntityCache.getInstance(context);
     }
 
     // Constructor without listener for cases where we don't need callbacks
@@ -124,9 +128,9 @@ public class DiscountSuggestionAdapter extends RecyclerView.Adapter<DiscountSugg
                 tvTourInfo.setText("All Tours");
             } else {
                 // Get tour name for specific tour discount
-                new Thread(() -> {
+                TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, () -> {
                     try {
-                        Tour tour = database.tourDao().getTourById(discount.getTourId());
+                        Tour tour = entityCache.getTour(discount.getTourId());
                         if (tour != null) {
                             ((android.app.Activity) context).runOnUiThread(() ->
                                 tvTourInfo.setText(tour.getTourName())
@@ -137,7 +141,7 @@ public class DiscountSuggestionAdapter extends RecyclerView.Adapter<DiscountSugg
                             tvTourInfo.setText("Specific Tour")
                         );
                     }
-                }).start();
+                });
             }
 
             // Set minimum order amount
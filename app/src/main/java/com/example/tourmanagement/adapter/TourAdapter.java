@@ -1,56 +1,89 @@
 package com.example.tourmanagement.adapter;
 
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.util.Log;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.animation.Animation;
+import android.view.animation.AnimationUtils;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.database.TourManagementDatabase;
-import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.Discount;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.SessionStore;
+import com.example.tourmanagement.utils.TaskScheduler;
+import com.example.tourmanagement.utils.TourImageLoader;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * RecyclerView Adapter for displaying tour listings in the dashboard.
  * Handles tour item display, click events, and booking actions.
  *
  * Features:
- * - Tour image loading with Glide
+ * - Card-sized tour images with thumbnails and scroll-ahead preloading
  * - Formatted price and date display
  * - Available slots indication
  * - Click handlers for tour details and booking
  * - Admin delete functionality
- * - Dynamic list updates
+ * - Dynamic list updates diffed off the main thread with stable IDs
+ *
+ * Card text, colors and discounts are precomputed into TourCardModel instances
+ * on a background thread whenever the tours or the discounts change, so
+ * onBindViewHolder only assigns fields.
  *
  * @author Tour Management Team
  * @version 1.0
  * @since 2025-07-22
  */
-public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder> {
+public class TourAdapter extends ListAdapter<TourCardModel, TourAdapter.TourViewHolder> {
 
     /**
-     * Context for accessing resources and starting activities
+     * Serial background executor for building card models
      */
-    private Context context;
+    private static final Executor MODEL_EXECUTOR =
+        TaskScheduler.getInstance().serialExecutor(TaskScheduler.Pool.UI_READ, TaskScheduler.Priority.HIGH);
 
     /**
-     * List of tours to display
+     * Diff callback comparing cards by tour ID and displayed content
      */
-    private List<Tour> tours;
+    private static final DiffUtil.ItemCallback<TourCardModel> DIFF_CALLBACK = new DiffUtil.ItemCallback<TourCardModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TourCardModel oldItem, @NonNull TourCardModel newItem) {
+            return oldItem.tourId == newItem.tourId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TourCardModel oldItem, @NonNull TourCardModel newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    /**
+     * Context for accessing resources and starting activities
+     */
+    private Context context;
 
     /**
      * Click listener interface for handling tour interactions
@@ -58,14 +91,40 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
     private OnTourClickListener listener;
 
     /**
-     * Number formatter for currency display
+     * Database for loading valid discounts
+     */
+    private TourManagementDatabase database;
+
+    /**
+     * Main thread handler for publishing built models
+     */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Glide request manager and card image pipeline
+     */
+    private final RequestManager glide;
+    private final TourImageLoader imageLoader;
+
+    /**
+     * Tours most recently submitted, kept to rebuild cards when discounts change
+     */
+    private List<Tour> currentTours = new ArrayList<>();
+
+    /**
+     * Incremented per build so results of superseded builds are dropped
      */
-    private NumberFormat currencyFormatter;
+    private int buildGeneration;
 
     /**
-     * Date formatter for tour date display
+     * Rebuilds cards when the discounts table changes while attached
      */
-    private SimpleDateFormat dateFormatter;
+    private final InvalidationTracker.Observer discountObserver = new InvalidationTracker.Observer("discounts") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            mainHandler.post(() -> rebuildModels());
+        }
+    };
 
     /**
      * Flag to check if current user is admin
@@ -108,15 +167,68 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
      * @param listener Click event listener
      */
     public TourAdapter(Context context, OnTourClickListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
         this.listener = listener;
-        this.tours = new ArrayList<>();
-        this.currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
-        this.dateFormatter = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        this.database = TourManagementDatabase.getDatabase(context);
+        this.glide = Glide.with(context);
+        this.imageLoader = new TourImageLoader(context, glide);
 
         // Check if the user is admin
-        SharedPreferences prefs = context.getSharedPreferences("TourManagementPrefs", Context.MODE_PRIVATE);
-        this.isAdmin = prefs.getBoolean("is_admin", false);
+        this.isAdmin = SessionStore.getInstance(context).isAdmin();
+        setHasStableIds(true);
+    }
+
+    /**
+     * Starts watching discounts while the adapter is attached
+     *
+     * @param recyclerView RecyclerView the adapter was attached to
+     */
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        database.getInvalidationTracker().addObserver(discountObserver);
+    }
+
+    /**
+     * Stops watching discounts once the adapter is detached
+     *
+     * @param recyclerView RecyclerView the adapter was detached from
+     */
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        database.getInvalidationTracker().removeObserver(discountObserver);
+    }
+
+    /**
+     * Creates a scroll listener that preloads card images ahead of the visible rows.
+     * Preload requests use the same options as bind, so bound cards hit the memory cache.
+     *
+     * @return Preloader to add with RecyclerView.addOnScrollListener
+     */
+    public RecyclerViewPreloader<TourCardModel> createImagePreloader() {
+        ListPreloader.PreloadModelProvider<TourCardModel> modelProvider =
+            new ListPreloader.PreloadModelProvider<TourCardModel>() {
+                @NonNull
+                @Override
+                public List<TourCardModel> getPreloadItems(int position) {
+                    List<TourCardModel> cards = getCurrentList();
+                    if (position < 0 || position >= cards.size() || cards.get(position).imageUrl == null) {
+                        return Collections.emptyList();
+                    }
+                    return Collections.singletonList(cards.get(position));
+                }
+
+                @Override
+                public RequestBuilder<?> getPreloadRequestBuilder(@NonNull TourCardModel card) {
+                    return imageLoader.cardRequest(card.imageUrl, card.thumbnailUrl, false);
+                }
+            };
+
+        return new RecyclerViewPreloader<>(glide, modelProvider,
+            new FixedPreloadSizeProvider<>(imageLoader.getCardWidth(), imageLoader.getCardHeight()),
+            TourImageLoader.DEFAULT_PRELOAD_ROWS);
     }
 
     /**
@@ -141,34 +253,46 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
      */
     @Override
     public void onBindViewHolder(@NonNull TourViewHolder holder, int position) {
-        Tour tour = tours.get(position);
-        holder.bind(tour);
+        holder.bind(getItem(position));
     }
 
     /**
-     * Returns the total number of tours
+     * Returns the tour's primary key as its stable ID
      *
-     * @return Tour count
+     * @param position Position in the list
+     * @return Stable item ID
      */
     @Override
-    public int getItemCount() {
-        return tours.size();
+    public long getItemId(int position) {
+        return getItem(position).tourId;
     }
 
     /**
-     * Updates the tour list and refreshes the RecyclerView
+     * Submits a new tour list. Card models are built on a background thread,
+     * then diffed so only changed rows are rebound.
      *
      * @param newTours New list of tours
      */
     public void updateTours(List<Tour> newTours) {
+        currentTours = new ArrayList<>(newTours);
+        rebuildModels();
+    }
 
-        for (Tour tour : newTours) {
-            Log.d("TourAdapter", "Tour: " + tour.getTourName() + ", Image URL: " + tour.getTourImage());
-        }
-
-        this.tours.clear();
-        this.tours.addAll(newTours);
-        notifyDataSetChanged();
+    /**
+     * Builds card models for the current tours and publishes them on the main thread
+     */
+    private void rebuildModels() {
+        final int generation = ++buildGeneration;
+        final List<Tour> tours = currentTours;
+        MODEL_EXECUTOR.execute(() -> {
+            List<Discount> discounts = database.discountDao().getValidDiscounts(System.currentTimeMillis());
+            List<TourCardModel> models = new TourCardModelFactory(context).build(tours, discounts);
+            mainHandler.post(() -> {
+                if (generation == buildGeneration) {
+                    submitList(models);
+                }
+            });
+        });
     }
 
     /**
@@ -182,12 +306,23 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
         private ImageView ivTourImage;
         private TextView tvTourName, tvTourLocation, tvTourPrice, tvTourDate;
         private TextView tvAvailableSlots, tvDuration;
-        private TextView tvOriginalPrice, tvSavings;
+        private TextView tvOriginalPrice, tvSavings, tvDiscountPercentage;
         private LinearLayout discountContainer, discountBanner;
         private TextView tvBannerDiscount;
         private Button btnBookTour, btnEditTour, btnDeleteTour;
         private LinearLayout adminButtonsContainer;
 
+        /**
+         * Fade-in played when a discount first appears on this card
+         */
+        private final Animation discountAnimation;
+
+        /**
+         * Tour ID currently bound, used to detect a newly shown discount
+         */
+        private int boundTourId = -1;
+        private boolean boundDiscount;
+
         /**
          * Constructor for TourViewHolder
          *
@@ -209,18 +344,24 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
             discountContainer = itemView.findViewById(R.id.discount_container);
             discountBanner = itemView.findViewById(R.id.discount_banner);
             tvBannerDiscount = itemView.findViewById(R.id.tv_banner_discount);
+            tvDiscountPercentage = itemView.findViewById(R.id.tv_discount_percentage);
             btnBookTour = itemView.findViewById(R.id.btn_book_tour);
             btnEditTour = itemView.findViewById(R.id.btn_edit_tour);
             btnDeleteTour = itemView.findViewById(R.id.btn_delete_tour);
             adminButtonsContainer = itemView.findViewById(R.id.admin_buttons_container);
 
+            discountAnimation = AnimationUtils.loadAnimation(context, android.R.anim.fade_in);
+            if (tvOriginalPrice != null) {
+                tvOriginalPrice.setPaintFlags(tvOriginalPrice.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
+            }
+
             // Set up click listeners
             itemView.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onTourClick(tours.get(position));
+                        listener.onTourClick(getItem(position).tour);
                     }
                 }
             });
@@ -230,7 +371,7 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onBookTourClick(tours.get(position));
+                        listener.onBookTourClick(getItem(position).tour);
                     }
                 }
             });
@@ -240,7 +381,7 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onEditTourClick(tours.get(position));
+                        listener.onEditTourClick(getItem(position).tour);
                     }
                 }
             });
@@ -250,163 +391,90 @@ public class TourAdapter extends RecyclerView.Adapter<TourAdapter.TourViewHolder
                 public void onClick(View v) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION && listener != null) {
-                        listener.onDeleteTourClick(tours.get(position));
+                        listener.onDeleteTourClick(getItem(position).tour);
                     }
                 }
             });
         }
 
         /**
-         * Binds tour data to the ViewHolder components
+         * Binds a precomputed card model to the ViewHolder components
          *
-         * @param tour Tour object to display
+         * @param card Card model to display
          */
-        public void bind(Tour tour) {
-            // Set tour name
-            tvTourName.setText(tour.getTourName());
-
-            // Set tour location
-            tvTourLocation.setText(tour.getTourLocation());
-
-            // Get best discount for this tour
-            TourManagementDatabase database = TourManagementDatabase.getDatabase(context);
-            Discount bestDiscount = database.discountDao().getBestDiscountForTour(
-                tour.getId(),
-                tour.getTourCost(),
-                System.currentTimeMillis()
-            );
-
-            // Calculate final price with discount
-            double finalPrice = tour.getTourCost();
-            if (bestDiscount != null && bestDiscount.isValid()) {
-                finalPrice = bestDiscount.applyDiscount(tour.getTourCost());
-
-                // Show discount information
-                displayDiscountInfo(tour.getTourCost(), finalPrice, bestDiscount);
-            } else {
-                // Hide discount container if no discount
-                if (discountContainer != null) {
-                    discountContainer.setVisibility(View.GONE);
-                }
-            }
-
-            // Set formatted price (final price after discount)
-            tvTourPrice.setText(currencyFormatter.format(finalPrice));
-
-            // Set formatted date
-            Date tourDate = new Date(tour.getTourTime());
-            tvTourDate.setText(dateFormatter.format(tourDate));
-
-            // Set available slots
-            int availableSlots = tour.getAvailableSlots();
-            tvAvailableSlots.setText(availableSlots + " slots available");
-
-            // Set duration
-            tvDuration.setText(tour.getDuration() + " days");
-
-            // Load tour image using Glide with better error handling
-            String imageUrl = tour.getTourImage();
-            if (imageUrl != null && !imageUrl.trim().isEmpty()) {
-                // Log the image URL for debugging
-                android.util.Log.d("TourAdapter", "Loading image: " + imageUrl);
-
-                Glide.with(context)
-                    .load(imageUrl)
-                    .placeholder(R.drawable.placeholder_tour)
-                    .error(R.drawable.placeholder_tour)
-                    .centerCrop()
-                    .into(ivTourImage);
+        public void bind(TourCardModel card) {
+            tvTourName.setText(card.name);
+            tvTourLocation.setText(card.location);
+            tvTourPrice.setText(card.priceText);
+            tvTourDate.setText(card.dateText);
+            tvAvailableSlots.setText(card.slotsText);
+            tvAvailableSlots.setTextColor(card.slotsColor);
+            tvDuration.setText(card.durationText);
+
+            bindDiscount(card);
+
+            // Load card-sized tour image, thumbnail first
+            if (card.imageUrl != null) {
+                imageLoader.cardRequest(card.imageUrl, card.thumbnailUrl, true).into(ivTourImage);
             } else {
-                // Log when no image is available
-                android.util.Log.d("TourAdapter", "No image URL for tour: " + tour.getTourName());
+                glide.clear(ivTourImage);
                 ivTourImage.setImageResource(R.drawable.placeholder_tour);
             }
 
             // Update booking button state
-            if (availableSlots > 0) {
-                btnBookTour.setEnabled(true);
-                btnBookTour.setText("Book Now");
-                btnBookTour.setBackgroundColor(context.getResources().getColor(R.color.primary_color));
-            } else {
-                btnBookTour.setEnabled(false);
-                btnBookTour.setText("Fully Booked");
-                btnBookTour.setBackgroundColor(context.getResources().getColor(R.color.disabled_color));
-            }
-
-            // Set availability indicator color
-            if (availableSlots > 5) {
-                tvAvailableSlots.setTextColor(context.getResources().getColor(R.color.success_color));
-            } else if (availableSlots > 0) {
-                tvAvailableSlots.setTextColor(context.getResources().getColor(R.color.warning_color));
-            } else {
-                tvAvailableSlots.setTextColor(context.getResources().getColor(R.color.error_color));
-            }
+            btnBookTour.setEnabled(card.bookable);
+            btnBookTour.setText(card.bookButtonText);
+            btnBookTour.setBackgroundColor(card.bookButtonColor);
 
             // Show or hide admin buttons based on admin status
-            if (isAdmin) {
-                adminButtonsContainer.setVisibility(View.VISIBLE);
-            } else {
-                adminButtonsContainer.setVisibility(View.GONE);
-            }
+            adminButtonsContainer.setVisibility(isAdmin ? View.VISIBLE : View.GONE);
         }
 
         /**
-         * Displays discount information beautifully in the tour item
+         * Shows or hides the discount banner, badge, original price and savings
          *
-         * @param originalPrice Original tour price
-         * @param finalPrice Final price after discount
-         * @param discount The discount being applied
+         * @param card Card model to display
          */
-        private void displayDiscountInfo(double originalPrice, double finalPrice, Discount discount) {
-            // Show discount banner on tour image
-            if (discountBanner != null && tvBannerDiscount != null) {
-                discountBanner.setVisibility(View.VISIBLE);
-
-                // Set banner text based on discount type
-                if (Discount.DiscountType.PERCENTAGE.equals(discount.getDiscountType())) {
-                    tvBannerDiscount.setText((int)discount.getDiscountValue() + "% OFF");
-                } else {
-                    tvBannerDiscount.setText("$" + (int)discount.getDiscountValue() + " OFF");
-                }
+        private void bindDiscount(TourCardModel card) {
+            boolean hasDiscount = card.hasDiscount();
+            int visibility = hasDiscount ? View.VISIBLE : View.GONE;
 
-                // Add banner animation
-                android.view.animation.Animation scaleIn = android.view.animation.AnimationUtils.loadAnimation(context, android.R.anim.fade_in);
-                discountBanner.startAnimation(scaleIn);
+            if (discountBanner != null) {
+                discountBanner.setVisibility(visibility);
             }
-
             if (discountContainer != null) {
-                discountContainer.setVisibility(View.VISIBLE);
-
-                // Show discount percentage or amount
-                TextView tvDiscountPercentage = discountContainer.findViewById(R.id.tv_discount_percentage);
-                if (tvDiscountPercentage != null) {
-                    if (Discount.DiscountType.PERCENTAGE.equals(discount.getDiscountType())) {
-                        tvDiscountPercentage.setText((int)discount.getDiscountValue() + "% OFF");
-                    } else {
-                        tvDiscountPercentage.setText("$" + (int)discount.getDiscountValue() + " OFF");
-                    }
-                }
+                discountContainer.setVisibility(visibility);
             }
-
-            // Show original price with strikethrough
             if (tvOriginalPrice != null) {
-                tvOriginalPrice.setVisibility(View.VISIBLE);
-                tvOriginalPrice.setText(currencyFormatter.format(originalPrice));
-                tvOriginalPrice.setPaintFlags(tvOriginalPrice.getPaintFlags() | android.graphics.Paint.STRIKE_THRU_TEXT_FLAG);
+                tvOriginalPrice.setVisibility(visibility);
             }
-
-            // Show savings amount
             if (tvSavings != null) {
-                double savings = originalPrice - finalPrice;
-                tvSavings.setVisibility(View.VISIBLE);
-                tvSavings.setText("You save " + currencyFormatter.format(savings) + "!");
+                tvSavings.setVisibility(visibility);
             }
 
-            // Add a subtle animation to draw attention to the discount
-            if (discountContainer != null) {
-                android.view.animation.Animation pulse = android.view.animation.AnimationUtils.loadAnimation(context, android.R.anim.fade_in);
-                discountContainer.startAnimation(pulse);
+            if (hasDiscount) {
+                if (tvBannerDiscount != null) {
+                    tvBannerDiscount.setText(card.discountText);
+                }
+                if (tvDiscountPercentage != null) {
+                    tvDiscountPercentage.setText(card.discountText);
+                }
+                if (tvOriginalPrice != null) {
+                    tvOriginalPrice.setText(card.originalPriceText);
+                }
+                if (tvSavings != null) {
+                    tvSavings.setText(card.savingsText);
+                }
+
+                // Draw attention only when the discount newly appears on this card
+                boolean newlyShown = boundTourId != card.tourId || !boundDiscount;
+                if (newlyShown && discountBanner != null) {
+                    discountBanner.startAnimation(discountAnimation);
+                }
             }
+
+            boundTourId = card.tourId;
+            boundDiscount = hasDiscount;
         }
     }
 }
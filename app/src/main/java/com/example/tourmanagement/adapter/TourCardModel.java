@@ -0,0 +1,117 @@
+package com.example.tourmanagement.adapter;
+
+import com.example.tourmanagement.model.Tour;
+import java.util.Objects;
+
+/**
+ * Immutable, display-ready model for a tour card.
+ * All text is formatted and all colors are resolved when the model is built,
+ * so binding a card only assigns fields to views.
+ *
+ * Built in batch by TourCardModelFactory on a background thread whenever
+ * the tour list or the discounts change.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class TourCardModel {
+
+    /**
+     * Source tour, handed back to click listeners
+     */
+    final Tour tour;
+
+    final int tourId;
+    final String name;
+    final String location;
+
+    /**
+     * Card-sized and thumbnail-sized image URLs (see TourImageLoader)
+     */
+    final String imageUrl;
+    final String thumbnailUrl;
+
+    final String priceText;
+    final String dateText;
+    final String slotsText;
+    final String durationText;
+    final int slotsColor;
+    final boolean bookable;
+    final String bookButtonText;
+    final int bookButtonColor;
+
+    /**
+     * Discount fields; null when no discount applies
+     */
+    final String discountText;
+    final String originalPriceText;
+    final String savingsText;
+
+    TourCardModel(Tour tour, String imageUrl, String thumbnailUrl, String priceText, String dateText,
+                  String slotsText, String durationText, int slotsColor, boolean bookable,
+                  String bookButtonText, int bookButtonColor,
+                  String discountText, String originalPriceText, String savingsText) {
+        this.tour = tour;
+        this.tourId = tour.getId();
+        this.name = tour.getTourName();
+        this.location = tour.getTourLocation();
+        this.imageUrl = imageUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.priceText = priceText;
+        this.dateText = dateText;
+        this.slotsText = slotsText;
+        this.durationText = durationText;
+        this.slotsColor = slotsColor;
+        this.bookable = bookable;
+        this.bookButtonText = bookButtonText;
+        this.bookButtonColor = bookButtonColor;
+        this.discountText = discountText;
+        this.originalPriceText = originalPriceText;
+        this.savingsText = savingsText;
+    }
+
+    /**
+     * Gets the source tour
+     * @return Tour entity this card was built from
+     */
+    public Tour getTour() { return tour; }
+
+    /**
+     * Checks whether a discount is shown on this card
+     * @return true if a discount applies
+     */
+    public boolean hasDiscount() { return discountText != null; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TourCardModel)) {
+            return false;
+        }
+        TourCardModel other = (TourCardModel) o;
+        return tourId == other.tourId
+            && slotsColor == other.slotsColor
+            && bookable == other.bookable
+            && bookButtonColor == other.bookButtonColor
+            && Objects.equals(name, other.name)
+            && Objects.equals(location, other.location)
+            && Objects.equals(imageUrl, other.imageUrl)
+            && Objects.equals(thumbnailUrl, other.thumbnailUrl)
+            && Objects.equals(priceText, other.priceText)
+            && Objects.equals(dateText, other.dateText)
+            && Objects.equals(slotsText, other.slotsText)
+            && Objects.equals(durationText, other.durationText)
+            && Objects.equals(bookButtonText, other.bookButtonText)
+            && Objects.equals(discountText, other.discountText)
+            && Objects.equals(originalPriceText, other.originalPriceText)
+            && Objects.equals(savingsText, other.savingsText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tourId, name, location, imageUrl, priceText, slotsText, discountText);
+    }
+}
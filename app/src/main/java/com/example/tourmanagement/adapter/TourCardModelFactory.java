@@ -0,0 +1,146 @@
+package com.example.tourmanagement.adapter;
+
+import android.content.Context;
+import androidx.core.content.ContextCompat;
+import com.example.tourmanagement.R;
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.pricing.DiscountSelector;
+import com.example.tourmanagement.pricing.PricingEngine;
+import com.example.tourmanagement.utils.LocalMediaStore;
+import com.example.tourmanagement.utils.TourImageLoader;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds TourCardModel instances in batch.
+ * Resolves colors once, reuses one set of formatters per batch and picks the
+ * best discount for every tour from a single list of valid discounts instead
+ * of querying the database per card.
+ *
+ * Not thread-safe; create one per background build.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+class TourCardModelFactory {
+
+    private final NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
+    private final SimpleDateFormat dateFormatter = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+    private final Date scratchDate = new Date();
+
+    private final int primaryColor;
+    private final int disabledColor;
+    private final int successColor;
+    private final int warningColor;
+    private final int errorColor;
+    private final int[] cardImageSize;
+    private final LocalMediaStore mediaStore;
+
+    /**
+     * Constructor resolving the card colors for the current theme
+     *
+     * @param context Context for resource access
+     */
+    TourCardModelFactory(Context context) {
+        primaryColor = ContextCompat.getColor(context, R.color.primary_color);
+        disabledColor = ContextCompat.getColor(context, R.color.disabled_color);
+        successColor = ContextCompat.getColor(context, R.color.success_color);
+        warningColor = ContextCompat.getColor(context, R.color.warning_color);
+        errorColor = ContextCompat.getColor(context, R.color.error_color);
+        cardImageSize = TourImageLoader.cardSize(context);
+        mediaStore = LocalMediaStore.getInstance(context);
+    }
+
+    /**
+     * Builds card models for a list of tours
+     *
+     * @param tours Tours to display, in display order
+     * @param validDiscounts Currently valid discounts (tour-specific and global)
+     * @return Card models in the same order as tours
+     */
+    List<TourCardModel> build(List<Tour> tours, List<Discount> validDiscounts) {
+        DiscountSelector discounts = new DiscountSelector(validDiscounts);
+        long now = System.currentTimeMillis();
+
+        List<TourCardModel> models = new ArrayList<>(tours.size());
+        for (Tour tour : tours) {
+            models.add(build(tour, discounts.bestFor(tour.getId(), tour.getTourCost(), now), now));
+        }
+        return models;
+    }
+
+    /**
+     * Builds the card model for a single tour
+     *
+     * @param tour Tour to display
+     * @param discount Best applicable discount, or null
+     * @param now Time the discounts are checked at
+     * @return Card model
+     */
+    private TourCardModel build(Tour tour, Discount discount, long now) {
+        PricingEngine.Quote quote = PricingEngine.quote(tour, 1, discount, now);
+        double originalPrice = quote.originalPrice;
+        double finalPrice = quote.total;
+
+        String discountText = null;
+        String originalPriceText = null;
+        String savingsText = null;
+        if (quote.isDiscounted()) {
+            if (Discount.DiscountType.PERCENTAGE.equals(discount.getDiscountType())) {
+                discountText = (int) discount.getDiscountValue() + "% OFF";
+            } else {
+                discountText = "$" + (int) discount.getDiscountValue() + " OFF";
+            }
+            originalPriceText = currencyFormatter.format(originalPrice);
+            savingsText = "You save " + currencyFormatter.format(originalPrice - finalPrice) + "!";
+        }
+
+        scratchDate.setTime(tour.getTourTime());
+        int availableSlots = tour.getAvailableSlots();
+
+        int slotsColor;
+        if (availableSlots > 5) {
+            slotsColor = successColor;
+        } else if (availableSlots > 0) {
+            slotsColor = warningColor;
+        } else {
+            slotsColor = errorColor;
+        }
+
+        boolean bookable = availableSlots > 0;
+
+        // Locally stored images already have card and avatar sized variants
+        String imageUrl;
+        String thumbnailUrl;
+        if (LocalMediaStore.isMediaRef(tour.getTourImage())) {
+            imageUrl = mediaStore.resolve(tour.getTourImage(), LocalMediaStore.Variant.CARD);
+            thumbnailUrl = mediaStore.resolve(tour.getTourImage(), LocalMediaStore.Variant.AVATAR);
+        } else {
+            imageUrl = TourImageLoader.cardUrl(tour.getTourImage(), cardImageSize);
+            thumbnailUrl = TourImageLoader.thumbnailUrl(tour.getTourImage(), cardImageSize);
+        }
+
+        return new TourCardModel(
+            tour,
+            imageUrl,
+            thumbnailUrl,
+            currencyFormatter.format(finalPrice),
+            dateFormatter.format(scratchDate),
+            availableSlots + " slots available",
+            tour.getDuration() + " days",
+            slotsColor,
+            bookable,
+            bookable ? "Book Now" : "Fully Booked",
+            bookable ? primaryColor : disabledColor,
+            discountText,
+            originalPriceText,
+            savingsText
+        );
+    }
+}
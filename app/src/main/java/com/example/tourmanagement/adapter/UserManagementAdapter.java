@@ -7,21 +7,40 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.tourmanagement.R;
 import com.example.tourmanagement.model.User;
 import com.google.android.material.button.MaterialButton;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying and managing users in the UserManagementActivity.
  * Provides functionality for admins to view, edit, delete, and manage user accounts.
+ * List updates are diffed on a background thread and rows use the user ID as stable ID.
  */
-public class UserManagementAdapter extends RecyclerView.Adapter<UserManagementAdapter.UserViewHolder> {
+public class UserManagementAdapter extends ListAdapter<User, UserManagementAdapter.UserViewHolder> {
+
+    private static final DiffUtil.ItemCallback<User> DIFF_CALLBACK = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User oldItem, @NonNull User newItem) {
+            return oldItem.isAdmin() == newItem.isAdmin()
+                && Objects.equals(oldItem.getUsername(), newItem.getUsername())
+                && Objects.equals(oldItem.getFullName(), newItem.getFullName())
+                && Objects.equals(oldItem.getEmail(), newItem.getEmail())
+                && Objects.equals(oldItem.getPhoneNumber(), newItem.getPhoneNumber());
+        }
+    };
 
     private Context context;
-    private List<User> users;
     private OnUserActionListener listener;
 
     public interface OnUserActionListener {
@@ -32,9 +51,10 @@ public class UserManagementAdapter extends RecyclerView.Adapter<UserManagementAd
     }
 
     public UserManagementAdapter(Context context, OnUserActionListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.users = new ArrayList<>();
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -46,19 +66,17 @@ public class UserManagementAdapter extends RecyclerView.Adapter<UserManagementAd
 
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = users.get(position);
+        User user = getItem(position);
         holder.bind(user);
     }
 
     @Override
-    public int getItemCount() {
-        return users.size();
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     public void updateUsers(List<User> newUsers) {
-        this.users.clear();
-        this.users.addAll(newUsers);
-        notifyDataSetChanged();
+        submitList(new ArrayList<>(newUsers));
     }
 
     class UserViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,78 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.example.tourmanagement.model.Booking;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the booking archive.
+ * Moves finished bookings from the bookings table to bookings_archive and
+ * reads them back. Queries that combine live and archived bookings are in
+ * BookingDao (the *IncludingArchive methods).
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface BookingArchiveDao {
+
+    /**
+     * Gets IDs of finished bookings made before the cutoff
+     * Cancelled bookings, and confirmed bookings whose tour took place before the cutoff
+     *
+     * @param cutoff Bookings made before this timestamp are archived
+     * @param limit Maximum number of IDs to return
+     * @return Booking IDs, oldest first
+     */
+    @Query("SELECT id FROM bookings WHERE bookingDate < :cutoff AND (bookingStatus = 'CANCELLED' " +
+           "OR (bookingStatus IN ('CONFIRMED', 'COMPLETED') " +
+           "AND tourId IN (SELECT id FROM tours WHERE tourTime < :cutoff))) " +
+           "ORDER BY bookingDate ASC LIMIT :limit")
+    List<Integer> getArchivableBookingIds(long cutoff, int limit);
+
+    /**
+     * Copies bookings into the archive table
+     *
+     * @param bookingIds IDs of the bookings to copy
+     */
+    @Query("INSERT OR REPLACE INTO bookings_archive (" + BookingDao.COLUMNS + ") " +
+           "SELECT " + BookingDao.COLUMNS + " FROM bookings WHERE id IN (:bookingIds)")
+    void copyToArchive(List<Integer> bookingIds);
+
+    /**
+     * Removes archived bookings from the bookings table
+     *
+     * @param bookingIds IDs of the archived bookings
+     * @return Number of bookings removed
+     */
+    @Query("DELETE FROM bookings WHERE id IN (:bookingIds)")
+    int deleteFromBookings(List<Integer> bookingIds);
+
+    /**
+     * Gets an archived booking by its ID
+     *
+     * @param id Booking ID
+     * @return Archived booking or null if not found
+     */
+    @Query("SELECT * FROM bookings_archive WHERE id = :id")
+    Booking getArchivedBookingById(int id);
+
+    /**
+     * Gets the number of archived bookings of a user
+     *
+     * @param userId User ID
+     * @return Number of archived bookings
+     */
+    @Query("SELECT COUNT(*) FROM bookings_archive WHERE userId = :userId")
+    int getArchivedBookingCount(int userId);
+
+    /**
+     * Gets the total number of archived bookings
+     *
+     * @return Number of archived bookings
+     */
+    @Query("SELECT COUNT(*) FROM bookings_archive")
+    int getArchivedBookingCount();
+}
@@ -1,11 +1,13 @@
 package com.example.tourmanagement.dao;
 
+import android.database.Cursor;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
 import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.repository.BookingRepository;
 import java.util.List;
 
 /**
@@ -17,13 +19,20 @@ import java.util.List;
  * - Payment status tracking
  * - Customer booking history
  * - Booking analytics and reporting
+ * - History and reports across live and archived bookings (*IncludingArchive)
  *
  * @author Tour Management Team
  * @version 1.0
  * @since 2025-07-22
  */
 @Dao
-public interface BookingDao {
+public interface BookingDao extends BookingRepository {
+
+    /**
+     * Booking columns, in the same order in bookings and bookings_archive
+     */
+    String COLUMNS = "id, userId, tourId, numberOfPeople, totalAmount, bookingStatus, paymentStatus, " +
+        "qrCode, bookingReference, bookingDate, notes, expiresAt";
 
     /**
      * Inserts a new booking into the database
@@ -33,6 +42,7 @@ public interface BookingDao {
      * @return The ID of the inserted booking
      */
     @Insert
+    @Override
     long insertBooking(Booking booking);
 
     /**
@@ -42,6 +52,7 @@ public interface BookingDao {
      * @param booking Booking object with updated information
      */
     @Update
+    @Override
     void updateBooking(Booking booking);
 
     /**
@@ -70,6 +81,7 @@ public interface BookingDao {
      * @return List of user's bookings
      */
     @Query("SELECT * FROM bookings WHERE userId = :userId ORDER BY bookingDate DESC")
+    @Override
     List<Booking> getBookingsByUserId(int userId);
 
     /**
@@ -80,6 +92,7 @@ public interface BookingDao {
      * @return List of tour bookings
      */
     @Query("SELECT * FROM bookings WHERE tourId = :tourId ORDER BY bookingDate DESC")
+    @Override
     List<Booking> getBookingsByTourId(int tourId);
 
     /**
@@ -90,6 +103,7 @@ public interface BookingDao {
      * @return Booking object if found, null otherwise
      */
     @Query("SELECT * FROM bookings WHERE id = :id")
+    @Override
     Booking getBookingById(int id);
 
     /**
@@ -100,6 +114,7 @@ public interface BookingDao {
      * @return Booking object if found, null otherwise
      */
     @Query("SELECT * FROM bookings WHERE bookingReference = :reference")
+    @Override
     Booking getBookingByReference(String reference);
 
     /**
@@ -142,6 +157,32 @@ public interface BookingDao {
     @Query("UPDATE bookings SET bookingStatus = :bookingStatus WHERE id = :bookingId")
     void updateBookingStatus(int bookingId, String bookingStatus);
 
+    /**
+     * Updates booking and payment status together
+     * Used for admin approval/rejection and customer cancellation
+     *
+     * @param bookingId Booking ID
+     * @param bookingStatus New booking status
+     * @param paymentStatus New payment status
+     */
+    @Query("UPDATE bookings SET bookingStatus = :bookingStatus, paymentStatus = :paymentStatus WHERE id = :bookingId")
+    @Override
+    void updateBookingAndPaymentStatus(int bookingId, String bookingStatus, String paymentStatus);
+
+    /**
+     * Updates booking and payment status of a booking that is still pending
+     * Used for admin approval/rejection, so a booking cancelled or confirmed
+     * meanwhile (e.g. expired unpaid) is left alone
+     *
+     * @param bookingId Booking ID
+     * @param bookingStatus New booking status
+     * @param paymentStatus New payment status
+     * @return 1 if the booking was pending and was updated, 0 otherwise
+     */
+    @Query("UPDATE bookings SET bookingStatus = :bookingStatus, paymentStatus = :paymentStatus " +
+           "WHERE id = :bookingId AND bookingStatus = 'PENDING'")
+    int updatePendingBookingStatus(int bookingId, String bookingStatus, String paymentStatus);
+
     /**
      * Sets QR code for a booking
      * Used for payment QR code generation
@@ -263,20 +304,6 @@ public interface BookingDao {
     @Query("SELECT SUM(totalAmount) FROM bookings WHERE bookingStatus = 'CONFIRMED' AND bookingDate >= :monthStart")
     double getMonthlyRevenue(long monthStart);
 
-    /**
-     * Gets revenue data for the last 12 months for chart visualization
-     *
-     * @return List of monthly revenue amounts for the past 12 months
-     */
-    @Query("SELECT " +
-           "COALESCE(SUM(totalAmount), 0.0) as revenue " +
-           "FROM bookings " +
-           "WHERE bookingStatus = 'CONFIRMED' " +
-           "AND bookingDate >= :startDate " +
-           "GROUP BY strftime('%Y-%m', datetime(bookingDate/1000, 'unixepoch')) " +
-           "ORDER BY bookingDate ASC")
-    List<Double> getMonthlyRevenueData(long startDate);
-
     /**
      * Gets count of bookings by status for admin dashboard statistics
      * Used for showing booking status distribution
@@ -314,4 +341,128 @@ public interface BookingDao {
      */
     @Query("SELECT COUNT(*) FROM bookings WHERE bookingStatus = 'PENDING'")
     int getBookingsRequiringAttentionCount();
+
+    /**
+     * Gets unpaid pending bookings whose hold has expired
+     * Used by the booking expiry job
+     *
+     * @param now Current timestamp
+     * @param limit Maximum number of bookings to return
+     * @return Expired bookings, oldest expiry first
+     */
+    @Query("SELECT * FROM bookings WHERE bookingStatus = 'PENDING' AND paymentStatus = 'PENDING' " +
+           "AND expiresAt > 0 AND expiresAt <= :now ORDER BY expiresAt ASC LIMIT :limit")
+    List<Booking> getExpiredBookings(long now, int limit);
+
+    /**
+     * Cancels expired bookings that are still unpaid and pending
+     *
+     * @param bookingIds IDs of the expired bookings
+     * @return Number of bookings cancelled
+     */
+    @Query("UPDATE bookings SET bookingStatus = 'CANCELLED', paymentStatus = 'EXPIRED' " +
+           "WHERE id IN (:bookingIds) AND bookingStatus = 'PENDING' AND paymentStatus = 'PENDING'")
+    int expireBookings(List<Integer> bookingIds);
+
+    /**
+     * Gets the earliest expiry time of the unpaid pending bookings
+     * Used to schedule the next run of the booking expiry job
+     *
+     * @return Expiry timestamp, or null if no booking will expire
+     */
+    @Query("SELECT MIN(expiresAt) FROM bookings WHERE bookingStatus = 'PENDING' AND paymentStatus = 'PENDING' " +
+           "AND expiresAt > 0")
+    Long getNextExpiry();
+
+    /**
+     * Gets the bookings among the given IDs that are still pending
+     * Used by bulk confirm/cancel to skip bookings changed since they were selected
+     *
+     * @param bookingIds IDs of the selected bookings
+     * @return Pending bookings
+     */
+    @Query("SELECT * FROM bookings WHERE id IN (:bookingIds) AND bookingStatus = 'PENDING'")
+    List<Booking> getPendingBookingsByIds(List<Integer> bookingIds);
+
+    /**
+     * Sets the booking and payment status of pending bookings in one statement
+     *
+     * @param bookingIds IDs of the bookings to update
+     * @param bookingStatus New booking status
+     * @param paymentStatus New payment status
+     * @return Number of bookings updated
+     */
+    @Query("UPDATE bookings SET bookingStatus = :bookingStatus, paymentStatus = :paymentStatus " +
+           "WHERE id IN (:bookingIds) AND bookingStatus = 'PENDING'")
+    int updatePendingBookingsStatus(List<Integer> bookingIds, String bookingStatus, String paymentStatus);
+
+    /**
+     * Gets all bookings of a user, live and archived
+     * Used when the user asks for their older bookings
+     *
+     * @param userId User ID
+     * @return Bookings, newest first
+     */
+    @Query("SELECT " + COLUMNS + " FROM bookings WHERE userId = :userId " +
+           "UNION ALL SELECT " + COLUMNS + " FROM bookings_archive WHERE userId = :userId " +
+           "ORDER BY bookingDate DESC")
+    List<Booking> getBookingsByUserIdIncludingArchive(int userId);
+
+    /**
+     * Gets all bookings of a tour, live and archived
+     *
+     * @param tourId Tour ID
+     * @return Bookings, newest first
+     */
+    @Query("SELECT " + COLUMNS + " FROM bookings WHERE tourId = :tourId " +
+           "UNION ALL SELECT " + COLUMNS + " FROM bookings_archive WHERE tourId = :tourId " +
+           "ORDER BY bookingDate DESC")
+    List<Booking> getBookingsByTourIdIncludingArchive(int tourId);
+
+    /**
+     * Gets count of bookings of a user, live and archived
+     *
+     * @param userId User ID
+     * @return Number of bookings for the user
+     */
+    @Query("SELECT (SELECT COUNT(*) FROM bookings WHERE userId = :userId) + " +
+           "(SELECT COUNT(*) FROM bookings_archive WHERE userId = :userId)")
+    int getUserBookingsCountIncludingArchive(int userId);
+
+    /**
+     * Gets total count of bookings, live and archived
+     *
+     * @return Total number of bookings
+     */
+    @Query("SELECT (SELECT COUNT(*) FROM bookings) + (SELECT COUNT(*) FROM bookings_archive)")
+    int getTotalBookingsCountIncludingArchive();
+
+    /**
+     * Keyset condition for paging bookings in (bookingDate, id) order
+     */
+    String AFTER_LEDGER_KEY = "WHERE bookingDate >= :afterDate AND (bookingDate > :afterDate OR id > :afterId) " +
+        "ORDER BY bookingDate, id LIMIT :limit";
+
+    /**
+     * Opens one page of the booking ledger, live and archived, in booking order
+     * Used by the export. Pages are fetched by key rather than with one cursor over the
+     * whole ledger, because a cursor refill re-runs its query from the first row.
+     * The last two columns (sortDate, bookingId) are the key of the next page.
+     *
+     * @param afterDate bookingDate of the last row of the previous page (Long.MIN_VALUE for the first page)
+     * @param afterId ID of the last row of the previous page
+     * @param limit Page size
+     * @return Cursor over formatted ledger rows
+     */
+    @Query("SELECT b.bookingReference AS reference, " +
+           "strftime('%Y-%m-%d %H:%M', b.bookingDate / 1000, 'unixepoch', 'localtime') AS bookedAt, " +
+           "u.fullName AS customer, u.email AS email, t.tourName AS tour, " +
+           "date(t.tourTime / 1000, 'unixepoch', 'localtime') AS tourDate, b.numberOfPeople AS people, " +
+           "printf('%.2f', b.totalAmount) AS amount, b.bookingStatus AS bookingStatus, " +
+           "b.paymentStatus AS paymentStatus, b.bookingDate AS sortDate, b.id AS bookingId FROM (" +
+           "SELECT * FROM (SELECT " + COLUMNS + " FROM bookings " + AFTER_LEDGER_KEY + ") " +
+           "UNION ALL SELECT * FROM (SELECT " + COLUMNS + " FROM bookings_archive " + AFTER_LEDGER_KEY + ")) b " +
+           "LEFT JOIN users u ON u.id = b.userId LEFT JOIN tours t ON t.id = b.tourId " +
+           "ORDER BY b.bookingDate, b.id LIMIT :limit")
+    Cursor getLedgerPage(long afterDate, int afterId, int limit);
 }
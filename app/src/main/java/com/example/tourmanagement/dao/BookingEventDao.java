@@ -0,0 +1,66 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.tourmanagement.model.BookingEvent;
+import com.example.tourmanagement.model.EventConsumerOffset;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the booking event log and its consumers.
+ * Events are only ever appended, by triggers on bookings (see BookingEvents),
+ * so this DAO reads them; consumers save their offsets here.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface BookingEventDao {
+
+    /**
+     * Gets the next events after a position, oldest first
+     *
+     * @param afterSeq Sequence of the last event already read
+     * @param limit Maximum number of events
+     * @return Events in sequence order
+     */
+    @Query("SELECT * FROM booking_events WHERE seq > :afterSeq ORDER BY seq ASC LIMIT :limit")
+    List<BookingEvent> getEventsAfter(long afterSeq, int limit);
+
+    /**
+     * Gets the history of one booking, oldest first
+     *
+     * @param bookingId Booking ID
+     * @return Events of the booking
+     */
+    @Query("SELECT * FROM booking_events WHERE bookingId = :bookingId ORDER BY seq ASC")
+    List<BookingEvent> getEventsForBooking(int bookingId);
+
+    /**
+     * Gets the sequence of the latest event
+     *
+     * @return Latest sequence, 0 if the log is empty
+     */
+    @Query("SELECT IFNULL(MAX(seq), 0) FROM booking_events")
+    long getLatestSeq();
+
+    /**
+     * Gets the saved progress of a consumer
+     *
+     * @param consumer Consumer name
+     * @return Saved offset and state, null before its first run
+     */
+    @Query("SELECT * FROM booking_event_offsets WHERE consumer = :consumer")
+    EventConsumerOffset getOffset(String consumer);
+
+    /**
+     * Saves the progress of a consumer
+     *
+     * @param offset Offset and state to save
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void saveOffset(EventConsumerOffset offset);
+}
@@ -0,0 +1,58 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.example.tourmanagement.model.DashboardSnapshot;
+
+/**
+ * Data Access Object (DAO) for dashboard statistics.
+ * Reads the headline numbers of several tables in one statement: each table
+ * is scanned once and its counters are computed with conditional aggregation,
+ * instead of running one COUNT or SUM query per number.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface DashboardDao {
+
+    /**
+     * Gets all headline numbers in one query
+     * Booking status counts include the archive, so they add up to the total;
+     * pending payments and the user's active bookings are live only.
+     * Revenue comes from the daily revenue rollup; month revenue is matched by whole days.
+     *
+     * @param userId User whose own booking counts are returned (any value for admins)
+     * @param monthStart Start of the current month
+     * @return Snapshot of tour, booking and revenue counters
+     */
+    @Query("SELECT t.totalTours AS totalTours, t.activeTours AS activeTours, " +
+           "b.pendingBookings + a.pendingBookings AS pendingBookings, " +
+           "b.confirmedBookings + a.confirmedBookings AS confirmedBookings, " +
+           "b.cancelledBookings + a.cancelledBookings AS cancelledBookings, " +
+           "b.totalBookings + a.totalBookings AS totalBookings, " +
+           "b.pendingPayments AS pendingPayments, r.totalRevenue AS totalRevenue, " +
+           "r.monthlyRevenue AS monthlyRevenue, b.userBookings + a.userBookings AS userBookings, " +
+           "b.userActiveBookings AS userActiveBookings " +
+           "FROM (SELECT COUNT(*) AS totalTours, " +
+           "COALESCE(SUM(CASE WHEN isActive = 1 THEN 1 ELSE 0 END), 0) AS activeTours FROM tours) t, " +
+           "(SELECT COUNT(*) AS totalBookings, " +
+           "COALESCE(SUM(CASE WHEN bookingStatus = 'PENDING' THEN 1 ELSE 0 END), 0) AS pendingBookings, " +
+           "COALESCE(SUM(CASE WHEN bookingStatus = 'CONFIRMED' THEN 1 ELSE 0 END), 0) AS confirmedBookings, " +
+           "COALESCE(SUM(CASE WHEN bookingStatus = 'CANCELLED' THEN 1 ELSE 0 END), 0) AS cancelledBookings, " +
+           "COALESCE(SUM(CASE WHEN paymentStatus = 'PENDING' THEN 1 ELSE 0 END), 0) AS pendingPayments, " +
+           "COALESCE(SUM(CASE WHEN userId = :userId THEN 1 ELSE 0 END), 0) AS userBookings, " +
+           "COALESCE(SUM(CASE WHEN userId = :userId AND bookingStatus != 'CANCELLED' THEN 1 ELSE 0 END), 0) " +
+           "AS userActiveBookings FROM bookings) b, " +
+           "(SELECT COUNT(*) AS totalBookings, " +
+           "COALESCE(SUM(CASE WHEN bookingStatus = 'PENDING' THEN 1 ELSE 0 END), 0) AS pendingBookings, " +
+           "COALESCE(SUM(CASE WHEN bookingStatus = 'CONFIRMED' THEN 1 ELSE 0 END), 0) AS confirmedBookings, " +
+           "COALESCE(SUM(CASE WHEN bookingStatus = 'CANCELLED' THEN 1 ELSE 0 END), 0) AS cancelledBookings, " +
+           "COALESCE(SUM(CASE WHEN userId = :userId THEN 1 ELSE 0 END), 0) AS userBookings " +
+           "FROM bookings_archive) a, " +
+           "(SELECT COALESCE(SUM(revenue), 0.0) AS totalRevenue, " +
+           "COALESCE(SUM(CASE WHEN day >= date(:monthStart / 1000, 'unixepoch', 'localtime') " +
+           "THEN revenue ELSE 0.0 END), 0.0) AS monthlyRevenue FROM revenue_daily) r")
+    DashboardSnapshot getSnapshot(int userId, long monthStart);
+}
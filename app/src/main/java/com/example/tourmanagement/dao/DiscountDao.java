@@ -6,6 +6,7 @@ import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
 import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.repository.DiscountRepository;
 import java.util.List;
 
 /**
@@ -23,7 +24,7 @@ import java.util.List;
  * @since 2025-07-24
  */
 @Dao
-public interface DiscountDao {
+public interface DiscountDao extends DiscountRepository {
 
     /**
      * Inserts a new discount into the database
@@ -124,8 +125,23 @@ public interface DiscountDao {
            "AND endDate >= :currentTime " +
            "AND (usageLimit <= 0 OR currentUsage < usageLimit) " +
            "ORDER BY discountValue DESC")
+    @Override
     List<Discount> getValidDiscountsForTour(int tourId, long currentTime);
 
+    /**
+     * Gets all currently valid discounts (tour-specific and global)
+     * Used to price many tours in one pass instead of one query per tour
+     * @param currentTime Current timestamp
+     * @return List of valid discounts
+     */
+    @Query("SELECT * FROM discounts WHERE " +
+           "isActive = 1 " +
+           "AND startDate <= :currentTime " +
+           "AND endDate >= :currentTime " +
+           "AND (usageLimit <= 0 OR currentUsage < usageLimit)")
+    @Override
+    List<Discount> getValidDiscounts(long currentTime);
+
     /**
      * Updates discount usage count
      * @param discountId Discount ID
@@ -139,8 +155,17 @@ public interface DiscountDao {
      * @param discountId Discount ID
      */
     @Query("UPDATE discounts SET currentUsage = currentUsage + 1 WHERE id = :discountId")
+    @Override
     void incrementDiscountUsage(int discountId);
 
+    /**
+     * Activates or deactivates a discount
+     * @param discountId Discount ID
+     * @param isActive New active status
+     */
+    @Query("UPDATE discounts SET isActive = :isActive WHERE id = :discountId")
+    void updateDiscountStatus(int discountId, boolean isActive);
+
     /**
      * Gets expired discounts for cleanup
      * @param currentTime Current timestamp
@@ -199,6 +224,7 @@ public interface DiscountDao {
            "END " +
            "END DESC " +
            "LIMIT 1")
+    @Override
     Discount getBestDiscountForTour(int tourId, double orderAmount, long currentTime);
 
     /**
@@ -0,0 +1,85 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.tourmanagement.model.MediaAsset;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for MediaAsset entity operations.
+ * Backs the content-addressed local media store.
+ *
+ * Features:
+ * - Lookup by content hash for deduplication
+ * - Reference check against users and tours for garbage collection
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface MediaAssetDao {
+
+    /**
+     * Inserts a media asset, keeping the existing row if the hash is already stored
+     * @param asset MediaAsset object to insert
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertAsset(MediaAsset asset);
+
+    /**
+     * Gets a media asset by its content hash
+     * @param hash Hex-encoded SHA-256 of the source image
+     * @return MediaAsset object if found, null otherwise
+     */
+    @Query("SELECT * FROM media_assets WHERE hash = :hash")
+    MediaAsset getAssetByHash(String hash);
+
+    /**
+     * Records a repeated import of an existing asset, restarting its grace period
+     * @param hash Hex-encoded SHA-256 of the source image
+     * @param importedAt Import timestamp
+     */
+    @Query("UPDATE media_assets SET importedAt = :importedAt WHERE hash = :hash")
+    void updateImportedAt(String hash, long importedAt);
+
+    /**
+     * Gets all content hashes in the store
+     * @return List of hashes
+     */
+    @Query("SELECT hash FROM media_assets")
+    List<String> getAllHashes();
+
+    /**
+     * Gets assets that no user or tour references and that were last imported before a cutoff
+     * The cutoff keeps images picked on a form that has not been saved yet
+     *
+     * @param refPrefix Reference prefix stored in users and tours ("media://")
+     * @param cutoff Only assets last imported before this timestamp are returned
+     * @return List of unreferenced assets
+     */
+    @Query("SELECT * FROM media_assets WHERE importedAt < :cutoff " +
+           "AND (:refPrefix || hash) NOT IN (SELECT profileImagePath FROM users WHERE profileImagePath IS NOT NULL) " +
+           "AND (:refPrefix || hash) NOT IN (SELECT tourImage FROM tours WHERE tourImage IS NOT NULL)")
+    List<MediaAsset> getUnreferencedAssets(String refPrefix, long cutoff);
+
+    /**
+     * Gets user and tour image paths under a directory
+     * Used to find legacy profile image files that are still in use
+     *
+     * @param directory Absolute directory path, with a trailing separator
+     * @return Referenced file paths
+     */
+    @Query("SELECT profileImagePath FROM users WHERE substr(profileImagePath, 1, length(:directory)) = :directory " +
+           "UNION SELECT tourImage FROM tours WHERE substr(tourImage, 1, length(:directory)) = :directory")
+    List<String> getPathsUnder(String directory);
+
+    /**
+     * Deletes a media asset row by hash
+     * @param hash Hex-encoded SHA-256 of the source image
+     */
+    @Query("DELETE FROM media_assets WHERE hash = :hash")
+    void deleteAsset(String hash);
+}
@@ -0,0 +1,70 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.PendingDigest;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for NotificationEvent entity operations.
+ * Backs the booking notification digests built by NotificationDigestWorker.
+ *
+ * Features:
+ * - Recording of booking events per recipient
+ * - Per-recipient pending counts for digest scheduling
+ * - Marking events as sent in a digest
+ * - Cleanup of old digested events
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface NotificationEventDao {
+
+    /**
+     * Inserts a new pending event
+     * @param event NotificationEvent object to insert
+     * @return The ID of the inserted event
+     */
+    @Insert
+    long insertEvent(NotificationEvent event);
+
+    /**
+     * Gets the pending event count and oldest event time of every recipient
+     * @return One row per recipient with pending events
+     */
+    @Query("SELECT recipient, COUNT(*) AS pendingCount, MIN(createdAt) AS oldestCreatedAt " +
+           "FROM notification_events WHERE digestedAt = 0 GROUP BY recipient")
+    List<PendingDigest> getPendingDigests();
+
+    /**
+     * Gets the pending events of a recipient
+     *
+     * @param recipient Recipient email address
+     * @return Pending events, oldest first
+     */
+    @Query("SELECT * FROM notification_events WHERE recipient = :recipient AND digestedAt = 0 " +
+           "ORDER BY createdAt ASC, id ASC")
+    List<NotificationEvent> getPendingEvents(String recipient);
+
+    /**
+     * Marks events as sent in a digest
+     *
+     * @param ids Event IDs
+     * @param digestedAt Digest timestamp
+     */
+    @Query("UPDATE notification_events SET digestedAt = :digestedAt WHERE id IN (:ids)")
+    void markDigested(List<Integer> ids, long digestedAt);
+
+    /**
+     * Deletes events that were sent in a digest before a cutoff
+     *
+     * @param cutoff Digest timestamp before which events are removed
+     * @return Number of deleted events
+     */
+    @Query("DELETE FROM notification_events WHERE digestedAt > 0 AND digestedAt < :cutoff")
+    int deleteDigestedBefore(long cutoff);
+}
@@ -0,0 +1,35 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.tourmanagement.model.NotificationPreference;
+
+/**
+ * Data Access Object (DAO) for NotificationPreference entity operations.
+ * Stores whether each recipient gets booking emails immediately or as digests.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface NotificationPreferenceDao {
+
+    /**
+     * Inserts or replaces the preference of a recipient
+     * @param preference NotificationPreference object to save
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void savePreference(NotificationPreference preference);
+
+    /**
+     * Gets the preference of a recipient
+     *
+     * @param recipient Recipient email address
+     * @return Preference, or null if the recipient uses the defaults
+     */
+    @Query("SELECT * FROM notification_preferences WHERE recipient = :recipient")
+    NotificationPreference getPreference(String recipient);
+}
@@ -0,0 +1,103 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import com.example.tourmanagement.model.OutboxEmail;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for OutboxEmail entity operations.
+ * Backs the persistent outgoing email queue drained by EmailOutboxWorker.
+ *
+ * Features:
+ * - Queueing of rendered emails
+ * - Due-message lookup ordered by next attempt time
+ * - Delivery bookkeeping (sent, retry, failed)
+ * - Sent counts for provider rate limiting
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface OutboxEmailDao {
+
+    /**
+     * Inserts a new email into the outbox
+     * @param email OutboxEmail object to insert
+     * @return The ID of the inserted email
+     */
+    @Insert
+    long insertEmail(OutboxEmail email);
+
+    /**
+     * Gets pending emails whose next attempt time has passed
+     *
+     * @param now Current timestamp
+     * @param limit Maximum number of emails to return
+     * @return List of due emails, oldest attempt first
+     */
+    @Query("SELECT * FROM email_outbox WHERE status = 'PENDING' AND nextAttemptAt <= :now " +
+           "ORDER BY nextAttemptAt ASC, id ASC LIMIT :limit")
+    List<OutboxEmail> getDueEmails(long now, int limit);
+
+    /**
+     * Gets the earliest next attempt time among pending emails
+     * @return Timestamp, or null if the outbox has no pending email
+     */
+    @Query("SELECT MIN(nextAttemptAt) FROM email_outbox WHERE status = 'PENDING'")
+    Long getNextPendingAttemptAt();
+
+    /**
+     * Counts emails delivered since a timestamp
+     * Used to stay within the SMTP provider's sending quota
+     *
+     * @param since Start of the window
+     * @return Number of emails sent in the window
+     */
+    @Query("SELECT COUNT(*) FROM email_outbox WHERE status = 'SENT' AND sentAt >= :since")
+    int countSentSince(long since);
+
+    /**
+     * Marks an email as delivered
+     *
+     * @param id Email ID
+     * @param sentAt Delivery timestamp
+     */
+    @Query("UPDATE email_outbox SET status = 'SENT', sentAt = :sentAt, lastError = NULL WHERE id = :id")
+    void markSent(int id, long sentAt);
+
+    /**
+     * Records a failed attempt and schedules the next one
+     *
+     * @param id Email ID
+     * @param attempts Updated attempt counter
+     * @param nextAttemptAt Earliest time of the next attempt
+     * @param error Error message of the failed attempt
+     */
+    @Query("UPDATE email_outbox SET attempts = :attempts, nextAttemptAt = :nextAttemptAt, lastError = :error " +
+           "WHERE id = :id")
+    void markRetry(int id, int attempts, long nextAttemptAt, String error);
+
+    /**
+     * Gives up on an email after a permanent error or too many attempts
+     *
+     * @param id Email ID
+     * @param attempts Final attempt counter
+     * @param error Error message of the last attempt
+     */
+    @Query("UPDATE email_outbox SET status = 'FAILED', attempts = :attempts, lastError = :error WHERE id = :id")
+    void markFailed(int id, int attempts, String error);
+
+    /**
+     * Deletes delivered and failed emails older than a cutoff
+     * Sent rows are kept for a while because the rate limiter counts them
+     *
+     * @param cutoff Rows sent (or failed emails created) before this timestamp are removed
+     * @return Number of deleted rows
+     */
+    @Query("DELETE FROM email_outbox WHERE (status = 'SENT' AND sentAt < :cutoff) " +
+           "OR (status = 'FAILED' AND createdAt < :cutoff)")
+    int deleteFinishedBefore(long cutoff);
+}
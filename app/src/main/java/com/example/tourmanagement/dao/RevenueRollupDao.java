@@ -0,0 +1,138 @@
+package com.example.tourmanagement.dao;
+
+import android.database.Cursor;
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.example.tourmanagement.model.RevenueBucket;
+import com.example.tourmanagement.model.TourRevenue;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the daily revenue rollup.
+ * The revenue_daily table is kept up to date by triggers on bookings and
+ * bookings_archive (see RevenueRollup), so these queries cover live and
+ * archived confirmed bookings without scanning either table.
+ * Ranges are matched by whole days in the device time zone.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface RevenueRollupDao {
+
+    /**
+     * Local day of a timestamp parameter, as yyyy-MM-dd
+     */
+    String DAY_OF_START = "date(:startDate / 1000, 'unixepoch', 'localtime')";
+    String LAST_DAY_BEFORE_END = "date((:endDate - 1) / 1000, 'unixepoch', 'localtime')";
+
+    /**
+     * Every period from the one containing :startDate to the one containing
+     * :endDate (exclusive), generated by a recursive CTE so empty periods get a row
+     * (:alignStart and :alignEnd are date modifiers, see RevenueSeries.Granularity)
+     */
+    String PERIODS = "WITH RECURSIVE periods(periodKey) AS (" +
+        "SELECT date(:startDate / 1000, 'unixepoch', 'localtime', :alignStart, :alignEnd) " +
+        "UNION ALL SELECT date(periodKey, :step) FROM periods " +
+        "WHERE date(periodKey, :step) <= date(" + LAST_DAY_BEFORE_END + ", :alignStart, :alignEnd)) ";
+
+    /**
+     * Removes all rollup rows
+     */
+    @Query("DELETE FROM revenue_daily")
+    void clear();
+
+    /**
+     * Recomputes the rollup from live and archived confirmed bookings
+     * Call after clear(), in the same transaction.
+     */
+    @Query("INSERT INTO revenue_daily (day, tourId, revenue, bookingCount, peopleCount) " +
+           "SELECT date(bookingDate / 1000, 'unixepoch', 'localtime'), tourId, SUM(totalAmount), COUNT(*), " +
+           "SUM(numberOfPeople) FROM (" +
+           "SELECT tourId, totalAmount, numberOfPeople, bookingDate FROM bookings WHERE bookingStatus = 'CONFIRMED' " +
+           "UNION ALL SELECT tourId, totalAmount, numberOfPeople, bookingDate FROM bookings_archive " +
+           "WHERE bookingStatus = 'CONFIRMED') GROUP BY 1, 2")
+    void rebuild();
+
+    /**
+     * Gets the number of rollup rows
+     *
+     * @return Number of (day, tour) rows
+     */
+    @Query("SELECT COUNT(*) FROM revenue_daily")
+    int getRowCount();
+
+    /**
+     * Gets the total confirmed revenue
+     *
+     * @return Total revenue
+     */
+    @Query("SELECT COALESCE(SUM(revenue), 0.0) FROM revenue_daily")
+    double getTotalRevenue();
+
+    /**
+     * Gets the confirmed revenue from the day of a date onwards
+     *
+     * @param startDate Start date (its whole day is included)
+     * @return Revenue since the start day
+     */
+    @Query("SELECT COALESCE(SUM(revenue), 0.0) FROM revenue_daily WHERE day >= " + DAY_OF_START)
+    double getRevenueSince(long startDate);
+
+    /**
+     * Gets the total number of confirmed bookings
+     *
+     * @return Number of confirmed bookings
+     */
+    @Query("SELECT COALESCE(SUM(bookingCount), 0) FROM revenue_daily")
+    int getConfirmedBookingCount();
+
+    /**
+     * Gets the confirmed revenue per tour, highest first
+     *
+     * @return Tours with at least one confirmed booking
+     */
+    @Query("SELECT r.tourId AS tourId, t.tourName AS tourName, SUM(r.revenue) AS revenue, " +
+           "SUM(r.bookingCount) AS bookingCount, SUM(r.peopleCount) AS peopleCount " +
+           "FROM revenue_daily r INNER JOIN tours t ON t.id = r.tourId " +
+           "GROUP BY r.tourId HAVING SUM(r.bookingCount) > 0 ORDER BY revenue DESC")
+    List<TourRevenue> getRevenueByTour();
+
+    /**
+     * Opens a cursor over the monthly revenue report, oldest month first
+     *
+     * @return Cursor over (month, bookings, people, revenue) rows
+     */
+    @Query("SELECT substr(day, 1, 7) AS month, SUM(bookingCount) AS bookings, SUM(peopleCount) AS people, " +
+           "printf('%.2f', SUM(revenue)) AS revenue FROM revenue_daily GROUP BY 1 ORDER BY 1")
+    Cursor getMonthlyReport();
+
+    /**
+     * Gets the number of months in the monthly revenue report
+     *
+     * @return Number of months with confirmed bookings
+     */
+    @Query("SELECT COUNT(DISTINCT substr(day, 1, 7)) FROM revenue_daily")
+    int getMonthCount();
+
+    /**
+     * Gets revenue and booking count of confirmed bookings per period, in the device time zone
+     * Returns exactly one bucket per period of the range, with zeros for periods without bookings.
+     *
+     * @param startDate Start of the range (its whole day is included)
+     * @param endDate End of the range (exclusive)
+     * @param alignStart First date modifier that moves a day to the start of its period
+     * @param alignEnd Second date modifier that moves a day to the start of its period
+     * @param step Date modifier from one period to the next
+     * @return Buckets, oldest first
+     */
+    @Query(PERIODS +
+           "SELECT p.periodKey AS periodKey, COALESCE(r.revenue, 0.0) AS revenue, " +
+           "COALESCE(r.bookingCount, 0) AS bookingCount FROM periods p LEFT JOIN (" +
+           "SELECT date(day, :alignStart, :alignEnd) AS periodKey, SUM(revenue) AS revenue, " +
+           "SUM(bookingCount) AS bookingCount FROM revenue_daily " +
+           "WHERE day >= " + DAY_OF_START + " AND day <= " + LAST_DAY_BEFORE_END + " GROUP BY 1) r " +
+           "ON r.periodKey = p.periodKey ORDER BY p.periodKey ASC")
+    List<RevenueBucket> getRevenueSeries(long startDate, long endDate, String alignStart, String alignEnd, String step);
+}
@@ -0,0 +1,154 @@
+package com.example.tourmanagement.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.example.tourmanagement.model.SyncInboxEntry;
+import com.example.tourmanagement.model.SyncRow;
+import com.example.tourmanagement.model.SyncState;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the delta sync bookkeeping.
+ * sync_rows is written by triggers on the synced tables (see DeltaSync);
+ * these queries read the pending changes, map global IDs to local rows and
+ * move the sync position forward.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Dao
+public interface SyncDao {
+
+    /**
+     * Apply order of a synced table: rows are applied after the rows they reference
+     */
+    String TABLE_RANK = "(CASE tableName WHEN 'users' THEN 0 WHEN 'tours' THEN 1 ELSE 2 END)";
+
+    /**
+     * Gets the sync position of this device
+     *
+     * @return Sync state, or null before the database was first opened
+     */
+    @Query("SELECT * FROM sync_state WHERE id = 1")
+    SyncState getState();
+
+    /**
+     * Gets changed rows not pushed yet, oldest change first
+     *
+     * @param afterVersion Highest version already pushed
+     * @param limit Maximum number of rows
+     * @return Changed rows, including tombstones
+     */
+    @Query("SELECT * FROM sync_rows WHERE version > :afterVersion ORDER BY version ASC LIMIT :limit")
+    List<SyncRow> getChangesAfter(long afterVersion, int limit);
+
+    /**
+     * Counts changed rows not pushed yet
+     *
+     * @param afterVersion Highest version already pushed
+     * @return Number of pending rows
+     */
+    @Query("SELECT COUNT(*) FROM sync_rows WHERE version > :afterVersion")
+    int countChangesAfter(long afterVersion);
+
+    /**
+     * Gets the tracking row of a local row
+     *
+     * @param tableName Synced table
+     * @param rowId Local ID
+     * @return Tracking row, or null if the row is not tracked
+     */
+    @Query("SELECT * FROM sync_rows WHERE tableName = :tableName AND rowId = :rowId")
+    SyncRow getRow(String tableName, int rowId);
+
+    /**
+     * Gets the tracking row of a global ID
+     *
+     * @param globalId Global ID
+     * @return Tracking row, or null if no local row has this global ID
+     */
+    @Query("SELECT * FROM sync_rows WHERE globalId = :globalId")
+    SyncRow getRowByGlobalId(String globalId);
+
+    /**
+     * Records the local row of a pulled global ID
+     * Replaces a mapping of the same row or the same global ID.
+     *
+     * @param row Tracking row
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertRow(SyncRow row);
+
+    /**
+     * Marks every change up to a version as accepted by the server
+     *
+     * @param version Highest pushed version
+     */
+    @Query("UPDATE sync_state SET pushedVersion = :version WHERE id = 1 AND pushedVersion < :version")
+    void setPushedVersion(long version);
+
+    /**
+     * Stores the server token of the last pulled page
+     *
+     * @param token Opaque server token
+     */
+    @Query("UPDATE sync_state SET pullToken = :token WHERE id = 1")
+    void setPullToken(String token);
+
+    /**
+     * Switches the change triggers off while pulled changes are applied
+     * Only call inside the transaction that applies them.
+     *
+     * @param applying True while applying
+     */
+    @Query("UPDATE sync_state SET applying = :applying WHERE id = 1")
+    void setApplying(boolean applying);
+
+    /**
+     * Records the time of a successful sync
+     *
+     * @param time Time in milliseconds
+     */
+    @Query("UPDATE sync_state SET lastSyncAt = :time WHERE id = 1")
+    void setLastSyncAt(long time);
+
+    /**
+     * Stores pulled changes, replacing waiting changes of the same rows
+     *
+     * @param entries Pulled changes
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertInbox(List<SyncInboxEntry> entries);
+
+    /**
+     * Gets waiting pulled changes, parents (users, then tours) before bookings, in server order
+     *
+     * @param afterRank Table rank of the last entry of the previous page (-1 to start)
+     * @param afterSeq Server position of the last entry of the previous page
+     * @param limit Maximum number of entries
+     * @return Waiting changes
+     */
+    @Query("SELECT * FROM sync_inbox WHERE " + TABLE_RANK + " > :afterRank " +
+           "OR (" + TABLE_RANK + " = :afterRank AND serverSeq > :afterSeq) " +
+           "ORDER BY " + TABLE_RANK + ", serverSeq LIMIT :limit")
+    List<SyncInboxEntry> getInboxPage(int afterRank, long afterSeq, int limit);
+
+    /**
+     * Counts pulled changes still waiting for a referenced row
+     *
+     * @return Number of waiting changes
+     */
+    @Query("SELECT COUNT(*) FROM sync_inbox")
+    int countInbox();
+
+    /**
+     * Removes applied changes from the inbox
+     *
+     * @param globalIds Global IDs of the applied changes
+     */
+    @Query("DELETE FROM sync_inbox WHERE globalId IN (:globalIds)")
+    void deleteInbox(List<String> globalIds);
+}
@@ -6,7 +6,10 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
+import com.example.tourmanagement.model.CapacityDrift;
 import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.TourSearchTerm;
+import com.example.tourmanagement.repository.TourRepository;
 import java.util.List;
 
 /**
@@ -24,7 +27,7 @@ import java.util.List;
  * @since 2025-07-22
  */
 @Dao
-public interface TourDao {
+public interface TourDao extends TourRepository {
 
     /**
      * Inserts a new tour into the database
@@ -34,6 +37,7 @@ public interface TourDao {
      * @return The ID of the inserted tour
      */
     @Insert
+    @Override
     long insertTour(Tour tour);
 
     /**
@@ -43,6 +47,7 @@ public interface TourDao {
      * @param tour Tour object with updated information
      */
     @Update
+    @Override
     void updateTour(Tour tour);
 
     /**
@@ -70,6 +75,7 @@ public interface TourDao {
      * @return List of active tours
      */
     @Query("SELECT * FROM tours WHERE isActive = 1 ORDER BY tourTime ASC")
+    @Override
     List<Tour> getActiveTours();
 
     /**
@@ -80,6 +86,7 @@ public interface TourDao {
      * @return Tour object if found, null otherwise
      */
     @Query("SELECT * FROM tours WHERE id = :id")
+    @Override
     Tour getTourById(int id);
 
     /**
@@ -102,6 +109,28 @@ public interface TourDao {
     @Query("SELECT * FROM tours WHERE tourLocation LIKE '%' || :location || '%' AND isActive = 1")
     List<Tour> searchToursByLocation(String location);
 
+    /**
+     * Searches active tours by folded name or location
+     * Used for diacritic-insensitive search ("da nang" matches "Đà Nẵng")
+     *
+     * @param foldedQuery Query already folded with TextNormalizer.fold
+     * @return List of tours whose folded name or location contains the query
+     */
+    @Query("SELECT * FROM tours WHERE " +
+           "(tourNameFolded LIKE '%' || :foldedQuery || '%' OR " +
+           "tourLocationFolded LIKE '%' || :foldedQuery || '%') " +
+           "AND isActive = 1 ORDER BY tourName ASC")
+    List<Tour> searchToursFolded(String foldedQuery);
+
+    /**
+     * Gets the folded name and location of every active tour
+     * Used to build the fuzzy search dictionary, so inactive tours never take result slots
+     *
+     * @return List of search term projections
+     */
+    @Query("SELECT id, tourNameFolded, tourLocationFolded FROM tours WHERE isActive = 1")
+    List<TourSearchTerm> getTourSearchTerms();
+
     /**
      * Gets tours within a specific price range
      * Used for price-based filtering
@@ -120,6 +149,7 @@ public interface TourDao {
      * @return List of tours with available capacity
      */
     @Query("SELECT * FROM tours WHERE currentBookings < numberOfPeoples AND isActive = 1")
+    @Override
     List<Tour> getAvailableTours();
 
     /**
@@ -130,8 +160,58 @@ public interface TourDao {
      * @param increment Number to add to current bookings
      */
     @Query("UPDATE tours SET currentBookings = currentBookings + :increment WHERE id = :tourId")
+    @Override
     void updateBookingCount(int tourId, int increment);
 
+    /**
+     * Takes seats of an active tour only if enough are still free
+     * Checking and counting in one statement keeps concurrent bookings from overbooking
+     *
+     * @param tourId Tour ID
+     * @param seats Number of seats to take
+     * @return 1 if the seats were taken, 0 if not enough were free
+     */
+    @Query("UPDATE tours SET currentBookings = currentBookings + :seats " +
+           "WHERE id = :tourId AND isActive = 1 AND currentBookings + :seats <= numberOfPeoples")
+    int reserveSeats(int tourId, int seats);
+
+    /**
+     * Sets a tour's booking count to a recomputed value
+     * Used by the capacity reconciler to repair drift
+     *
+     * @param tourId Tour ID
+     * @param bookings Number of booked seats
+     */
+    @Query("UPDATE tours SET currentBookings = :bookings WHERE id = :tourId")
+    void setBookingCount(int tourId, int bookings);
+
+    /**
+     * Gets the stored booking count of a tour
+     * Used to keep the counter when saving an edited tour
+     *
+     * @param tourId Tour ID
+     * @return Number of booked seats
+     */
+    @Query("SELECT currentBookings FROM tours WHERE id = :tourId")
+    int getBookingCount(int tourId);
+
+    /**
+     * Finds tours whose booking count differs from their non-cancelled bookings
+     * The seats of all tours are summed in one grouped pass over live and
+     * archived bookings.
+     *
+     * @return Tours with drift, with stored and recomputed counts
+     */
+    @Query("SELECT t.id AS tourId, t.currentBookings AS recordedBookings, " +
+           "COALESCE(b.seats, 0) AS actualBookings, t.numberOfPeoples AS capacity " +
+           "FROM tours t LEFT JOIN (" +
+           "SELECT tourId, SUM(numberOfPeople) AS seats FROM (" +
+           "SELECT tourId, numberOfPeople FROM bookings WHERE bookingStatus != 'CANCELLED' " +
+           "UNION ALL SELECT tourId, numberOfPeople FROM bookings_archive WHERE bookingStatus != 'CANCELLED') " +
+           "GROUP BY tourId) b ON b.tourId = t.id " +
+           "WHERE t.currentBookings != COALESCE(b.seats, 0)")
+    List<CapacityDrift> getCapacityDrift();
+
     /**
      * Gets tours scheduled within a date range
      * Used for date-based filtering
@@ -192,6 +272,18 @@ public interface TourDao {
            "ORDER BY tourName ASC")
     LiveData<List<Tour>> searchToursLive(String searchQuery);
 
+    /**
+     * Search tours by folded name or location (live search)
+     * Accent- and case-insensitive counterpart of searchToursLive
+     * @param foldedQuery Query already folded with TextNormalizer.fold
+     * @return LiveData list of matching tours
+     */
+    @Query("SELECT * FROM tours WHERE " +
+           "tourNameFolded LIKE '%' || :foldedQuery || '%' OR " +
+           "tourLocationFolded LIKE '%' || :foldedQuery || '%' " +
+           "ORDER BY tourName ASC")
+    LiveData<List<Tour>> searchToursFoldedLive(String foldedQuery);
+
     /**
      * Get tours by specific location
      * @param location The location to search for
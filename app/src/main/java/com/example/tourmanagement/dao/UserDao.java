@@ -6,6 +6,7 @@ import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
 import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.repository.UserRepository;
 import java.util.List;
 
 /**
@@ -24,7 +25,7 @@ import java.util.List;
  * @since 2025-07-22
  */
 @Dao
-public interface UserDao {
+public interface UserDao extends UserRepository {
 
     /**
      * Inserts a new user into the database
@@ -34,6 +35,7 @@ public interface UserDao {
      * @return The ID of the inserted user
      */
     @Insert
+    @Override
     long insertUser(User user);
 
     /**
@@ -43,6 +45,7 @@ public interface UserDao {
      * @param user User object with updated information
      */
     @Update
+    @Override
     void updateUser(User user);
 
     /**
@@ -73,6 +76,7 @@ public interface UserDao {
      * @return User object if found, null otherwise
      */
     @Query("SELECT * FROM users WHERE username = :username LIMIT 1")
+    @Override
     User getUserByUsername(String username);
 
     /**
@@ -83,6 +87,7 @@ public interface UserDao {
      * @return User object if found, null otherwise
      */
     @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
+    @Override
     User getUserByEmail(String email);
 
     /**
@@ -93,6 +98,7 @@ public interface UserDao {
      * @return User object if found, null otherwise
      */
     @Query("SELECT * FROM users WHERE id = :id LIMIT 1")
+    @Override
     User getUserById(int id);
 
     /**
@@ -126,6 +132,16 @@ public interface UserDao {
     @Query("UPDATE users SET mustChangePassword = 0 WHERE id = :userId")
     void clearPasswordChangeRequirement(int userId);
 
+    /**
+     * Grants or removes admin privileges
+     * Used for user management toggles
+     *
+     * @param userId User ID
+     * @param isAdmin New admin status
+     */
+    @Query("UPDATE users SET isAdmin = :isAdmin WHERE id = :userId")
+    void updateAdminStatus(int userId, boolean isAdmin);
+
     /**
      * Retrieves all users from the database
      * Used for user management and admin functions
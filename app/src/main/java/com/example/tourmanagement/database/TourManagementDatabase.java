@@ -6,14 +6,42 @@ import androidx.room.RoomDatabase;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.database.Cursor;
+import com.example.tourmanagement.dao.BookingArchiveDao;
+import com.example.tourmanagement.dao.BookingEventDao;
 import com.example.tourmanagement.dao.BookingDao;
+import com.example.tourmanagement.dao.DashboardDao;
 import com.example.tourmanagement.dao.TourDao;
 import com.example.tourmanagement.dao.UserDao;
 import com.example.tourmanagement.dao.DiscountDao;
+import com.example.tourmanagement.dao.MediaAssetDao;
+import com.example.tourmanagement.dao.OutboxEmailDao;
+import com.example.tourmanagement.dao.NotificationEventDao;
+import com.example.tourmanagement.dao.NotificationPreferenceDao;
+import com.example.tourmanagement.dao.RevenueRollupDao;
+import com.example.tourmanagement.dao.SyncDao;
+import com.example.tourmanagement.model.ArchivedBooking;
 import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.BookingEvent;
+import com.example.tourmanagement.model.DailyRevenue;
+import com.example.tourmanagement.model.EventConsumerOffset;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
 import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.MediaAsset;
+import com.example.tourmanagement.model.OutboxEmail;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.NotificationPreference;
+import com.example.tourmanagement.model.SyncInboxEntry;
+import com.example.tourmanagement.model.SyncRow;
+import com.example.tourmanagement.model.SyncState;
+import com.example.tourmanagement.utils.BookingEvents;
+import com.example.tourmanagement.utils.BookingExpiry;
+import com.example.tourmanagement.utils.DeltaSync;
+import com.example.tourmanagement.utils.RevenueRollup;
+import com.example.tourmanagement.utils.TextNormalizer;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Room Database class for the Tour Management application.
@@ -29,14 +57,23 @@ import com.example.tourmanagement.model.Discount;
  * - Users table: Stores user authentication and profile data
  * - Tours table: Stores tour packages and availability information
  * - Bookings table: Stores booking transactions and payment data
+ * - Bookings archive table: Stores finished bookings older than the archive horizon
+ * - Media assets table: Stores locally imported images and their variants
+ * - Email outbox table: Stores outgoing emails until they are delivered
+ * - Notification tables: Store digest preferences and pending booking events
+ * - Sync tables: Track changed rows, the sync position and pulled changes (see DeltaSync)
+ * - Booking event tables: Append-only booking transitions and consumer offsets (see BookingEvents)
  *
  * @author Tour Management Team
  * @version 1.0
  * @since 2025-07-22
  */
 @Database(
-    entities = {User.class, Tour.class, Booking.class, Discount.class},
-    version = 7,
+    entities = {User.class, Tour.class, Booking.class, Discount.class, MediaAsset.class, OutboxEmail.class,
+        NotificationEvent.class, NotificationPreference.class, ArchivedBooking.class,
+        DailyRevenue.class, SyncRow.class, SyncState.class, SyncInboxEntry.class, BookingEvent.class,
+        EventConsumerOffset.class},
+    version = 18,
     exportSchema = false
 )
 public abstract class TourManagementDatabase extends RoomDatabase {
@@ -51,6 +88,11 @@ public abstract class TourManagementDatabase extends RoomDatabase {
      */
     private static final String DATABASE_NAME = "tour_management_db";
 
+    /**
+     * Statements run through the app database, counted in debug builds
+     */
+    private static final AtomicLong STATEMENT_COUNT = new AtomicLong();
+
     /**
      * Gets the UserDao for user-related database operations
      * @return UserDao instance
@@ -75,6 +117,60 @@ public abstract class TourManagementDatabase extends RoomDatabase {
      */
     public abstract DiscountDao discountDao();
 
+    /**
+     * Gets the MediaAssetDao for local media store operations
+     * @return MediaAssetDao instance
+     */
+    public abstract MediaAssetDao mediaAssetDao();
+
+    /**
+     * Gets the OutboxEmailDao for the outgoing email queue
+     * @return OutboxEmailDao instance
+     */
+    public abstract OutboxEmailDao outboxEmailDao();
+
+    /**
+     * Gets the NotificationEventDao for booking digest events
+     * @return NotificationEventDao instance
+     */
+    public abstract NotificationEventDao notificationEventDao();
+
+    /**
+     * Gets the NotificationPreferenceDao for per-recipient email preferences
+     * @return NotificationPreferenceDao instance
+     */
+    public abstract NotificationPreferenceDao notificationPreferenceDao();
+
+    /**
+     * Gets the BookingArchiveDao for moving and reading archived bookings
+     * @return BookingArchiveDao instance
+     */
+    public abstract BookingArchiveDao bookingArchiveDao();
+
+    /**
+     * Gets the Revenue Rollup DAO
+     * @return RevenueRollupDao instance
+     */
+    public abstract RevenueRollupDao revenueRollupDao();
+
+    /**
+     * Gets the Dashboard DAO
+     * @return DashboardDao instance
+     */
+    public abstract DashboardDao dashboardDao();
+
+    /**
+     * Gets the Sync DAO
+     * @return SyncDao instance
+     */
+    public abstract SyncDao syncDao();
+
+    /**
+     * Gets the BookingEventDao for the booking event log and its consumers
+     * @return BookingEventDao instance
+     */
+    public abstract BookingEventDao bookingEventDao();
+
     /**
      * Migration from version 1 to 2: Add profileImagePath column to users table
      */
@@ -176,6 +272,289 @@ public abstract class TourManagementDatabase extends RoomDatabase {
         }
     };
 
+    /**
+     * Migration from version 7 to 8: Add folded search columns to tours table
+     * Folding needs Unicode normalization, so existing rows are backfilled in Java
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE tours ADD COLUMN tourNameFolded TEXT");
+            database.execSQL("ALTER TABLE tours ADD COLUMN tourLocationFolded TEXT");
+
+            try (Cursor cursor = database.query("SELECT id, tourName, tourLocation FROM tours")) {
+                while (cursor.moveToNext()) {
+                    database.execSQL("UPDATE tours SET tourNameFolded = ?, tourLocationFolded = ? WHERE id = ?",
+                        new Object[]{
+                            TextNormalizer.fold(cursor.getString(1)),
+                            TextNormalizer.fold(cursor.getString(2)),
+                            cursor.getInt(0)
+                        });
+                }
+            }
+        }
+    };
+
+    /**
+     * Migration from version 8 to 9: Add media_assets table for the local media store
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS media_assets (" +
+                "hash TEXT NOT NULL, " +
+                "sourceWidth INTEGER NOT NULL, " +
+                "sourceHeight INTEGER NOT NULL, " +
+                "avatarPath TEXT, " +
+                "cardPath TEXT, " +
+                "detailPath TEXT, " +
+                "byteSize INTEGER NOT NULL, " +
+                "importedAt INTEGER NOT NULL, " +
+                "PRIMARY KEY(hash))");
+        }
+    };
+
+    /**
+     * Migration from version 9 to 10: Add email_outbox table for queued outgoing emails
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS email_outbox (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "recipient TEXT, " +
+                "subject TEXT, " +
+                "htmlBody TEXT, " +
+                "status TEXT, " +
+                "attempts INTEGER NOT NULL, " +
+                "nextAttemptAt INTEGER NOT NULL, " +
+                "lastError TEXT, " +
+                "createdAt INTEGER NOT NULL, " +
+                "sentAt INTEGER NOT NULL)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_email_outbox_status_nextAttemptAt " +
+                "ON email_outbox (status, nextAttemptAt)");
+        }
+    };
+
+    /**
+     * Migration from version 10 to 11: Add notification digest tables
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS notification_events (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "recipient TEXT, " +
+                "eventType TEXT, " +
+                "bookingId INTEGER NOT NULL, " +
+                "customerName TEXT, " +
+                "tourName TEXT, " +
+                "tourTime INTEGER NOT NULL, " +
+                "numberOfPeople INTEGER NOT NULL, " +
+                "totalAmount REAL NOT NULL, " +
+                "createdAt INTEGER NOT NULL, " +
+                "digestedAt INTEGER NOT NULL)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_notification_events_recipient_digestedAt " +
+                "ON notification_events (recipient, digestedAt)");
+            database.execSQL("CREATE TABLE IF NOT EXISTS notification_preferences (" +
+                "recipient TEXT NOT NULL PRIMARY KEY, " +
+                "mode TEXT, " +
+                "windowMinutes INTEGER NOT NULL, " +
+                "maxEvents INTEGER NOT NULL, " +
+                "updatedAt INTEGER NOT NULL)");
+        }
+    };
+
+    /**
+     * Migration from version 11 to 12: Index bookings by tour for seat counting
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_bookings_tourId_bookingStatus_numberOfPeople " +
+                "ON bookings (tourId, bookingStatus, numberOfPeople)");
+        }
+    };
+
+    /**
+     * Migration from version 12 to 13: Add expiry time for unpaid pending bookings
+     * Bookings that are already pending get a full hold period from now.
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE bookings ADD COLUMN expiresAt INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_bookings_bookingStatus_expiresAt " +
+                "ON bookings (bookingStatus, expiresAt)");
+            database.execSQL("UPDATE bookings SET expiresAt = " +
+                (System.currentTimeMillis() + BookingExpiry.HOLD_MS) +
+                " WHERE bookingStatus = 'PENDING' AND paymentStatus = 'PENDING'");
+        }
+    };
+
+    /**
+     * Migration from version 13 to 14
+     * Adds the archive table for finished bookings
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS bookings_archive (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "userId INTEGER NOT NULL, " +
+                "tourId INTEGER NOT NULL, " +
+                "numberOfPeople INTEGER NOT NULL, " +
+                "totalAmount REAL NOT NULL, " +
+                "bookingStatus TEXT, " +
+                "paymentStatus TEXT, " +
+                "qrCode TEXT, " +
+                "bookingReference TEXT, " +
+                "bookingDate INTEGER NOT NULL, " +
+                "notes TEXT, " +
+                "expiresAt INTEGER NOT NULL, " +
+                "FOREIGN KEY(userId) REFERENCES users(id) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                "FOREIGN KEY(tourId) REFERENCES tours(id) ON UPDATE NO ACTION ON DELETE CASCADE)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_bookings_archive_userId_bookingDate " +
+                "ON bookings_archive (userId, bookingDate)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_bookings_archive_tourId ON bookings_archive (tourId)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_bookings_archive_bookingDate " +
+                "ON bookings_archive (bookingDate)");
+        }
+    };
+
+    /**
+     * Migration from version 14 to 15
+     * Adds the daily revenue rollup, fills it from existing bookings and installs its triggers
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS revenue_daily (" +
+                "day TEXT NOT NULL, " +
+                "tourId INTEGER NOT NULL, " +
+                "revenue REAL NOT NULL, " +
+                "bookingCount INTEGER NOT NULL, " +
+                "peopleCount INTEGER NOT NULL, " +
+                "PRIMARY KEY(day, tourId))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_revenue_daily_tourId ON revenue_daily (tourId)");
+            database.execSQL("INSERT INTO revenue_daily (day, tourId, revenue, bookingCount, peopleCount) " +
+                "SELECT date(bookingDate / 1000, 'unixepoch', 'localtime'), tourId, SUM(totalAmount), COUNT(*), " +
+                "SUM(numberOfPeople) FROM (" +
+                "SELECT tourId, totalAmount, numberOfPeople, bookingDate FROM bookings WHERE bookingStatus = 'CONFIRMED' " +
+                "UNION ALL SELECT tourId, totalAmount, numberOfPeople, bookingDate FROM bookings_archive " +
+                "WHERE bookingStatus = 'CONFIRMED') GROUP BY 1, 2");
+            RevenueRollup.createTriggers(database);
+        }
+    };
+
+    /**
+     * Migration from version 15 to 16: Index bookings by date for paging the ledger export
+     */
+    static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_bookings_bookingDate ON bookings (bookingDate)");
+        }
+    };
+
+    /**
+     * Migration from version 16 to 17
+     * Adds the delta sync tables, tracks existing rows as created on this device and installs the change triggers
+     */
+    static final Migration MIGRATION_16_17 = new Migration(16, 17) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS sync_rows (" +
+                "tableName TEXT NOT NULL, " +
+                "rowId INTEGER NOT NULL, " +
+                "globalId TEXT NOT NULL, " +
+                "version INTEGER NOT NULL, " +
+                "updatedAt INTEGER NOT NULL, " +
+                "deleted INTEGER NOT NULL, " +
+                "PRIMARY KEY(tableName, rowId))");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_sync_rows_globalId ON sync_rows (globalId)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_sync_rows_version ON sync_rows (version)");
+            database.execSQL("CREATE TABLE IF NOT EXISTS sync_state (" +
+                "id INTEGER NOT NULL, " +
+                "deviceId TEXT, " +
+                "pushedVersion INTEGER NOT NULL, " +
+                "pullToken TEXT, " +
+                "applying INTEGER NOT NULL, " +
+                "lastSyncAt INTEGER NOT NULL, " +
+                "PRIMARY KEY(id))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS sync_inbox (" +
+                "globalId TEXT NOT NULL, " +
+                "tableName TEXT NOT NULL, " +
+                "payload TEXT, " +
+                "deleted INTEGER NOT NULL, " +
+                "serverSeq INTEGER NOT NULL, " +
+                "PRIMARY KEY(globalId))");
+            DeltaSync.install(database);
+            DeltaSync.trackExistingRows(database);
+        }
+    };
+
+    /**
+     * Migration from version 17 to 18
+     * Adds the booking event log, writes the history of existing bookings and installs the event triggers
+     */
+    static final Migration MIGRATION_17_18 = new Migration(17, 18) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS booking_events (" +
+                "seq INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "bookingId INTEGER NOT NULL, " +
+                "tourId INTEGER NOT NULL, " +
+                "type TEXT, " +
+                "occurredAt INTEGER NOT NULL, " +
+                "bookingCreatedAt INTEGER NOT NULL, " +
+                "amount REAL NOT NULL, " +
+                "people INTEGER NOT NULL)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_booking_events_bookingId ON booking_events (bookingId)");
+            database.execSQL("CREATE TABLE IF NOT EXISTS booking_event_offsets (" +
+                "consumer TEXT NOT NULL, " +
+                "lastSeq INTEGER NOT NULL, " +
+                "state TEXT, " +
+                "updatedAt INTEGER NOT NULL, " +
+                "PRIMARY KEY(consumer))");
+            BookingEvents.backfill(database);
+            BookingEvents.createTriggers(database);
+        }
+    };
+
+    /**
+     * Installs the revenue rollup triggers, which Room does not manage
+     * Runs on every open, so fresh and destructively migrated databases get them too.
+     */
+    static final RoomDatabase.Callback REVENUE_ROLLUP_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(SupportSQLiteDatabase database) {
+            RevenueRollup.createTriggers(database);
+        }
+    };
+
+    /**
+     * Installs the sync state row and change triggers, which Room does not manage
+     * Runs on every open, so fresh and destructively migrated databases get them too.
+     */
+    public static final RoomDatabase.Callback SYNC_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(SupportSQLiteDatabase database) {
+            DeltaSync.install(database);
+        }
+    };
+
+    /**
+     * Installs the booking event triggers, which Room does not manage
+     * Runs on every open, so fresh and destructively migrated databases get them too.
+     */
+    public static final RoomDatabase.Callback BOOKING_EVENTS_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(SupportSQLiteDatabase database) {
+            BookingEvents.createTriggers(database);
+        }
+    };
+
     /**
      * Gets the singleton instance of the database
      * Implements thread-safe singleton pattern for database access
@@ -187,21 +566,38 @@ public abstract class TourManagementDatabase extends RoomDatabase {
         if (INSTANCE == null) {
             synchronized (TourManagementDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
+                    RoomDatabase.Builder<TourManagementDatabase> builder = Room.databaseBuilder(
                             context.getApplicationContext(),
                             TourManagementDatabase.class,
                             DATABASE_NAME
                     )
-                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6)
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14, MIGRATION_14_15, MIGRATION_15_16, MIGRATION_16_17, MIGRATION_17_18)
+                    .addCallback(REVENUE_ROLLUP_CALLBACK)
+                    .addCallback(SYNC_CALLBACK)
+                    .addCallback(BOOKING_EVENTS_CALLBACK)
                     .fallbackToDestructiveMigration() // Allow destructive migration as fallback
-                    .allowMainThreadQueries() // For simplicity - in production, use background threads
-                    .build();
+                    .allowMainThreadQueries(); // For simplicity - in production, use background threads
+                    if ((context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+                        // Debug builds only; the callback runs inline on the querying thread
+                        builder.setQueryCallback((sql, bindArgs) -> STATEMENT_COUNT.incrementAndGet(), Runnable::run);
+                    }
+                    INSTANCE = builder.build();
                 }
             }
         }
         return INSTANCE;
     }
 
+    /**
+     * Gets the number of SQL statements run through the app database so far
+     * Counted in debug builds only, e.g. to check that a rotation does not reload a screen.
+     *
+     * @return Statements since process start, 0 in release builds
+     */
+    public static long getStatementCount() {
+        return STATEMENT_COUNT.get();
+    }
+
     /**
      * Destroys the database instance
      * Used for testing or when database needs to be recreated
@@ -0,0 +1,42 @@
+package com.example.tourmanagement.model;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Booking moved to the cold archive table.
+ * Has the same columns as Booking, so archived rows can be read back as
+ * bookings and combined with the live table using UNION ALL.
+ * Only finished bookings (cancelled, or confirmed for a tour that already
+ * took place) older than the archive horizon are moved here.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "bookings_archive",
+        foreignKeys = {
+            @ForeignKey(entity = User.class,
+                       parentColumns = "id",
+                       childColumns = "userId",
+                       onDelete = ForeignKey.CASCADE),
+            @ForeignKey(entity = Tour.class,
+                       parentColumns = "id",
+                       childColumns = "tourId",
+                       onDelete = ForeignKey.CASCADE)
+        },
+        indices = {
+            @Index(value = {"userId", "bookingDate"}),
+            @Index(value = {"tourId"}),
+            @Index(value = {"bookingDate"})
+        })
+public class ArchivedBooking extends Booking {
+
+    /**
+     * Default constructor used by Room
+     */
+    public ArchivedBooking() {
+        super();
+    }
+}
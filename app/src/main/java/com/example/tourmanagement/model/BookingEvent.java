@@ -0,0 +1,117 @@
+package com.example.tourmanagement.model;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * BookingEvent entity class for the append-only booking event log.
+ * One row per booking state transition (created, confirmed, paid, cancelled),
+ * written by SQLite triggers on bookings in the same transaction as the
+ * change itself (see BookingEvents). Rows are never updated or deleted; the
+ * sequence grows monotonically, so consumers can remember how far they read.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "booking_events",
+        indices = {@Index(value = {"bookingId"})})
+public class BookingEvent {
+
+    /**
+     * Event types
+     */
+    public static final String TYPE_CREATED = "CREATED";
+    public static final String TYPE_CONFIRMED = "CONFIRMED";
+    public static final String TYPE_PAID = "PAID";
+    public static final String TYPE_CANCELLED = "CANCELLED";
+
+    /**
+     * Position in the log (AUTOINCREMENT, so never reused)
+     */
+    @PrimaryKey(autoGenerate = true)
+    private long seq;
+
+    /**
+     * ID of the booking that changed
+     */
+    private int bookingId;
+
+    /**
+     * ID of the booked tour
+     */
+    private int tourId;
+
+    /**
+     * Event type (CREATED, CONFIRMED, PAID, CANCELLED)
+     */
+    private String type;
+
+    /**
+     * Timestamp of the transition (in milliseconds)
+     */
+    private long occurredAt;
+
+    /**
+     * Creation time of the booking (its bookingDate), for durations between transitions
+     */
+    private long bookingCreatedAt;
+
+    /**
+     * Total booking amount at the time of the event
+     */
+    private double amount;
+
+    /**
+     * Number of people in the booking at the time of the event
+     */
+    private int people;
+
+    /**
+     * Default constructor used by Room
+     */
+    public BookingEvent() {
+    }
+
+    /**
+     * Constructor for an event
+     *
+     * @param bookingId ID of the booking
+     * @param type Event type
+     * @param occurredAt Timestamp of the transition
+     * @param bookingCreatedAt Creation time of the booking
+     */
+    public BookingEvent(int bookingId, String type, long occurredAt, long bookingCreatedAt) {
+        this.bookingId = bookingId;
+        this.type = type;
+        this.occurredAt = occurredAt;
+        this.bookingCreatedAt = bookingCreatedAt;
+    }
+
+    // Getters and Setters
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public int getBookingId() { return bookingId; }
+    public void setBookingId(int bookingId) { this.bookingId = bookingId; }
+
+    public int getTourId() { return tourId; }
+    public void setTourId(int tourId) { this.tourId = tourId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public long getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(long occurredAt) { this.occurredAt = occurredAt; }
+
+    public long getBookingCreatedAt() { return bookingCreatedAt; }
+    public void setBookingCreatedAt(long bookingCreatedAt) { this.bookingCreatedAt = bookingCreatedAt; }
+
+    public double getAmount() { return amount; }
+    public void setAmount(double amount) { this.amount = amount; }
+
+    public int getPeople() { return people; }
+    public void setPeople(int people) { this.people = people; }
+}
@@ -0,0 +1,32 @@
+package com.example.tourmanagement.model;
+
+/**
+ * Projection of a tour whose stored booking counter does not match its bookings.
+ * Produced by the capacity reconciler before it repairs the counter.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class CapacityDrift {
+
+    /**
+     * Tour ID
+     */
+    public int tourId;
+
+    /**
+     * Seats booked according to tours.currentBookings
+     */
+    public int recordedBookings;
+
+    /**
+     * Seats booked according to the non-cancelled bookings of the tour
+     */
+    public int actualBookings;
+
+    /**
+     * Maximum capacity of the tour
+     */
+    public int capacity;
+}
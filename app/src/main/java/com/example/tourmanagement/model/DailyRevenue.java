@@ -0,0 +1,72 @@
+package com.example.tourmanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * DailyRevenue entity class for the revenue rollup.
+ * Holds the confirmed revenue of one tour on one day (device time zone),
+ * over live and archived bookings. Rows are maintained by SQLite triggers on
+ * the booking tables (see RevenueRollup), so revenue screens read
+ * days x tours rows instead of aggregating every booking.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "revenue_daily",
+        primaryKeys = {"day", "tourId"},
+        indices = {@Index(value = {"tourId"})})
+public class DailyRevenue {
+
+    /**
+     * Booking day as yyyy-MM-dd
+     */
+    @NonNull
+    private String day = "";
+
+    /**
+     * Tour ID
+     */
+    private int tourId;
+
+    /**
+     * Sum of totalAmount of the confirmed bookings
+     */
+    private double revenue;
+
+    /**
+     * Number of confirmed bookings
+     */
+    private int bookingCount;
+
+    /**
+     * Number of people in the confirmed bookings
+     */
+    private int peopleCount;
+
+    /**
+     * Default constructor used by Room
+     */
+    public DailyRevenue() {
+    }
+
+    // Getters and Setters
+
+    @NonNull
+    public String getDay() { return day; }
+    public void setDay(@NonNull String day) { this.day = day; }
+
+    public int getTourId() { return tourId; }
+    public void setTourId(int tourId) { this.tourId = tourId; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+
+    public int getBookingCount() { return bookingCount; }
+    public void setBookingCount(int bookingCount) { this.bookingCount = bookingCount; }
+
+    public int getPeopleCount() { return peopleCount; }
+    public void setPeopleCount(int peopleCount) { this.peopleCount = peopleCount; }
+}
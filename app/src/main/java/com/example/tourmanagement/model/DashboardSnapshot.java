@@ -0,0 +1,69 @@
+package com.example.tourmanagement.model;
+
+/**
+ * Projection of the headline numbers shown on the dashboard, booking
+ * management and revenue screens.
+ * Produced by a single query (DashboardDao.getSnapshot), so a screen gets all
+ * of its counters in one round trip.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class DashboardSnapshot {
+
+    /**
+     * Number of tours
+     */
+    public int totalTours;
+
+    /**
+     * Number of active tours
+     */
+    public int activeTours;
+
+    /**
+     * Number of bookings awaiting admin approval, live and archived
+     */
+    public int pendingBookings;
+
+    /**
+     * Number of confirmed bookings, live and archived
+     */
+    public int confirmedBookings;
+
+    /**
+     * Number of cancelled bookings, live and archived
+     */
+    public int cancelledBookings;
+
+    /**
+     * Number of bookings, live and archived
+     */
+    public int totalBookings;
+
+    /**
+     * Number of live bookings whose payment is pending
+     */
+    public int pendingPayments;
+
+    /**
+     * Confirmed revenue of all time
+     */
+    public double totalRevenue;
+
+    /**
+     * Confirmed revenue since the requested month start
+     */
+    public double monthlyRevenue;
+
+    /**
+     * Number of bookings of the requested user, live and archived
+     */
+    public int userBookings;
+
+    /**
+     * Number of live, not cancelled bookings of the requested user
+     */
+    public int userActiveBookings;
+}
@@ -0,0 +1,62 @@
+package com.example.tourmanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * EventConsumerOffset entity class for the progress of booking event consumers.
+ * Holds how far a consumer has read the booking event log and the state it
+ * folded from those events, saved together so no event is counted twice or
+ * missed (see BookingEventConsumer).
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "booking_event_offsets")
+public class EventConsumerOffset {
+
+    /**
+     * Consumer name
+     */
+    @PrimaryKey
+    @NonNull
+    private String consumer = "";
+
+    /**
+     * Sequence of the last folded event (0 before the first)
+     */
+    private long lastSeq;
+
+    /**
+     * Folded state, encoded by the consumer
+     */
+    private String state;
+
+    /**
+     * Timestamp of the last save (in milliseconds)
+     */
+    private long updatedAt;
+
+    /**
+     * Default constructor used by Room
+     */
+    public EventConsumerOffset() {
+    }
+
+    // Getters and Setters
+
+    @NonNull
+    public String getConsumer() { return consumer; }
+    public void setConsumer(@NonNull String consumer) { this.consumer = consumer; }
+
+    public long getLastSeq() { return lastSeq; }
+    public void setLastSeq(long lastSeq) { this.lastSeq = lastSeq; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
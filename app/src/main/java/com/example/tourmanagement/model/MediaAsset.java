@@ -0,0 +1,101 @@
+package com.example.tourmanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * MediaAsset entity class for images held in the local media store.
+ * Each asset is identified by the SHA-256 hash of the original image bytes,
+ * so importing the same picture twice yields the same asset.
+ *
+ * Features:
+ * - Content-addressed identity (hash of source bytes)
+ * - Downsampled WebP variants for avatar, card and detail display
+ * - Last import time used as grace period before garbage collection
+ *
+ * Users and tours reference an asset with a "media://<hash>" string stored in
+ * User.profileImagePath or Tour.tourImage.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "media_assets")
+public class MediaAsset {
+    /**
+     * Hex-encoded SHA-256 of the source image (primary key)
+     */
+    @PrimaryKey
+    @NonNull
+    private String hash;
+
+    /**
+     * Width of the source image in pixels
+     */
+    private int sourceWidth;
+
+    /**
+     * Height of the source image in pixels
+     */
+    private int sourceHeight;
+
+    /**
+     * Absolute path of the avatar-sized WebP variant
+     */
+    private String avatarPath;
+
+    /**
+     * Absolute path of the card-sized WebP variant
+     */
+    private String cardPath;
+
+    /**
+     * Absolute path of the detail-sized WebP variant
+     */
+    private String detailPath;
+
+    /**
+     * Total size of all variants in bytes
+     */
+    private long byteSize;
+
+    /**
+     * Timestamp of the most recent import of this image
+     */
+    private long importedAt;
+
+    /**
+     * Default constructor required by Room
+     */
+    public MediaAsset() {
+        this.hash = "";
+    }
+
+    // Getters and Setters
+
+    @NonNull
+    public String getHash() { return hash; }
+    public void setHash(@NonNull String hash) { this.hash = hash; }
+
+    public int getSourceWidth() { return sourceWidth; }
+    public void setSourceWidth(int sourceWidth) { this.sourceWidth = sourceWidth; }
+
+    public int getSourceHeight() { return sourceHeight; }
+    public void setSourceHeight(int sourceHeight) { this.sourceHeight = sourceHeight; }
+
+    public String getAvatarPath() { return avatarPath; }
+    public void setAvatarPath(String avatarPath) { this.avatarPath = avatarPath; }
+
+    public String getCardPath() { return cardPath; }
+    public void setCardPath(String cardPath) { this.cardPath = cardPath; }
+
+    public String getDetailPath() { return detailPath; }
+    public void setDetailPath(String detailPath) { this.detailPath = detailPath; }
+
+    public long getByteSize() { return byteSize; }
+    public void setByteSize(long byteSize) { this.byteSize = byteSize; }
+
+    public long getImportedAt() { return importedAt; }
+    public void setImportedAt(long importedAt) { this.importedAt = importedAt; }
+}
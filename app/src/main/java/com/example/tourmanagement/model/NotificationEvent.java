@@ -0,0 +1,153 @@
+package com.example.tourmanagement.model;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * NotificationEvent entity class for booking events waiting to be sent in a digest.
+ * Recipients who prefer digests get one summary email per time window instead
+ * of one email per event; each event keeps the few fields the summary shows.
+ *
+ * Features:
+ * - Recipient and event type (booked, confirmed, cancelled, expired)
+ * - Snapshot of the booking summary at the time of the event
+ * - Digest timestamp (0 while the event is pending)
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "notification_events",
+        indices = {@Index(value = {"recipient", "digestedAt"})})
+public class NotificationEvent {
+    /**
+     * Unique identifier for the event (auto-generated primary key)
+     */
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    /**
+     * Email address the digest is sent to
+     */
+    private String recipient;
+
+    /**
+     * Event type (BOOKED, CONFIRMED, CANCELLED, EXPIRED)
+     */
+    private String eventType;
+
+    /**
+     * ID of the booking the event is about
+     */
+    private int bookingId;
+
+    /**
+     * Name of the customer who made the booking
+     */
+    private String customerName;
+
+    /**
+     * Name of the booked tour
+     */
+    private String tourName;
+
+    /**
+     * Tour start time (in milliseconds)
+     */
+    private long tourTime;
+
+    /**
+     * Number of people in the booking
+     */
+    private int numberOfPeople;
+
+    /**
+     * Total booking amount
+     */
+    private double totalAmount;
+
+    /**
+     * Timestamp when the event happened (in milliseconds)
+     */
+    private long createdAt;
+
+    /**
+     * Timestamp when the event was included in a digest (0 while pending)
+     */
+    private long digestedAt;
+
+    /**
+     * Event type values
+     */
+    public static class Type {
+        public static final String BOOKED = "BOOKED";
+        public static final String CONFIRMED = "CONFIRMED";
+        public static final String CANCELLED = "CANCELLED";
+        public static final String EXPIRED = "EXPIRED";
+    }
+
+    /**
+     * Default constructor
+     * Initializes the creation timestamp
+     */
+    public NotificationEvent() {
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Constructor for an event about a booking
+     *
+     * @param recipient Email address the digest is sent to
+     * @param eventType Event type
+     * @param user Customer who made the booking
+     * @param tour Booked tour
+     * @param booking Booking details
+     */
+    public NotificationEvent(String recipient, String eventType, User user, Tour tour, Booking booking) {
+        this();
+        this.recipient = recipient;
+        this.eventType = eventType;
+        this.bookingId = booking.getId();
+        this.customerName = user.getFullName();
+        this.tourName = tour.getTourName();
+        this.tourTime = tour.getTourTime();
+        this.numberOfPeople = booking.getNumberOfPeople();
+        this.totalAmount = booking.getTotalAmount();
+    }
+
+    // Getters and Setters
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public int getBookingId() { return bookingId; }
+    public void setBookingId(int bookingId) { this.bookingId = bookingId; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public String getTourName() { return tourName; }
+    public void setTourName(String tourName) { this.tourName = tourName; }
+
+    public long getTourTime() { return tourTime; }
+    public void setTourTime(long tourTime) { this.tourTime = tourTime; }
+
+    public int getNumberOfPeople() { return numberOfPeople; }
+    public void setNumberOfPeople(int numberOfPeople) { this.numberOfPeople = numberOfPeople; }
+
+    public double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(double totalAmount) { this.totalAmount = totalAmount; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getDigestedAt() { return digestedAt; }
+    public void setDigestedAt(long digestedAt) { this.digestedAt = digestedAt; }
+}
@@ -0,0 +1,101 @@
+package com.example.tourmanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * NotificationPreference entity class for per-recipient email delivery settings.
+ * Decides whether booking emails to an address are sent one by one or
+ * collected into a digest, and how large the digest window is.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "notification_preferences")
+public class NotificationPreference {
+    /**
+     * Recipient email address (primary key)
+     */
+    @PrimaryKey
+    @NonNull
+    private String recipient = "";
+
+    /**
+     * Delivery mode (IMMEDIATE, DIGEST)
+     */
+    private String mode;
+
+    /**
+     * Length of the digest window in minutes
+     */
+    private int windowMinutes;
+
+    /**
+     * Number of pending events that triggers a digest before the window ends
+     */
+    private int maxEvents;
+
+    /**
+     * Timestamp of the last change (in milliseconds)
+     */
+    private long updatedAt;
+
+    /**
+     * Delivery mode values
+     */
+    public static class Mode {
+        public static final String IMMEDIATE = "IMMEDIATE";
+        public static final String DIGEST = "DIGEST";
+    }
+
+    /**
+     * Default constructor
+     */
+    public NotificationPreference() {
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Constructor for a recipient's preference
+     *
+     * @param recipient Recipient email address
+     * @param mode Delivery mode
+     * @param windowMinutes Digest window in minutes
+     * @param maxEvents Events that trigger an early digest
+     */
+    public NotificationPreference(@NonNull String recipient, String mode, int windowMinutes, int maxEvents) {
+        this();
+        this.recipient = recipient;
+        this.mode = mode;
+        this.windowMinutes = windowMinutes;
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * Checks whether emails to this recipient are collected into digests
+     * @return true for digest mode
+     */
+    public boolean isDigest() {
+        return Mode.DIGEST.equals(mode);
+    }
+
+    // Getters and Setters
+
+    @NonNull
+    public String getRecipient() { return recipient; }
+    public void setRecipient(@NonNull String recipient) { this.recipient = recipient; }
+
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+
+    public int getWindowMinutes() { return windowMinutes; }
+    public void setWindowMinutes(int windowMinutes) { this.windowMinutes = windowMinutes; }
+
+    public int getMaxEvents() { return maxEvents; }
+    public void setMaxEvents(int maxEvents) { this.maxEvents = maxEvents; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,140 @@
+package com.example.tourmanagement.model;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * OutboxEmail entity class for outgoing emails waiting to be delivered.
+ * Emails are written here first and sent later by EmailOutboxWorker, so a
+ * message survives process death and failed sends are retried.
+ *
+ * Features:
+ * - Fully rendered message (recipient, subject, HTML body)
+ * - Delivery status and attempt counter
+ * - Next attempt time for exponential backoff
+ * - Last error for diagnostics
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "email_outbox",
+        indices = {@Index(value = {"status", "nextAttemptAt"})})
+public class OutboxEmail {
+    /**
+     * Unique identifier for the email (auto-generated primary key)
+     */
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    /**
+     * Recipient email address
+     */
+    private String recipient;
+
+    /**
+     * Email subject line
+     */
+    private String subject;
+
+    /**
+     * HTML body of the email
+     */
+    private String htmlBody;
+
+    /**
+     * Delivery status (PENDING, SENT, FAILED)
+     */
+    private String status;
+
+    /**
+     * Number of failed delivery attempts so far
+     */
+    private int attempts;
+
+    /**
+     * Earliest time the next delivery attempt may run (in milliseconds)
+     */
+    private long nextAttemptAt;
+
+    /**
+     * Error message of the most recent failed attempt
+     */
+    private String lastError;
+
+    /**
+     * Timestamp when the email was queued (in milliseconds)
+     */
+    private long createdAt;
+
+    /**
+     * Timestamp when the email was delivered (0 until sent)
+     */
+    private long sentAt;
+
+    /**
+     * Delivery status values
+     */
+    public static class Status {
+        public static final String PENDING = "PENDING";
+        public static final String SENT = "SENT";
+        public static final String FAILED = "FAILED";
+    }
+
+    /**
+     * Default constructor
+     * Initializes the email as pending and due immediately
+     */
+    public OutboxEmail() {
+        this.status = Status.PENDING;
+        this.createdAt = System.currentTimeMillis();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    /**
+     * Constructor for a new outgoing email
+     *
+     * @param recipient Recipient email address
+     * @param subject Email subject line
+     * @param htmlBody HTML body of the email
+     */
+    public OutboxEmail(String recipient, String subject, String htmlBody) {
+        this();
+        this.recipient = recipient;
+        this.subject = subject;
+        this.htmlBody = htmlBody;
+    }
+
+    // Getters and Setters
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getHtmlBody() { return htmlBody; }
+    public void setHtmlBody(String htmlBody) { this.htmlBody = htmlBody; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public long getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(long nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getSentAt() { return sentAt; }
+    public void setSentAt(long sentAt) { this.sentAt = sentAt; }
+}
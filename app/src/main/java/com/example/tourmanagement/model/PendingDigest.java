@@ -0,0 +1,28 @@
+package com.example.tourmanagement.model;
+
+/**
+ * Projection of the pending notification events of one recipient.
+ * Used by the digest worker to decide which digests are due without
+ * loading the events themselves.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class PendingDigest {
+
+    /**
+     * Recipient email address
+     */
+    public String recipient;
+
+    /**
+     * Number of events not yet sent in a digest
+     */
+    public int pendingCount;
+
+    /**
+     * Creation time of the oldest pending event
+     */
+    public long oldestCreatedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.tourmanagement.model;
+
+/**
+ * One period of a revenue time series (a day, week or month).
+ * Produced by the revenue series query of the daily revenue rollup, which
+ * returns one bucket per period of the requested range, including periods
+ * without revenue.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class RevenueBucket {
+
+    /**
+     * First day of the period in the device time zone, as yyyy-MM-dd
+     */
+    public String periodKey;
+
+    /**
+     * Revenue of the confirmed bookings made in the period
+     */
+    public double revenue;
+
+    /**
+     * Number of confirmed bookings made in the period
+     */
+    public int bookingCount;
+}
@@ -0,0 +1,72 @@
+package com.example.tourmanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * SyncInboxEntry entity class for pulled changes not applied yet.
+ * Pulled pages are stored here before they are applied, so the pull token
+ * can move on while a booking waits for its user or tour to arrive in a
+ * later page. A newer change of the same row replaces the waiting one.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "sync_inbox")
+public class SyncInboxEntry {
+
+    /**
+     * Global ID of the changed row
+     */
+    @PrimaryKey
+    @NonNull
+    private String globalId = "";
+
+    /**
+     * Synced table: users, tours or bookings
+     */
+    @NonNull
+    private String tableName = "";
+
+    /**
+     * Column values as a JSON object, references given as global IDs (null for deletions)
+     */
+    private String payload;
+
+    /**
+     * True if the row was deleted on the server
+     */
+    private boolean deleted;
+
+    /**
+     * Server position of the change, for applying in server order
+     */
+    private long serverSeq;
+
+    /**
+     * Default constructor used by Room
+     */
+    public SyncInboxEntry() {
+    }
+
+    // Getters and Setters
+
+    @NonNull
+    public String getGlobalId() { return globalId; }
+    public void setGlobalId(@NonNull String globalId) { this.globalId = globalId; }
+
+    @NonNull
+    public String getTableName() { return tableName; }
+    public void setTableName(@NonNull String tableName) { this.tableName = tableName; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+
+    public long getServerSeq() { return serverSeq; }
+    public void setServerSeq(long serverSeq) { this.serverSeq = serverSeq; }
+}
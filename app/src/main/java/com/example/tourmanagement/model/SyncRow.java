@@ -0,0 +1,86 @@
+package com.example.tourmanagement.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * SyncRow entity class for the sync change log.
+ * Tracks one synced row (user, tour or booking): its device-independent
+ * global ID, the local version of its last change and, once the row is
+ * deleted, a tombstone. Rows are maintained by SQLite triggers on the synced
+ * tables (see DeltaSync); a sync pushes every row whose version is newer
+ * than the last pushed one.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "sync_rows",
+        primaryKeys = {"tableName", "rowId"},
+        indices = {
+            @Index(value = {"globalId"}, unique = true),
+            @Index(value = {"version"})
+        })
+public class SyncRow {
+
+    /**
+     * Synced table: users, tours or bookings
+     */
+    @NonNull
+    private String tableName = "";
+
+    /**
+     * Local ID of the row
+     */
+    private int rowId;
+
+    /**
+     * ID shared by every device, "<deviceId>/<table>/<local ID>" of the creating device
+     */
+    @NonNull
+    private String globalId = "";
+
+    /**
+     * Local change counter at the last change (0 = as pulled from the server)
+     */
+    private long version;
+
+    /**
+     * Time of the last change in milliseconds
+     */
+    private long updatedAt;
+
+    /**
+     * True once the row was deleted (tombstone)
+     */
+    private boolean deleted;
+
+    /**
+     * Default constructor used by Room
+     */
+    public SyncRow() {
+    }
+
+    // Getters and Setters
+
+    @NonNull
+    public String getTableName() { return tableName; }
+    public void setTableName(@NonNull String tableName) { this.tableName = tableName; }
+
+    public int getRowId() { return rowId; }
+    public void setRowId(int rowId) { this.rowId = rowId; }
+
+    @NonNull
+    public String getGlobalId() { return globalId; }
+    public void setGlobalId(@NonNull String globalId) { this.globalId = globalId; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+}
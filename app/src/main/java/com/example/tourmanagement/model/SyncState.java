@@ -0,0 +1,73 @@
+package com.example.tourmanagement.model;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * SyncState entity class holding the sync position of this device.
+ * A single row (ID 1), created when the database is opened.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+@Entity(tableName = "sync_state")
+public class SyncState {
+
+    /**
+     * Always 1
+     */
+    @PrimaryKey
+    private int id;
+
+    /**
+     * Random ID of this device, prefix of the global IDs of rows created here
+     */
+    private String deviceId;
+
+    /**
+     * Highest SyncRow version the server has accepted
+     */
+    private long pushedVersion;
+
+    /**
+     * Opaque server token of the last pulled change (null = nothing pulled yet)
+     */
+    private String pullToken;
+
+    /**
+     * True while pulled changes are applied, so the change triggers skip them
+     */
+    private boolean applying;
+
+    /**
+     * Time of the last successful sync in milliseconds (0 = never)
+     */
+    private long lastSyncAt;
+
+    /**
+     * Default constructor used by Room
+     */
+    public SyncState() {
+    }
+
+    // Getters and Setters
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getDeviceId() { return deviceId; }
+    public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
+
+    public long getPushedVersion() { return pushedVersion; }
+    public void setPushedVersion(long pushedVersion) { this.pushedVersion = pushedVersion; }
+
+    public String getPullToken() { return pullToken; }
+    public void setPullToken(String pullToken) { this.pullToken = pullToken; }
+
+    public boolean isApplying() { return applying; }
+    public void setApplying(boolean applying) { this.applying = applying; }
+
+    public long getLastSyncAt() { return lastSyncAt; }
+    public void setLastSyncAt(long lastSyncAt) { this.lastSyncAt = lastSyncAt; }
+}
@@ -0,0 +1,37 @@
+package com.example.tourmanagement.model;
+
+/**
+ * Projection of the confirmed revenue of one tour.
+ * Produced from the daily revenue rollup for the revenue breakdown.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class TourRevenue {
+
+    /**
+     * Tour ID
+     */
+    public int tourId;
+
+    /**
+     * Tour name
+     */
+    public String tourName;
+
+    /**
+     * Sum of totalAmount of the confirmed bookings
+     */
+    public double revenue;
+
+    /**
+     * Number of confirmed bookings
+     */
+    public int bookingCount;
+
+    /**
+     * Number of people in the confirmed bookings
+     */
+    public int peopleCount;
+}
@@ -0,0 +1,28 @@
+package com.example.tourmanagement.model;
+
+/**
+ * Lightweight projection of the folded search columns of a tour.
+ * Loaded in bulk to build the in-memory fuzzy search dictionary without
+ * materializing full Tour rows.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class TourSearchTerm {
+
+    /**
+     * Tour ID the terms belong to
+     */
+    public int id;
+
+    /**
+     * Folded tour name
+     */
+    public String tourNameFolded;
+
+    /**
+     * Folded tour location
+     */
+    public String tourLocationFolded;
+}
@@ -0,0 +1,237 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.dao.BookingArchiveDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.worker.BookingArchiveWorker;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot/cold archival of finished bookings.
+ * Cancelled bookings, and confirmed bookings whose tour took place, are moved
+ * from the bookings table to bookings_archive once they are older than the
+ * archive horizon, so everyday scans of bookings only touch live rows.
+ *
+ * Every archived booking was made before the archive watermark. Screens and
+ * reports ask needsArchive() with the start of the range they show and only
+ * read the archive (the BookingDao *IncludingArchive queries) when the range
+ * reaches back past the watermark.
+ *
+ * Features:
+ * - Configurable horizon (admin settings)
+ * - Bookings moved in batches, one transaction per batch
+ * - Weekly background run plus on-demand runs
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class BookingArchive {
+
+    private static final String TAG = "BookingArchive";
+
+    /**
+     * Unique WorkManager name of the weekly archive job
+     */
+    public static final String WORK_NAME = "booking_archive";
+
+    /**
+     * Horizons offered in settings, in days
+     */
+    public static final int[] HORIZON_CHOICES = {90, 180, 365, 730};
+    public static final int DEFAULT_HORIZON_DAYS = 365;
+
+    /**
+     * Bookings moved per transaction
+     */
+    static final int BATCH_SIZE = 200;
+
+    static final String PREF_NAME = "TourManagementPrefs";
+    static final String KEY_HORIZON_DAYS = "archive_horizon_days";
+    static final String KEY_ARCHIVED_BEFORE = "archive_watermark";
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.ANALYTICS, TaskScheduler.Priority.LOW);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Outcome of one archive run
+     */
+    public static final class Report {
+        /**
+         * Number of bookings moved to the archive
+         */
+        public final int archived;
+
+        /**
+         * Bookings made before this time were considered
+         */
+        public final long cutoff;
+
+        /**
+         * Run time in milliseconds
+         */
+        public final long durationMs;
+
+        Report(int archived, long cutoff, long durationMs) {
+            this.archived = archived;
+            this.cutoff = cutoff;
+            this.durationMs = durationMs;
+        }
+
+        /**
+         * Gets a one-line summary for logs and admin settings
+         */
+        public String getSummary() {
+            if (archived == 0) {
+                return String.format(Locale.US, "No bookings to archive (%d ms)", durationMs);
+            }
+            return String.format(Locale.US, "Archived %d booking(s) (%d ms)", archived, durationMs);
+        }
+    }
+
+    /**
+     * Callback for an on-demand run, invoked on the main thread
+     */
+    public interface Callback {
+        void onComplete(Report report);
+        void onError(Exception error);
+    }
+
+    private BookingArchive() {
+    }
+
+    /**
+     * Gets the archive horizon
+     *
+     * @param context Any context
+     * @return Days after which finished bookings are archived
+     */
+    public static int getHorizonDays(Context context) {
+        return prefs(context).getInt(KEY_HORIZON_DAYS, DEFAULT_HORIZON_DAYS);
+    }
+
+    /**
+     * Sets the archive horizon
+     *
+     * @param context Any context
+     * @param days Days after which finished bookings are archived
+     */
+    public static void setHorizonDays(Context context, int days) {
+        prefs(context).edit().putInt(KEY_HORIZON_DAYS, days).apply();
+    }
+
+    /**
+     * Gets the archive watermark
+     *
+     * @param context Any context
+     * @return Every archived booking was made before this time (0 = archive is empty)
+     */
+    public static long getArchivedBefore(Context context) {
+        return prefs(context).getLong(KEY_ARCHIVED_BEFORE, 0);
+    }
+
+    /**
+     * Checks whether a range starting at the given time may include archived bookings
+     *
+     * @param context Any context
+     * @param rangeStart Start of the range (0 = all time)
+     * @return true if the archive must be read as well
+     */
+    public static boolean needsArchive(Context context, long rangeStart) {
+        return rangeStart < getArchivedBefore(context);
+    }
+
+    /**
+     * Moves finished bookings older than the horizon to the archive.
+     * Must be called from a background thread.
+     *
+     * @param context Any context
+     * @param database Database instance
+     * @return Report of the run
+     */
+    public static Report archive(Context context, TourManagementDatabase database) {
+        long start = System.currentTimeMillis();
+        long cutoff = start - TimeUnit.DAYS.toMillis(getHorizonDays(context));
+        BookingArchiveDao archiveDao = database.bookingArchiveDao();
+
+        if (archiveDao.getArchivableBookingIds(cutoff, 1).isEmpty()) {
+            Report report = new Report(0, cutoff, System.currentTimeMillis() - start);
+            Log.i(TAG, report.getSummary());
+            return report;
+        }
+
+        // Raise the watermark before moving rows, so readers never skip archived bookings
+        if (cutoff > getArchivedBefore(context)) {
+            prefs(context).edit().putLong(KEY_ARCHIVED_BEFORE, cutoff).commit();
+        }
+
+        int archived = 0;
+        int moved;
+        do {
+            moved = database.runInTransaction(() -> {
+                List<Integer> ids = archiveDao.getArchivableBookingIds(cutoff, BATCH_SIZE);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archiveDao.copyToArchive(ids);
+                return archiveDao.deleteFromBookings(ids);
+            });
+            archived += moved;
+        } while (moved == BATCH_SIZE);
+
+        Report report = new Report(archived, cutoff, System.currentTimeMillis() - start);
+        Log.i(TAG, report.getSummary());
+        return report;
+    }
+
+    /**
+     * Runs the archiver in the background, e.g. from admin settings
+     *
+     * @param context Any context
+     * @param callback Callback invoked on the main thread
+     */
+    public static void archiveAsync(Context context, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                Report report = archive(appContext, TourManagementDatabase.getDatabase(appContext));
+                MAIN_HANDLER.post(() -> callback.onComplete(report));
+            } catch (Exception e) {
+                Log.e(TAG, "Booking archive failed", e);
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Schedules the weekly archive job; an existing schedule is kept
+     *
+     * @param context Any context
+     */
+    public static void schedulePeriodic(Context context) {
+        Constraints constraints = new Constraints.Builder()
+            .setRequiresBatteryNotLow(true)
+            .setRequiresDeviceIdle(true)
+            .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(BookingArchiveWorker.class, 7, TimeUnit.DAYS)
+            .setConstraints(constraints)
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+/**
+ * Creates bookings, taking their seats and storing the booking in one
+ * transaction. Seats are taken with a conditional UPDATE that only succeeds
+ * while enough seats are free, so bookings made at the same time from the
+ * booking screen and the local API never overbook a tour.
+ *
+ * Features:
+ * - Seat check and seat count in one statement
+ * - Either both the seats and the booking are stored, or neither
+ * - Tells apart missing or inactive tours and sold out tours
+ * - Shared follow-up (cache, expiry, sync, admin digest) for every caller
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BookingCreator {
+
+    /**
+     * Outcome of a booking attempt
+     */
+    public enum Status {
+        CREATED, INVALID, TOUR_NOT_FOUND, NOT_ENOUGH_SEATS
+    }
+
+    /**
+     * Storage operations used to create bookings
+     */
+    interface Store {
+        void runInTransaction(Runnable body);
+        Tour getTour(int tourId);
+        int reserveSeats(int tourId, int seats);
+        long insertBooking(Booking booking);
+    }
+
+    /**
+     * Outcome of one booking attempt
+     */
+    public static final class Result {
+        public final Status status;
+
+        /**
+         * Booking with its generated ID set (null unless created)
+         */
+        public final Booking booking;
+
+        /**
+         * Tour as stored after the attempt (null if not found)
+         */
+        public final Tour tour;
+
+        Result(Status status, Booking booking, Tour tour) {
+            this.status = status;
+            this.booking = booking;
+            this.tour = tour;
+        }
+
+        public boolean isCreated() {
+            return status == Status.CREATED;
+        }
+    }
+
+    private final Store store;
+
+    BookingCreator(Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Creates a booking creator backed by the app database
+     *
+     * @param database Database instance
+     * @return Booking creator
+     */
+    public static BookingCreator create(TourManagementDatabase database) {
+        return new BookingCreator(new Store() {
+            @Override
+            public void runInTransaction(Runnable body) {
+                database.runInTransaction(body);
+            }
+
+            @Override
+            public Tour getTour(int tourId) {
+                return database.tourDao().getTourById(tourId);
+            }
+
+            @Override
+            public int reserveSeats(int tourId, int seats) {
+                return database.tourDao().reserveSeats(tourId, seats);
+            }
+
+            @Override
+            public long insertBooking(Booking booking) {
+                return database.bookingDao().insertBooking(booking);
+            }
+        });
+    }
+
+    /**
+     * Takes the seats of a booking and stores it in one transaction.
+     * The booking must be priced already; its ID is set when it is created.
+     * Must be called from a background thread.
+     *
+     * @param booking New booking
+     * @return Outcome, with the stored booking and tour
+     */
+    public Result place(Booking booking) {
+        if (booking.getNumberOfPeople() < 1) {
+            return new Result(Status.INVALID, null, null);
+        }
+
+        Result[] result = new Result[1];
+        store.runInTransaction(() -> {
+            int tourId = booking.getTourId();
+            if (store.reserveSeats(tourId, booking.getNumberOfPeople()) == 0) {
+                Tour tour = store.getTour(tourId);
+                Status status = tour == null || !tour.isActive() ? Status.TOUR_NOT_FOUND : Status.NOT_ENOUGH_SEATS;
+                result[0] = new Result(status, null, tour);
+                return;
+            }
+            // An insert failure throws and rolls the seats back with it
+            booking.setId((int) store.insertBooking(booking));
+            result[0] = new Result(Status.CREATED, booking, store.getTour(tourId));
+        });
+        return result[0];
+    }
+
+    /**
+     * Runs the follow-up of a created booking: refreshes the cached tour,
+     * wakes the expiry job, shares the seats with other devices and adds the
+     * booking to the admin digest
+     *
+     * @param context Any context
+     * @param user Customer who booked
+     * @param result Created booking
+     */
+    public static void onCreated(Context context, User user, Result result) {
+        Context appContext = context.getApplicationContext();
+        EntityCache.getInstance(appContext).invalidateTour(result.booking.getTourId());
+        BookingExpiry.reschedule(appContext);
+        DeltaSync.requestSync(appContext);
+        NotificationDigests.notifyAdmin(appContext, NotificationEvent.Type.BOOKED, user, result.tour, result.booking);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.BookingEvent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Incremental consumer of the booking event log.
+ * A consumer folds each event into named counters and remembers the
+ * sequence of the last event it folded. BookingEvents saves both in one row,
+ * so a consumer resumes exactly where it stopped and only ever reads events
+ * appended since, instead of rescanning bookings.
+ *
+ * Counters are encoded as "name=value;name=value" for the offset table.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public abstract class BookingEventConsumer {
+
+    private final String name;
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private long offset;
+
+    /**
+     * @param name Unique consumer name, the key of its saved offset
+     */
+    protected BookingEventConsumer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Folds one new event into the counters
+     *
+     * @param event Event after the current offset
+     */
+    protected abstract void fold(BookingEvent event);
+
+    /**
+     * Gets the consumer name
+     */
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the sequence of the last folded event
+     */
+    public final long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Folds an event unless it was folded before, and moves the offset on
+     *
+     * @param event Next event of the log
+     * @return true if the event was new to this consumer
+     */
+    public final boolean accept(BookingEvent event) {
+        if (event.getSeq() <= offset) {
+            return false;
+        }
+        fold(event);
+        offset = event.getSeq();
+        return true;
+    }
+
+    /**
+     * Gets a counter
+     *
+     * @param key Counter name
+     * @return Value, 0 if never added to
+     */
+    protected final long get(String key) {
+        Long value = counters.get(key);
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Adds to a counter
+     *
+     * @param key Counter name
+     * @param delta Amount to add
+     */
+    protected final void add(String key, long delta) {
+        counters.put(key, get(key) + delta);
+    }
+
+    /**
+     * Encodes the counters for saving
+     */
+    final String encodeState() {
+        StringBuilder state = new StringBuilder();
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            if (state.length() > 0) {
+                state.append(';');
+            }
+            state.append(counter.getKey()).append('=').append(counter.getValue());
+        }
+        return state.toString();
+    }
+
+    /**
+     * Restores saved progress, replacing the current counters
+     *
+     * @param savedOffset Sequence of the last folded event
+     * @param state Encoded counters, null or empty for none
+     */
+    final void restore(long savedOffset, String state) {
+        counters.clear();
+        offset = savedOffset;
+        if (state == null || state.isEmpty()) {
+            return;
+        }
+        for (String pair : state.split(";")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                try {
+                    counters.put(pair.substring(0, equals), Long.parseLong(pair.substring(equals + 1)));
+                } catch (NumberFormatException e) {
+                    // Unreadable counter: start it over rather than fail the consumer
+                }
+            }
+        }
+    }
+}
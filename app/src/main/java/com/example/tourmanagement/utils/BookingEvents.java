@@ -0,0 +1,160 @@
+package com.example.tourmanagement.utils;
+
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.example.tourmanagement.dao.BookingEventDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.BookingEvent;
+import com.example.tourmanagement.model.EventConsumerOffset;
+import java.util.List;
+
+/**
+ * Append-only log of booking state transitions.
+ * SQLite triggers on bookings append a booking_events row for every
+ * creation, confirmation, payment and cancellation. A trigger runs inside
+ * the statement that changes the booking, so the event commits or rolls
+ * back with it, whichever code path writes the booking (DAO updates,
+ * whole-row updateBooking, expiry sweeps, bulk actions or sync).
+ *
+ * Consumers (see BookingEventConsumer) fold the log incrementally:
+ * catchUp() reads only the events after their saved offsets and saves the
+ * new offsets with the folded state, page by page.
+ *
+ * Features:
+ * - Triggers created on every database open (idempotent)
+ * - History of existing bookings backfilled on upgrade
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class BookingEvents {
+
+    private static final String TAG = "BookingEvents";
+
+    /**
+     * Events read per page; each page ends with one save transaction
+     */
+    static final int PAGE_SIZE = 500;
+
+    /**
+     * Current time in milliseconds, in SQL
+     */
+    private static final String NOW_MS = "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)";
+
+    /**
+     * One catch-up at a time, so consumers do not fold the same page twice
+     */
+    private static final Object CATCH_UP_LOCK = new Object();
+
+    private BookingEvents() {
+    }
+
+    /**
+     * Creates the event triggers if they do not exist yet
+     *
+     * @param db Database being opened or migrated
+     */
+    public static void createTriggers(SupportSQLiteDatabase db) {
+        // A booking may be written already confirmed, paid or cancelled (samples, sync)
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS booking_events_insert AFTER INSERT ON bookings BEGIN " +
+            append("'" + BookingEvent.TYPE_CREATED + "'", "NEW.bookingDate", "1") +
+            append("'" + BookingEvent.TYPE_CONFIRMED + "'", "NEW.bookingDate", "NEW.bookingStatus = 'CONFIRMED'") +
+            append("'" + BookingEvent.TYPE_PAID + "'", "NEW.bookingDate", "NEW.paymentStatus = 'PAID'") +
+            append("'" + BookingEvent.TYPE_CANCELLED + "'", "NEW.bookingDate", "NEW.bookingStatus = 'CANCELLED'") +
+            " END");
+        // One trigger for both columns, so a confirm-and-pay update logs in a fixed order
+        String statusChanged = "NEW.bookingStatus IS NOT OLD.bookingStatus";
+        String paid = "NEW.paymentStatus = 'PAID' AND OLD.paymentStatus IS NOT 'PAID'";
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS booking_events_update " +
+            "AFTER UPDATE OF bookingStatus, paymentStatus ON bookings " +
+            "WHEN (" + statusChanged + " AND NEW.bookingStatus IN ('CONFIRMED', 'CANCELLED')) OR (" + paid + ") BEGIN " +
+            append("'" + BookingEvent.TYPE_CONFIRMED + "'", NOW_MS, statusChanged + " AND NEW.bookingStatus = 'CONFIRMED'") +
+            append("'" + BookingEvent.TYPE_PAID + "'", NOW_MS, paid) +
+            append("'" + BookingEvent.TYPE_CANCELLED + "'", NOW_MS, statusChanged + " AND NEW.bookingStatus = 'CANCELLED'") +
+            " END");
+    }
+
+    /**
+     * Writes the history of existing live and archived bookings, oldest first.
+     * Transition times are unknown, so every event is dated at the booking date.
+     *
+     * @param db Database being migrated, before the triggers exist
+     */
+    public static void backfill(SupportSQLiteDatabase db) {
+        String columns = "id, tourId, bookingStatus, paymentStatus, bookingDate, totalAmount, numberOfPeople";
+        db.execSQL("INSERT INTO booking_events (bookingId, tourId, type, occurredAt, bookingCreatedAt, amount, people) " +
+            "SELECT id, tourId, type, bookingDate, bookingDate, totalAmount, numberOfPeople FROM (" +
+            "WITH source AS (SELECT " + columns + " FROM bookings UNION ALL " +
+            "SELECT " + columns + " FROM bookings_archive) " +
+            "SELECT *, '" + BookingEvent.TYPE_CREATED + "' AS type, 0 AS step FROM source " +
+            "UNION ALL SELECT *, '" + BookingEvent.TYPE_CONFIRMED + "', 1 FROM source WHERE bookingStatus = 'CONFIRMED' " +
+            "UNION ALL SELECT *, '" + BookingEvent.TYPE_PAID + "', 2 FROM source WHERE paymentStatus = 'PAID' " +
+            "UNION ALL SELECT *, '" + BookingEvent.TYPE_CANCELLED + "', 3 FROM source WHERE bookingStatus = 'CANCELLED') " +
+            "ORDER BY bookingDate, id, step");
+    }
+
+    /**
+     * Folds the events appended since each consumer last ran, and saves their progress.
+     * Must be called from a background thread.
+     *
+     * @param database Database instance
+     * @param consumers Consumers to bring up to date
+     * @return Number of events read
+     */
+    public static int catchUp(TourManagementDatabase database, List<? extends BookingEventConsumer> consumers) {
+        synchronized (CATCH_UP_LOCK) {
+            BookingEventDao eventDao = database.bookingEventDao();
+            long from = Long.MAX_VALUE;
+            for (BookingEventConsumer consumer : consumers) {
+                EventConsumerOffset saved = eventDao.getOffset(consumer.getName());
+                if (saved != null) {
+                    consumer.restore(saved.getLastSeq(), saved.getState());
+                } else {
+                    consumer.restore(0, null);
+                }
+                from = Math.min(from, consumer.getOffset());
+            }
+
+            int read = 0;
+            while (!consumers.isEmpty()) {
+                List<BookingEvent> page = eventDao.getEventsAfter(from, PAGE_SIZE);
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (BookingEvent event : page) {
+                    for (BookingEventConsumer consumer : consumers) {
+                        consumer.accept(event);
+                    }
+                }
+                from = page.get(page.size() - 1).getSeq();
+                read += page.size();
+
+                long now = System.currentTimeMillis();
+                database.runInTransaction(() -> {
+                    for (BookingEventConsumer consumer : consumers) {
+                        EventConsumerOffset offset = new EventConsumerOffset();
+                        offset.setConsumer(consumer.getName());
+                        offset.setLastSeq(consumer.getOffset());
+                        offset.setState(consumer.encodeState());
+                        offset.setUpdatedAt(now);
+                        eventDao.saveOffset(offset);
+                    }
+                });
+            }
+            if (read > 0) {
+                Log.d(TAG, "Folded " + read + " new booking event(s) into " + consumers.size() + " consumer(s)");
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Trigger statement that appends one event of the NEW booking row if a condition holds
+     */
+    private static String append(String type, String occurredAt, String condition) {
+        return "INSERT INTO booking_events (bookingId, tourId, type, occurredAt, bookingCreatedAt, amount, people) " +
+            "SELECT NEW.id, NEW.tourId, " + type + ", " + occurredAt + ", NEW.bookingDate, NEW.totalAmount, " +
+            "NEW.numberOfPeople WHERE " + condition + "; ";
+    }
+}
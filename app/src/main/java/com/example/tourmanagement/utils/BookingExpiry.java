@@ -0,0 +1,250 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.worker.BookingExpiryWorker;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expiry of unpaid pending bookings.
+ * A new booking holds its seats for HOLD_MS while the customer pays. If the
+ * admin has not confirmed the payment by then, the booking is cancelled, its
+ * seats are released and the customer is told why.
+ *
+ * Features:
+ * - Expired bookings cancelled and seats released in one transaction per batch
+ * - Background job that wakes at the next expiry time instead of polling
+ * - Injectable clock and store so the expiry rules can be unit tested
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BookingExpiry {
+
+    private static final String TAG = "BookingExpiry";
+
+    /**
+     * How long a pending booking waits for payment
+     */
+    public static final long HOLD_MS = TimeUnit.HOURS.toMillis(24);
+
+    /**
+     * Unique WorkManager name of the expiry job
+     */
+    public static final String WORK_NAME = "booking_expiry";
+
+    /**
+     * Payment status of a booking that expired unpaid
+     */
+    public static final String PAYMENT_EXPIRED = "EXPIRED";
+
+    /**
+     * Bookings expired per transaction
+     */
+    static final int BATCH_SIZE = 100;
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.WRITE, TaskScheduler.Priority.NORMAL);
+
+    /**
+     * Source of the current time
+     */
+    public interface Clock {
+        long now();
+    }
+
+    /**
+     * Clock backed by the system time
+     */
+    public static final Clock SYSTEM_CLOCK = System::currentTimeMillis;
+
+    /**
+     * Storage operations used by the expiry job
+     */
+    interface Store {
+        void runInTransaction(Runnable body);
+        List<Booking> getExpiredBookings(long now, int limit);
+        int expireBookings(List<Integer> bookingIds);
+        void releaseSeats(int tourId, int seats);
+        long getNextExpiry();
+    }
+
+    /**
+     * Outcome of one expiry run
+     */
+    public static final class Result {
+        /**
+         * Bookings cancelled in this run, with their new status
+         */
+        public final List<Booking> expired;
+
+        /**
+         * Next expiry time, or 0 if no pending booking will expire
+         */
+        public final long nextExpiry;
+
+        Result(List<Booking> expired, long nextExpiry) {
+            this.expired = expired;
+            this.nextExpiry = nextExpiry;
+        }
+    }
+
+    private final Store store;
+    private final Clock clock;
+
+    BookingExpiry(Store store, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates an expiry job backed by the app database
+     *
+     * @param database Database instance
+     * @param clock Source of the current time
+     * @return Expiry job
+     */
+    public static BookingExpiry create(TourManagementDatabase database, Clock clock) {
+        return new BookingExpiry(new Store() {
+            @Override
+            public void runInTransaction(Runnable body) {
+                database.runInTransaction(body);
+            }
+
+            @Override
+            public List<Booking> getExpiredBookings(long now, int limit) {
+                return database.bookingDao().getExpiredBookings(now, limit);
+            }
+
+            @Override
+            public int expireBookings(List<Integer> bookingIds) {
+                return database.bookingDao().expireBookings(bookingIds);
+            }
+
+            @Override
+            public void releaseSeats(int tourId, int seats) {
+                database.tourDao().updateBookingCount(tourId, -seats);
+            }
+
+            @Override
+            public long getNextExpiry() {
+                Long next = database.bookingDao().getNextExpiry();
+                return next != null ? next : 0;
+            }
+        }, clock);
+    }
+
+    /**
+     * Gets the expiry time of a booking made now
+     *
+     * @param bookingDate Time the booking was made
+     * @return Expiry timestamp
+     */
+    public static long expiresAt(long bookingDate) {
+        return bookingDate + HOLD_MS;
+    }
+
+    /**
+     * Cancels all bookings whose hold has expired and releases their seats.
+     * Each batch is selected, cancelled and released in one transaction, so a
+     * booking confirmed concurrently is never cancelled.
+     * Must be called from a background thread.
+     *
+     * @return Expired bookings and the next expiry time
+     */
+    public Result expireDue() {
+        long now = clock.now();
+        List<Booking> expired = new ArrayList<>();
+        int[] batchSize = new int[1];
+        do {
+            store.runInTransaction(() -> {
+                List<Booking> batch = store.getExpiredBookings(now, BATCH_SIZE);
+                batchSize[0] = batch.size();
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                List<Integer> ids = new ArrayList<>(batch.size());
+                for (Booking booking : batch) {
+                    ids.add(booking.getId());
+                }
+                store.expireBookings(ids);
+                for (Map.Entry<Integer, Integer> entry : seatsByTour(batch).entrySet()) {
+                    store.releaseSeats(entry.getKey(), entry.getValue());
+                }
+
+                for (Booking booking : batch) {
+                    booking.setBookingStatus("CANCELLED");
+                    booking.setPaymentStatus(PAYMENT_EXPIRED);
+                }
+                expired.addAll(batch);
+            });
+        } while (batchSize[0] == BATCH_SIZE);
+
+        if (!expired.isEmpty()) {
+            Log.i(TAG, "Expired " + expired.size() + " unpaid booking(s)");
+        }
+        return new Result(expired, store.getNextExpiry());
+    }
+
+    /**
+     * Sums the seats of bookings per tour
+     *
+     * @param bookings Bookings to sum
+     * @return Seats per tour ID
+     */
+    static Map<Integer, Integer> seatsByTour(List<Booking> bookings) {
+        Map<Integer, Integer> seats = new HashMap<>();
+        for (Booking booking : bookings) {
+            Integer current = seats.get(booking.getTourId());
+            seats.put(booking.getTourId(), (current != null ? current : 0) + booking.getNumberOfPeople());
+        }
+        return seats;
+    }
+
+    /**
+     * Schedules the expiry job for the earliest pending expiry, in the background
+     *
+     * @param context Any context
+     */
+    public static void reschedule(Context context) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                Long next = TourManagementDatabase.getDatabase(appContext).bookingDao().getNextExpiry();
+                schedule(appContext, next != null ? next : 0, SYSTEM_CLOCK);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to schedule booking expiry", e);
+            }
+        });
+    }
+
+    /**
+     * Schedules the expiry job, replacing any pending run
+     *
+     * @param context Any context
+     * @param nextExpiry Expiry time to wake at, or 0 to cancel the job
+     * @param clock Source of the current time
+     */
+    public static void schedule(Context context, long nextExpiry, Clock clock) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        if (nextExpiry <= 0) {
+            workManager.cancelUniqueWork(WORK_NAME);
+            return;
+        }
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(BookingExpiryWorker.class)
+            .setInitialDelay(Math.max(0, nextExpiry - clock.now()), TimeUnit.MILLISECONDS)
+            .build();
+        workManager.enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+    }
+}
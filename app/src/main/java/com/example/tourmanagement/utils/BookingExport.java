@@ -0,0 +1,222 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.worker.BookingExportWorker;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streaming export of the booking ledger and the monthly revenue report.
+ * Rows go from a DAO cursor straight into a CSV or PDF TableWriter, one at a
+ * time, so memory use does not depend on the number of bookings. The ledger
+ * is read in pages of PAGE_SIZE rows keyed by (bookingDate, id); each page
+ * fits in one cursor window, so no query is ever re-run.
+ *
+ * Exports run in BookingExportWorker and are written to a document the admin
+ * picked with the Storage Access Framework.
+ *
+ * Features:
+ * - Booking ledger (live and archived bookings) and monthly revenue report
+ * - CSV (spreadsheet friendly) and paginated PDF
+ * - Progress reporting and cancellation between pages
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class BookingExport {
+
+    /**
+     * Unique WorkManager name; exports run one at a time, in the order requested
+     */
+    public static final String WORK_NAME = "booking_export";
+
+    /**
+     * Ledger rows read per query
+     */
+    static final int PAGE_SIZE = 1000;
+
+    /**
+     * Output format of an export
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        PDF("application/pdf", "pdf");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Content of an export
+     */
+    public enum Report {
+        LEDGER("Booking Ledger", "booking-ledger",
+            new String[] {"Reference", "Booked At", "Customer", "Email", "Tour", "Tour Date", "People",
+                "Amount", "Booking Status", "Payment Status"},
+            new float[] {1.3f, 1.4f, 1.8f, 2.2f, 2.2f, 1.0f, 0.6f, 0.9f, 1.1f, 1.1f}),
+        MONTHLY_REVENUE("Monthly Revenue Report", "monthly-revenue",
+            new String[] {"Month", "Confirmed Bookings", "People", "Revenue"},
+            new float[] {1, 1, 1, 1});
+
+        public final String title;
+        final String fileName;
+        final String[] columns;
+        final float[] columnWeights;
+
+        Report(String title, String fileName, String[] columns, float[] columnWeights) {
+            this.title = title;
+            this.fileName = fileName;
+            this.columns = columns;
+            this.columnWeights = columnWeights;
+        }
+    }
+
+    /**
+     * Receives progress and is asked for cancellation, from the exporting thread
+     */
+    public interface Progress {
+        void onProgress(long rows, long totalRows);
+        boolean isCancelled();
+    }
+
+    private BookingExport() {
+    }
+
+    /**
+     * Suggests a document name for the SAF picker, e.g. booking-ledger-20250722.csv
+     *
+     * @param report Content of the export
+     * @param format Output format
+     * @return File name
+     */
+    public static String suggestFileName(Report report, Format format) {
+        String date = new SimpleDateFormat("yyyyMMdd", Locale.US).format(new Date());
+        return report.fileName + "-" + date + "." + format.extension;
+    }
+
+    /**
+     * Writes a report to a stream.
+     * Must be called from a background thread. The stream is closed.
+     *
+     * @param database Database instance
+     * @param report Content of the export
+     * @param format Output format
+     * @param out Destination
+     * @param progress Progress listener and cancellation check
+     * @return Number of rows written
+     * @throws CancellationException if progress reported cancellation
+     */
+    public static long export(TourManagementDatabase database, Report report, Format format,
+                              OutputStream out, Progress progress) throws IOException {
+        try (TableWriter writer = open(report, format, out)) {
+            writer.writeHeader(report.columns);
+            String[] cells = new String[report.columns.length];
+            if (report == Report.LEDGER) {
+                return exportLedger(database, writer, cells, progress);
+            }
+            long total = database.revenueRollupDao().getMonthCount();
+            try (Cursor cursor = database.revenueRollupDao().getMonthlyReport()) {
+                long rows = copyRows(cursor, writer, cells);
+                progress.onProgress(rows, total);
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Starts an export in the background. An export requested while another one is
+     * running is queued behind it, so the returned ID always belongs to this export.
+     *
+     * @param context Any context
+     * @param target Document picked with ACTION_CREATE_DOCUMENT
+     * @param report Content of the export
+     * @param format Output format
+     * @return ID of the work request, for progress and cancellation
+     */
+    public static UUID enqueue(Context context, Uri target, Report report, Format format) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(BookingExportWorker.class)
+            .setInputData(new Data.Builder()
+                .putString(BookingExportWorker.KEY_URI, target.toString())
+                .putString(BookingExportWorker.KEY_REPORT, report.name())
+                .putString(BookingExportWorker.KEY_FORMAT, format.name())
+                .build())
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+        return request.getId();
+    }
+
+    private static TableWriter open(Report report, Format format, OutputStream out) throws IOException {
+        if (format == Format.PDF) {
+            String exported = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US).format(new Date());
+            return new PdfTableWriter(out, report.title + " (exported " + exported + ")", report.columnWeights);
+        }
+        return new CsvWriter(out);
+    }
+
+    private static long exportLedger(TourManagementDatabase database, TableWriter writer, String[] cells,
+                                     Progress progress) throws IOException {
+        long total = database.bookingDao().getTotalBookingsCountIncludingArchive();
+        long afterDate = Long.MIN_VALUE;
+        int afterId = -1;
+        long rows = 0;
+        int pageRows;
+        do {
+            if (progress.isCancelled()) {
+                throw new CancellationException("Export cancelled after " + rows + " rows");
+            }
+            try (Cursor cursor = database.bookingDao().getLedgerPage(afterDate, afterId, PAGE_SIZE)) {
+                int sortDate = cursor.getColumnIndexOrThrow("sortDate");
+                int bookingId = cursor.getColumnIndexOrThrow("bookingId");
+                pageRows = 0;
+                while (cursor.moveToNext()) {
+                    copyCells(cursor, cells);
+                    writer.writeRow(cells);
+                    afterDate = cursor.getLong(sortDate);
+                    afterId = cursor.getInt(bookingId);
+                    pageRows++;
+                }
+            }
+            rows += pageRows;
+            progress.onProgress(rows, total);
+        } while (pageRows == PAGE_SIZE);
+        return rows;
+    }
+
+    private static long copyRows(Cursor cursor, TableWriter writer, String[] cells) throws IOException {
+        long rows = 0;
+        while (cursor.moveToNext()) {
+            copyCells(cursor, cells);
+            writer.writeRow(cells);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Copies the leading report columns of the current row; trailing key columns are skipped
+     */
+    private static void copyCells(Cursor cursor, String[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = cursor.getString(i);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.BookingEvent;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Booking funnel metrics folded from the booking event log.
+ * Conversion rate, time to confirm and cancellation rate are each kept by
+ * an incremental consumer (see BookingEventConsumer), so loading them reads
+ * only the events since the last load instead of every booking.
+ *
+ * Rates are relative to created bookings. Bookings written already
+ * confirmed (samples, sync, history from before the log) have no measured
+ * confirmation delay and are left out of the average time to confirm.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class BookingFunnel {
+
+    /**
+     * Funnel figures at one point of the event log
+     */
+    public static final class Report {
+        /**
+         * Number of created bookings
+         */
+        public final long created;
+
+        /**
+         * Share of created bookings that were confirmed, 0 to 1
+         */
+        public final double conversionRate;
+
+        /**
+         * Share of created bookings that were paid, 0 to 1
+         */
+        public final double paymentRate;
+
+        /**
+         * Share of created bookings that were cancelled or expired, 0 to 1
+         */
+        public final double cancellationRate;
+
+        /**
+         * Average time from creation to confirmation in milliseconds, 0 without measured confirmations
+         */
+        public final long averageTimeToConfirmMs;
+
+        /**
+         * Number of new events folded by this load
+         */
+        public final int newEvents;
+
+        Report(long created, double conversionRate, double paymentRate, double cancellationRate,
+               long averageTimeToConfirmMs, int newEvents) {
+            this.created = created;
+            this.conversionRate = conversionRate;
+            this.paymentRate = paymentRate;
+            this.cancellationRate = cancellationRate;
+            this.averageTimeToConfirmMs = averageTimeToConfirmMs;
+            this.newEvents = newEvents;
+        }
+
+        /**
+         * Gets a one-line summary for logs
+         */
+        public String getSummary() {
+            return String.format(Locale.US, "%d booking(s): %.1f%% confirmed, %.1f%% paid, %.1f%% cancelled, " +
+                    "%d ms to confirm on average (%d new event(s))", created, conversionRate * 100,
+                paymentRate * 100, cancellationRate * 100, averageTimeToConfirmMs, newEvents);
+        }
+    }
+
+    /**
+     * Confirmed and paid bookings per created booking
+     */
+    public static final class ConversionRate extends BookingEventConsumer {
+
+        public ConversionRate() {
+            super("conversion_rate");
+        }
+
+        @Override
+        protected void fold(BookingEvent event) {
+            switch (event.getType()) {
+                case BookingEvent.TYPE_CREATED:
+                    add("created", 1);
+                    break;
+                case BookingEvent.TYPE_CONFIRMED:
+                    add("confirmed", 1);
+                    break;
+                case BookingEvent.TYPE_PAID:
+                    add("paid", 1);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        public long getCreated() {
+            return get("created");
+        }
+
+        public double getConversionRate() {
+            return ratio(get("confirmed"), get("created"));
+        }
+
+        public double getPaymentRate() {
+            return ratio(get("paid"), get("created"));
+        }
+    }
+
+    /**
+     * Average delay between creating and confirming a booking
+     */
+    public static final class TimeToConfirm extends BookingEventConsumer {
+
+        public TimeToConfirm() {
+            super("time_to_confirm");
+        }
+
+        @Override
+        protected void fold(BookingEvent event) {
+            long delay = event.getOccurredAt() - event.getBookingCreatedAt();
+            if (BookingEvent.TYPE_CONFIRMED.equals(event.getType()) && delay > 0) {
+                add("confirmations", 1);
+                add("totalMs", delay);
+            }
+        }
+
+        public long getAverageMs() {
+            long confirmations = get("confirmations");
+            return confirmations > 0 ? get("totalMs") / confirmations : 0L;
+        }
+    }
+
+    /**
+     * Cancelled (including expired) bookings per created booking
+     */
+    public static final class CancellationRate extends BookingEventConsumer {
+
+        public CancellationRate() {
+            super("cancellation_rate");
+        }
+
+        @Override
+        protected void fold(BookingEvent event) {
+            if (BookingEvent.TYPE_CREATED.equals(event.getType())) {
+                add("created", 1);
+            } else if (BookingEvent.TYPE_CANCELLED.equals(event.getType())) {
+                add("cancelled", 1);
+            }
+        }
+
+        public double getCancellationRate() {
+            return ratio(get("cancelled"), get("created"));
+        }
+    }
+
+    private BookingFunnel() {
+    }
+
+    /**
+     * Brings the funnel consumers up to date and reports their figures.
+     * Must be called from a background thread.
+     *
+     * @param database Database instance
+     * @return Report of the funnel
+     */
+    public static Report load(TourManagementDatabase database) {
+        ConversionRate conversion = new ConversionRate();
+        TimeToConfirm timeToConfirm = new TimeToConfirm();
+        CancellationRate cancellation = new CancellationRate();
+        int newEvents = BookingEvents.catchUp(database, Arrays.asList(conversion, timeToConfirm, cancellation));
+        return new Report(conversion.getCreated(), conversion.getConversionRate(), conversion.getPaymentRate(),
+            cancellation.getCancellationRate(), timeToConfirm.getAverageMs(), newEvents);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole > 0 ? Math.min(1.0, (double) part / whole) : 0.0;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Bulk confirmation and cancellation of pending bookings for admins.
+ * All selected bookings are updated with set-based UPDATE ... WHERE id IN (...)
+ * statements, their seats are released per tour and the customer emails are
+ * stored in the outbox, all in one transaction: either every change is
+ * applied or none is.
+ *
+ * Features:
+ * - One transaction for any number of bookings, in chunks below SQLite's variable limit
+ * - Progress reported per chunk
+ * - Bookings no longer pending (e.g. expired meanwhile) are skipped and reported
+ * - Customers whose notice could not be created are reported, without undoing the change
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BulkBookingActions {
+
+    private static final String TAG = "BulkBookingActions";
+
+    /**
+     * Bulk actions
+     */
+    public static final String CONFIRM = "CONFIRM";
+    public static final String CANCEL = "CANCEL";
+
+    /**
+     * Booking IDs bound per statement (SQLite allows 999 variables)
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.WRITE, TaskScheduler.Priority.NORMAL);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Storage operations used by the bulk actions
+     */
+    interface Store {
+        void runInTransaction(Runnable body);
+        List<Booking> getPendingBookings(List<Integer> bookingIds);
+        int updateStatus(List<Integer> bookingIds, String bookingStatus, String paymentStatus);
+        void releaseSeats(int tourId, int seats);
+
+        /**
+         * Stores the customer's notice for a booking with its new status
+         *
+         * @return false if the customer has no email address
+         */
+        boolean storeNotice(Booking booking);
+    }
+
+    /**
+     * Receives progress while the bookings are updated
+     */
+    public interface ProgressListener {
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Callback for a background run, invoked on the main thread
+     */
+    public interface Callback extends ProgressListener {
+        void onComplete(Result result);
+        void onError(Exception error);
+    }
+
+    /**
+     * Outcome of one bulk action
+     */
+    public static final class Result {
+        /**
+         * Action that was applied (CONFIRM or CANCEL)
+         */
+        public final String action;
+
+        /**
+         * Number of distinct bookings selected
+         */
+        public final int requested;
+
+        /**
+         * Bookings changed, with their new status
+         */
+        public final List<Booking> updated;
+
+        /**
+         * IDs of selected bookings that were no longer pending
+         */
+        public final List<Integer> skipped;
+
+        /**
+         * IDs of updated bookings whose customer could not be notified
+         */
+        public final List<Integer> notNotified;
+
+        Result(String action, int requested, List<Booking> updated, List<Integer> skipped, List<Integer> notNotified) {
+            this.action = action;
+            this.requested = requested;
+            this.updated = updated;
+            this.skipped = skipped;
+            this.notNotified = notNotified;
+        }
+
+        /**
+         * Checks whether any selected booking was not processed completely
+         */
+        public boolean isPartial() {
+            return !skipped.isEmpty() || !notNotified.isEmpty();
+        }
+
+        /**
+         * Gets a one-line summary for the admin
+         */
+        public String getSummary() {
+            String summary = String.format(Locale.US, "%s %d of %d booking(s)",
+                CONFIRM.equals(action) ? "Confirmed" : "Cancelled", updated.size(), requested);
+            if (!skipped.isEmpty()) {
+                summary += String.format(Locale.US, "; %d skipped (no longer pending)", skipped.size());
+            }
+            if (!notNotified.isEmpty()) {
+                summary += String.format(Locale.US, "; %d customer(s) not notified", notNotified.size());
+            }
+            return summary;
+        }
+    }
+
+    private final Store store;
+
+    BulkBookingActions(Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Creates bulk actions backed by the app database
+     *
+     * @param context Any context
+     * @param database Database instance
+     * @return Bulk actions
+     */
+    public static BulkBookingActions create(Context context, TourManagementDatabase database) {
+        Context appContext = context.getApplicationContext();
+        EntityCache entityCache = EntityCache.getInstance(appContext);
+        return new BulkBookingActions(new Store() {
+            @Override
+            public void runInTransaction(Runnable body) {
+                database.runInTransaction(body);
+            }
+
+            @Override
+            public List<Booking> getPendingBookings(List<Integer> bookingIds) {
+                return database.bookingDao().getPendingBookingsByIds(bookingIds);
+            }
+
+            @Override
+            public int updateStatus(List<Integer> bookingIds, String bookingStatus, String paymentStatus) {
+                return database.bookingDao().updatePendingBookingsStatus(bookingIds, bookingStatus, paymentStatus);
+            }
+
+            @Override
+            public void releaseSeats(int tourId, int seats) {
+                database.tourDao().updateBookingCount(tourId, -seats);
+            }
+
+            @Override
+            public boolean storeNotice(Booking booking) {
+                User user = entityCache.getUser(booking.getUserId());
+                Tour tour = entityCache.getTour(booking.getTourId());
+                if (user == null || tour == null || user.getEmail() == null || user.getEmail().isEmpty()) {
+                    return false;
+                }
+                EmailService.storeBookingStatusEmail(appContext, database, user, tour, booking);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Confirms or cancels the selected bookings in one transaction.
+     * Confirmed bookings are marked PAID; cancelled bookings release their seats.
+     * Must be called from a background thread.
+     *
+     * @param action CONFIRM or CANCEL
+     * @param bookingIds IDs of the selected bookings
+     * @param progress Progress listener, called on the calling thread (may be null)
+     * @return Changed, skipped and unnotified bookings
+     */
+    public Result apply(String action, List<Integer> bookingIds, ProgressListener progress) {
+        boolean confirm = CONFIRM.equals(action);
+        if (!confirm && !CANCEL.equals(action)) {
+            throw new IllegalArgumentException("Unknown bulk action: " + action);
+        }
+        String bookingStatus = confirm ? "CONFIRMED" : "CANCELLED";
+        String paymentStatus = confirm ? "PAID" : "CANCELLED";
+
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(bookingIds));
+        List<Booking> updated = new ArrayList<>();
+        List<Integer> skipped = new ArrayList<>();
+        List<Integer> notNotified = new ArrayList<>();
+
+        store.runInTransaction(() -> {
+            for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size()));
+                List<Booking> pending = store.getPendingBookings(chunk);
+
+                Map<Integer, Booking> pendingById = new HashMap<>();
+                for (Booking booking : pending) {
+                    pendingById.put(booking.getId(), booking);
+                }
+                for (Integer id : chunk) {
+                    if (!pendingById.containsKey(id)) {
+                        skipped.add(id);
+                    }
+                }
+
+                if (!pending.isEmpty()) {
+                    store.updateStatus(new ArrayList<>(pendingById.keySet()), bookingStatus, paymentStatus);
+                    for (Booking booking : pending) {
+                        booking.setBookingStatus(bookingStatus);
+                        booking.setPaymentStatus(paymentStatus);
+                    }
+                    updated.addAll(pending);
+                }
+
+                if (progress != null) {
+                    progress.onProgress(Math.min(start + CHUNK_SIZE, ids.size()), ids.size());
+                }
+            }
+
+            if (!confirm) {
+                for (Map.Entry<Integer, Integer> entry : BookingExpiry.seatsByTour(updated).entrySet()) {
+                    store.releaseSeats(entry.getKey(), entry.getValue());
+                }
+            }
+
+            for (Booking booking : updated) {
+                try {
+                    if (!store.storeNotice(booking)) {
+                        notNotified.add(booking.getId());
+                    }
+                } catch (IllegalStateException e) {
+                    // A notice that cannot be rendered must not undo the status change
+                    Log.e(TAG, "Failed to create notice for booking " + booking.getId(), e);
+                    notNotified.add(booking.getId());
+                }
+            }
+        });
+
+        Result result = new Result(action, ids.size(), updated, skipped, notNotified);
+        Log.i(TAG, result.getSummary());
+        return result;
+    }
+
+    /**
+     * Runs a bulk action in the background and schedules delivery of the notices
+     *
+     * @param context Any context
+     * @param action CONFIRM or CANCEL
+     * @param bookingIds IDs of the selected bookings
+     * @param callback Callback invoked on the main thread
+     */
+    public static void applyAsync(Context context, String action, List<Integer> bookingIds, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        List<Integer> ids = new ArrayList<>(bookingIds);
+        EXECUTOR.execute(() -> {
+            try {
+                TourManagementDatabase database = TourManagementDatabase.getDatabase(appContext);
+                Result result = create(appContext, database).apply(action, ids,
+                    (processed, total) -> MAIN_HANDLER.post(() -> callback.onProgress(processed, total)));
+
+                if (!result.updated.isEmpty()) {
+                    EntityCache entityCache = EntityCache.getInstance(appContext);
+                    for (Integer tourId : BookingExpiry.seatsByTour(result.updated).keySet()) {
+                        entityCache.invalidateTour(tourId);
+                    }
+                    EmailOutbox.scheduleDrain(appContext);
+                    NotificationDigests.reschedule(appContext, database);
+                    BookingExpiry.reschedule(appContext);
+                }
+                MAIN_HANDLER.post(() -> callback.onComplete(result));
+            } catch (Exception e) {
+                Log.e(TAG, "Bulk " + action + " failed", e);
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.dao.TourDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.CapacityDrift;
+import com.example.tourmanagement.worker.CapacityReconcileWorker;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repairs the denormalized booking counter of tours.
+ * Tour.currentBookings is adjusted incrementally when bookings are made or
+ * cancelled, so a failed step or a stale tour edit can leave it wrong. The
+ * reconciler recomputes the booked seats of every tour from its non-cancelled
+ * bookings and fixes the tours that differ.
+ *
+ * Features:
+ * - One grouped query over live and archived bookings for all tours
+ * - All repairs in a single transaction, so readers never see a half-fixed state
+ * - Report of the drift found, logged and shown in admin settings
+ * - Daily background run plus on-demand runs
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class CapacityReconciler {
+
+    private static final String TAG = "CapacityReconciler";
+
+    /**
+     * Unique WorkManager name of the daily reconcile job
+     */
+    public static final String WORK_NAME = "capacity_reconcile";
+
+    /**
+     * Only this many drifted tours are logged individually
+     */
+    private static final int MAX_LOGGED_DRIFTS = 20;
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.ANALYTICS, TaskScheduler.Priority.LOW);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Outcome of one reconcile run
+     */
+    public static final class Report {
+        /**
+         * Number of tours whose counter was repaired
+         */
+        public final int driftedTours;
+
+        /**
+         * Sum of the absolute differences between stored and actual seats
+         */
+        public final int seatDrift;
+
+        /**
+         * Number of tours with more booked seats than capacity
+         */
+        public final int overbookedTours;
+
+        /**
+         * Duration of the run in milliseconds
+         */
+        public final long durationMs;
+
+        Report(int driftedTours, int seatDrift, int overbookedTours, long durationMs) {
+            this.driftedTours = driftedTours;
+            this.seatDrift = seatDrift;
+            this.overbookedTours = overbookedTours;
+            this.durationMs = durationMs;
+        }
+
+        /**
+         * @return Human readable one-line summary
+         */
+        public String getSummary() {
+            if (driftedTours == 0) {
+                return String.format(Locale.US, "All seat counts were correct (%d ms)", durationMs);
+            }
+            String summary = String.format(Locale.US, "Fixed %d tour(s), %d seat(s) off in total (%d ms)",
+                driftedTours, seatDrift, durationMs);
+            if (overbookedTours > 0) {
+                summary += String.format(Locale.US, "; %d tour(s) are overbooked", overbookedTours);
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Callback for an on-demand run, invoked on the main thread
+     */
+    public interface Callback {
+        void onComplete(Report report);
+        void onError(Exception error);
+    }
+
+    private CapacityReconciler() {
+    }
+
+    /**
+     * Recomputes and repairs the booking counter of every tour.
+     * Must be called from a background thread.
+     *
+     * @param database Database instance
+     * @return Report of the drift that was found and fixed
+     */
+    public static Report reconcile(TourManagementDatabase database) {
+        long start = System.currentTimeMillis();
+        TourDao tourDao = database.tourDao();
+
+        // Detect and repair inside one transaction so no booking can slip in between
+        List<CapacityDrift> drifts = database.runInTransaction(() -> {
+            List<CapacityDrift> found = tourDao.getCapacityDrift();
+            for (CapacityDrift drift : found) {
+                tourDao.setBookingCount(drift.tourId, drift.actualBookings);
+            }
+            return found;
+        });
+
+        int seatDrift = 0;
+        int overbooked = 0;
+        for (int i = 0; i < drifts.size(); i++) {
+            CapacityDrift drift = drifts.get(i);
+            seatDrift += Math.abs(drift.actualBookings - drift.recordedBookings);
+            if (drift.actualBookings > drift.capacity) {
+                overbooked++;
+            }
+            if (i < MAX_LOGGED_DRIFTS) {
+                Log.w(TAG, "Tour " + drift.tourId + ": recorded " + drift.recordedBookings
+                    + " seats, actual " + drift.actualBookings);
+            }
+        }
+
+        Report report = new Report(drifts.size(), seatDrift, overbooked, System.currentTimeMillis() - start);
+        Log.i(TAG, report.getSummary());
+        return report;
+    }
+
+    /**
+     * Runs the reconciler in the background, e.g. from admin settings
+     *
+     * @param context Any context
+     * @param callback Callback invoked on the main thread
+     */
+    public static void reconcileAsync(Context context, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                Report report = reconcile(TourManagementDatabase.getDatabase(appContext));
+                MAIN_HANDLER.post(() -> callback.onComplete(report));
+            } catch (Exception e) {
+                Log.e(TAG, "Capacity reconcile failed", e);
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Schedules the daily reconcile job; an existing schedule is kept
+     *
+     * @param context Any context
+     */
+    public static void schedulePeriodic(Context context) {
+        Constraints constraints = new Constraints.Builder()
+            .setRequiresBatteryNotLow(true)
+            .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(CapacityReconcileWorker.class, 1, TimeUnit.DAYS)
+            .setConstraints(constraints)
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+}
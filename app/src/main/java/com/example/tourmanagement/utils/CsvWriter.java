@@ -0,0 +1,99 @@
+package com.example.tourmanagement.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV writer for exports.
+ * Writes UTF-8 with a byte order mark and CRLF line endings, which is what
+ * spreadsheet applications expect. Cells that a spreadsheet would evaluate
+ * as a formula (starting with =, + or @) are prefixed with an apostrophe.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class CsvWriter implements TableWriter {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Writer out;
+
+    /**
+     * Creates a writer on a stream
+     *
+     * @param stream Destination; closed by close()
+     */
+    public CsvWriter(OutputStream stream) throws IOException {
+        this(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        out.write(BYTE_ORDER_MARK);
+    }
+
+    /**
+     * Creates a writer without byte order mark
+     *
+     * @param out Destination; closed by close()
+     */
+    CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        writeRow(columns);
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeCell(cells[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeCell(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean formula = isFormulaStart(value.charAt(0));
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Negative numbers are left alone so amounts stay numeric
+     */
+    private static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '@';
+    }
+}
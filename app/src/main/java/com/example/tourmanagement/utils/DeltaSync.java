@@ -0,0 +1,722 @@
+package com.example.tourmanagement.utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.dao.SyncDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.SyncInboxEntry;
+import com.example.tourmanagement.model.SyncRow;
+import com.example.tourmanagement.worker.DeltaSyncWorker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Offline-first delta sync of users, tours and bookings with a sync server.
+ * Every device keeps working on its own database. SQLite triggers on the
+ * synced tables record each insert, update and delete in sync_rows with a
+ * monotonic version, the change time and a tombstone flag. A sync pushes the
+ * rows changed since the last pushed version, then pulls the server changes
+ * since the last pull token; both in batches of gzip-compressed JSON.
+ *
+ * Rows are identified across devices by global IDs, and bookings reference
+ * their user and tour by global ID on the wire. Pulled changes go through
+ * the sync_inbox table and are applied parents first, so a booking whose
+ * tour arrives in a later page waits there instead of being lost.
+ *
+ * The server is authoritative for seat counts: it accepts or cancels pushed
+ * bookings against tour capacity and sends back the tour with its booked
+ * seats, which replaces the local count. Apart from that, the last change
+ * accepted by the server wins.
+ *
+ * Features:
+ * - Server URL set in admin settings; sync is off without one
+ * - Hourly background sync on WorkManager when online, plus on-demand runs
+ * - Failed runs retried with exponential backoff
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class DeltaSync {
+
+    private static final String TAG = "DeltaSync";
+
+    /**
+     * Unique WorkManager names of the on-demand and the hourly sync
+     */
+    public static final String WORK_NAME = "delta_sync";
+    public static final String PERIODIC_WORK_NAME = "delta_sync_periodic";
+
+    /**
+     * Synced tables, parents before the tables referencing them
+     */
+    static final String[] TABLES = {"users", "tours", "bookings"};
+
+    /**
+     * Columns pushed and applied per synced table. Users carry only the identity
+     * bookings need: credentials and roles never leave the device or arrive from
+     * the server, so a pulled user cannot sign in until their password is reset.
+     */
+    static final Map<String, Set<String>> SYNCED_COLUMNS = new HashMap<>();
+
+    /**
+     * Local values of NOT NULL columns that are not synced, set when a pulled row is inserted.
+     * A pulled user is a regular user who must choose a password before signing in.
+     */
+    static final Map<String, ContentValues> INSERT_DEFAULTS = new HashMap<>();
+
+    static {
+        SYNCED_COLUMNS.put("users", columnSet("username", "email", "phoneNumber", "fullName", "createdAt"));
+        SYNCED_COLUMNS.put("tours", columnSet("tourName", "tourNameFolded", "tourImage", "tourLocation",
+            "tourLocationFolded", "tourTime", "tourDescription", "tourCost", "numberOfPeoples", "currentBookings",
+            "duration", "isActive", "createdAt"));
+        SYNCED_COLUMNS.put("bookings", columnSet("userId", "tourId", "numberOfPeople", "totalAmount",
+            "bookingStatus", "paymentStatus", "qrCode", "bookingReference", "bookingDate", "notes", "expiresAt"));
+
+        ContentValues userDefaults = new ContentValues();
+        userDefaults.put("isAdmin", 0);
+        userDefaults.put("mustChangePassword", 1);
+        userDefaults.put("passwordResetAt", 0L);
+        INSERT_DEFAULTS.put("users", userDefaults);
+    }
+
+    /**
+     * Changes per push request, pull page and apply transaction
+     */
+    static final int BATCH_SIZE = 200;
+
+    /**
+     * First retry delay of a failed run; WorkManager doubles it per attempt
+     */
+    static final long BASE_BACKOFF_MS = 30_000L;
+
+    private static final String PREF_NAME = "TourManagementPrefs";
+    private static final String KEY_SERVER_URL = "sync_server_url";
+
+    /**
+     * Trigger expressions: tracking is off while pulled changes are applied
+     */
+    private static final String TRACKING = "(SELECT applying FROM sync_state WHERE id = 1) = 0";
+    private static final String NOW = "CAST(strftime('%s', 'now') AS INTEGER) * 1000";
+    private static final String NEXT_VERSION = "(SELECT MAX(IFNULL((SELECT MAX(version) FROM sync_rows), 0), " +
+        "pushedVersion) + 1 FROM sync_state WHERE id = 1)";
+    private static final String DEVICE_ID = "(SELECT deviceId FROM sync_state WHERE id = 1)";
+
+    /**
+     * One sync at a time, whether started by the worker or from settings
+     */
+    private static final Object SYNC_LOCK = new Object();
+
+    private static final Executor EXECUTOR =
+        TaskScheduler.getInstance().serialExecutor(TaskScheduler.Pool.IO, TaskScheduler.Priority.NORMAL);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Outcome of one sync
+     */
+    public static final class Report {
+        /**
+         * Number of local changes pushed
+         */
+        public final int pushed;
+
+        /**
+         * Number of pushed changes the server overruled (e.g. bookings of a full tour)
+         */
+        public final int conflicts;
+
+        /**
+         * Number of server changes pulled
+         */
+        public final int pulled;
+
+        /**
+         * Number of pulled changes applied to the local database
+         */
+        public final int applied;
+
+        /**
+         * Number of pulled changes waiting for a referenced row
+         */
+        public final int waiting;
+
+        /**
+         * Run time in milliseconds
+         */
+        public final long durationMs;
+
+        Report(int pushed, int conflicts, int pulled, int applied, int waiting, long durationMs) {
+            this.pushed = pushed;
+            this.conflicts = conflicts;
+            this.pulled = pulled;
+            this.applied = applied;
+            this.waiting = waiting;
+            this.durationMs = durationMs;
+        }
+
+        /**
+         * Gets a one-line summary for logs and admin settings
+         */
+        public String getSummary() {
+            String summary = String.format(Locale.US, "Pushed %d, pulled %d, applied %d change(s) (%d ms)",
+                pushed, pulled, applied, durationMs);
+            if (conflicts > 0) {
+                summary += String.format(Locale.US, "; %d overruled by the server", conflicts);
+            }
+            if (waiting > 0) {
+                summary += String.format(Locale.US, "; %d waiting", waiting);
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Callback for an on-demand sync, invoked on the main thread
+     */
+    public interface Callback {
+        void onComplete(Report report);
+        void onError(Exception error);
+    }
+
+    private DeltaSync() {
+    }
+
+    /**
+     * Gets the sync server URL
+     *
+     * @param context Any context
+     * @return Server URL, empty if sync is off or the stored URL is not https
+     */
+    public static String getServerUrl(Context context) {
+        String serverUrl = prefs(context).getString(KEY_SERVER_URL, "");
+        return isValidServerUrl(serverUrl) ? serverUrl : "";
+    }
+
+    /**
+     * Checks a sync server URL; only https is accepted, as syncs carry customer data
+     *
+     * @param serverUrl Server URL
+     * @return true if the URL is https or empty
+     */
+    public static boolean isValidServerUrl(String serverUrl) {
+        String trimmed = serverUrl.trim();
+        return trimmed.isEmpty() || (trimmed.regionMatches(true, 0, "https://", 0, 8) && trimmed.length() > 8);
+    }
+
+    /**
+     * Sets the sync server URL and starts or stops the hourly sync
+     *
+     * @param context Any context
+     * @param serverUrl Server URL, empty to turn sync off
+     * @throws IllegalArgumentException if the URL is not https
+     */
+    public static void setServerUrl(Context context, String serverUrl) {
+        if (!isValidServerUrl(serverUrl)) {
+            throw new IllegalArgumentException("Sync server URL must start with https://");
+        }
+        prefs(context).edit().putString(KEY_SERVER_URL, serverUrl.trim()).apply();
+        schedulePeriodic(context);
+    }
+
+    /**
+     * Creates the sync state row and the change triggers if they do not exist yet
+     *
+     * @param db Database being opened or migrated
+     */
+    public static void install(SupportSQLiteDatabase db) {
+        db.execSQL("INSERT OR IGNORE INTO sync_state (id, deviceId, pushedVersion, pullToken, applying, lastSyncAt) " +
+            "VALUES (1, lower(hex(randomblob(8))), 0, NULL, 0, 0)");
+        for (String table : TABLES) {
+            String key = "tableName = '" + table + "' AND rowId = ";
+            // Insert or update: start tracking the row if needed, then give it the next version
+            String track = "INSERT OR IGNORE INTO sync_rows (tableName, rowId, globalId, version, updatedAt, deleted) " +
+                "VALUES ('" + table + "', NEW.id, " + DEVICE_ID + " || '/" + table + "/' || NEW.id, 0, " + NOW + ", 0); " +
+                "UPDATE sync_rows SET version = " + NEXT_VERSION + ", updatedAt = " + NOW + ", deleted = 0 " +
+                "WHERE " + key + "NEW.id;";
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS sync_" + table + "_insert AFTER INSERT ON " + table + " " +
+                "WHEN " + TRACKING + " BEGIN " + track + " END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS sync_" + table + "_update AFTER UPDATE ON " + table + " " +
+                "WHEN " + TRACKING + " BEGIN " + track + " END");
+            // Archiving moves a booking rather than deleting it, so it leaves no tombstone
+            String archived = "bookings".equals(table)
+                ? " AND NOT EXISTS (SELECT 1 FROM bookings_archive WHERE id = OLD.id)" : "";
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS sync_" + table + "_delete AFTER DELETE ON " + table + " " +
+                "WHEN " + TRACKING + archived + " BEGIN " +
+                "UPDATE sync_rows SET deleted = 1, version = " + NEXT_VERSION + ", updatedAt = " + NOW + " " +
+                "WHERE " + key + "OLD.id; END");
+        }
+    }
+
+    /**
+     * Starts tracking every existing row, parents first, as if just created on this device
+     * The sync state row must exist.
+     *
+     * @param db Database being migrated
+     */
+    public static void trackExistingRows(SupportSQLiteDatabase db) {
+        for (String table : TABLES) {
+            // The offset is evaluated once, so versions stay unique and ordered by table
+            db.execSQL("INSERT OR IGNORE INTO sync_rows (tableName, rowId, globalId, version, updatedAt, deleted) " +
+                "SELECT '" + table + "', id, " + DEVICE_ID + " || '/" + table + "/' || id, " +
+                "id + (SELECT IFNULL(MAX(version), 0) FROM sync_rows), " + NOW + ", 0 FROM " + table);
+        }
+    }
+
+    /**
+     * Pushes local changes and pulls server changes.
+     * Must be called from a background thread.
+     *
+     * @param database Database instance
+     * @param serverUrl Sync server URL
+     * @return Report of the sync
+     * @throws IOException If the server could not be reached; the sync can be retried
+     */
+    public static Report sync(TourManagementDatabase database, String serverUrl) throws IOException {
+        synchronized (SYNC_LOCK) {
+            long start = System.currentTimeMillis();
+            SyncDao syncDao = database.syncDao();
+            SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+            SyncClient client = new SyncClient(serverUrl, syncDao.getState().getDeviceId());
+
+            int[] pushed = push(database, db, client);
+            int pulled = pull(database, client);
+            int applied = applyInbox(database, db);
+
+            syncDao.setLastSyncAt(System.currentTimeMillis());
+            Report report = new Report(pushed[0], pushed[1], pulled, applied, syncDao.countInbox(),
+                System.currentTimeMillis() - start);
+            Log.i(TAG, report.getSummary());
+            return report;
+        }
+    }
+
+    /**
+     * Syncs in the background, e.g. from admin settings
+     *
+     * @param context Any context
+     * @param callback Callback invoked on the main thread
+     */
+    public static void syncAsync(Context context, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        String serverUrl = getServerUrl(appContext);
+        EXECUTOR.execute(() -> {
+            try {
+                if (serverUrl.isEmpty()) {
+                    throw new IllegalStateException("No sync server set");
+                }
+                Report report = sync(TourManagementDatabase.getDatabase(appContext), serverUrl);
+                MAIN_HANDLER.post(() -> callback.onComplete(report));
+            } catch (Exception e) {
+                Log.e(TAG, "Sync failed", e);
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Schedules a sync as soon as the device is online, e.g. after a booking
+     * A request made during a running sync queues another run, so the new change
+     * is not left for the hourly sync. Does nothing while sync is off.
+     *
+     * @param context Any context
+     */
+    public static void requestSync(Context context) {
+        if (getServerUrl(context).isEmpty()) {
+            return;
+        }
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(DeltaSyncWorker.class)
+            .setConstraints(onlineConstraints())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BASE_BACKOFF_MS, TimeUnit.MILLISECONDS)
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    /**
+     * Schedules the hourly sync while a server is set, and cancels it otherwise
+     *
+     * @param context Any context
+     */
+    public static void schedulePeriodic(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        if (getServerUrl(context).isEmpty()) {
+            workManager.cancelUniqueWork(PERIODIC_WORK_NAME);
+            return;
+        }
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(DeltaSyncWorker.class, 1, TimeUnit.HOURS)
+            .setConstraints(onlineConstraints())
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BASE_BACKOFF_MS, TimeUnit.MILLISECONDS)
+            .build();
+        workManager.enqueueUniquePeriodicWork(PERIODIC_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Pushes pending changes batch by batch; each accepted batch moves the pushed version on
+     *
+     * @return Number of pushed changes and of changes the server overruled
+     */
+    private static int[] push(TourManagementDatabase database, SupportSQLiteDatabase db, SyncClient client)
+            throws IOException {
+        SyncDao syncDao = database.syncDao();
+        int pushed = 0;
+        int conflicts = 0;
+        while (true) {
+            List<SyncRow> rows = syncDao.getChangesAfter(syncDao.getState().getPushedVersion(), BATCH_SIZE);
+            if (rows.isEmpty()) {
+                return new int[] {pushed, conflicts};
+            }
+            JSONArray changes = new JSONArray();
+            for (String table : TABLES) {
+                // Parents first within the batch, so the server can check bookings against their tour
+                for (SyncRow row : rows) {
+                    if (row.getTableName().equals(table)) {
+                        JSONObject change = encodeChange(database, db, row);
+                        if (change != null) {
+                            changes.put(change);
+                        }
+                    }
+                }
+            }
+            if (changes.length() > 0) {
+                JSONObject answer = client.push(changes);
+                pushed += changes.length();
+                conflicts += answer.optInt("conflicts", 0);
+            }
+            syncDao.setPushedVersion(rows.get(rows.size() - 1).getVersion());
+        }
+    }
+
+    /**
+     * Pulls server changes page by page into the inbox; each stored page moves the pull token on
+     *
+     * @return Number of pulled changes
+     */
+    private static int pull(TourManagementDatabase database, SyncClient client) throws IOException {
+        SyncDao syncDao = database.syncDao();
+        int pulled = 0;
+        boolean hasMore = true;
+        while (hasMore) {
+            JSONObject page = client.pull(syncDao.getState().getPullToken(), BATCH_SIZE);
+            JSONArray changes = page.optJSONArray("changes");
+            String token = page.optString("token", null);
+            hasMore = page.optBoolean("hasMore", false);
+            if (token == null) {
+                throw new IOException("Sync server sent no pull token");
+            }
+
+            List<SyncInboxEntry> entries = new ArrayList<>();
+            for (int i = 0; changes != null && i < changes.length(); i++) {
+                JSONObject change = changes.optJSONObject(i);
+                String table = change != null ? change.optString("table") : "";
+                if (!isSyncedTable(table) || change.optString("id").isEmpty()) {
+                    Log.w(TAG, "Skipping malformed change " + change);
+                    continue;
+                }
+                SyncInboxEntry entry = new SyncInboxEntry();
+                entry.setGlobalId(change.optString("id"));
+                entry.setTableName(table);
+                entry.setDeleted(change.optBoolean("deleted", false));
+                JSONObject row = change.optJSONObject("row");
+                entry.setPayload(row != null ? row.toString() : null);
+                entry.setServerSeq(change.optLong("seq", 0));
+                entries.add(entry);
+            }
+
+            database.runInTransaction(() -> {
+                syncDao.insertInbox(entries);
+                syncDao.setPullToken(token);
+            });
+            pulled += entries.size();
+        }
+        return pulled;
+    }
+
+    /**
+     * Applies waiting pulled changes, parents first, one transaction per batch.
+     * Changes whose user or tour is not known yet stay in the inbox for the next sync.
+     *
+     * @return Number of applied changes
+     */
+    private static int applyInbox(TourManagementDatabase database, SupportSQLiteDatabase db) {
+        SyncDao syncDao = database.syncDao();
+        Map<String, Set<String>> columns = new HashMap<>();
+        for (String table : TABLES) {
+            Set<String> known = columnsOf(db, table);
+            known.retainAll(SYNCED_COLUMNS.get(table));
+            columns.put(table, known);
+        }
+
+        long pushedVersion = syncDao.getState().getPushedVersion();
+        int applied = 0;
+        int afterRank = -1;
+        long afterSeq = 0;
+        while (true) {
+            List<SyncInboxEntry> page = syncDao.getInboxPage(afterRank, afterSeq, BATCH_SIZE);
+            if (page.isEmpty()) {
+                return applied;
+            }
+            SyncInboxEntry last = page.get(page.size() - 1);
+            afterRank = rankOf(last.getTableName());
+            afterSeq = last.getServerSeq();
+
+            List<String> done = database.runInTransaction(() -> {
+                List<String> globalIds = new ArrayList<>();
+                syncDao.setApplying(true);
+                for (SyncInboxEntry entry : page) {
+                    if (apply(syncDao, db, entry, columns.get(entry.getTableName()), pushedVersion)) {
+                        globalIds.add(entry.getGlobalId());
+                    }
+                }
+                syncDao.setApplying(false);
+                if (!globalIds.isEmpty()) {
+                    syncDao.deleteInbox(globalIds);
+                }
+                return globalIds;
+            });
+            applied += done.size();
+        }
+    }
+
+    /**
+     * Applies one pulled change with tracking switched off
+     * A row changed here since the last push keeps the local change.
+     *
+     * @return false if a referenced row is not known yet, so the change must wait
+     */
+    private static boolean apply(SyncDao syncDao, SupportSQLiteDatabase db, SyncInboxEntry entry, Set<String> columns,
+                                 long pushedVersion) {
+        String table = entry.getTableName();
+        SyncRow tracked = syncDao.getRowByGlobalId(entry.getGlobalId());
+        if (tracked != null && tracked.getVersion() > pushedVersion) {
+            return true;
+        }
+        try {
+            if (entry.isDeleted() || entry.getPayload() == null) {
+                if (tracked != null && !tracked.isDeleted()) {
+                    db.delete(table, "id = ?", new Object[] {tracked.getRowId()});
+                    tracked.setDeleted(true);
+                    tracked.setVersion(0);
+                    syncDao.upsertRow(tracked);
+                }
+                return true;
+            }
+
+            ContentValues values = decodeRow(syncDao, table, new JSONObject(entry.getPayload()), columns);
+            if (values == null) {
+                return false;
+            }
+
+            if (tracked != null && !tracked.isDeleted()) {
+                if (db.update(table, SQLiteDatabase.CONFLICT_ABORT, values, "id = ?",
+                        new Object[] {tracked.getRowId()}) > 0) {
+                    // As on the server now; not pushed back
+                    tracked.setVersion(0);
+                    syncDao.upsertRow(tracked);
+                    return true;
+                }
+                if ("bookings".equals(table) && isArchived(db, tracked.getRowId())) {
+                    // Archived here; the archive keeps its copy
+                    return true;
+                }
+            }
+
+            ContentValues defaults = INSERT_DEFAULTS.get(table);
+            if (defaults != null) {
+                values.putAll(defaults);
+            }
+            long rowId = db.insert(table, SQLiteDatabase.CONFLICT_ABORT, values);
+            SyncRow row = new SyncRow();
+            row.setTableName(table);
+            row.setRowId((int) rowId);
+            row.setGlobalId(entry.getGlobalId());
+            row.setUpdatedAt(System.currentTimeMillis());
+            syncDao.upsertRow(row);
+            return true;
+        } catch (JSONException | SQLException e) {
+            // A change that can never apply must not block the inbox
+            Log.e(TAG, "Dropping unusable change of " + entry.getGlobalId(), e);
+            return true;
+        }
+    }
+
+    /**
+     * Encodes the synced columns of a tracked row for the server, references as global IDs
+     *
+     * @return Change, or null if the row vanished before its tombstone was written
+     */
+    private static JSONObject encodeChange(TourManagementDatabase database, SupportSQLiteDatabase db, SyncRow row) {
+        try {
+            JSONObject change = new JSONObject()
+                .put("table", row.getTableName())
+                .put("id", row.getGlobalId())
+                .put("deleted", row.isDeleted())
+                .put("updatedAt", row.getUpdatedAt());
+            if (row.isDeleted()) {
+                return change;
+            }
+
+            try (Cursor cursor = db.query("SELECT * FROM " + row.getTableName() + " WHERE id = ?",
+                    new Object[] {row.getRowId()})) {
+                if (!cursor.moveToFirst()) {
+                    return null;
+                }
+                Set<String> synced = SYNCED_COLUMNS.get(row.getTableName());
+                JSONObject values = new JSONObject();
+                for (int i = 0; i < cursor.getColumnCount(); i++) {
+                    String column = cursor.getColumnName(i);
+                    if (!synced.contains(column)) {
+                        continue;
+                    }
+                    String parent = parentTable(row.getTableName(), column);
+                    if (parent != null) {
+                        SyncRow parentRow = database.syncDao().getRow(parent, cursor.getInt(i));
+                        values.put(column, parentRow != null ? parentRow.getGlobalId() : JSONObject.NULL);
+                        continue;
+                    }
+                    switch (cursor.getType(i)) {
+                        case Cursor.FIELD_TYPE_INTEGER:
+                            values.put(column, cursor.getLong(i));
+                            break;
+                        case Cursor.FIELD_TYPE_FLOAT:
+                            values.put(column, cursor.getDouble(i));
+                            break;
+                        case Cursor.FIELD_TYPE_STRING:
+                            values.put(column, cursor.getString(i));
+                            break;
+                        default:
+                            values.put(column, JSONObject.NULL);
+                            break;
+                    }
+                }
+                return change.put("row", values);
+            }
+        } catch (JSONException e) {
+            throw new IllegalStateException("Could not encode " + row.getGlobalId(), e);
+        }
+    }
+
+    /**
+     * Decodes pulled column values, references mapped back to local IDs
+     * Columns this schema does not know or that are not synced are ignored.
+     *
+     * @return Values, or null if a referenced row is not known yet
+     */
+    private static ContentValues decodeRow(SyncDao syncDao, String table, JSONObject row, Set<String> columns)
+            throws JSONException {
+        ContentValues values = new ContentValues();
+        Iterator<String> keys = row.keys();
+        while (keys.hasNext()) {
+            String column = keys.next();
+            if (!columns.contains(column)) {
+                continue;
+            }
+            Object value = row.get(column);
+            if (parentTable(table, column) != null) {
+                SyncRow parentRow = value instanceof String ? syncDao.getRowByGlobalId((String) value) : null;
+                if (parentRow == null || parentRow.isDeleted()) {
+                    return null;
+                }
+                values.put(column, parentRow.getRowId());
+            } else if (value == JSONObject.NULL) {
+                values.putNull(column);
+            } else if (value instanceof Integer || value instanceof Long) {
+                values.put(column, ((Number) value).longValue());
+            } else if (value instanceof Number) {
+                values.put(column, ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                values.put(column, (Boolean) value ? 1 : 0);
+            } else {
+                values.put(column, value.toString());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the table a column references by local ID, or null if it is a plain column
+     */
+    private static String parentTable(String table, String column) {
+        if ("bookings".equals(table)) {
+            if ("userId".equals(column)) {
+                return "users";
+            }
+            if ("tourId".equals(column)) {
+                return "tours";
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> columnSet(String... columns) {
+        return new HashSet<>(Arrays.asList(columns));
+    }
+
+    private static Set<String> columnsOf(SupportSQLiteDatabase db, String table) {
+        Set<String> columns = new HashSet<>();
+        try (Cursor cursor = db.query("PRAGMA table_info(" + table + ")")) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(nameIndex));
+            }
+        }
+        return columns;
+    }
+
+    private static boolean isArchived(SupportSQLiteDatabase db, int bookingId) {
+        try (Cursor cursor = db.query("SELECT 1 FROM bookings_archive WHERE id = ?", new Object[] {bookingId})) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    private static boolean isSyncedTable(String table) {
+        return rankOf(table) >= 0;
+    }
+
+    private static int rankOf(String table) {
+        for (int i = 0; i < TABLES.length; i++) {
+            if (TABLES[i].equals(table)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Constraints onlineConstraints() {
+        return new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.OutboxEmail;
+import com.example.tourmanagement.worker.EmailOutboxWorker;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent outgoing email queue.
+ * Emails are stored in the email_outbox table and delivered by
+ * EmailOutboxWorker, which WorkManager runs when the device is online.
+ * Queued emails survive process death and failed sends are retried with
+ * exponential backoff and jitter (RetryBackoff), within the SMTP provider's quota.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class EmailOutbox {
+
+    private static final String TAG = "EmailOutbox";
+
+    /**
+     * Unique WorkManager names of the immediate drain and of the delayed retry
+     */
+    public static final String WORK_NAME = "email_outbox_drain";
+    public static final String RETRY_WORK_NAME = "email_outbox_retry";
+
+    /**
+     * Attempts after which an email is marked FAILED
+     */
+    public static final int MAX_ATTEMPTS = 8;
+
+    /**
+     * Provider quota (Gmail allows about 500 per day; stay below it)
+     */
+    public static final int MAX_SENDS_PER_MINUTE = 20;
+    public static final int MAX_SENDS_PER_DAY = 400;
+
+    /**
+     * Backoff bounds: 30s, 1m, 2m ... capped at one hour
+     */
+    static final long BASE_BACKOFF_MS = 30_000L;
+    static final long MAX_BACKOFF_MS = 60 * 60_000L;
+
+    private static final Executor EXECUTOR =
+        TaskScheduler.getInstance().serialExecutor(TaskScheduler.Pool.IO, TaskScheduler.Priority.NORMAL);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private EmailOutbox() {
+    }
+
+    /**
+     * Queues an email and schedules delivery.
+     * The callback reports whether the email was stored, not whether it was
+     * delivered; delivery is retried until it succeeds or gives up.
+     *
+     * @param context Any context
+     * @param recipient Recipient address
+     * @param subject Subject line
+     * @param htmlBody HTML body
+     * @param callback Callback invoked on the main thread (may be null)
+     */
+    public static void enqueue(Context context, String recipient, String subject, String htmlBody,
+                               EmailService.EmailCallback callback) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                TourManagementDatabase.getDatabase(appContext).outboxEmailDao()
+                    .insertEmail(new OutboxEmail(recipient, subject, htmlBody));
+                scheduleDrain(appContext);
+                if (callback != null) {
+                    MAIN_HANDLER.post(callback::onSuccess);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to queue email", e);
+                if (callback != null) {
+                    MAIN_HANDLER.post(() -> callback.onFailure("Failed to queue email: " + e.getMessage()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Schedules a drain as soon as the device is online, e.g. after queuing an email.
+     * A drain that is already queued or sending is kept; it picks up the new email,
+     * and EmailOutboxWorker serializes drains in this process.
+     *
+     * @param context Any context
+     */
+    public static void scheduleDrain(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(EmailOutboxWorker.class)
+            .setConstraints(onlineConstraints())
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Schedules the next drain for emails waiting on backoff or quota.
+     * Kept apart from the immediate drain, so a new email never waits behind a
+     * delayed retry; the previous retry is replaced, as every drain reschedules it.
+     *
+     * @param context Any context
+     * @param delayMs Delay before the worker may start
+     */
+    public static void scheduleRetry(Context context, long delayMs) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(EmailOutboxWorker.class)
+            .setConstraints(onlineConstraints())
+            .setInitialDelay(Math.max(0, delayMs), TimeUnit.MILLISECONDS)
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniqueWork(RETRY_WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    /**
+     * Computes the delay before the next attempt of a failed email
+     *
+     * @param attempts Number of failed attempts so far (at least 1)
+     * @param jitter Random value in [0, 1)
+     * @return Delay in milliseconds
+     */
+    public static long backoffDelayMs(int attempts, double jitter) {
+        return RetryBackoff.delayMs(attempts, BASE_BACKOFF_MS, MAX_BACKOFF_MS, jitter);
+    }
+
+    private static Constraints onlineConstraints() {
+        return new Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .build();
+    }
+}
@@ -1,34 +1,34 @@
 package com.example.tourmanagement.utils;
 
 import android.content.Context;
-import android.os.AsyncTask;
-import android.util.Log;
+import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.NotificationPreference;
+import com.example.tourmanagement.model.OutboxEmail;
 import com.example.tourmanagement.model.Tour;
 import com.example.tourmanagement.model.User;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.Properties;
+import java.util.Map;
 import java.util.Random;
-import javax.mail.Authenticator;
-import javax.mail.Message;
-import javax.mail.MessagingException;
-import javax.mail.PasswordAuthentication;
-import javax.mail.Session;
-import javax.mail.Transport;
-import javax.mail.internet.InternetAddress;
-import javax.mail.internet.MimeMessage;
 
 /**
- * Email service utility for sending password reset emails.
- * Uses JavaMail API to send emails through SMTP.
+ * Email service utility for sending password reset and booking emails.
+ * Renders the email from the HTML templates in assets/email (see EmailTemplates)
+ * and queues it in the persistent EmailOutbox, which delivers it through SMTP
+ * in the background. Booking emails to recipients who chose digests are
+ * collected by NotificationDigests instead.
  *
  * Features:
  * - Generate random temporary passwords
  * - Send password reset emails
- * - Asynchronous email sending
- * - Professional email templates
+ * - Queued, retried email delivery
+ * - Precompiled, locale-aware HTML templates with escaped user data
  *
  * @author Tour Management Team
  * @version 1.0
@@ -36,16 +36,24 @@ import javax.mail.internet.MimeMessage;
  */
 public class EmailService {
 
-    private static final String TAG = "EmailService";
+    /**
+     * Template names (files in assets/email)
+     */
+    static final String TEMPLATE_PASSWORD_RESET = "password_reset";
+    static final String TEMPLATE_BOOKING_CONFIRMATION = "booking_confirmation";
+    static final String TEMPLATE_BOOKING_CANCELLATION = "booking_cancellation";
+    static final String TEMPLATE_BOOKING_EXPIRED = "booking_expired";
+    static final String TEMPLATE_BOOKING_DIGEST = "booking_digest";
 
-    // Email configuration (use your own SMTP settings)
-    private static final String SMTP_HOST = "smtp.gmail.com";
-    private static final String SMTP_PORT = "587"; // Use 587 for STARTTLS or 465 for SSL
-    private static final String EMAIL_FROM = "maixuanhieu250123@gmail.com"; // Replace with your email
-    private static final String EMAIL_PASSWORD = "zmfd aycm rzuu oarb"; // Replace with your app password
+    /**
+     * Subject lines of booking emails
+     */
+    private static final String SUBJECT_BOOKING_CONFIRMATION = "Tour Management - Booking Confirmation & E-Ticket";
+    private static final String SUBJECT_BOOKING_CANCELLATION = "Tour Management - Booking Cancellation Confirmation";
 
     /**
      * Interface for email sending callbacks
+     * Invoked on the main thread once the email is queued (or could not be queued)
      */
     public interface EmailCallback {
         void onSuccess();
@@ -71,619 +79,329 @@ public class EmailService {
     }
 
     /**
-     * Sends password reset email asynchronously
+     * Queues password reset email
      *
+     * @param context Any context
      * @param recipientEmail Recipient's email address
      * @param recipientName Recipient's name
      * @param temporaryPassword Temporary password to send
      * @param callback Callback for success/failure handling
      */
-    public static void sendPasswordResetEmail(String recipientEmail, String recipientName,
+    public static void sendPasswordResetEmail(Context context, String recipientEmail, String recipientName,
                                             String temporaryPassword, EmailCallback callback) {
-        new SendEmailTask(recipientEmail, recipientName, temporaryPassword, callback).execute();
-    }
-
-    /**
-     * AsyncTask for sending emails in background thread
-     */
-    private static class SendEmailTask extends AsyncTask<Void, Void, Boolean> {
-        private String recipientEmail;
-        private String recipientName;
-        private String temporaryPassword;
-        private EmailCallback callback;
-        private String errorMessage;
-
-        public SendEmailTask(String recipientEmail, String recipientName,
-                           String temporaryPassword, EmailCallback callback) {
-            this.recipientEmail = recipientEmail;
-            this.recipientName = recipientName;
-            this.temporaryPassword = temporaryPassword;
-            this.callback = callback;
-        }
-
-        @Override
-        protected Boolean doInBackground(Void... voids) {
-            try {
-                // Create properties for SMTP configuration
-                Properties props = new Properties();
-                props.put("mail.smtp.auth", "true");
-                props.put("mail.smtp.starttls.enable", "true");
-                props.put("mail.smtp.starttls.required", "true");
-                props.put("mail.smtp.host", SMTP_HOST);
-                props.put("mail.smtp.port", SMTP_PORT);
-                props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-                props.put("mail.smtp.ssl.trust", SMTP_HOST);
-
-                // Alternative configuration for SSL (use this if STARTTLS doesn't work)
-                // Uncomment these lines and comment out the STARTTLS lines above
-                // props.put("mail.smtp.socketFactory.port", "465");
-                // props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
-                // props.put("mail.smtp.socketFactory.fallback", "false");
-
-                // Create authenticator
-                Authenticator authenticator = new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(EMAIL_FROM, EMAIL_PASSWORD);
-                    }
-                };
-
-                // Create session
-                Session session = Session.getInstance(props, authenticator);
-
-                // Create message
-                Message message = new MimeMessage(session);
-                message.setFrom(new InternetAddress(EMAIL_FROM));
-                message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipientEmail));
-                message.setSubject("Tour Management - Password Reset");
-
-                // Create email content
-                String emailContent = createPasswordResetEmailContent(recipientName, temporaryPassword);
-                message.setContent(emailContent, "text/html; charset=utf-8");
-
-                // Send email
-                Transport.send(message);
-
-                Log.d(TAG, "Password reset email sent successfully to: " + recipientEmail);
-                return true;
-
-            } catch (MessagingException e) {
-                Log.e(TAG, "Failed to send email", e);
-                errorMessage = "Failed to send email: " + e.getMessage();
-                return false;
-            } catch (Exception e) {
-                Log.e(TAG, "Unexpected error while sending email", e);
-                errorMessage = "Unexpected error: " + e.getMessage();
-                return false;
-            }
-        }
-
-        @Override
-        protected void onPostExecute(Boolean success) {
-            if (callback != null) {
-                if (success) {
-                    callback.onSuccess();
-                } else {
-                    callback.onFailure(errorMessage != null ? errorMessage : "Unknown error occurred");
-                }
-            }
-        }
+        queueEmail(context, recipientEmail, "Tour Management - Password Reset",
+            TEMPLATE_PASSWORD_RESET, passwordResetModel(recipientName, temporaryPassword), callback);
     }
 
     /**
-     * Creates HTML email content for password reset
+     * Builds the template model for the password reset email
      *
      * @param recipientName Recipient's name
      * @param temporaryPassword Temporary password
-     * @return HTML email content
+     * @return Template model
      */
-    private static String createPasswordResetEmailContent(String recipientName, String temporaryPassword) {
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head>" +
-                "    <meta charset='UTF-8'>" +
-                "    <title>Password Reset - Tour Management</title>" +
-                "</head>" +
-                "<body style='font-family: Arial, sans-serif; line-height: 1.6; color: #333;'>" +
-                "    <div style='max-width: 600px; margin: 0 auto; padding: 20px;'>" +
-                "        <div style='background-color: #4CAF50; color: white; padding: 20px; text-align: center;'>" +
-                "            <h1>Tour Management System</h1>" +
-                "            <h2>Password Reset Request</h2>" +
-                "        </div>" +
-                "        <div style='padding: 20px; background-color: #f9f9f9;'>" +
-                "            <p>Dear " + recipientName + ",</p>" +
-                "            <p>We received a request to reset your password for your Tour Management account.</p>" +
-                "            <p>Your temporary password is:</p>" +
-                "            <div style='background-color: #e7f3ff; border: 1px solid #2196F3; padding: 15px; margin: 10px 0; text-align: center;'>" +
-                "                <strong style='font-size: 18px; color: #1976D2;'>" + temporaryPassword + "</strong>" +
-                "            </div>" +
-                "            <p><strong>Important Security Notice:</strong></p>" +
-                "            <ul>" +
-                "                <li>This is a temporary password that expires in 24 hours</li>" +
-                "                <li>You will be required to change this password upon your next login</li>" +
-                "                <li>For security reasons, please change it to a strong, unique password</li>" +
-                "                <li>If you didn't request this reset, please contact our support team immediately</li>" +
-                "            </ul>" +
-                "            <p>To log in:</p>" +
-                "            <ol>" +
-                "                <li>Open the Tour Management app</li>" +
-                "                <li>Enter your username and the temporary password above</li>" +
-                "                <li>You'll be prompted to create a new password</li>" +
-                "            </ol>" +
-                "            <p>If you have any questions or concerns, please don't hesitate to contact our support team.</p>" +
-                "            <p>Best regards,<br>Tour Management Team</p>" +
-                "        </div>" +
-                "        <div style='background-color: #333; color: white; padding: 10px; text-align: center; font-size: 12px;'>" +
-                "            <p>This is an automated message. Please do not reply to this email.</p>" +
-                "            <p>&copy; 2025 Tour Management System. All rights reserved.</p>" +
-                "        </div>" +
-                "    </div>" +
-                "</body>" +
-                "</html>";
+    static Map<String, Object> passwordResetModel(String recipientName, String temporaryPassword) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", "Password Reset");
+        model.put("recipientName", recipientName);
+        model.put("temporaryPassword", temporaryPassword);
+        return model;
     }
 
     /**
      * Sends booking confirmation email with ticket information
      *
+     * @param context Any context
      * @param user User who made the booking
      * @param tour Tour that was booked
      * @param booking Booking details
      * @param callback Callback for success/failure handling
      */
-    public static void sendBookingConfirmationEmail(User user, Tour tour, Booking booking, EmailCallback callback) {
-        new SendBookingEmailTask(user, tour, booking, callback).execute();
+    public static void sendBookingConfirmationEmail(Context context, User user, Tour tour, Booking booking,
+                                                    EmailCallback callback) {
+        String eventType = "CONFIRMED".equals(booking.getBookingStatus())
+            ? NotificationEvent.Type.CONFIRMED : NotificationEvent.Type.BOOKED;
+        NotificationDigests.dispatch(context, new NotificationEvent(user.getEmail(), eventType, user, tour, booking),
+            () -> queueEmail(context, user.getEmail(), SUBJECT_BOOKING_CONFIRMATION,
+                TEMPLATE_BOOKING_CONFIRMATION, bookingConfirmationModel(user, tour, booking, Locale.getDefault()),
+                callback),
+            callback);
     }
 
     /**
-     * AsyncTask for sending booking confirmation emails in background thread
-     */
-    private static class SendBookingEmailTask extends AsyncTask<Void, Void, Boolean> {
-        private User user;
-        private Tour tour;
-        private Booking booking;
-        private EmailCallback callback;
-        private String errorMessage;
-
-        public SendBookingEmailTask(User user, Tour tour, Booking booking, EmailCallback callback) {
-            this.user = user;
-            this.tour = tour;
-            this.booking = booking;
-            this.callback = callback;
-        }
-
-        @Override
-        protected Boolean doInBackground(Void... voids) {
-            try {
-                // Create properties for SMTP configuration
-                Properties props = new Properties();
-                props.put("mail.smtp.auth", "true");
-                props.put("mail.smtp.starttls.enable", "true");
-                props.put("mail.smtp.starttls.required", "true");
-                props.put("mail.smtp.host", SMTP_HOST);
-                props.put("mail.smtp.port", SMTP_PORT);
-                props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-                props.put("mail.smtp.ssl.trust", SMTP_HOST);
-
-                // Create authenticator
-                Authenticator authenticator = new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(EMAIL_FROM, EMAIL_PASSWORD);
-                    }
-                };
-
-                // Create session
-                Session session = Session.getInstance(props, authenticator);
-
-                // Create message
-                Message message = new MimeMessage(session);
-                message.setFrom(new InternetAddress(EMAIL_FROM));
-                message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(user.getEmail()));
-                message.setSubject("Tour Management - Booking Confirmation & E-Ticket");
-
-                // Create email content with ticket information
-                String emailContent = createBookingConfirmationEmailContent(user, tour, booking);
-                message.setContent(emailContent, "text/html; charset=utf-8");
-
-                // Send email
-                Transport.send(message);
-
-                Log.d(TAG, "Booking confirmation email sent successfully to: " + user.getEmail());
-                return true;
-
-            } catch (MessagingException e) {
-                Log.e(TAG, "Failed to send booking confirmation email", e);
-                errorMessage = "Failed to send email: " + e.getMessage();
-                return false;
-            } catch (Exception e) {
-                Log.e(TAG, "Unexpected error while sending booking confirmation email", e);
-                errorMessage = "Unexpected error: " + e.getMessage();
-                return false;
-            }
-        }
-
-        @Override
-        protected void onPostExecute(Boolean success) {
-            if (callback != null) {
-                if (success) {
-                    callback.onSuccess();
-                } else {
-                    callback.onFailure(errorMessage != null ? errorMessage : "Unknown error occurred");
-                }
-            }
-        }
-    }
-
-    /**
-     * Creates HTML email content for booking confirmation with ticket details
+     * Builds the template model for the booking confirmation e-ticket
      *
      * @param user User who made the booking
      * @param tour Tour that was booked
      * @param booking Booking details
-     * @return HTML email content with ticket information
+     * @param locale Locale for dates and amounts
+     * @return Template model
      */
-    private static String createBookingConfirmationEmailContent(User user, Tour tour, Booking booking) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm", Locale.getDefault());
-        SimpleDateFormat tourDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-
-        String bookingDate = dateFormat.format(new Date(booking.getBookingDate()));
-        String tourDate = tourDateFormat.format(new Date(tour.getTourTime()));
-
-        // Generate booking reference number
-        String bookingReference = "TM" + String.format("%06d", booking.getId());
-
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head>" +
-                "    <meta charset='UTF-8'>" +
-                "    <title>Booking Confirmation - Tour Management</title>" +
-                "</head>" +
-                "<body style='font-family: Arial, sans-serif; line-height: 1.6; color: #333; margin: 0; padding: 0;'>" +
-                "    <div style='max-width: 650px; margin: 0 auto; background-color: #ffffff;'>" +
-                "        <!-- Header -->" +
-                "        <div style='background: linear-gradient(135deg, #4CAF50 0%, #45a049 100%); color: white; padding: 30px 20px; text-align: center;'>" +
-                "            <h1 style='margin: 0; font-size: 28px; font-weight: bold;'>🎫 Tour Management</h1>" +
-                "            <h2 style='margin: 10px 0 0 0; font-size: 20px; font-weight: normal;'>Booking Confirmation & E-Ticket</h2>" +
-                "        </div>" +
-
-                "        <!-- Booking Status -->" +
-                "        <div style='background-color: #e8f5e8; border-left: 5px solid #4CAF50; padding: 20px; margin: 0;'>" +
-                "            <div style='display: flex; align-items: center; justify-content: center;'>" +
-                "                <span style='font-size: 24px; color: #4CAF50; margin-right: 10px;'>✅</span>" +
-                "                <h3 style='margin: 0; color: #2e7d32; font-size: 18px;'>Booking Confirmed Successfully!</h3>" +
-                "            </div>" +
-                "        </div>" +
-
-                "        <!-- Main Content -->" +
-                "        <div style='padding: 30px 20px;'>" +
-                "            <p style='font-size: 16px; margin-bottom: 20px;'>Dear " + user.getFullName() + ",</p>" +
-                "            <p style='font-size: 14px; margin-bottom: 25px;'>Thank you for choosing Tour Management! Your booking has been confirmed. Below are your ticket details:</p>" +
-
-                "            <!-- Ticket Information -->" +
-                "            <div style='background-color: #f8f9fa; border: 2px dashed #4CAF50; border-radius: 10px; padding: 25px; margin: 25px 0;'>" +
-                "                <div style='text-align: center; margin-bottom: 20px;'>" +
-                "                    <h2 style='color: #4CAF50; margin: 0; font-size: 22px;'>🎫 E-TICKET</h2>" +
-                "                    <p style='margin: 5px 0; font-size: 16px; font-weight: bold; color: #333;'>Booking Reference: " + bookingReference + "</p>" +
-                "                </div>" +
-
-                "                <!-- Tour Details -->" +
-                "                <table style='width: 100%; border-collapse: collapse; margin-top: 20px;'>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555; width: 35%;'>Tour Name:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tour.getTourName() + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Destination:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tour.getTourLocation() + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Tour Date:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tourDate + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Duration:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tour.getDuration() + " days</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Number of People:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + booking.getNumberOfPeople() + " person(s)</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Total Amount:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #4CAF50; font-weight: bold; font-size: 16px;'>$" + String.format("%.2f", booking.getTotalAmount()) + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Booking Date:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + bookingDate + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Status:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0;'>" +
-                "                            <span style='background-color: #4CAF50; color: white; padding: 5px 15px; border-radius: 20px; font-size: 12px; font-weight: bold;'>" + booking.getBookingStatus() + "</span>" +
-                "                        </td>" +
-                "                    </tr>" +
-                "                </table>" +
-
-                // Add notes if available
-                (booking.getNotes() != null && !booking.getNotes().trim().isEmpty() ?
-                "                <div style='margin-top: 20px; padding: 15px; background-color: #fff3cd; border-radius: 5px; border-left: 4px solid #ffc107;'>" +
-                "                    <p style='margin: 0; font-weight: bold; color: #856404;'>Special Notes:</p>" +
-                "                    <p style='margin: 5px 0 0 0; color: #856404;'>" + booking.getNotes() + "</p>" +
-                "                </div>" : "") +
-                "            </div>" +
-
-                "            <!-- Important Information -->" +
-                "            <div style='background-color: #e3f2fd; border-radius: 8px; padding: 20px; margin: 25px 0;'>" +
-                "                <h3 style='color: #1565c0; margin: 0 0 15px 0; font-size: 18px;'>📋 Important Information</h3>" +
-                "                <ul style='margin: 0; padding-left: 20px; color: #333;'>" +
-                "                    <li style='margin-bottom: 8px;'>Please arrive at the meeting point 30 minutes before the tour starts</li>" +
-                "                    <li style='margin-bottom: 8px;'>Bring a valid ID and this e-ticket (digital or printed)</li>" +
-                "                    <li style='margin-bottom: 8px;'>Check weather conditions and dress appropriately</li>" +
-                "                    <li style='margin-bottom: 8px;'>Contact us immediately if you need to make changes</li>" +
-                "                    <li style='margin-bottom: 8px;'>Cancellations must be made at least 24 hours in advance</li>" +
-                "                </ul>" +
-                "            </div>" +
-
-                "            <!-- Contact Information -->" +
-                "            <div style='background-color: #f5f5f5; border-radius: 8px; padding: 20px; margin: 25px 0;'>" +
-                "                <h3 style='color: #333; margin: 0 0 15px 0; font-size: 18px;'>📞 Need Help?</h3>" +
-                "                <p style='margin: 0 0 10px 0; color: #555;'>If you have any questions or need assistance, feel free to contact us:</p>" +
-                "                <p style='margin: 5px 0; color: #555;'><strong>Email:</strong> support@tourmanagement.com</p>" +
-                "                <p style='margin: 5px 0; color: #555;'><strong>Phone:</strong> +1 (555) 123-4567</p>" +
-                "                <p style='margin: 5px 0; color: #555;'><strong>Support Hours:</strong> 9:00 AM - 6:00 PM (Mon-Fri)</p>" +
-                "            </div>" +
-
-                "            <p style='font-size: 14px; color: #666; margin-top: 30px;'>We're excited to have you join us on this amazing journey! Have a wonderful trip!</p>" +
-                "            <p style='font-size: 14px; color: #333; margin-top: 20px;'>Best regards,<br><strong>Tour Management Team</strong></p>" +
-                "        </div>" +
-
-                "        <!-- Footer -->" +
-                "        <div style='background-color: #333; color: #ccc; padding: 20px; text-align: center; font-size: 12px;'>" +
-                "            <p style='margin: 0 0 10px 0;'>This is an automated confirmation email. Please do not reply to this email.</p>" +
-                "            <p style='margin: 0;'>&copy; 2025 Tour Management System. All rights reserved.</p>" +
-                "            <p style='margin: 10px 0 0 0;'>Follow us on social media for updates and travel tips!</p>" +
-                "        </div>" +
-                "    </div>" +
-                "</body>" +
-                "</html>";
+    static Map<String, Object> bookingConfirmationModel(User user, Tour tour, Booking booking, Locale locale) {
+        Map<String, Object> model = bookingModel(user, tour, booking, locale);
+        model.put("title", "Booking Confirmation & E-Ticket");
+        model.put("bannerBackground", "linear-gradient(135deg, #4CAF50 0%, #45a049 100%)");
+        model.put("amountColor", "#4CAF50");
+        model.put("bookingStatus", booking.getBookingStatus());
+        model.put("notes", booking.getNotes());
+        model.put("helpIntro", "If you have any questions or need assistance, feel free to contact us:");
+        model.put("footerNotice", "This is an automated confirmation email. Please do not reply to this email.");
+        model.put("footerTagline", "Follow us on social media for updates and travel tips!");
+        return model;
     }
 
     /**
      * Sends booking cancellation confirmation email
      *
+     * @param context Any context
      * @param user User who cancelled the booking
      * @param tour Tour that was cancelled
      * @param booking Cancelled booking details
      * @param callback Callback for success/failure handling
      */
-    public static void sendBookingCancellationEmail(User user, Tour tour, Booking booking, EmailCallback callback) {
-        new SendCancellationEmailTask(user, tour, booking, callback).execute();
+    public static void sendBookingCancellationEmail(Context context, User user, Tour tour, Booking booking,
+                                                    EmailCallback callback) {
+        long cancelledAt = System.currentTimeMillis();
+        NotificationDigests.dispatch(context,
+            new NotificationEvent(user.getEmail(), NotificationEvent.Type.CANCELLED, user, tour, booking),
+            () -> queueEmail(context, user.getEmail(), SUBJECT_BOOKING_CANCELLATION,
+                TEMPLATE_BOOKING_CANCELLATION,
+                bookingCancellationModel(user, tour, booking, Locale.getDefault(), cancelledAt),
+                callback),
+            callback);
     }
 
     /**
-     * AsyncTask for sending booking cancellation emails in background thread
+     * Builds the template model for the booking cancellation confirmation
+     *
+     * @param user User who cancelled the booking
+     * @param tour Tour that was cancelled
+     * @param booking Cancelled booking details
+     * @param locale Locale for dates and amounts
+     * @param cancelledAt Cancellation timestamp
+     * @return Template model
      */
-    private static class SendCancellationEmailTask extends AsyncTask<Void, Void, Boolean> {
-        private User user;
-        private Tour tour;
-        private Booking booking;
-        private EmailCallback callback;
-        private String errorMessage;
-
-        public SendCancellationEmailTask(User user, Tour tour, Booking booking, EmailCallback callback) {
-            this.user = user;
-            this.tour = tour;
-            this.booking = booking;
-            this.callback = callback;
-        }
-
-        @Override
-        protected Boolean doInBackground(Void... voids) {
-            try {
-                // Create properties for SMTP configuration
-                Properties props = new Properties();
-                props.put("mail.smtp.auth", "true");
-                props.put("mail.smtp.starttls.enable", "true");
-                props.put("mail.smtp.starttls.required", "true");
-                props.put("mail.smtp.host", SMTP_HOST);
-                props.put("mail.smtp.port", SMTP_PORT);
-                props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-                props.put("mail.smtp.ssl.trust", SMTP_HOST);
-
-                // Create authenticator
-                Authenticator authenticator = new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(EMAIL_FROM, EMAIL_PASSWORD);
-                    }
-                };
-
-                // Create session
-                Session session = Session.getInstance(props, authenticator);
+    static Map<String, Object> bookingCancellationModel(User user, Tour tour, Booking booking, Locale locale,
+                                                        long cancelledAt) {
+        Map<String, Object> model = bookingModel(user, tour, booking, locale);
+        model.put("title", "Booking Cancellation Confirmation");
+        model.put("bannerBackground", "linear-gradient(135deg, #f44336 0%, #d32f2f 100%)");
+        model.put("amountColor", "#f44336");
+        model.put("cancellationDate", new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm", locale).format(new Date(cancelledAt)));
 
-                // Create message
-                Message message = new MimeMessage(session);
-                message.setFrom(new InternetAddress(EMAIL_FROM));
-                message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(user.getEmail()));
-                message.setSubject("Tour Management - Booking Cancellation Confirmation");
-
-                // Create email content for cancellation
-                String emailContent = createBookingCancellationEmailContent(user, tour, booking);
-                message.setContent(emailContent, "text/html; charset=utf-8");
-
-                // Send email
-                Transport.send(message);
-
-                Log.d(TAG, "Booking cancellation email sent successfully to: " + user.getEmail());
-                return true;
+        // Determine if refund applies
+        model.put("refundApplicable",
+            "REFUNDED".equals(booking.getPaymentStatus()) || "PAID".equals(booking.getPaymentStatus()));
+        model.put("helpIntro", "If you have any questions about this cancellation or need assistance with future bookings:");
+        model.put("footerNotice", "This is an automated cancellation confirmation email. Please do not reply to this email.");
+        model.put("footerTagline", "Thank you for choosing Tour Management!");
+        return model;
+    }
 
-            } catch (MessagingException e) {
-                Log.e(TAG, "Failed to send booking cancellation email", e);
-                errorMessage = "Failed to send email: " + e.getMessage();
-                return false;
-            } catch (Exception e) {
-                Log.e(TAG, "Unexpected error while sending booking cancellation email", e);
-                errorMessage = "Unexpected error: " + e.getMessage();
-                return false;
-            }
+    /**
+     * Stores the confirmation or cancellation notice of a booking within the caller's transaction.
+     * Like the senders above, the notice goes to the customer's digest or to the outbox,
+     * but delivery is not scheduled: call EmailOutbox.scheduleDrain and
+     * NotificationDigests.reschedule once the transaction has committed.
+     * Must be called from a background thread.
+     *
+     * @param context Any context
+     * @param database Database instance
+     * @param user User who made the booking
+     * @param tour Tour that was booked
+     * @param booking Booking with its new status (CONFIRMED or CANCELLED)
+     * @throws IllegalStateException if the email template cannot be rendered
+     */
+    public static void storeBookingStatusEmail(Context context, TourManagementDatabase database, User user, Tour tour,
+                                               Booking booking) {
+        boolean confirmed = "CONFIRMED".equals(booking.getBookingStatus());
+        String eventType = confirmed ? NotificationEvent.Type.CONFIRMED : NotificationEvent.Type.CANCELLED;
+        if (NotificationDigests.getPreference(database, user.getEmail(), NotificationPreference.Mode.IMMEDIATE).isDigest()) {
+            database.notificationEventDao().insertEvent(new NotificationEvent(user.getEmail(), eventType, user, tour, booking));
+            return;
         }
 
-        @Override
-        protected void onPostExecute(Boolean success) {
-            if (callback != null) {
-                if (success) {
-                    callback.onSuccess();
-                } else {
-                    callback.onFailure(errorMessage != null ? errorMessage : "Unknown error occurred");
-                }
-            }
-        }
+        String html = confirmed
+            ? EmailTemplates.getInstance(context).render(TEMPLATE_BOOKING_CONFIRMATION, Locale.getDefault(),
+                bookingConfirmationModel(user, tour, booking, Locale.getDefault()))
+            : EmailTemplates.getInstance(context).render(TEMPLATE_BOOKING_CANCELLATION, Locale.getDefault(),
+                bookingCancellationModel(user, tour, booking, Locale.getDefault(), System.currentTimeMillis()));
+        database.outboxEmailDao().insertEmail(new OutboxEmail(user.getEmail(),
+            confirmed ? SUBJECT_BOOKING_CONFIRMATION : SUBJECT_BOOKING_CANCELLATION, html));
     }
 
     /**
-     * Creates HTML email content for booking cancellation confirmation
+     * Sends the notice that an unpaid booking expired and was cancelled
      *
-     * @param user User who cancelled the booking
-     * @param tour Tour that was cancelled
-     * @param booking Cancelled booking details
-     * @return HTML email content for cancellation confirmation
+     * @param context Any context
+     * @param user User who made the booking
+     * @param tour Tour that was booked
+     * @param booking Expired booking details
+     * @param callback Callback for success/failure handling (may be null)
      */
-    private static String createBookingCancellationEmailContent(User user, Tour tour, Booking booking) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm", Locale.getDefault());
-        SimpleDateFormat tourDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-
-        String bookingDate = dateFormat.format(new Date(booking.getBookingDate()));
-        String cancellationDate = dateFormat.format(new Date());
-        String tourDate = tourDateFormat.format(new Date(tour.getTourTime()));
-
-        // Generate booking reference number
-        String bookingReference = "TM" + String.format("%06d", booking.getId());
-
-        // Determine if refund applies
-        boolean isRefundApplicable = "REFUNDED".equals(booking.getPaymentStatus()) || "PAID".equals(booking.getPaymentStatus());
-
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head>" +
-                "    <meta charset='UTF-8'>" +
-                "    <title>Booking Cancellation - Tour Management</title>" +
-                "</head>" +
-                "<body style='font-family: Arial, sans-serif; line-height: 1.6; color: #333; margin: 0; padding: 0;'>" +
-                "    <div style='max-width: 650px; margin: 0 auto; background-color: #ffffff;'>" +
-                "        <!-- Header -->" +
-                "        <div style='background: linear-gradient(135deg, #f44336 0%, #d32f2f 100%); color: white; padding: 30px 20px; text-align: center;'>" +
-                "            <h1 style='margin: 0; font-size: 28px; font-weight: bold;'>🎫 Tour Management</h1>" +
-                "            <h2 style='margin: 10px 0 0 0; font-size: 20px; font-weight: normal;'>Booking Cancellation Confirmation</h2>" +
-                "        </div>" +
-
-                "        <!-- Cancellation Status -->" +
-                "        <div style='background-color: #ffebee; border-left: 5px solid #f44336; padding: 20px; margin: 0;'>" +
-                "            <div style='display: flex; align-items: center; justify-content: center;'>" +
-                "                <span style='font-size: 24px; color: #f44336; margin-right: 10px;'>❌</span>" +
-                "                <h3 style='margin: 0; color: #c62828; font-size: 18px;'>Booking Successfully Cancelled</h3>" +
-                "            </div>" +
-                "        </div>" +
+    public static void sendBookingExpiredEmail(Context context, User user, Tour tour, Booking booking,
+                                               EmailCallback callback) {
+        NotificationDigests.dispatch(context,
+            new NotificationEvent(user.getEmail(), NotificationEvent.Type.EXPIRED, user, tour, booking),
+            () -> queueEmail(context, user.getEmail(), "Tour Management - Booking Expired",
+                TEMPLATE_BOOKING_EXPIRED, bookingExpiredModel(user, tour, booking, Locale.getDefault()), callback),
+            callback);
+    }
 
-                "        <!-- Main Content -->" +
-                "        <div style='padding: 30px 20px;'>" +
-                "            <p style='font-size: 16px; margin-bottom: 20px;'>Dear " + user.getFullName() + ",</p>" +
-                "            <p style='font-size: 14px; margin-bottom: 25px;'>We have successfully processed your booking cancellation request. Below are the details of your cancelled booking:</p>" +
+    /**
+     * Builds the template model for the booking expiry notice
+     *
+     * @param user User who made the booking
+     * @param tour Tour that was booked
+     * @param booking Expired booking details
+     * @param locale Locale for dates and amounts
+     * @return Template model
+     */
+    static Map<String, Object> bookingExpiredModel(User user, Tour tour, Booking booking, Locale locale) {
+        Map<String, Object> model = bookingModel(user, tour, booking, locale);
+        model.put("title", "Booking Expired");
+        model.put("bannerBackground", "linear-gradient(135deg, #FF9800 0%, #F57C00 100%)");
+        model.put("amountColor", "#F57C00");
+        model.put("expiryDate",
+            new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm", locale).format(new Date(booking.getExpiresAt())));
+        model.put("holdHours", BookingExpiry.HOLD_MS / (60 * 60 * 1000));
+        model.put("helpIntro", "If you already paid for this booking or would like to book again, contact us:");
+        model.put("footerNotice", "This is an automated booking notice. Please do not reply to this email.");
+        model.put("footerTagline", "Thank you for choosing Tour Management!");
+        return model;
+    }
 
-                "            <!-- Cancelled Booking Information -->" +
-                "            <div style='background-color: #f8f9fa; border: 2px solid #f44336; border-radius: 10px; padding: 25px; margin: 25px 0;'>" +
-                "                <div style='text-align: center; margin-bottom: 20px;'>" +
-                "                    <h2 style='color: #f44336; margin: 0; font-size: 22px;'>📋 CANCELLED BOOKING</h2>" +
-                "                    <p style='margin: 5px 0; font-size: 16px; font-weight: bold; color: #333;'>Booking Reference: " + bookingReference + "</p>" +
-                "                </div>" +
+    /**
+     * Builds the subject line of a booking digest
+     *
+     * @param eventCount Number of events in the digest
+     * @return Subject line
+     */
+    public static String bookingDigestSubject(int eventCount) {
+        return "Tour Management - " + eventCount + (eventCount == 1 ? " booking update" : " booking updates");
+    }
 
-                "                <!-- Booking Details -->" +
-                "                <table style='width: 100%; border-collapse: collapse; margin-top: 20px;'>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555; width: 35%;'>Tour Name:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tour.getTourName() + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Destination:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tour.getTourLocation() + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Tour Date:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tourDate + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Duration:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + tour.getDuration() + " days</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Number of People:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + booking.getNumberOfPeople() + " person(s)</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Total Amount:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #f44336; font-weight: bold; font-size: 16px;'>$" + String.format("%.2f", booking.getTotalAmount()) + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Original Booking Date:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + bookingDate + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Cancellation Date:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; color: #333;'>" + cancellationDate + "</td>" +
-                "                    </tr>" +
-                "                    <tr>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0; font-weight: bold; color: #555;'>Status:</td>" +
-                "                        <td style='padding: 10px 0; border-bottom: 1px solid #e0e0e0;'>" +
-                "                            <span style='background-color: #f44336; color: white; padding: 5px 15px; border-radius: 20px; font-size: 12px; font-weight: bold;'>CANCELLED</span>" +
-                "                        </td>" +
-                "                    </tr>" +
-                "                </table>" +
-                "            </div>" +
+    /**
+     * Renders a booking digest email in the device locale
+     *
+     * @param context Any context
+     * @param events Events in the digest, oldest first
+     * @param windowMinutes Digest window of the recipient
+     * @return HTML email content
+     */
+    public static String renderBookingDigest(Context context, List<NotificationEvent> events, int windowMinutes) {
+        Locale locale = Locale.getDefault();
+        return EmailTemplates.getInstance(context).render(TEMPLATE_BOOKING_DIGEST, locale,
+            bookingDigestModel(events, windowMinutes, locale));
+    }
 
-                // Refund Information
-                (isRefundApplicable ?
-                "            <div style='background-color: #e8f5e8; border-radius: 8px; padding: 20px; margin: 25px 0; border-left: 4px solid #4CAF50;'>" +
-                "                <h3 style='color: #2e7d32; margin: 0 0 15px 0; font-size: 18px;'>💳 Refund Information</h3>" +
-                "                <p style='margin: 0 0 10px 0; color: #333;'>Your refund is being processed and will be credited back to your original payment method within 5-7 business days.</p>" +
-                "                <p style='margin: 0; color: #333; font-weight: bold;'>Refund Amount: $" + String.format("%.2f", booking.getTotalAmount()) + "</p>" +
-                "            </div>" :
-                "            <div style='background-color: #fff3cd; border-radius: 8px; padding: 20px; margin: 25px 0; border-left: 4px solid #ffc107;'>" +
-                "                <h3 style='color: #856404; margin: 0 0 15px 0; font-size: 18px;'>💳 Payment Information</h3>" +
-                "                <p style='margin: 0; color: #856404;'>Since no payment was processed for this booking, no refund is required.</p>" +
-                "            </div>") +
+    /**
+     * Builds the template model of a booking digest email
+     *
+     * @param events Events in the digest, oldest first
+     * @param windowMinutes Digest window of the recipient
+     * @param locale Locale for dates and amounts
+     * @return Template model
+     */
+    static Map<String, Object> bookingDigestModel(List<NotificationEvent> events, int windowMinutes, Locale locale) {
+        SimpleDateFormat eventTimeFormat = new SimpleDateFormat("MMM dd, HH:mm", locale);
+        SimpleDateFormat tourDateFormat = new SimpleDateFormat("MMM dd, yyyy", locale);
+
+        int booked = 0;
+        int confirmed = 0;
+        int cancelled = 0;
+        List<Map<String, Object>> rows = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            Map<String, Object> row = new HashMap<>();
+            switch (event.getEventType()) {
+                case NotificationEvent.Type.CONFIRMED:
+                    confirmed++;
+                    row.put("typeLabel", "Confirmed");
+                    row.put("typeColor", "#4CAF50");
+                    break;
+                case NotificationEvent.Type.CANCELLED:
+                    cancelled++;
+                    row.put("typeLabel", "Cancelled");
+                    row.put("typeColor", "#f44336");
+                    break;
+                case NotificationEvent.Type.EXPIRED:
+                    cancelled++;
+                    row.put("typeLabel", "Expired unpaid");
+                    row.put("typeColor", "#FF9800");
+                    break;
+                default:
+                    booked++;
+                    row.put("typeLabel", "New booking");
+                    row.put("typeColor", "#2196F3");
+                    break;
+            }
+            row.put("eventTime", eventTimeFormat.format(new Date(event.getCreatedAt())));
+            row.put("bookingReference", bookingReference(event.getBookingId()));
+            row.put("customerName", event.getCustomerName());
+            row.put("tourName", event.getTourName());
+            row.put("tourDate", tourDateFormat.format(new Date(event.getTourTime())));
+            row.put("numberOfPeople", event.getNumberOfPeople());
+            row.put("totalAmount", String.format(locale, "%.2f", event.getTotalAmount()));
+            rows.add(row);
+        }
 
-                "            <!-- Important Information -->" +
-                "            <div style='background-color: #e3f2fd; border-radius: 8px; padding: 20px; margin: 25px 0;'>" +
-                "                <h3 style='color: #1565c0; margin: 0 0 15px 0; font-size: 18px;'>📋 Important Notes</h3>" +
-                "                <ul style='margin: 0; padding-left: 20px; color: #333;'>" +
-                "                    <li style='margin-bottom: 8px;'>Your booking has been completely cancelled and removed from our system</li>" +
-                "                    <li style='margin-bottom: 8px;'>You will not be charged any cancellation fees</li>" +
-                "                    <li style='margin-bottom: 8px;'>Your seat(s) have been released and are now available for other customers</li>" +
-                "                    <li style='margin-bottom: 8px;'>If you wish to book this or another tour in the future, you'll need to make a new booking</li>" +
-                "                    <li style='margin-bottom: 8px;'>Save this email as confirmation of your cancellation</li>" +
-                "                </ul>" +
-                "            </div>" +
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", "Booking Updates");
+        model.put("bannerBackground", "linear-gradient(135deg, #4CAF50 0%, #45a049 100%)");
+        model.put("summary", "There were " + events.size() + (events.size() == 1 ? " booking update" : " booking updates")
+            + " since the last digest: " + booked + " new, " + confirmed + " confirmed, " + cancelled + " cancelled.");
+        model.put("events", rows);
+        model.put("windowMinutes", windowMinutes);
+        model.put("helpIntro", "If you have any questions about these bookings, feel free to contact us:");
+        model.put("footerNotice", "This is an automated booking digest. Please do not reply to this email.");
+        model.put("footerTagline", "Thank you for choosing Tour Management!");
+        return model;
+    }
 
-                "            <!-- Contact Information -->" +
-                "            <div style='background-color: #f5f5f5; border-radius: 8px; padding: 20px; margin: 25px 0;'>" +
-                "                <h3 style='color: #333; margin: 0 0 15px 0; font-size: 18px;'>📞 Need Help?</h3>" +
-                "                <p style='margin: 0 0 10px 0; color: #555;'>If you have any questions about this cancellation or need assistance with future bookings:</p>" +
-                "                <p style='margin: 5px 0; color: #555;'><strong>Email:</strong> support@tourmanagement.com</p>" +
-                "                <p style='margin: 5px 0; color: #555;'><strong>Phone:</strong> +1 (555) 123-4567</p>" +
-                "                <p style='margin: 5px 0; color: #555;'><strong>Support Hours:</strong> 9:00 AM - 6:00 PM (Mon-Fri)</p>" +
-                "            </div>" +
+    /**
+     * Builds the model values shared by the booking emails
+     */
+    private static Map<String, Object> bookingModel(User user, Tour tour, Booking booking, Locale locale) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm", locale);
+        SimpleDateFormat tourDateFormat = new SimpleDateFormat("MMM dd, yyyy", locale);
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("fullName", user.getFullName());
+        model.put("bookingReference", bookingReference(booking.getId()));
+        model.put("tourName", tour.getTourName());
+        model.put("tourLocation", tour.getTourLocation());
+        model.put("tourDate", tourDateFormat.format(new Date(tour.getTourTime())));
+        model.put("duration", tour.getDuration());
+        model.put("numberOfPeople", booking.getNumberOfPeople());
+        model.put("totalAmount", String.format(locale, "%.2f", booking.getTotalAmount()));
+        model.put("bookingDate", dateFormat.format(new Date(booking.getBookingDate())));
+        return model;
+    }
 
-                "            <p style='font-size: 14px; color: #666; margin-top: 30px;'>We're sorry to see you cancel your booking. We hope to serve you again in the future with amazing travel experiences!</p>" +
-                "            <p style='font-size: 14px; color: #333; margin-top: 20px;'>Best regards,<br><strong>Tour Management Team</strong></p>" +
-                "        </div>" +
+    /**
+     * Generates the booking reference number shown to customers
+     *
+     * @param bookingId Booking ID
+     * @return Reference such as TM000042
+     */
+    static String bookingReference(int bookingId) {
+        return "TM" + String.format(Locale.US, "%06d", bookingId);
+    }
 
-                "        <!-- Footer -->" +
-                "        <div style='background-color: #333; color: #ccc; padding: 20px; text-align: center; font-size: 12px;'>" +
-                "            <p style='margin: 0 0 10px 0;'>This is an automated cancellation confirmation email. Please do not reply to this email.</p>" +
-                "            <p style='margin: 0;'>&copy; 2025 Tour Management System. All rights reserved.</p>" +
-                "            <p style='margin: 10px 0 0 0;'>Thank you for choosing Tour Management!</p>" +
-                "        </div>" +
-                "    </div>" +
-                "</body>" +
-                "</html>";
+    /**
+     * Renders a template in the device locale and queues the result
+     */
+    private static void queueEmail(Context context, String recipient, String subject, String templateName,
+                                   Map<String, Object> model, EmailCallback callback) {
+        String html;
+        try {
+            html = EmailTemplates.getInstance(context).render(templateName, Locale.getDefault(), model);
+        } catch (IllegalStateException e) {
+            if (callback != null) {
+                callback.onFailure("Failed to create email: " + e.getMessage());
+            }
+            return;
+        }
+        EmailOutbox.enqueue(context, recipient, subject, html, callback);
     }
 }
@@ -0,0 +1,371 @@
+package com.example.tourmanagement.utils;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled HTML email template.
+ * A template is parsed once into a tree of fragments and can then be rendered
+ * any number of times into a caller-supplied StringBuilder without re-parsing.
+ *
+ * Syntax (a small Mustache subset):
+ * - {{name}}            value from the model, HTML-escaped
+ * - {{{name}}}          value from the model, inserted as-is (trusted markup only)
+ * - {{#name}}...{{/name}} block rendered when the value is present and truthy;
+ *   for a list of maps, rendered once per item with the item's values in scope
+ * - {{^name}}...{{/name}} block rendered when the value is missing or falsy
+ * - {{> name}}          shared partial, inlined at compile time
+ * - {{! comment}}       ignored
+ *
+ * Section, partial and comment tags on a line of their own remove that line
+ * from the output, so templates can be indented naturally.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class EmailTemplate {
+
+    /**
+     * Loads compiled partials referenced with {{> name}}
+     */
+    public interface PartialLoader {
+        /**
+         * @param name Partial name as written in the tag
+         * @return Compiled partial
+         */
+        EmailTemplate load(String name);
+    }
+
+    /**
+     * One compiled piece of a template
+     */
+    private interface Fragment {
+        void render(Map<String, ?> model, StringBuilder out);
+    }
+
+    private static final Fragment[] NO_FRAGMENTS = new Fragment[0];
+
+    /**
+     * Extra capacity reserved per variable when estimating the output size
+     */
+    private static final int VARIABLE_SIZE_ESTIMATE = 32;
+
+    private final Fragment[] fragments;
+    private final int sizeHint;
+
+    private EmailTemplate(Fragment[] fragments, int sizeHint) {
+        this.fragments = fragments;
+        this.sizeHint = sizeHint;
+    }
+
+    /**
+     * Renders the template, appending to the given builder
+     *
+     * @param model Values referenced by the template
+     * @param out Destination; existing content is kept
+     */
+    public void render(Map<String, ?> model, StringBuilder out) {
+        renderAll(fragments, model, out);
+    }
+
+    /**
+     * Renders the template into a new string
+     *
+     * @param model Values referenced by the template
+     * @return Rendered HTML
+     */
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        render(model, out);
+        return out.toString();
+    }
+
+    /**
+     * Gets the estimated rendered size, for presizing output buffers
+     * @return Estimated number of characters
+     */
+    public int getSizeHint() {
+        return sizeHint;
+    }
+
+    /**
+     * Appends text with the HTML special characters escaped
+     *
+     * @param text Text to escape (may be null)
+     * @param out Destination
+     */
+    public static void appendEscaped(CharSequence text, StringBuilder out) {
+        if (text == null) {
+            return;
+        }
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&#39;"; break;
+                default: continue;
+            }
+            out.append(text, start, i).append(replacement);
+            start = i + 1;
+        }
+        out.append(text, start, length);
+    }
+
+    /**
+     * Parses template source into a compiled template
+     *
+     * @param source Template text
+     * @param partials Loader for {{> name}} partials (may be null if none are used)
+     * @return Compiled template
+     * @throws IllegalArgumentException if the template is malformed
+     */
+    public static EmailTemplate compile(String source, PartialLoader partials) {
+        Deque<Section> open = new ArrayDeque<>();
+        List<Fragment> current = new ArrayList<>();
+        Deque<List<Fragment>> outer = new ArrayDeque<>();
+        int[] textSize = {0};
+        int variables = 0;
+
+        int position = 0;
+        while (position < source.length()) {
+            int tagStart = source.indexOf("{{", position);
+            if (tagStart < 0) {
+                addText(current, source.substring(position), textSize);
+                break;
+            }
+
+            boolean raw = source.startsWith("{{{", tagStart);
+            String closing = raw ? "}}}" : "}}";
+            int contentStart = tagStart + (raw ? 3 : 2);
+            int contentEnd = source.indexOf(closing, contentStart);
+            if (contentEnd < 0) {
+                throw new IllegalArgumentException("Unclosed tag at line " + lineOf(source, tagStart));
+            }
+            int tagEnd = contentEnd + closing.length();
+            String content = source.substring(contentStart, contentEnd).trim();
+            char type = raw || content.isEmpty() ? 0 : content.charAt(0);
+            boolean control = type == '#' || type == '^' || type == '/' || type == '>' || type == '!';
+            String name = control ? content.substring(1).trim() : content;
+
+            // A control tag alone on its line swallows the whole line
+            int textEnd = tagStart;
+            int next = tagEnd;
+            if (control) {
+                int lineStart = source.lastIndexOf('\n', tagStart - 1) + 1;
+                int lineEnd = source.indexOf('\n', tagEnd);
+                if (lineEnd < 0) {
+                    lineEnd = source.length();
+                }
+                if (isBlank(source, lineStart, tagStart) && isBlank(source, tagEnd, lineEnd)) {
+                    textEnd = lineStart;
+                    next = Math.min(lineEnd + 1, source.length());
+                }
+            }
+            addText(current, source.substring(position, textEnd), textSize);
+            position = next;
+
+            if (name.isEmpty() && type != '!') {
+                throw new IllegalArgumentException("Empty tag at line " + lineOf(source, tagStart));
+            }
+            switch (type) {
+                case '!':
+                    break;
+                case '#':
+                case '^':
+                    open.push(new Section(name, type == '^'));
+                    outer.push(current);
+                    current = new ArrayList<>();
+                    break;
+                case '/':
+                    if (open.isEmpty() || !open.peek().name.equals(name)) {
+                        throw new IllegalArgumentException("Unexpected {{/" + name + "}} at line "
+                            + lineOf(source, tagStart));
+                    }
+                    Section section = open.pop();
+                    section.body = current.toArray(NO_FRAGMENTS);
+                    current = outer.pop();
+                    current.add(section);
+                    break;
+                case '>':
+                    if (partials == null) {
+                        throw new IllegalArgumentException("No partial loader for {{> " + name + "}}");
+                    }
+                    EmailTemplate partial = partials.load(name);
+                    for (Fragment fragment : partial.fragments) {
+                        current.add(fragment);
+                    }
+                    textSize[0] += partial.sizeHint;
+                    break;
+                default:
+                    current.add(raw ? new RawVariable(name) : new EscapedVariable(name));
+                    variables++;
+                    break;
+            }
+        }
+
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed section {{#" + open.peek().name + "}}");
+        }
+        return new EmailTemplate(current.toArray(NO_FRAGMENTS), textSize[0] + variables * VARIABLE_SIZE_ESTIMATE);
+    }
+
+    private static void addText(List<Fragment> fragments, String text, int[] textSize) {
+        if (!text.isEmpty()) {
+            fragments.add(new Text(text));
+            textSize[0] += text.length();
+        }
+    }
+
+    private static boolean isBlank(String source, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lineOf(String source, int index) {
+        int line = 1;
+        for (int i = 0; i < index; i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    private static void renderAll(Fragment[] fragments, Map<String, ?> model, StringBuilder out) {
+        for (Fragment fragment : fragments) {
+            fragment.render(model, out);
+        }
+    }
+
+    /**
+     * Checks whether a model value enables a {{#section}}
+     */
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).toString().trim().length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        return true;
+    }
+
+    private static final class Text implements Fragment {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private static final class EscapedVariable implements Fragment {
+        private final String name;
+
+        EscapedVariable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            Object value = model.get(name);
+            if (value != null) {
+                appendEscaped(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value), out);
+            }
+        }
+    }
+
+    private static final class RawVariable implements Fragment {
+        private final String name;
+
+        RawVariable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            Object value = model.get(name);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+    }
+
+    private static final class Section implements Fragment {
+        private final String name;
+        private final boolean inverted;
+        private Fragment[] body = NO_FRAGMENTS;
+
+        Section(String name, boolean inverted) {
+            this.name = name;
+            this.inverted = inverted;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            Object value = model.get(name);
+            if (!inverted && value instanceof Iterable) {
+                for (Object item : (Iterable<?>) value) {
+                    renderAll(body, item instanceof Map ? new Scope((Map<?, ?>) item, model) : model, out);
+                }
+            } else if (isTruthy(value) != inverted) {
+                renderAll(body, model, out);
+            }
+        }
+    }
+
+    /**
+     * Lookup view of a list item that falls back to the enclosing model
+     */
+    private static final class Scope extends AbstractMap<String, Object> {
+        private final Map<?, ?> item;
+        private final Map<String, ?> parent;
+
+        Scope(Map<?, ?> item, Map<String, ?> parent) {
+            this.item = item;
+            this.parent = parent;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Object value = item.get(key);
+            return value != null || item.containsKey(key) ? value : parent.get(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            // Only get() is used while rendering
+            return Collections.emptySet();
+        }
+    }
+}
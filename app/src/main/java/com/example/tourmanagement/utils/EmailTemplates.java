@@ -0,0 +1,215 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of compiled email templates.
+ * Templates live in assets/email as name.html; shared partials are named
+ * _partial.html. Each template is read and compiled once per locale, then
+ * rendered into a per-thread StringBuilder that is reused across sends.
+ *
+ * Locale variants are picked like Android resources, most specific first:
+ * name_vi_VN.html, name_vi.html, name.html. Partials are resolved the same
+ * way, so a translated template can share untranslated partials.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class EmailTemplates {
+
+    /**
+     * Reads raw template text
+     */
+    public interface Source {
+        /**
+         * @param path Path relative to the template root, e.g. "email/booking_confirmation.html"
+         * @return Template text, or null if there is no such file
+         * @throws IOException if the file exists but cannot be read
+         */
+        String read(String path) throws IOException;
+    }
+
+    private static final String ROOT = "email/";
+    private static final String EXTENSION = ".html";
+    private static final String PARTIAL_PREFIX = "_";
+
+    /**
+     * Render buffers larger than this are not kept for reuse
+     */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+
+    private static volatile EmailTemplates instance;
+
+    private final Source source;
+    private final Map<String, EmailTemplate> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param source Where template files are read from
+     */
+    public EmailTemplates(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Gets the app-wide registry backed by the APK assets
+     *
+     * @param context Any context
+     * @return Shared instance
+     */
+    public static EmailTemplates getInstance(Context context) {
+        if (instance == null) {
+            synchronized (EmailTemplates.class) {
+                if (instance == null) {
+                    instance = new EmailTemplates(assetSource(context.getApplicationContext().getAssets()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a source reading from an AssetManager
+     *
+     * @param assets Asset manager
+     * @return Template source
+     */
+    public static Source assetSource(AssetManager assets) {
+        return path -> {
+            try (InputStream in = assets.open(path)) {
+                return readFully(in);
+            } catch (FileNotFoundException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Reads a stream as UTF-8 text
+     *
+     * @param in Stream to read
+     * @return Contents of the stream
+     * @throws IOException if reading fails
+     */
+    public static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a compiled template, compiling it on first use
+     *
+     * @param name Template name without extension, e.g. "booking_confirmation"
+     * @param locale Locale used to pick a translated variant
+     * @return Compiled template
+     * @throws IllegalStateException if the template is missing or malformed
+     */
+    public EmailTemplate get(String name, Locale locale) {
+        String key = name + '|' + locale.toLanguageTag();
+        EmailTemplate template = compiled.get(key);
+        if (template == null) {
+            // Compile outside computeIfAbsent: partials are loaded recursively into the same map
+            template = compile(name, locale);
+            EmailTemplate existing = compiled.putIfAbsent(key, template);
+            if (existing != null) {
+                template = existing;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Renders a template into a new string, using a reused per-thread buffer
+     *
+     * @param name Template name
+     * @param locale Locale used to pick a translated variant
+     * @param model Values referenced by the template
+     * @return Rendered HTML
+     */
+    public String render(String name, Locale locale, Map<String, ?> model) {
+        EmailTemplate template = get(name, locale);
+        StringBuilder out = BUFFER.get();
+        if (out == null) {
+            out = new StringBuilder(template.getSizeHint());
+            BUFFER.set(out);
+        }
+        out.setLength(0);
+        template.render(model, out);
+        String html = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return html;
+    }
+
+    /**
+     * Renders a template, appending to a caller-owned buffer
+     *
+     * @param name Template name
+     * @param locale Locale used to pick a translated variant
+     * @param model Values referenced by the template
+     * @param out Destination
+     */
+    public void render(String name, Locale locale, Map<String, ?> model, StringBuilder out) {
+        get(name, locale).render(model, out);
+    }
+
+    private EmailTemplate compile(String name, Locale locale) {
+        String text = null;
+        String path = null;
+        try {
+            for (String candidate : candidatePaths(name, locale)) {
+                text = source.read(candidate);
+                if (text != null) {
+                    path = candidate;
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read email template " + name, e);
+        }
+        if (text == null) {
+            throw new IllegalStateException("Email template not found: " + name);
+        }
+
+        try {
+            return EmailTemplate.compile(text, partial -> get(PARTIAL_PREFIX + partial, locale));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid email template " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String[] candidatePaths(String name, Locale locale) {
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        String base = ROOT + name;
+        if (language.isEmpty()) {
+            return new String[] {base + EXTENSION};
+        }
+        if (country.isEmpty()) {
+            return new String[] {base + '_' + language + EXTENSION, base + EXTENSION};
+        }
+        return new String[] {
+            base + '_' + language + '_' + country + EXTENSION,
+            base + '_' + language + EXTENSION,
+            base + EXTENSION
+        };
+    }
+}
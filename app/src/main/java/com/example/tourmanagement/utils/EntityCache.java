@@ -0,0 +1,229 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.collection.LruCache;
+import androidx.room.InvalidationTracker;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache for users and tours looked up by ID.
+ * Booking screens and adapters resolve the same few users and tours over and
+ * over; this cache answers those lookups without a SQLite round trip.
+ *
+ * Features:
+ * - LRU eviction with a fixed number of entries per table
+ * - Whole-table invalidation when Room reports a change to users or tours
+ * - Per-row invalidation right after the app's own writes, before Room's
+ *   asynchronous notification arrives
+ * - Hit/miss counters, logged periodically
+ *
+ * Returned objects are shared between callers and must not be modified.
+ * Screens that edit an entity load their own copy from the DAO.
+ * Lookups that miss query the database, so call them off the main thread.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class EntityCache {
+
+    private static final String TAG = "EntityCache";
+
+    /**
+     * Maximum number of cached entries per table
+     */
+    private static final int USER_ENTRIES = 64;
+    private static final int TOUR_ENTRIES = 128;
+
+    /**
+     * A summary is logged every this many lookups
+     */
+    private static final int LOG_INTERVAL = 200;
+
+    private static volatile EntityCache INSTANCE;
+
+    private final Table<User> users;
+    private final Table<Tour> tours;
+
+    /**
+     * Loads one row by ID
+     */
+    interface Loader<T> {
+        T load(int id);
+    }
+
+    /**
+     * Cache of one table.
+     * The generation is bumped on every invalidation; a load that raced with an
+     * invalidation is returned to its caller but not stored. The generation check
+     * and the store happen under the same lock as invalidation, so an invalidation
+     * cannot land between them.
+     */
+    private static final class Table<T> {
+        private final String name;
+        private final Loader<T> loader;
+        private final LruCache<Integer, T> cache;
+        private int generation;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        Table(String name, int maxEntries, Loader<T> loader) {
+            this.name = name;
+            this.loader = loader;
+            this.cache = new LruCache<>(maxEntries);
+        }
+
+        T get(int id) {
+            T value = cache.get(id);
+            if (value != null) {
+                count(hits.incrementAndGet(), misses.get());
+                return value;
+            }
+            count(hits.get(), misses.incrementAndGet());
+
+            int loadedAt;
+            synchronized (this) {
+                loadedAt = generation;
+            }
+            value = loader.load(id);
+            if (value != null) {
+                synchronized (this) {
+                    if (generation == loadedAt) {
+                        cache.put(id, value);
+                    }
+                }
+            }
+            return value;
+        }
+
+        synchronized void invalidate(int id) {
+            generation++;
+            cache.remove(id);
+        }
+
+        synchronized void invalidateAll() {
+            generation++;
+            cache.evictAll();
+        }
+
+        String stats() {
+            long h = hits.get();
+            long total = h + misses.get();
+            return String.format(Locale.US, "%s: %d hits / %d lookups (%.0f%%), %d cached",
+                name, h, total, total == 0 ? 0.0 : 100.0 * h / total, cache.size());
+        }
+
+        private void count(long h, long m) {
+            if ((h + m) % LOG_INTERVAL == 0) {
+                Log.d(TAG, stats());
+            }
+        }
+    }
+
+    private EntityCache(TourManagementDatabase database) {
+        this(id -> database.userDao().getUserById(id), id -> database.tourDao().getTourById(id));
+
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("users", "tours") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                onTablesInvalidated(tables);
+            }
+        });
+    }
+
+    /**
+     * Creates a cache over the given loaders, without observing the database
+     *
+     * @param userLoader Loads a user by ID
+     * @param tourLoader Loads a tour by ID
+     */
+    EntityCache(Loader<User> userLoader, Loader<Tour> tourLoader) {
+        users = new Table<>("users", USER_ENTRIES, userLoader);
+        tours = new Table<>("tours", TOUR_ENTRIES, tourLoader);
+    }
+
+    /**
+     * Clears the tables Room reported as changed
+     *
+     * @param tables Names of the changed tables
+     */
+    void onTablesInvalidated(Set<String> tables) {
+        if (tables.contains("users")) {
+            users.invalidateAll();
+        }
+        if (tables.contains("tours")) {
+            tours.invalidateAll();
+        }
+    }
+
+    /**
+     * Gets the singleton cache
+     *
+     * @param context Any context; the application context is used
+     * @return Cache instance
+     */
+    public static EntityCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (EntityCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new EntityCache(TourManagementDatabase.getDatabase(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Gets a user by ID
+     *
+     * @param userId User ID
+     * @return Shared user object, or null if there is no such user
+     */
+    public User getUser(int userId) {
+        return users.get(userId);
+    }
+
+    /**
+     * Gets a tour by ID
+     *
+     * @param tourId Tour ID
+     * @return Shared tour object, or null if there is no such tour
+     */
+    public Tour getTour(int tourId) {
+        return tours.get(tourId);
+    }
+
+    /**
+     * Drops a user after the app changed or deleted it
+     *
+     * @param userId User ID
+     */
+    public void invalidateUser(int userId) {
+        users.invalidate(userId);
+    }
+
+    /**
+     * Drops a tour after the app changed or deleted it
+     *
+     * @param tourId Tour ID
+     */
+    public void invalidateTour(int tourId) {
+        tours.invalidate(tourId);
+    }
+
+    /**
+     * Gets a one-line summary of the hit ratio per table
+     *
+     * @return Human readable statistics
+     */
+    public String getStats() {
+        return users.stats() + "; " + tours.stats();
+    }
+}
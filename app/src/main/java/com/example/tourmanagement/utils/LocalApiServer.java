@@ -0,0 +1,677 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.pricing.PricingEngine;
+import fi.iki.elonen.NanoHTTPD;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Optional HTTP API on the device, so a second terminal at the front desk (a
+ * browser or kiosk on the same network) can look up tours and tickets and
+ * create bookings against this device's database, without a cloud backend.
+ *
+ * Endpoints (JSON, every request needs "Authorization: Bearer &lt;token&gt;"):
+ * - GET  /api/tours?q=&amp;limit=            Search tours (bookable tours without q)
+ * - GET  /api/tours/{id}/availability     Seats of one tour
+ * - POST /api/bookings                    Book {"userId", "tourId", "people", "notes"}
+ * - GET  /api/tickets/{bookingReference}  Ticket of a booking
+ *
+ * Features:
+ * - Off by default; admins turn it on in Settings, with a random access token
+ * - Bookings priced on the device and created through BookingCreator, so the
+ *   API and the booking screen never overbook a tour between them
+ * - Connections served by a bounded thread pool; further connections queue
+ * - HTTP keep-alive, closing connections idle for KEEP_ALIVE_TIMEOUT_MS
+ * - Gzip responses for clients sending Accept-Encoding: gzip, and gzip request bodies
+ *
+ * The pool is separate from TaskScheduler: a keep-alive connection holds its
+ * thread while the terminal stays connected, which would starve the shared pools.
+ * The server runs while the app process is alive.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class LocalApiServer extends NanoHTTPD {
+
+    private static final String TAG = "LocalApiServer";
+
+    /**
+     * Port the server listens on
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Threads serving connections; each open connection holds one
+     */
+    static final int THREADS = 8;
+
+    /**
+     * Connections waiting for a thread before new ones are refused
+     */
+    static final int QUEUED_CONNECTIONS = 64;
+
+    /**
+     * A kept-alive connection without a new request is closed after this time
+     */
+    static final int KEEP_ALIVE_TIMEOUT_MS = 5000;
+
+    /**
+     * Largest accepted request body
+     */
+    static final int MAX_BODY_BYTES = 16 * 1024;
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final String MIME_JSON = "application/json; charset=utf-8";
+    private static final String API_PREFIX = "/api/";
+
+    private static final String PREF_NAME = "TourManagementPrefs";
+    private static final String KEY_ENABLED = "local_api_enabled";
+    private static final String KEY_TOKEN = "local_api_token";
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.IO, TaskScheduler.Priority.NORMAL);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Server started from the settings, null while off
+     */
+    private static LocalApiServer running;
+
+    /**
+     * Callback for starting or stopping the server, invoked on the main thread
+     */
+    public interface Callback {
+        void onComplete(Report report);
+        void onError(Exception error);
+    }
+
+    /**
+     * State of the server after starting or stopping it
+     */
+    public static final class Report {
+        public final boolean running;
+
+        /**
+         * Base URL other terminals use (null while off or without a network)
+         */
+        public final String url;
+
+        public final String accessToken;
+
+        Report(boolean running, String url, String accessToken) {
+            this.running = running;
+            this.url = url;
+            this.accessToken = accessToken;
+        }
+
+        /**
+         * Gets a one-line summary for display
+         *
+         * @return Human readable summary
+         */
+        public String getSummary() {
+            if (!running) {
+                return "Local API is off";
+            }
+            if (url == null) {
+                return "Local API is on, but this device has no network address";
+            }
+            return String.format(Locale.US, "Local API at %s, token %s", url, accessToken);
+        }
+    }
+
+    private final Context appContext;
+    private final TourManagementDatabase database;
+    private final TourSearchIndex searchIndex;
+    private final BookingCreator bookingCreator;
+    private final byte[] accessToken;
+
+    /**
+     * Whether created bookings get the app follow-up (cache, expiry job, sync, admin digest)
+     */
+    private final boolean followUp;
+
+    /**
+     * Creates a server over any database, e.g. an in-memory one in tests.
+     * Bookings made through it skip the app follow-up of BookingCreator.onCreated,
+     * which belongs to the app database.
+     *
+     * @param context Any context
+     * @param database Database to serve
+     * @param port Port to listen on (0 for any free port)
+     * @param accessToken Token clients must send
+     */
+    public LocalApiServer(Context context, TourManagementDatabase database, int port, String accessToken) {
+        this(context, database, new TourSearchIndex(database), port, accessToken, false);
+    }
+
+    private LocalApiServer(Context context, TourManagementDatabase database, TourSearchIndex searchIndex,
+                           int port, String accessToken, boolean followUp) {
+        super(port);
+        this.appContext = context.getApplicationContext();
+        this.database = database;
+        this.searchIndex = searchIndex;
+        this.bookingCreator = BookingCreator.create(database);
+        this.accessToken = accessToken.getBytes(StandardCharsets.UTF_8);
+        this.followUp = followUp;
+        setAsyncRunner(new PooledRunner());
+    }
+
+    /**
+     * Starts listening, with keep-alive connections closed after KEEP_ALIVE_TIMEOUT_MS
+     *
+     * @throws IOException If the port cannot be bound
+     */
+    @Override
+    public void start() throws IOException {
+        start(KEEP_ALIVE_TIMEOUT_MS, true);
+    }
+
+    /**
+     * Gets whether the admin turned the local API on
+     *
+     * @param context Any context
+     * @return true if the server should run
+     */
+    public static boolean isEnabled(Context context) {
+        return prefs(context).getBoolean(KEY_ENABLED, false);
+    }
+
+    /**
+     * Gets the token other terminals send, created on first use
+     *
+     * @param context Any context
+     * @return Access token
+     */
+    public static synchronized String getAccessToken(Context context) {
+        SharedPreferences preferences = prefs(context);
+        String token = preferences.getString(KEY_TOKEN, "");
+        if (token.isEmpty()) {
+            byte[] random = new byte[12];
+            new SecureRandom().nextBytes(random);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : random) {
+                hex.append(String.format(Locale.US, "%02x", b));
+            }
+            token = hex.toString();
+            preferences.edit().putString(KEY_TOKEN, token).apply();
+        }
+        return token;
+    }
+
+    /**
+     * Starts the server in the background if the admin turned it on
+     *
+     * @param context Any context
+     */
+    public static void startIfEnabled(Context context) {
+        if (!isEnabled(context)) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                Report report = apply(appContext, true);
+                Log.i(TAG, report.getSummary());
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to start the local API", e);
+            }
+        });
+    }
+
+    /**
+     * Turns the server on or off in the background and remembers the choice
+     *
+     * @param context Any context
+     * @param enabled true to start the server, false to stop it
+     * @param callback Result callback (invoked on the main thread)
+     */
+    public static void setEnabledAsync(Context context, boolean enabled, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        prefs(appContext).edit().putBoolean(KEY_ENABLED, enabled).apply();
+        EXECUTOR.execute(() -> {
+            try {
+                Report report = apply(appContext, enabled);
+                MAIN_HANDLER.post(() -> callback.onComplete(report));
+            } catch (IOException e) {
+                // E.g. the port is taken; stay off rather than retry on every launch
+                prefs(appContext).edit().putBoolean(KEY_ENABLED, false).apply();
+                Log.e(TAG, "Failed to start the local API", e);
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Gets the current state of the server
+     *
+     * @param context Any context
+     * @return Server state
+     */
+    public static synchronized Report getReport(Context context) {
+        if (running == null) {
+            return new Report(false, null, null);
+        }
+        String address = getLocalAddress();
+        String url = address != null ? "http://" + address + ":" + running.getListeningPort() + "/api" : null;
+        return new Report(true, url, getAccessToken(context));
+    }
+
+    private static synchronized Report apply(Context context, boolean enabled) throws IOException {
+        if (enabled && running == null) {
+            LocalApiServer server = new LocalApiServer(context, TourManagementDatabase.getDatabase(context),
+                TourSearchIndex.getInstance(context), DEFAULT_PORT, getAccessToken(context), true);
+            server.start();
+            running = server;
+        } else if (!enabled && running != null) {
+            running.stop();
+            running = null;
+        }
+        return getReport(context);
+    }
+
+    /**
+     * Gets the IPv4 address of this device on the local network
+     *
+     * @return Address, or null without a network
+     */
+    static String getLocalAddress() {
+        try {
+            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+            while (interfaces != null && interfaces.hasMoreElements()) {
+                NetworkInterface networkInterface = interfaces.nextElement();
+                if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                    continue;
+                }
+                for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    if (address instanceof Inet4Address && address.isSiteLocalAddress()) {
+                        return address.getHostAddress();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read network interfaces", e);
+        }
+        return null;
+    }
+
+    @Override
+    public Response serve(IHTTPSession session) {
+        String body = null;
+        try {
+            if (session.getMethod() == Method.POST) {
+                // Read first, so the next request on a kept-alive connection starts at the right place
+                body = readBody(session);
+            }
+        } catch (BadRequest e) {
+            Response response = error(e.status, e.getMessage());
+            response.closeConnection(true);
+            return response;
+        } catch (IOException e) {
+            Response response = error(Response.Status.BAD_REQUEST, "Unreadable body");
+            response.closeConnection(true);
+            return response;
+        }
+
+        try {
+            if (!isAuthorized(session)) {
+                return error(Response.Status.UNAUTHORIZED, "Missing or wrong access token");
+            }
+            return route(session, body);
+        } catch (BadRequest e) {
+            return error(e.status, e.getMessage());
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to serve " + session.getMethod() + " " + session.getUri(), e);
+            return error(Response.Status.INTERNAL_ERROR, "Internal error");
+        }
+    }
+
+    private Response route(IHTTPSession session, String body) throws JSONException, BadRequest {
+        String uri = session.getUri();
+        if (!uri.startsWith(API_PREFIX)) {
+            return error(Response.Status.NOT_FOUND, "Unknown endpoint");
+        }
+        String[] path = uri.substring(API_PREFIX.length()).split("/");
+        Method method = session.getMethod();
+
+        if (path.length == 1 && "tours".equals(path[0])) {
+            return method == Method.GET ? searchTours(session) : notAllowed();
+        }
+        if (path.length == 3 && "tours".equals(path[0]) && "availability".equals(path[2])) {
+            return method == Method.GET ? availability(path[1]) : notAllowed();
+        }
+        if (path.length == 1 && "bookings".equals(path[0])) {
+            return method == Method.POST ? createBooking(body) : notAllowed();
+        }
+        if (path.length == 2 && "tickets".equals(path[0])) {
+            return method == Method.GET ? ticket(path[1]) : notAllowed();
+        }
+        return error(Response.Status.NOT_FOUND, "Unknown endpoint");
+    }
+
+    @Override
+    protected boolean useGzipWhenAccepted(Response response) {
+        // Only used when the client sent Accept-Encoding: gzip
+        return true;
+    }
+
+    /**
+     * GET /api/tours?q=&amp;limit=
+     * Searches by name and location like the search screen; without a query
+     * lists the tours that still have seats
+     */
+    private Response searchTours(IHTTPSession session) throws JSONException, BadRequest {
+        String query = parameter(session, "q");
+        int limit = Math.min(parseInt(parameter(session, "limit"), DEFAULT_LIMIT, "limit"), MAX_LIMIT);
+        if (limit < 1) {
+            throw new BadRequest(Response.Status.BAD_REQUEST, "limit must be at least 1");
+        }
+
+        List<Tour> tours;
+        if (query == null || query.trim().isEmpty()) {
+            tours = database.tourDao().getAvailableTours();
+            if (tours.size() > limit) {
+                tours = tours.subList(0, limit);
+            }
+        } else {
+            List<Integer> rankedIds = searchIndex.search(query, limit);
+            tours = new ArrayList<>(rankedIds.size());
+            for (Integer tourId : rankedIds) {
+                Tour tour = database.tourDao().getTourById(tourId);
+                if (tour != null && tour.isActive()) {
+                    tours.add(tour);
+                }
+            }
+        }
+
+        JSONArray items = new JSONArray();
+        for (Tour tour : tours) {
+            items.put(tourJson(tour));
+        }
+        return json(Response.Status.OK, new JSONObject().put("tours", items));
+    }
+
+    /**
+     * GET /api/tours/{id}/availability
+     */
+    private Response availability(String id) throws JSONException, BadRequest {
+        Tour tour = database.tourDao().getTourById(parseInt(id, 0, "tour id"));
+        if (tour == null) {
+            return error(Response.Status.NOT_FOUND, "Tour not found");
+        }
+        return json(Response.Status.OK, new JSONObject()
+            .put("tourId", tour.getId())
+            .put("active", tour.isActive())
+            .put("capacity", tour.getNumberOfPeoples())
+            .put("booked", tour.getCurrentBookings())
+            .put("available", tour.isActive() ? tour.getAvailableSlots() : 0));
+    }
+
+    /**
+     * POST /api/bookings
+     * Prices the booking with the tour's best discount, like the booking
+     * screen, then takes the seats and stores it in one transaction
+     */
+    private Response createBooking(String body) throws JSONException, BadRequest {
+        JSONObject request;
+        try {
+            request = new JSONObject(body);
+        } catch (JSONException e) {
+            throw new BadRequest(Response.Status.BAD_REQUEST, "Body must be a JSON object");
+        }
+        int userId = request.optInt("userId", 0);
+        int tourId = request.optInt("tourId", 0);
+        int people = request.optInt("people", 0);
+        if (people < 1) {
+            return error(Response.Status.BAD_REQUEST, "people must be at least 1");
+        }
+
+        User user = database.userDao().getUserById(userId);
+        if (user == null) {
+            return error(Response.Status.NOT_FOUND, "User not found");
+        }
+        Tour tour = database.tourDao().getTourById(tourId);
+        if (tour == null || !tour.isActive()) {
+            return error(Response.Status.NOT_FOUND, "Tour not found");
+        }
+
+        long now = System.currentTimeMillis();
+        Discount discount = database.discountDao().getBestDiscountForTour(tourId, tour.getTourCost() * people, now);
+        PricingEngine.Quote quote = PricingEngine.quote(tour, people, discount, now);
+
+        Booking booking = new Booking(userId, tourId, people, quote.total);
+        booking.setNotes(request.optString("notes", "").trim());
+        booking.setExpiresAt(BookingExpiry.expiresAt(booking.getBookingDate()));
+
+        BookingCreator.Result result = bookingCreator.place(booking);
+        switch (result.status) {
+            case CREATED:
+                if (followUp) {
+                    BookingCreator.onCreated(appContext, user, result);
+                }
+                return json(Response.Status.CREATED, ticketJson(result.booking, result.tour)
+                    .put("discountAmount", quote.discountAmount));
+            case NOT_ENOUGH_SEATS:
+                return json(Response.Status.CONFLICT, new JSONObject()
+                    .put("error", "Not enough available slots")
+                    .put("available", result.tour.getAvailableSlots()));
+            case TOUR_NOT_FOUND:
+                return error(Response.Status.NOT_FOUND, "Tour not found");
+            default:
+                return error(Response.Status.BAD_REQUEST, "Invalid booking");
+        }
+    }
+
+    /**
+     * GET /api/tickets/{bookingReference}
+     */
+    private Response ticket(String reference) throws JSONException {
+        Booking booking = database.bookingDao().getBookingByReference(reference);
+        if (booking == null) {
+            return error(Response.Status.NOT_FOUND, "Ticket not found");
+        }
+        return json(Response.Status.OK, ticketJson(booking, database.tourDao().getTourById(booking.getTourId())));
+    }
+
+    private static JSONObject tourJson(Tour tour) throws JSONException {
+        return new JSONObject()
+            .put("id", tour.getId())
+            .put("name", tour.getTourName())
+            .put("location", tour.getTourLocation())
+            .put("time", tour.getTourTime())
+            .put("duration", tour.getDuration())
+            .put("cost", tour.getTourCost())
+            .put("available", tour.getAvailableSlots());
+    }
+
+    private static JSONObject ticketJson(Booking booking, Tour tour) throws JSONException {
+        JSONObject ticket = new JSONObject()
+            .put("bookingId", booking.getId())
+            .put("bookingReference", booking.getBookingReference())
+            .put("userId", booking.getUserId())
+            .put("people", booking.getNumberOfPeople())
+            .put("totalAmount", booking.getTotalAmount())
+            .put("bookingStatus", booking.getBookingStatus())
+            .put("paymentStatus", booking.getPaymentStatus())
+            .put("bookingDate", booking.getBookingDate())
+            .put("expiresAt", booking.getExpiresAt());
+        if (tour != null) {
+            ticket.put("tour", tourJson(tour));
+        }
+        return ticket;
+    }
+
+    /**
+     * Compares the bearer token in constant time
+     */
+    private boolean isAuthorized(IHTTPSession session) {
+        String header = session.getHeaders().get("authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(accessToken, header.substring(7).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the whole request body, unpacking it if sent gzipped
+     */
+    private static String readBody(IHTTPSession session) throws IOException, BadRequest {
+        Map<String, String> headers = session.getHeaders();
+        int length = parseInt(headers.get("content-length"), 0, "Content-Length");
+        if (length > MAX_BODY_BYTES) {
+            throw new BadRequest(Response.Status.PAYLOAD_TOO_LARGE, "Body larger than " + MAX_BODY_BYTES + " bytes");
+        }
+        byte[] body = new byte[length];
+        InputStream in = session.getInputStream();
+        int read = 0;
+        while (read < length) {
+            int n = in.read(body, read, length - read);
+            if (n < 0) {
+                throw new BadRequest(Response.Status.BAD_REQUEST, "Body shorter than Content-Length");
+            }
+            read += n;
+        }
+
+        if (!"gzip".equalsIgnoreCase(headers.get("content-encoding"))) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            byte[] buffer = new byte[4096];
+            for (int n; (n = gzip.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_BODY_BYTES) {
+                    throw new BadRequest(Response.Status.PAYLOAD_TOO_LARGE, "Body larger than " + MAX_BODY_BYTES + " bytes");
+                }
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String parameter(IHTTPSession session, String name) {
+        List<String> values = session.getParameters().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static int parseInt(String value, int fallback, String name) throws BadRequest {
+        if (value == null || value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequest(Response.Status.BAD_REQUEST, name + " must be a number");
+        }
+    }
+
+    private static Response json(Response.Status status, JSONObject body) {
+        return newFixedLengthResponse(status, MIME_JSON, body.toString());
+    }
+
+    private static Response error(Response.Status status, String message) {
+        return newFixedLengthResponse(status, MIME_JSON, "{\"error\":" + JSONObject.quote(message) + "}");
+    }
+
+    private static Response notAllowed() {
+        return error(Response.Status.METHOD_NOT_ALLOWED, "Method not allowed");
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Request that cannot be served, answered with its status
+     */
+    private static final class BadRequest extends Exception {
+        final Response.Status status;
+
+        BadRequest(Response.Status status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Serves connections on a fixed number of threads instead of one new
+     * thread per connection. Connections beyond the queue are closed at once.
+     */
+    private static final class PooledRunner implements AsyncRunner {
+        private final AtomicInteger threadCount = new AtomicInteger();
+        private final ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS,
+            30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUED_CONNECTIONS), runnable -> {
+                Thread thread = new Thread(runnable, "local-api-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        private final List<ClientHandler> open = Collections.synchronizedList(new ArrayList<>());
+
+        PooledRunner() {
+            pool.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void exec(ClientHandler handler) {
+            open.add(handler);
+            try {
+                pool.execute(handler);
+            } catch (RejectedExecutionException e) {
+                Log.w(TAG, "Too many connections, closing one");
+                open.remove(handler);
+                handler.close();
+            }
+        }
+
+        @Override
+        public void closed(ClientHandler handler) {
+            open.remove(handler);
+        }
+
+        @Override
+        public void closeAll() {
+            List<ClientHandler> handlers;
+            synchronized (open) {
+                handlers = new ArrayList<>(open);
+            }
+            for (ClientHandler handler : handlers) {
+                handler.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.example.tourmanagement.dao.MediaAssetDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.MediaAsset;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Content-addressed local store for profile and tour images.
+ * Picked images are hashed (SHA-256) while being copied, so importing the same
+ * picture again reuses the existing asset. Each new image is transcoded once to
+ * downsampled WebP variants; the original is discarded.
+ *
+ * Features:
+ * - Deduplication by content hash
+ * - WebP variants for avatar, card and detail display, EXIF orientation applied
+ * - Background import on a serial executor, results on the main thread
+ * - Garbage collection of assets no user or tour references, including
+ *   profile images copied to the legacy profile_images directory
+ *
+ * References are stored as "media://<hash>" in User.profileImagePath or
+ * Tour.tourImage and turned into file paths with resolve().
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class LocalMediaStore {
+
+    private static final String TAG = "LocalMediaStore";
+
+    /**
+     * Prefix of media store references
+     */
+    public static final String REF_PREFIX = "media://";
+
+    /**
+     * Unreferenced assets younger than this are kept (form picked but not saved yet)
+     */
+    private static final long GC_GRACE_PERIOD_MS = 24L * 60 * 60 * 1000;
+
+    private static final int WEBP_QUALITY = 80;
+
+    private static final String MEDIA_DIR = "media";
+
+    /**
+     * Directory profile images were copied to before the media store
+     */
+    private static final String LEGACY_PROFILE_DIR = "profile_images";
+
+    /**
+     * Stored image variants, bounded by their longest edge
+     */
+    public enum Variant {
+        AVATAR("avatar", 256, true),
+        CARD("card", 1080, false),
+        DETAIL("detail", 2048, false);
+
+        final String suffix;
+        final int maxEdge;
+        final boolean squareCrop;
+
+        Variant(String suffix, int maxEdge, boolean squareCrop) {
+            this.suffix = suffix;
+            this.maxEdge = maxEdge;
+            this.squareCrop = squareCrop;
+        }
+    }
+
+    /**
+     * Callback for image imports, invoked on the main thread
+     */
+    public interface ImportCallback {
+        /**
+         * Called when the image is stored
+         * @param ref Reference to save in User.profileImagePath or Tour.tourImage
+         */
+        void onImported(String ref);
+
+        /**
+         * Called when the image could not be read or transcoded
+         * @param error Cause of the failure
+         */
+        void onError(Exception error);
+    }
+
+    private static volatile LocalMediaStore INSTANCE;
+
+    private final Context appContext;
+    private final MediaAssetDao mediaAssetDao;
+    private final File mediaDir;
+    private final Executor executor =
+        TaskScheduler.getInstance().serialExecutor(TaskScheduler.Pool.IO, TaskScheduler.Priority.NORMAL);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private LocalMediaStore(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.mediaAssetDao = TourManagementDatabase.getDatabase(appContext).mediaAssetDao();
+        this.mediaDir = new File(appContext.getFilesDir(), MEDIA_DIR);
+    }
+
+    /**
+     * Gets the singleton media store
+     * @param context Any context
+     * @return Media store instance
+     */
+    public static LocalMediaStore getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (LocalMediaStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new LocalMediaStore(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether an image string is a media store reference
+     * @param imageRef Value of User.profileImagePath or Tour.tourImage
+     * @return true if it points into the media store
+     */
+    public static boolean isMediaRef(String imageRef) {
+        return imageRef != null && imageRef.startsWith(REF_PREFIX);
+    }
+
+    /**
+     * Resolves an image string to something Glide can load.
+     * Media references become the variant's file path; URLs and legacy file
+     * paths are returned unchanged.
+     *
+     * @param imageRef Value of User.profileImagePath or Tour.tourImage
+     * @param variant Variant to display
+     * @return Loadable path or URL, or null if imageRef is empty
+     */
+    public String resolve(String imageRef, Variant variant) {
+        if (imageRef == null || imageRef.trim().isEmpty()) {
+            return null;
+        }
+        if (!isMediaRef(imageRef)) {
+            return imageRef;
+        }
+        return variantFile(imageRef.substring(REF_PREFIX.length()), variant).getAbsolutePath();
+    }
+
+    /**
+     * Imports an image in the background
+     *
+     * @param source Content URI of the picked image
+     * @param callback Result callback, invoked on the main thread
+     */
+    public void importImage(Uri source, ImportCallback callback) {
+        executor.execute(() -> {
+            try {
+                String ref = importImageBlocking(source);
+                mainHandler.post(() -> callback.onImported(ref));
+            } catch (Exception e) {
+                Log.e(TAG, "Error importing image", e);
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Runs garbage collection in the background
+     */
+    public void collectGarbageAsync() {
+        executor.execute(() -> {
+            try {
+                int removed = collectGarbage();
+                if (removed > 0) {
+                    Log.d(TAG, "Removed " + removed + " unreferenced media assets and legacy images");
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error collecting unreferenced media", e);
+            }
+        });
+    }
+
+    /**
+     * Copies, hashes and transcodes an image. Runs on the store executor.
+     *
+     * @param source Content URI of the picked image
+     * @return Media reference
+     * @throws IOException if the image cannot be read or written
+     */
+    private String importImageBlocking(Uri source) throws IOException {
+        ensureMediaDir();
+        File temp = File.createTempFile("import_", ".tmp", appContext.getCacheDir());
+        try {
+            String hash = copyAndHash(source, temp);
+
+            MediaAsset existing = mediaAssetDao.getAssetByHash(hash);
+            if (existing != null && variantsExist(hash)) {
+                mediaAssetDao.updateImportedAt(hash, System.currentTimeMillis());
+                return REF_PREFIX + hash;
+            }
+
+            BitmapFactory.Options bounds = new BitmapFactory.Options();
+            bounds.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(temp.getAbsolutePath(), bounds);
+            if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+                throw new IOException("Unsupported image format");
+            }
+            int orientation = readOrientation(temp);
+
+            long byteSize = 0;
+            for (Variant variant : Variant.values()) {
+                byteSize += writeVariant(temp, bounds.outWidth, bounds.outHeight, orientation,
+                    variantFile(hash, variant), variant);
+            }
+
+            MediaAsset asset = new MediaAsset();
+            asset.setHash(hash);
+            asset.setSourceWidth(bounds.outWidth);
+            asset.setSourceHeight(bounds.outHeight);
+            asset.setAvatarPath(variantFile(hash, Variant.AVATAR).getAbsolutePath());
+            asset.setCardPath(variantFile(hash, Variant.CARD).getAbsolutePath());
+            asset.setDetailPath(variantFile(hash, Variant.DETAIL).getAbsolutePath());
+            asset.setByteSize(byteSize);
+            asset.setImportedAt(System.currentTimeMillis());
+            mediaAssetDao.insertAsset(asset);
+
+            return REF_PREFIX + hash;
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Deletes assets that no user or tour references, plus files without a row
+     * (left behind by an interrupted import) and legacy profile images no user
+     * or tour points at any more. Runs on the store executor.
+     *
+     * @return Number of assets and legacy files removed
+     */
+    private int collectGarbage() {
+        long cutoff = System.currentTimeMillis() - GC_GRACE_PERIOD_MS;
+
+        List<MediaAsset> unreferenced = mediaAssetDao.getUnreferencedAssets(REF_PREFIX, cutoff);
+        for (MediaAsset asset : unreferenced) {
+            for (Variant variant : Variant.values()) {
+                variantFile(asset.getHash(), variant).delete();
+            }
+            mediaAssetDao.deleteAsset(asset.getHash());
+        }
+
+        File[] files = mediaDir.listFiles();
+        if (files != null) {
+            Set<String> knownHashes = new HashSet<>(mediaAssetDao.getAllHashes());
+            for (File file : files) {
+                String name = file.getName();
+                int separator = name.indexOf('_');
+                String hash = separator > 0 ? name.substring(0, separator) : name;
+                if (!knownHashes.contains(hash) && file.lastModified() < cutoff) {
+                    file.delete();
+                }
+            }
+        }
+        return unreferenced.size() + collectLegacyProfileImages(cutoff);
+    }
+
+    /**
+     * Deletes files in the legacy profile image directory that no user or tour
+     * references, and the directory itself once it is empty
+     *
+     * @param cutoff Only files last modified before this timestamp are deleted
+     * @return Number of files removed
+     */
+    private int collectLegacyProfileImages(long cutoff) {
+        File legacyDir = new File(appContext.getFilesDir(), LEGACY_PROFILE_DIR);
+        File[] files = legacyDir.listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        Set<String> referenced = new HashSet<>(
+            mediaAssetDao.getPathsUnder(legacyDir.getAbsolutePath() + File.separator));
+        int removed = 0;
+        for (File file : files) {
+            if (!referenced.contains(file.getAbsolutePath()) && file.lastModified() < cutoff && file.delete()) {
+                removed++;
+            }
+        }
+        if (removed == files.length) {
+            legacyDir.delete();
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the source into a file while computing its SHA-256
+     *
+     * @param source Content URI to read
+     * @param target File to write
+     * @return Hex-encoded hash of the copied bytes
+     * @throws IOException if the source cannot be read
+     */
+    private String copyAndHash(Uri source, File target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
+
+        InputStream raw = appContext.getContentResolver().openInputStream(source);
+        if (raw == null) {
+            throw new IOException("Cannot open " + source);
+        }
+        try (InputStream in = new DigestInputStream(raw, digest);
+             OutputStream out = new FileOutputStream(target)) {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Decodes the source at the smallest sample size that still covers the
+     * variant, scales, rotates and writes it as WebP
+     *
+     * @return Number of bytes written
+     */
+    private long writeVariant(File source, int width, int height, int orientation,
+                              File target, Variant variant) throws IOException {
+        int targetEdge = variant.squareCrop
+            ? Math.min(variant.maxEdge, Math.min(width, height))
+            : Math.min(variant.maxEdge, Math.max(width, height));
+        int decodeEdge = variant.squareCrop ? Math.min(width, height) : Math.max(width, height);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = 1;
+        while (decodeEdge / (options.inSampleSize * 2) >= targetEdge) {
+            options.inSampleSize *= 2;
+        }
+        Bitmap decoded = BitmapFactory.decodeFile(source.getAbsolutePath(), options);
+        if (decoded == null) {
+            throw new IOException("Cannot decode image");
+        }
+
+        int w = decoded.getWidth();
+        int h = decoded.getHeight();
+        int cropX = 0;
+        int cropY = 0;
+        if (variant.squareCrop) {
+            int side = Math.min(w, h);
+            cropX = (w - side) / 2;
+            cropY = (h - side) / 2;
+            w = side;
+            h = side;
+        }
+        float scale = Math.min(1f, (float) targetEdge / Math.max(w, h));
+
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        matrix.postRotate(orientation);
+        Bitmap output = Bitmap.createBitmap(decoded, cropX, cropY, w, h, matrix, true);
+        if (output != decoded) {
+            decoded.recycle();
+        }
+
+        File partial = new File(target.getPath() + ".part");
+        try (OutputStream out = new FileOutputStream(partial)) {
+            output.compress(webpFormat(), WEBP_QUALITY, out);
+        } finally {
+            output.recycle();
+        }
+        if (!partial.renameTo(target)) {
+            partial.delete();
+            throw new IOException("Cannot write " + target);
+        }
+        return target.length();
+    }
+
+    /**
+     * Reads the EXIF rotation of an image
+     * @param file Image file
+     * @return Rotation in degrees
+     */
+    private static int readOrientation(File file) {
+        try {
+            ExifInterface exif = new ExifInterface(file.getAbsolutePath());
+            switch (exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL)) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+            ? Bitmap.CompressFormat.WEBP_LOSSY
+            : Bitmap.CompressFormat.WEBP;
+    }
+
+    private boolean variantsExist(String hash) {
+        for (Variant variant : Variant.values()) {
+            if (!variantFile(hash, variant).exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private File variantFile(String hash, Variant variant) {
+        return new File(mediaDir, hash + "_" + variant.suffix + ".webp");
+    }
+
+    private void ensureMediaDir() throws IOException {
+        if (!mediaDir.exists() && !mediaDir.mkdirs()) {
+            throw new IOException("Cannot create " + mediaDir);
+        }
+    }
+}
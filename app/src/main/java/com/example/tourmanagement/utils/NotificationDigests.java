@@ -0,0 +1,247 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.NotificationPreference;
+import com.example.tourmanagement.model.PendingDigest;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.worker.NotificationDigestWorker;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking notification digests.
+ * Recipients in digest mode get one summary email per time window (or once
+ * enough events have piled up) instead of one email per booking event.
+ * Events are stored in the notification_events table and summarized by
+ * NotificationDigestWorker, which queues the digest in the EmailOutbox.
+ *
+ * Features:
+ * - Per-recipient choice between immediate emails and digests
+ * - Digest after a time window or a number of events, whichever comes first
+ * - Optional admin address that receives a digest of customer bookings
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class NotificationDigests {
+
+    private static final String TAG = "NotificationDigests";
+
+    /**
+     * Unique WorkManager name of the digest job
+     */
+    public static final String WORK_NAME = "notification_digest";
+
+    /**
+     * Default digest window and early-send threshold
+     */
+    public static final int DEFAULT_WINDOW_MINUTES = 15;
+    public static final int DEFAULT_MAX_EVENTS = 20;
+
+    /**
+     * Preference key of the address that receives admin booking digests
+     */
+    public static final String KEY_ADMIN_EMAIL = "admin_notification_email";
+    private static final String PREF_NAME = "TourManagementPrefs";
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.ANALYTICS, TaskScheduler.Priority.NORMAL);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Callback for loading a preference
+     */
+    public interface PreferenceCallback {
+        void onLoaded(NotificationPreference preference);
+    }
+
+    private NotificationDigests() {
+    }
+
+    /**
+     * Sends a customer booking email now or adds the event to the customer's digest
+     *
+     * @param context Any context
+     * @param event Event describing the booking update
+     * @param sendImmediately Sends the full email; run on the main thread in immediate mode
+     * @param callback Callback invoked on the main thread in digest mode (may be null)
+     */
+    public static void dispatch(Context context, NotificationEvent event, Runnable sendImmediately,
+                                EmailService.EmailCallback callback) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                TourManagementDatabase database = TourManagementDatabase.getDatabase(appContext);
+                if (!getPreference(database, event.getRecipient(), NotificationPreference.Mode.IMMEDIATE).isDigest()) {
+                    MAIN_HANDLER.post(sendImmediately);
+                    return;
+                }
+                record(appContext, database, event);
+                if (callback != null) {
+                    MAIN_HANDLER.post(callback::onSuccess);
+                }
+            } catch (Exception e) {
+                // Fall back to a regular email rather than losing the notification
+                Log.e(TAG, "Failed to add event to digest", e);
+                MAIN_HANDLER.post(sendImmediately);
+            }
+        });
+    }
+
+    /**
+     * Adds a customer booking event to the admin digest, if an admin address is set
+     *
+     * @param context Any context
+     * @param eventType Event type (see NotificationEvent.Type)
+     * @param user Customer who made the booking
+     * @param tour Booked tour
+     * @param booking Booking details
+     */
+    public static void notifyAdmin(Context context, String eventType, User user, Tour tour, Booking booking) {
+        String adminEmail = getAdminEmail(context);
+        if (adminEmail.isEmpty()) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        NotificationEvent event = new NotificationEvent(adminEmail, eventType, user, tour, booking);
+        EXECUTOR.execute(() -> {
+            try {
+                record(appContext, TourManagementDatabase.getDatabase(appContext), event);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to add event to admin digest", e);
+            }
+        });
+    }
+
+    /**
+     * Gets the address that receives admin booking digests
+     *
+     * @param context Any context
+     * @return Email address, or an empty string if none is set
+     */
+    public static String getAdminEmail(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        return prefs.getString(KEY_ADMIN_EMAIL, "").trim();
+    }
+
+    /**
+     * Sets the address that receives admin booking digests
+     *
+     * @param context Any context
+     * @param email Email address, or an empty string to turn admin digests off
+     */
+    public static void setAdminEmail(Context context, String email) {
+        context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE)
+            .edit().putString(KEY_ADMIN_EMAIL, email.trim()).apply();
+    }
+
+    /**
+     * Loads a recipient's preference
+     *
+     * @param context Any context
+     * @param recipient Recipient email address
+     * @param defaultMode Mode used when the recipient has not chosen one
+     * @param callback Callback invoked on the main thread
+     */
+    public static void loadPreference(Context context, String recipient, String defaultMode,
+                                      PreferenceCallback callback) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            NotificationPreference preference =
+                getPreference(TourManagementDatabase.getDatabase(appContext), recipient, defaultMode);
+            MAIN_HANDLER.post(() -> callback.onLoaded(preference));
+        });
+    }
+
+    /**
+     * Saves whether a recipient gets booking emails as digests
+     * Switching to immediate mode sends any pending events right away.
+     *
+     * @param context Any context
+     * @param recipient Recipient email address
+     * @param digest true for digests, false for one email per event
+     */
+    public static void savePreference(Context context, String recipient, boolean digest) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            TourManagementDatabase database = TourManagementDatabase.getDatabase(appContext);
+            database.notificationPreferenceDao().savePreference(new NotificationPreference(recipient,
+                digest ? NotificationPreference.Mode.DIGEST : NotificationPreference.Mode.IMMEDIATE,
+                DEFAULT_WINDOW_MINUTES, DEFAULT_MAX_EVENTS));
+            reschedule(appContext, database);
+        });
+    }
+
+    /**
+     * Gets a recipient's stored preference or the defaults
+     *
+     * @param database Database instance
+     * @param recipient Recipient email address
+     * @param defaultMode Mode used when the recipient has not chosen one
+     * @return Preference (never null)
+     */
+    public static NotificationPreference getPreference(TourManagementDatabase database, String recipient,
+                                                       String defaultMode) {
+        NotificationPreference preference = database.notificationPreferenceDao().getPreference(recipient);
+        if (preference == null) {
+            preference = new NotificationPreference(recipient, defaultMode, DEFAULT_WINDOW_MINUTES, DEFAULT_MAX_EVENTS);
+        }
+        return preference;
+    }
+
+    /**
+     * Computes when a recipient's digest is due
+     *
+     * @param pending Pending events of the recipient
+     * @param preference Preference of the recipient
+     * @return Timestamp at which the digest should be sent (0 = now)
+     */
+    public static long dueAt(PendingDigest pending, NotificationPreference preference) {
+        if (!preference.isDigest() || pending.pendingCount >= preference.getMaxEvents()) {
+            return 0;
+        }
+        return pending.oldestCreatedAt + TimeUnit.MINUTES.toMillis(preference.getWindowMinutes());
+    }
+
+    /**
+     * Schedules the digest worker for the earliest due digest, replacing any pending run
+     *
+     * @param context Any context
+     * @param database Database instance
+     */
+    public static void reschedule(Context context, TourManagementDatabase database) {
+        long next = Long.MAX_VALUE;
+        for (PendingDigest pending : database.notificationEventDao().getPendingDigests()) {
+            NotificationPreference preference =
+                getPreference(database, pending.recipient, NotificationPreference.Mode.DIGEST);
+            next = Math.min(next, dueAt(pending, preference));
+        }
+        if (next == Long.MAX_VALUE) {
+            return;
+        }
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(NotificationDigestWorker.class)
+            .setInitialDelay(Math.max(0, next - System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+            .build();
+        WorkManager.getInstance(context.getApplicationContext())
+            .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    /**
+     * Stores a pending event and reschedules the digest worker
+     */
+    private static void record(Context context, TourManagementDatabase database, NotificationEvent event) {
+        database.notificationEventDao().insertEvent(event);
+        reschedule(context, database);
+    }
+}
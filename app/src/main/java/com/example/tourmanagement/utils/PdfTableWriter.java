@@ -0,0 +1,293 @@
+package com.example.tourmanagement.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Streaming PDF writer for tabular reports.
+ * Each page is written to the stream as soon as it is full, so only the
+ * current page is held in memory (plus one offset per PDF object for the
+ * cross-reference table). android.graphics.pdf.PdfDocument keeps every page
+ * until the document is written, which does not scale to large ledgers.
+ *
+ * Layout: A4 landscape, built-in Helvetica, a title on the first page, the
+ * column headers repeated on every page and a page number in the footer.
+ * Text outside Latin-1 is reduced to its base letter (e.g. Vietnamese
+ * diacritics), since the built-in fonts only cover WinAnsi.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class PdfTableWriter implements TableWriter {
+
+    static final int PAGE_WIDTH = 842;
+    static final int PAGE_HEIGHT = 595;
+    private static final int MARGIN = 36;
+    private static final int FONT_SIZE = 8;
+    private static final int LINE_HEIGHT = 11;
+    private static final int TITLE_SIZE = 12;
+    private static final int CELL_PADDING = 4;
+
+    /**
+     * Approximate Helvetica character width, as a fraction of the font size
+     */
+    private static final float CHAR_WIDTH = 0.55f;
+
+    // Fixed object numbers; page n (0-based) uses 5 + 2n (content) and 6 + 2n (page)
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT_REGULAR = 3;
+    private static final int FONT_BOLD = 4;
+    private static final int FIRST_PAGE_OBJECT = 5;
+
+    private final CountingOutputStream out;
+    private final String title;
+    private final int[] columnX;
+    private final int[] columnChars;
+    private final StringBuilder content = new StringBuilder(16 * 1024);
+    private final StringBuilder text = new StringBuilder(64);
+
+    private long[] offsets = new long[64];
+    private String[] header;
+    private int pageCount;
+    private boolean pageOpen;
+    private int y;
+
+    /**
+     * Creates a writer on a stream
+     *
+     * @param stream Destination; closed by close()
+     * @param title Title printed on the first page
+     * @param columnWeights Relative column widths
+     */
+    public PdfTableWriter(OutputStream stream, String title, float[] columnWeights) throws IOException {
+        this.out = new CountingOutputStream(stream);
+        this.title = title;
+        this.columnX = new int[columnWeights.length];
+        this.columnChars = new int[columnWeights.length];
+
+        float total = 0;
+        for (float weight : columnWeights) {
+            total += weight;
+        }
+        float usable = PAGE_WIDTH - 2 * MARGIN;
+        float x = MARGIN;
+        for (int i = 0; i < columnWeights.length; i++) {
+            float width = usable * columnWeights[i] / total;
+            columnX[i] = Math.round(x);
+            columnChars[i] = Math.max(1, (int) ((width - CELL_PADDING) / (FONT_SIZE * CHAR_WIDTH)));
+            x += width;
+        }
+
+        // Binary comment marks the file as binary for transfer tools
+        writeAscii("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        beginObject(CATALOG);
+        writeAscii("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+        beginObject(FONT_REGULAR);
+        writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+        beginObject(FONT_BOLD);
+        writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+    }
+
+    @Override
+    public void writeHeader(String[] columns) {
+        header = columns.clone();
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        if (!pageOpen || y < MARGIN) {
+            finishPage();
+            startPage();
+        }
+        writeCells(cells, "/F1");
+        y -= LINE_HEIGHT;
+    }
+
+    /**
+     * Gets the number of pages written so far
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pageCount == 0 && !pageOpen) {
+            startPage();
+        }
+        finishPage();
+
+        beginObject(PAGES);
+        writeAscii("<< /Type /Pages /Count " + pageCount + " /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            writeAscii((i % 16 == 0 ? "\n" : " ") + (FIRST_PAGE_OBJECT + 2 * i + 1) + " 0 R");
+        }
+        writeAscii(" ] >>\nendobj\n");
+
+        int size = FIRST_PAGE_OBJECT + 2 * pageCount;
+        long xref = out.count;
+        writeAscii("xref\n0 " + size + "\n0000000000 65535 f \n");
+        StringBuilder entry = new StringBuilder(20);
+        for (int i = 1; i < size; i++) {
+            entry.setLength(0);
+            String offset = Long.toString(offsets[i]);
+            for (int pad = offset.length(); pad < 10; pad++) {
+                entry.append('0');
+            }
+            entry.append(offset).append(" 00000 n \n");
+            writeAscii(entry);
+        }
+        writeAscii("trailer\n<< /Size " + size + " /Root " + CATALOG + " 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        out.close();
+    }
+
+    private void startPage() {
+        content.setLength(0);
+        pageOpen = true;
+        y = PAGE_HEIGHT - MARGIN;
+        if (pageCount == 0 && title != null) {
+            y -= TITLE_SIZE;
+            content.append("BT /F2 ").append(TITLE_SIZE).append(" Tf ").append(MARGIN).append(' ').append(y)
+                .append(" Td (");
+            appendPdfText(content, title, Integer.MAX_VALUE);
+            content.append(") Tj ET\n");
+            y -= TITLE_SIZE;
+        }
+        if (header != null) {
+            y -= FONT_SIZE;
+            writeCells(header, "/F2");
+            int ruleY = y - 3;
+            content.append("0.5 w ").append(MARGIN).append(' ').append(ruleY).append(" m ")
+                .append(PAGE_WIDTH - MARGIN).append(' ').append(ruleY).append(" l S\n");
+            y -= LINE_HEIGHT;
+        } else {
+            y -= FONT_SIZE;
+        }
+    }
+
+    private void finishPage() throws IOException {
+        if (!pageOpen) {
+            return;
+        }
+        pageCount++;
+        content.append("BT /F1 7 Tf ").append(MARGIN).append(' ').append(MARGIN / 2)
+            .append(" Td (Page ").append(pageCount).append(") Tj ET\n");
+
+        byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        int contentObject = FIRST_PAGE_OBJECT + 2 * (pageCount - 1);
+        beginObject(contentObject);
+        writeAscii("<< /Length " + stream.length + " >>\nstream\n");
+        out.write(stream);
+        writeAscii("\nendstream\nendobj\n");
+
+        beginObject(contentObject + 1);
+        writeAscii("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT +
+            "] /Resources << /Font << /F1 " + FONT_REGULAR + " 0 R /F2 " + FONT_BOLD + " 0 R >> >> " +
+            "/Contents " + contentObject + " 0 R >>\nendobj\n");
+        pageOpen = false;
+    }
+
+    private void writeCells(String[] cells, String font) {
+        content.append("BT ").append(font).append(' ').append(FONT_SIZE).append(" Tf\n");
+        int previousX = 0;
+        int previousY = 0;
+        for (int i = 0; i < cells.length && i < columnX.length; i++) {
+            if (cells[i] == null || cells[i].isEmpty()) {
+                continue;
+            }
+            // Td moves relative to the previous cell
+            content.append(columnX[i] - previousX).append(' ').append(y - previousY).append(" Td (");
+            appendPdfText(content, cells[i], columnChars[i]);
+            content.append(") Tj\n");
+            previousX = columnX[i];
+            previousY = y;
+        }
+        content.append("ET\n");
+    }
+
+    /**
+     * Appends text as a PDF string body, truncated to a number of characters
+     */
+    private void appendPdfText(StringBuilder target, String value, int maxChars) {
+        text.setLength(0);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20) {
+                c = ' ';
+            } else if (c > 0xFF) {
+                c = toLatin1(c);
+            }
+            text.append(c);
+        }
+        if (text.length() > maxChars) {
+            text.setLength(Math.max(0, maxChars - 3));
+            text.append("...");
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                target.append('\\').append(c);
+            } else if (c > 0x7E) {
+                // Octal escape keeps the content stream ASCII
+                target.append('\\').append(Integer.toOctalString(c));
+            } else {
+                target.append(c);
+            }
+        }
+    }
+
+    static char toLatin1(char c) {
+        if (c == '\u0111') {
+            return 'd';
+        }
+        if (c == '\u0110') {
+            return 'D';
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        char base = decomposed.charAt(0);
+        return base <= 0xFF ? base : '?';
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = out.count;
+        writeAscii(number + " 0 obj\n");
+    }
+
+    private void writeAscii(CharSequence value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            out.write(value.charAt(i));
+        }
+    }
+
+    /**
+     * Counts written bytes for the cross-reference table
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
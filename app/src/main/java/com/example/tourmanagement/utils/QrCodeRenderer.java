@@ -0,0 +1,369 @@
+package com.example.tourmanagement.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders QR codes into ImageViews off the main thread.
+ *
+ * Features:
+ * - Encoding on a background executor, results posted to the main thread
+ * - Debounced requests per ImageView so rapid +/- taps encode once
+ * - Bounded LRU cache of rendered bitmaps keyed by (content, size)
+ * - Evicted bitmaps of the same size are reused instead of allocating new ones
+ * - Stale results for an ImageView are dropped
+ * - Encode latency, cache hit and bitmap reuse counters
+ *
+ * Bitmaps bound to an ImageView are never recycled or reused while bound.
+ * Call cancel() from onDestroy to drop pending work and release the binding.
+ *
+ * All public methods must be called on the main thread.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class QrCodeRenderer {
+
+    private static final String TAG = "QrCodeRenderer";
+
+    /**
+     * Delay before a debounced request starts encoding
+     */
+    public static final long DEFAULT_DEBOUNCE_MS = 150;
+
+    /**
+     * Maximum number of rendered codes kept in the cache
+     */
+    private static final int CACHE_ENTRIES = 12;
+
+    /**
+     * Maximum number of spare bitmaps kept per size
+     */
+    private static final int POOL_PER_SIZE = 2;
+
+    private static final QrCodeRenderer INSTANCE = new QrCodeRenderer();
+
+    /**
+     * Per-ImageView state, touched on the main thread only
+     */
+    private static final class Binding {
+        Runnable pending;
+        int generation;
+        Bitmap bound;
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Executor executor =
+        TaskScheduler.getInstance().serialExecutor(TaskScheduler.Pool.UI_READ, TaskScheduler.Priority.NORMAL);
+    private final Map<ImageView, Binding> bindings = new WeakHashMap<>();
+
+    /**
+     * Guarded by this: cache, pool and pinned bitmaps
+     */
+    private final LruCache<String, Bitmap> cache;
+    private final Map<Long, ArrayDeque<Bitmap>> pool = new HashMap<>();
+    private final Map<Bitmap, Integer> pinned = new IdentityHashMap<>();
+    private final List<Bitmap> evictedWhilePinned = new ArrayList<>();
+
+    /**
+     * Encoder state, touched by executor tasks only (they run one at a time)
+     */
+    private final QRCodeWriter writer = new QRCodeWriter();
+    private int[] pixelBuffer = new int[0];
+
+    private final AtomicLong encodeCount = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong bitmapReuses = new AtomicLong();
+
+    private QrCodeRenderer() {
+        cache = new LruCache<String, Bitmap>(CACHE_ENTRIES) {
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                // Called with the renderer lock held (all cache access is synchronized)
+                if (oldValue != newValue) {
+                    recycleLocked(oldValue);
+                }
+            }
+        };
+    }
+
+    /**
+     * Gets the process-wide renderer
+     * @return Renderer instance
+     */
+    public static QrCodeRenderer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Shows a QR code in an ImageView, encoding it in the background if needed
+     *
+     * @param target ImageView to show the code in
+     * @param content Text to encode
+     * @param sizePx Width and height of the bitmap in pixels
+     * @param debounceMs Delay before encoding; 0 encodes immediately
+     */
+    public void render(ImageView target, String content, int sizePx, long debounceMs) {
+        Binding binding = bindings.get(target);
+        if (binding == null) {
+            binding = new Binding();
+            bindings.put(target, binding);
+        }
+        if (binding.pending != null) {
+            mainHandler.removeCallbacks(binding.pending);
+            binding.pending = null;
+        }
+        final int generation = ++binding.generation;
+        final String key = sizePx + "|" + content;
+
+        Bitmap cached;
+        synchronized (this) {
+            cached = cache.get(key);
+            if (cached != null) {
+                pinLocked(cached);
+            }
+        }
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            bindPinned(target, binding, cached);
+            return;
+        }
+
+        final Binding requestBinding = binding;
+        Runnable encode = () -> {
+            requestBinding.pending = null;
+            executor.execute(() -> {
+                Bitmap bitmap = encode(key, content, sizePx);
+                if (bitmap == null) {
+                    return;
+                }
+                mainHandler.post(() -> {
+                    if (bindings.get(target) == requestBinding && requestBinding.generation == generation) {
+                        bindPinned(target, requestBinding, bitmap);
+                    } else {
+                        unpin(bitmap);
+                    }
+                });
+            });
+        };
+
+        if (debounceMs > 0) {
+            binding.pending = encode;
+            mainHandler.postDelayed(encode, debounceMs);
+        } else {
+            encode.run();
+        }
+    }
+
+    /**
+     * Cancels pending work for an ImageView and releases its bitmap
+     * @param target ImageView passed to render()
+     */
+    public void cancel(ImageView target) {
+        Binding binding = bindings.remove(target);
+        if (binding == null) {
+            return;
+        }
+        if (binding.pending != null) {
+            mainHandler.removeCallbacks(binding.pending);
+        }
+        binding.generation++;
+        if (binding.bound != null) {
+            target.setImageDrawable(null);
+            unpin(binding.bound);
+            binding.bound = null;
+        }
+    }
+
+    /**
+     * Gets the number of encodes performed
+     * @return Encode count
+     */
+    public long getEncodeCount() { return encodeCount.get(); }
+
+    /**
+     * Gets the number of requests served from the cache
+     * @return Cache hit count
+     */
+    public long getCacheHits() { return cacheHits.get(); }
+
+    /**
+     * Gets the number of encodes that reused a pooled bitmap
+     * @return Bitmap reuse count
+     */
+    public long getBitmapReuses() { return bitmapReuses.get(); }
+
+    /**
+     * Gets the average encode latency
+     * @return Average encode time in milliseconds
+     */
+    public double getAverageEncodeMillis() {
+        long count = encodeCount.get();
+        return count == 0 ? 0.0 : encodeNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Gets a one-line summary of the renderer counters
+     * @return Summary string
+     */
+    public String getSummary() {
+        return String.format(Locale.US, "encodes=%d avg=%.1fms cacheHits=%d bitmapReuses=%d",
+            getEncodeCount(), getAverageEncodeMillis(), getCacheHits(), getBitmapReuses());
+    }
+
+    /**
+     * Encodes a QR code into a pooled or new bitmap and caches it. Runs on the executor.
+     * The returned bitmap is pinned so it cannot be reused before it is delivered.
+     *
+     * @return Rendered bitmap, or null if the content cannot be encoded
+     */
+    private Bitmap encode(String key, String content, int sizePx) {
+        synchronized (this) {
+            Bitmap cached = cache.get(key);
+            if (cached != null) {
+                pinLocked(cached);
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        long start = System.nanoTime();
+        BitMatrix matrix;
+        try {
+            matrix = writer.encode(content, BarcodeFormat.QR_CODE, sizePx, sizePx);
+        } catch (WriterException | IllegalArgumentException e) {
+            Log.e(TAG, "Error encoding QR code", e);
+            return null;
+        }
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        if (pixelBuffer.length < width * height) {
+            pixelBuffer = new int[width * height];
+        }
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                pixelBuffer[offset + x] = matrix.get(x, y) ? Color.BLACK : Color.WHITE;
+            }
+        }
+
+        Bitmap bitmap = obtainBitmap(width, height);
+        bitmap.setPixels(pixelBuffer, 0, width, 0, 0, width, height);
+
+        encodeNanos.addAndGet(System.nanoTime() - start);
+        encodeCount.incrementAndGet();
+
+        synchronized (this) {
+            pinLocked(bitmap);
+            cache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Takes a spare bitmap of the given size from the pool or allocates one
+     */
+    private Bitmap obtainBitmap(int width, int height) {
+        synchronized (this) {
+            ArrayDeque<Bitmap> spares = pool.get(poolKey(width, height));
+            Bitmap spare = spares != null ? spares.poll() : null;
+            if (spare != null) {
+                bitmapReuses.incrementAndGet();
+                return spare;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+    }
+
+    /**
+     * Shows an already pinned bitmap in an ImageView; the pin is held until the
+     * view shows another bitmap or is cancelled
+     */
+    private void bindPinned(ImageView target, Binding binding, Bitmap bitmap) {
+        if (binding.bound == bitmap) {
+            unpin(bitmap);
+            return;
+        }
+        Bitmap previous = binding.bound;
+        binding.bound = bitmap;
+        target.setImageBitmap(bitmap);
+        if (previous != null) {
+            unpin(previous);
+        }
+    }
+
+    /**
+     * Pins a bitmap so it is not reused while shown or being delivered
+     * Must be called with the renderer lock held
+     */
+    private void pinLocked(Bitmap bitmap) {
+        Integer count = pinned.get(bitmap);
+        pinned.put(bitmap, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Releases a pin; bitmaps evicted while pinned go to the pool once unpinned
+     */
+    private synchronized void unpin(Bitmap bitmap) {
+        Integer count = pinned.get(bitmap);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            pinned.put(bitmap, count - 1);
+            return;
+        }
+        pinned.remove(bitmap);
+        if (evictedWhilePinned.remove(bitmap)) {
+            recycleLocked(bitmap);
+        }
+    }
+
+    /**
+     * Moves a bitmap that left the cache into the pool, unless it is still shown
+     * Must be called with the renderer lock held
+     */
+    private void recycleLocked(Bitmap bitmap) {
+        if (pinned.containsKey(bitmap)) {
+            evictedWhilePinned.add(bitmap);
+            return;
+        }
+        long poolKey = poolKey(bitmap.getWidth(), bitmap.getHeight());
+        ArrayDeque<Bitmap> spares = pool.get(poolKey);
+        if (spares == null) {
+            spares = new ArrayDeque<>(POOL_PER_SIZE);
+            pool.put(poolKey, spares);
+        }
+        if (spares.size() < POOL_PER_SIZE) {
+            spares.offer(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+    }
+
+    private static long poolKey(int width, int height) {
+        return ((long) width << 32) | height;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tourmanagement.utils;
+
+/**
+ * Exponential backoff with jitter for retried background work.
+ * The delay doubles with every failed attempt up to a cap and is then scaled
+ * into [50%, 100%) by a random jitter, so many items failing together do not
+ * retry in lockstep.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class RetryBackoff {
+
+    private RetryBackoff() {
+    }
+
+    /**
+     * Computes the delay before the next attempt
+     *
+     * @param attempts Number of failed attempts so far (at least 1)
+     * @param baseMs Delay after the first failure
+     * @param maxMs Upper bound of the delay before jitter
+     * @param jitter Random value in [0, 1)
+     * @return Delay in milliseconds
+     */
+    public static long delayMs(int attempts, long baseMs, long maxMs, double jitter) {
+        int exponent = Math.max(0, Math.min(attempts - 1, 30));
+        long delay = baseMs > (maxMs >> exponent) ? maxMs : Math.min(maxMs, baseMs << exponent);
+        return (long) (delay * (0.5 + 0.5 * jitter));
+    }
+}
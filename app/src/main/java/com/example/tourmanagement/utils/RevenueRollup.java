@@ -0,0 +1,171 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.example.tourmanagement.dao.RevenueRollupDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Incrementally maintained daily revenue rollup.
+ * revenue_daily holds confirmed revenue, booking count and people count per
+ * (day, tour). SQLite triggers on bookings and bookings_archive keep it in
+ * step with every insert, status change and delete, whichever code path
+ * writes the booking. Archiving is neutral: the copy into bookings_archive
+ * adds what the delete from bookings removes.
+ *
+ * Days are taken in the device time zone at write time. rebuild() recomputes
+ * the table from the booking tables, for backfill or after a time zone change.
+ *
+ * Features:
+ * - Triggers created on every database open (idempotent)
+ * - Rebuild in one transaction, on demand from admin settings
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class RevenueRollup {
+
+    private static final String TAG = "RevenueRollup";
+
+    /**
+     * Booking tables whose confirmed rows are rolled up
+     */
+    private static final String[] SOURCE_TABLES = {"bookings", "bookings_archive"};
+
+    private static final Executor EXECUTOR = TaskScheduler.getInstance().executor(TaskScheduler.Pool.ANALYTICS, TaskScheduler.Priority.LOW);
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Outcome of one rebuild
+     */
+    public static final class Report {
+        /**
+         * Number of (day, tour) rows after the rebuild
+         */
+        public final int rows;
+
+        /**
+         * Duration of the rebuild in milliseconds
+         */
+        public final long durationMs;
+
+        Report(int rows, long durationMs) {
+            this.rows = rows;
+            this.durationMs = durationMs;
+        }
+
+        /**
+         * Gets a one-line summary for logs and admin settings
+         */
+        public String getSummary() {
+            return String.format(Locale.US, "Rebuilt %d daily revenue row(s) (%d ms)", rows, durationMs);
+        }
+    }
+
+    /**
+     * Callback for an on-demand rebuild, invoked on the main thread
+     */
+    public interface Callback {
+        void onComplete(Report report);
+        void onError(Exception error);
+    }
+
+    private RevenueRollup() {
+    }
+
+    /**
+     * Creates the rollup triggers if they do not exist yet
+     *
+     * @param db Database being opened or migrated
+     */
+    public static void createTriggers(SupportSQLiteDatabase db) {
+        for (String table : SOURCE_TABLES) {
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS revenue_daily_" + table + "_insert " +
+                "AFTER INSERT ON " + table + " WHEN NEW.bookingStatus = 'CONFIRMED' " +
+                "BEGIN " + add("NEW") + " END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS revenue_daily_" + table + "_delete " +
+                "AFTER DELETE ON " + table + " WHEN OLD.bookingStatus = 'CONFIRMED' " +
+                "BEGIN " + remove("OLD") + " END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS revenue_daily_" + table + "_update " +
+                "AFTER UPDATE OF bookingStatus, tourId, totalAmount, numberOfPeople, bookingDate ON " + table + " " +
+                "WHEN (OLD.bookingStatus = 'CONFIRMED' OR NEW.bookingStatus = 'CONFIRMED') " +
+                "AND (OLD.bookingStatus IS NOT NEW.bookingStatus OR OLD.tourId != NEW.tourId " +
+                "OR OLD.totalAmount != NEW.totalAmount OR OLD.numberOfPeople != NEW.numberOfPeople " +
+                "OR OLD.bookingDate != NEW.bookingDate) " +
+                "BEGIN " + remove("OLD") + " " + add("NEW") + " END");
+        }
+    }
+
+    /**
+     * Recomputes the rollup from live and archived bookings.
+     * Must be called from a background thread.
+     *
+     * @param database Database instance
+     * @return Report of the rebuild
+     */
+    public static Report rebuild(TourManagementDatabase database) {
+        long start = System.currentTimeMillis();
+        RevenueRollupDao rollupDao = database.revenueRollupDao();
+        database.runInTransaction(() -> {
+            rollupDao.clear();
+            rollupDao.rebuild();
+        });
+        Report report = new Report(rollupDao.getRowCount(), System.currentTimeMillis() - start);
+        Log.i(TAG, report.getSummary());
+        return report;
+    }
+
+    /**
+     * Rebuilds the rollup in the background, e.g. from admin settings
+     *
+     * @param context Any context
+     * @param callback Callback invoked on the main thread
+     */
+    public static void rebuildAsync(Context context, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        EXECUTOR.execute(() -> {
+            try {
+                Report report = rebuild(TourManagementDatabase.getDatabase(appContext));
+                MAIN_HANDLER.post(() -> callback.onComplete(report));
+            } catch (Exception e) {
+                Log.e(TAG, "Revenue rollup rebuild failed", e);
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Trigger statements that add a confirmed booking row to its (day, tour) rollup
+     */
+    private static String add(String row) {
+        String key = "day = " + day(row) + " AND tourId = " + row + ".tourId";
+        // Not INSERT OR IGNORE: an outer INSERT OR REPLACE (archiving) would override it and reset the row
+        return "INSERT INTO revenue_daily (day, tourId, revenue, bookingCount, peopleCount) " +
+            "SELECT " + day(row) + ", " + row + ".tourId, 0, 0, 0 WHERE " + row + ".bookingStatus = 'CONFIRMED' " +
+            "AND NOT EXISTS (SELECT 1 FROM revenue_daily WHERE " + key + "); " +
+            "UPDATE revenue_daily SET revenue = revenue + " + row + ".totalAmount, " +
+            "bookingCount = bookingCount + 1, peopleCount = peopleCount + " + row + ".numberOfPeople " +
+            "WHERE " + row + ".bookingStatus = 'CONFIRMED' AND " + key + ";";
+    }
+
+    /**
+     * Trigger statements that take a confirmed booking row out of its (day, tour) rollup
+     */
+    private static String remove(String row) {
+        String key = "day = " + day(row) + " AND tourId = " + row + ".tourId";
+        return "UPDATE revenue_daily SET revenue = revenue - " + row + ".totalAmount, " +
+            "bookingCount = bookingCount - 1, peopleCount = peopleCount - " + row + ".numberOfPeople " +
+            "WHERE " + row + ".bookingStatus = 'CONFIRMED' AND " + key + "; " +
+            "DELETE FROM revenue_daily WHERE " + key + " AND bookingCount <= 0;";
+    }
+
+    private static String day(String row) {
+        return "date(" + row + ".bookingDate / 1000, 'unixepoch', 'localtime')";
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.RevenueBucket;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Revenue time series for charts and reports.
+ * Bucketing and zero-filling happen in SQL over the daily revenue rollup
+ * (RevenueRollupDao.getRevenueSeries), so a range is loaded in one query and
+ * comes back with exactly one bucket per day, week or month, in the device
+ * time zone.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class RevenueSeries {
+
+    /**
+     * Bucket size of a series, with the SQLite date modifiers that implement it
+     */
+    public enum Granularity {
+        DAY("+0 days", "+0 days", "+1 day", Calendar.DAY_OF_MONTH, "dd MMM"),
+        // Weeks start on Monday: next Sunday (or today if Sunday), then back 6 days
+        WEEK("weekday 0", "-6 days", "+7 days", Calendar.WEEK_OF_YEAR, "dd MMM"),
+        MONTH("start of month", "+0 days", "+1 month", Calendar.MONTH, "MMM yyyy");
+
+        final String alignStart;
+        final String alignEnd;
+        final String step;
+        final int calendarField;
+        final String labelPattern;
+
+        Granularity(String alignStart, String alignEnd, String step, int calendarField, String labelPattern) {
+            this.alignStart = alignStart;
+            this.alignEnd = alignEnd;
+            this.step = step;
+            this.calendarField = calendarField;
+            this.labelPattern = labelPattern;
+        }
+    }
+
+    private static final String KEY_PATTERN = "yyyy-MM-dd";
+
+    private RevenueSeries() {
+    }
+
+    /**
+     * Loads the revenue series of a range from the daily revenue rollup.
+     * Must be called from a background thread.
+     *
+     * @param database Database instance
+     * @param granularity Bucket size
+     * @param startDate Start of the range (its whole day is included)
+     * @param endDate End of the range (exclusive)
+     * @return One bucket per period, oldest first
+     */
+    public static List<RevenueBucket> load(TourManagementDatabase database, Granularity granularity,
+                                           long startDate, long endDate) {
+        return database.revenueRollupDao().getRevenueSeries(startDate, endDate,
+            granularity.alignStart, granularity.alignEnd, granularity.step);
+    }
+
+    /**
+     * Gets the start of the period that lies a number of periods before the current one
+     *
+     * @param granularity Bucket size
+     * @param periodsBack 0 = current period, 1 = previous period, ...
+     * @param now Current time
+     * @return Local midnight on the first day of that period
+     */
+    public static long periodStart(Granularity granularity, int periodsBack, long now) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (granularity == Granularity.MONTH) {
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+        } else if (granularity == Granularity.WEEK) {
+            int daysSinceMonday = (calendar.get(Calendar.DAY_OF_WEEK) + 5) % 7;
+            calendar.add(Calendar.DAY_OF_MONTH, -daysSinceMonday);
+        }
+        calendar.add(granularity.calendarField, -periodsBack);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Formats a bucket key for chart axes
+     *
+     * @param granularity Bucket size
+     * @param periodKey Bucket key (yyyy-MM-dd)
+     * @return Label such as "Mar 2025" or "17 Mar", or the key itself if it cannot be parsed
+     */
+    public static String label(Granularity granularity, String periodKey) {
+        try {
+            Date date = new SimpleDateFormat(KEY_PATTERN, Locale.US).parse(periodKey);
+            return new SimpleDateFormat(granularity.labelPattern, Locale.US).format(date);
+        } catch (ParseException e) {
+            return periodKey;
+        }
+    }
+}
@@ -3,8 +3,7 @@ package com.example.tourmanagement.utils;
 import android.content.Context;
 import com.example.tourmanagement.database.TourManagementDatabase;
 import com.example.tourmanagement.model.Tour;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 /**
  * Utility class to populate the database with sample tour data for testing.
@@ -12,7 +11,7 @@ import java.util.concurrent.Executors;
  */
 public class SampleDataUtil {
 
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Executor executor = TaskScheduler.getInstance().executor(TaskScheduler.Pool.ANALYTICS, TaskScheduler.Priority.NORMAL);
 
     /**
      * Adds sample tours to the database if it's empty
@@ -0,0 +1,235 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import com.example.tourmanagement.model.User;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single source of truth for the logged-in user.
+ * The session is read from SharedPreferences once and kept in memory as an
+ * immutable Principal, so activities and adapters can check the current user
+ * without touching disk. Changes are written back with apply() and announced
+ * to registered listeners on the main thread.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class SessionStore {
+
+    /**
+     * User ID of the built-in admin account (admin/admin), which has no database row
+     */
+    public static final int ADMIN_USER_ID = -999;
+
+    /**
+     * Session keys; the file also holds app settings, so logout only removes these
+     */
+    private static final String PREF_NAME = "TourManagementPrefs";
+    private static final String KEY_USER_ID = "user_id";
+    private static final String KEY_IS_LOGGED_IN = "is_logged_in";
+    private static final String KEY_IS_ADMIN = "is_admin";
+    private static final String KEY_DISPLAY_NAME = "display_name";
+
+    /**
+     * Preference file written by the old SessionManager
+     */
+    private static final String LEGACY_PREF_NAME = "TourManagementSession";
+
+    private static volatile SessionStore instance;
+
+    private final SharedPreferences preferences;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Principal principal;
+
+    /**
+     * Immutable snapshot of the logged-in user
+     */
+    public static final class Principal {
+
+        /**
+         * Principal used while nobody is logged in
+         */
+        public static final Principal GUEST = new Principal(-1, false, null);
+
+        private final int userId;
+        private final boolean admin;
+        private final String displayName;
+
+        Principal(int userId, boolean admin, String displayName) {
+            this.userId = userId;
+            this.admin = admin;
+            this.displayName = displayName;
+        }
+
+        /**
+         * @return User ID, ADMIN_USER_ID for the built-in admin, or -1 for a guest
+         */
+        public int getUserId() {
+            return userId;
+        }
+
+        public boolean isLoggedIn() {
+            return userId != -1;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        /**
+         * @return Name shown in greetings, or null if unknown
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Listener for login, logout and profile changes
+     */
+    public interface Listener {
+        void onSessionChanged(Principal principal);
+    }
+
+    private SessionStore(Context context) {
+        preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        principal = load();
+        context.deleteSharedPreferences(LEGACY_PREF_NAME);
+    }
+
+    /**
+     * Gets the session store, loading the saved session on first use
+     *
+     * @param context Any context
+     * @return Shared instance
+     */
+    public static SessionStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SessionStore.class) {
+                if (instance == null) {
+                    instance = new SessionStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return Current principal (never null)
+     */
+    public Principal getPrincipal() {
+        return principal;
+    }
+
+    public boolean isLoggedIn() {
+        return principal.isLoggedIn();
+    }
+
+    public int getUserId() {
+        return principal.getUserId();
+    }
+
+    public boolean isAdmin() {
+        return principal.isAdmin();
+    }
+
+    /**
+     * Starts a session for a registered user, with the user's admin role
+     *
+     * @param user Authenticated user
+     */
+    public void signIn(User user) {
+        update(new Principal(user.getId(), user.isAdmin(), user.getFullName()));
+    }
+
+    /**
+     * Starts a session for the built-in admin account
+     */
+    public void signInAdmin() {
+        update(new Principal(ADMIN_USER_ID, true, "Administrator"));
+    }
+
+    /**
+     * Updates the display name after the user edits their profile
+     *
+     * @param displayName New display name
+     */
+    public void updateDisplayName(String displayName) {
+        Principal current = principal;
+        if (current.isLoggedIn()) {
+            update(new Principal(current.getUserId(), current.isAdmin(), displayName));
+        }
+    }
+
+    /**
+     * Ends the session; app settings such as the theme are kept
+     */
+    public void signOut() {
+        update(Principal.GUEST);
+    }
+
+    /**
+     * Registers a listener; it is called on the main thread
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Unregisters a listener
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Replaces the principal, persists it asynchronously and notifies listeners
+     */
+    private void update(Principal updated) {
+        principal = updated;
+
+        SharedPreferences.Editor editor = preferences.edit();
+        if (updated.isLoggedIn()) {
+            editor.putInt(KEY_USER_ID, updated.getUserId());
+            editor.putBoolean(KEY_IS_LOGGED_IN, true);
+            editor.putBoolean(KEY_IS_ADMIN, updated.isAdmin());
+            editor.putString(KEY_DISPLAY_NAME, updated.getDisplayName());
+        } else {
+            editor.remove(KEY_USER_ID);
+            editor.remove(KEY_IS_LOGGED_IN);
+            editor.remove(KEY_IS_ADMIN);
+            editor.remove(KEY_DISPLAY_NAME);
+        }
+        editor.apply();
+
+        mainHandler.post(() -> {
+            for (Listener listener : listeners) {
+                listener.onSessionChanged(updated);
+            }
+        });
+    }
+
+    /**
+     * Reads the saved session
+     */
+    private Principal load() {
+        if (!preferences.getBoolean(KEY_IS_LOGGED_IN, false)) {
+            return Principal.GUEST;
+        }
+        int userId = preferences.getInt(KEY_USER_ID, -1);
+        if (userId == -1) {
+            return Principal.GUEST;
+        }
+        boolean admin = preferences.getBoolean(KEY_IS_ADMIN, false) || userId == ADMIN_USER_ID;
+        return new Principal(userId, admin, preferences.getString(KEY_DISPLAY_NAME, null));
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.tourmanagement.utils;
+
+import java.util.Properties;
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * SMTP client that sends many messages over one authenticated connection.
+ * The javax.mail Session is built once per mailer; each batch opens a single
+ * Transport, authenticates once and reuses it for every message instead of
+ * Transport.send's connect/STARTTLS/AUTH/QUIT per message.
+ *
+ * Not thread-safe; use one batch per thread.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class SmtpMailer {
+
+    /**
+     * SMTP server settings
+     */
+    public static final class Config {
+        final String host;
+        final int port;
+        final String username;
+        final String password;
+        final String from;
+        final boolean startTls;
+
+        /**
+         * Constructor
+         *
+         * @param host SMTP host
+         * @param port SMTP port
+         * @param username Login user, or null to skip authentication
+         * @param password Login password
+         * @param from Sender address
+         * @param startTls Whether to require STARTTLS
+         */
+        public Config(String host, int port, String username, String password, String from, boolean startTls) {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+            this.from = from;
+            this.startTls = startTls;
+        }
+    }
+
+    /**
+     * Socket timeouts so a stalled server cannot block the outbox worker forever
+     */
+    private static final String TIMEOUT_MS = "15000";
+
+    // Email configuration (use your own SMTP settings)
+    private static final String SMTP_HOST = "smtp.gmail.com";
+    private static final int SMTP_PORT = 587; // STARTTLS
+    private static final String EMAIL_FROM = "maixuanhieu250123@gmail.com"; // Replace with your email
+    private static final String EMAIL_PASSWORD = "zmfd aycm rzuu oarb"; // Replace with your app password
+
+    private final Config config;
+    private final Session session;
+
+    /**
+     * Constructor
+     * @param config SMTP server settings
+     */
+    public SmtpMailer(Config config) {
+        this.config = config;
+
+        Properties props = new Properties();
+        props.put("mail.smtp.host", config.host);
+        props.put("mail.smtp.port", String.valueOf(config.port));
+        props.put("mail.smtp.auth", String.valueOf(config.username != null));
+        props.put("mail.smtp.connectiontimeout", TIMEOUT_MS);
+        props.put("mail.smtp.timeout", TIMEOUT_MS);
+        props.put("mail.smtp.writetimeout", TIMEOUT_MS);
+        if (config.startTls) {
+            props.put("mail.smtp.starttls.enable", "true");
+            props.put("mail.smtp.starttls.required", "true");
+            props.put("mail.smtp.ssl.protocols", "TLSv1.2");
+            props.put("mail.smtp.ssl.trust", config.host);
+        }
+        this.session = Session.getInstance(props);
+    }
+
+    /**
+     * Gets the settings of the app's SMTP account
+     * @return Default SMTP configuration
+     */
+    public static Config defaultConfig() {
+        return new Config(SMTP_HOST, SMTP_PORT, EMAIL_FROM, EMAIL_PASSWORD, EMAIL_FROM, true);
+    }
+
+    /**
+     * Connects and authenticates once for a batch of messages
+     *
+     * @return Open batch; close it when done
+     * @throws MessagingException if the server cannot be reached or rejects the login
+     */
+    public Batch openBatch() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        connect(transport);
+        return new Batch(transport);
+    }
+
+    /**
+     * Checks whether a send error will fail again on retry (bad address or rejected recipient)
+     *
+     * @param e Error thrown by Batch.send
+     * @return true if the message should not be retried
+     */
+    public static boolean isPermanentFailure(MessagingException e) {
+        if (e instanceof AddressException) {
+            return true;
+        }
+        if (e instanceof SendFailedException) {
+            Address[] invalid = ((SendFailedException) e).getInvalidAddresses();
+            return invalid != null && invalid.length > 0;
+        }
+        return false;
+    }
+
+    private void connect(Transport transport) throws MessagingException {
+        if (config.username != null) {
+            transport.connect(config.host, config.port, config.username, config.password);
+        } else {
+            transport.connect(config.host, config.port, null, null);
+        }
+    }
+
+    /**
+     * One open SMTP connection
+     */
+    public final class Batch implements AutoCloseable {
+
+        private final Transport transport;
+        private int connections = 1;
+
+        private Batch(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Sends an HTML message over the open connection.
+         * Reconnects once if the server dropped the connection.
+         *
+         * @param recipient Recipient address
+         * @param subject Subject line
+         * @param htmlBody HTML body
+         * @throws MessagingException if the message cannot be delivered
+         */
+        public void send(String recipient, String subject, String htmlBody) throws MessagingException {
+            MimeMessage message = new MimeMessage(session);
+            message.setFrom(new InternetAddress(config.from));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient));
+            message.setSubject(subject, "UTF-8");
+            message.setContent(htmlBody, "text/html; charset=utf-8");
+            message.saveChanges();
+
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                if (e instanceof SendFailedException || transport.isConnected()) {
+                    throw e;
+                }
+                connect(transport);
+                connections++;
+                transport.sendMessage(message, message.getAllRecipients());
+            }
+        }
+
+        /**
+         * Gets the number of connections opened by this batch
+         * @return 1 unless the server dropped the connection
+         */
+        public int getConnectionCount() {
+            return connections;
+        }
+
+        /**
+         * Closes the connection (QUIT)
+         */
+        @Override
+        public void close() {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+                // Connection is being discarded anyway
+            }
+        }
+    }
+}
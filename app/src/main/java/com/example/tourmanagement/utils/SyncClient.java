@@ -0,0 +1,153 @@
+package com.example.tourmanagement.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * HTTP transport of the delta sync.
+ * Exchanges gzip-compressed JSON with the sync server over keep-alive
+ * connections:
+ * - POST {base}/sync/push with {"device", "changes": [...]}, answered with
+ *   {"accepted", "conflicts"}
+ * - GET {base}/sync/pull?since={token}&limit={n}, answered with
+ *   {"changes": [...], "token", "hasMore"}
+ * Every change is {"table", "id" (global ID), "deleted", "row"}; pulled
+ * changes also carry the server position "seq". Network errors, non-2xx
+ * answers and malformed bodies are reported as IOException, so the caller
+ * can retry with backoff.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+final class SyncClient {
+
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+
+    private final String baseUrl;
+    private final String deviceId;
+
+    /**
+     * @param baseUrl Server URL, e.g. https://sync.example.com/api
+     * @param deviceId ID of this device, sent with every request
+     */
+    SyncClient(String baseUrl, String deviceId) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.deviceId = deviceId;
+    }
+
+    /**
+     * Sends a batch of local changes
+     *
+     * @param changes Changes, parents before the rows referencing them
+     * @return Server answer with the accepted and conflicting change counts
+     * @throws IOException If the server could not be reached or refused the batch
+     */
+    JSONObject push(JSONArray changes) throws IOException {
+        try {
+            JSONObject body = new JSONObject()
+                .put("device", deviceId)
+                .put("changes", changes);
+            return exchange("POST", "/sync/push", body);
+        } catch (JSONException e) {
+            throw new IOException("Could not encode sync batch", e);
+        }
+    }
+
+    /**
+     * Fetches the next page of server changes
+     *
+     * @param token Token of the last pulled page, null for the first pull
+     * @param limit Maximum number of changes
+     * @return Server answer with the changes, the new token and whether more are waiting
+     * @throws IOException If the server could not be reached
+     */
+    JSONObject pull(String token, int limit) throws IOException {
+        String query = "?limit=" + limit;
+        if (token != null) {
+            query += "&since=" + URLEncoder.encode(token, "UTF-8");
+        }
+        return exchange("GET", "/sync/pull" + query, null);
+    }
+
+    private JSONObject exchange(String method, String path, JSONObject body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestProperty("Accept", "application/json");
+            // Set explicitly, so the body is decompressed below rather than transparently
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            connection.setRequestProperty("X-Device-Id", deviceId);
+
+            if (body != null) {
+                byte[] compressed = gzip(body.toString().getBytes(StandardCharsets.UTF_8));
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+                connection.setRequestProperty("Content-Encoding", "gzip");
+                connection.setFixedLengthStreamingMode(compressed.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(compressed);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                // Drain the error body so the connection can be reused
+                InputStream error = connection.getErrorStream();
+                if (error != null) {
+                    readFully(error);
+                }
+                throw new IOException("Sync server answered " + status + " to " + method + " " + path);
+            }
+
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+                in = new GZIPInputStream(in);
+            }
+            try {
+                // Reading to the end returns the connection to the keep-alive pool
+                return new JSONObject(new String(readFully(in), StandardCharsets.UTF_8));
+            } catch (JSONException e) {
+                throw new IOException("Malformed sync response to " + method + " " + path, e);
+            }
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.tourmanagement.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of a tabular export (CSV file, PDF report).
+ * Rows are written one at a time and not kept, so an export uses the same
+ * memory for ten rows as for a million.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public interface TableWriter extends Closeable {
+
+    /**
+     * Writes the column headers; called once, before the first row
+     *
+     * @param columns Column titles
+     */
+    void writeHeader(String[] columns) throws IOException;
+
+    /**
+     * Writes one row; the array may be reused by the caller after the call
+     *
+     * @param cells Cell values (null is written as empty)
+     */
+    void writeRow(String[] cells) throws IOException;
+
+    /**
+     * Completes the document and closes the underlying stream
+     */
+    @Override
+    void close() throws IOException;
+}
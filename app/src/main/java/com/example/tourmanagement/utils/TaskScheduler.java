@@ -0,0 +1,434 @@
+package com.example.tourmanagement.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide scheduler for background work.
+ * Replaces ad-hoc threads and per-screen executors with a few named, bounded
+ * pools, so the number of threads stays fixed however many screens are open.
+ *
+ * Features:
+ * - Pools by kind of work: UI-critical reads, database writes, I/O, analytics
+ * - Priority ordering within a pool (FIFO among equal priorities)
+ * - Lifecycle-bound tasks, cancelled when their activity is destroyed
+ * - Serial executors on top of a pool for thread-confined state
+ * - Metrics per pool: queue depth, wait time and run time
+ *
+ * Cancellation removes a queued task; a task that already started runs to
+ * completion, so writes should not be bound to a lifecycle. Exceptions
+ * thrown by a task are logged instead of crashing the pool thread.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class TaskScheduler {
+
+    private static final String TAG = "TaskScheduler";
+
+    /**
+     * Waits longer than this are logged, since they delay what the user sees
+     */
+    private static final long SLOW_WAIT_MS = 250;
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final TaskScheduler INSTANCE = new TaskScheduler();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * Named thread pools, by kind of work
+     */
+    public enum Pool {
+        /**
+         * Reads a screen is waiting for
+         */
+        UI_READ("ui-read", 2, Process.THREAD_PRIORITY_DEFAULT),
+
+        /**
+         * Database writes a user is waiting for; one thread, since SQLite has a single writer anyway
+         */
+        WRITE("write", 1, Process.THREAD_PRIORITY_DEFAULT),
+
+        /**
+         * Network and file work: email, images, exports
+         */
+        IO("io", 3, Process.THREAD_PRIORITY_BACKGROUND),
+
+        /**
+         * Statistics and maintenance nobody is waiting for: rollups, archiving, reconciling, digests
+         */
+        ANALYTICS("analytics", 1, Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_LESS_FAVORABLE);
+
+        final String threadName;
+        final int threads;
+        final int threadPriority;
+
+        Pool(String threadName, int threads, int threadPriority) {
+            this.threadName = threadName;
+            this.threads = threads;
+            this.threadPriority = threadPriority;
+        }
+    }
+
+    /**
+     * Order of tasks waiting in the same pool
+     */
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class Task extends FutureTask<Void> implements Comparable<Task> {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final PoolState pool;
+        private final Priority priority;
+        private final long sequence = SEQUENCE.getAndIncrement();
+        private final long queuedAt = System.nanoTime();
+        private volatile Runnable unbind;
+
+        Task(PoolState pool, Priority priority, Runnable runnable) {
+            super(runnable, null);
+            this.pool = pool;
+            this.priority = priority;
+        }
+
+        /**
+         * Cancels the task if it has not started yet
+         *
+         * @return True if the task will not run
+         */
+        public boolean cancel() {
+            return cancel(false);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                pool.executor.remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            pool.recordStart(startedAt - queuedAt);
+            try {
+                super.run();
+            } finally {
+                pool.recordRun(System.nanoTime() - startedAt);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                pool.cancelled.incrementAndGet();
+            } else {
+                try {
+                    get();
+                } catch (ExecutionException e) {
+                    pool.failed.incrementAndGet();
+                    Log.e(TAG, "Task failed in pool " + pool.pool.threadName, e.getCause());
+                } catch (InterruptedException | CancellationException ignored) {
+                    // Not reachable once done
+                }
+            }
+            if (unbind != null) {
+                MAIN_HANDLER.post(unbind);
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int order = priority.compareTo(other.priority);
+            return order != 0 ? order : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Counters of one pool at one point in time
+     */
+    public static final class Metrics {
+        public final Pool pool;
+        public final int queueDepth;
+        public final int activeTasks;
+        public final long completed;
+        public final long failed;
+        public final long cancelled;
+        public final double averageWaitMs;
+        public final double maxWaitMs;
+        public final double averageRunMs;
+
+        Metrics(PoolState state) {
+            pool = state.pool;
+            queueDepth = state.executor.getQueue().size();
+            activeTasks = state.executor.getActiveCount();
+            long started = state.started.get();
+            completed = state.completed.get();
+            failed = state.failed.get();
+            cancelled = state.cancelled.get();
+            averageWaitMs = started == 0 ? 0 : state.waitNanos.get() / 1e6 / started;
+            maxWaitMs = state.maxWaitNanos.get() / 1e6;
+            averageRunMs = completed == 0 ? 0 : state.runNanos.get() / 1e6 / completed;
+        }
+
+        /**
+         * Gets a one-line summary for logs
+         */
+        public String getSummary() {
+            return String.format(Locale.US,
+                "%s: %d queued, %d running, %d done (%d failed, %d cancelled), wait avg %.1f ms max %.1f ms, " +
+                    "run avg %.1f ms", pool.threadName, queueDepth, activeTasks, completed, failed, cancelled,
+                averageWaitMs, maxWaitMs, averageRunMs);
+        }
+    }
+
+    private final Map<Pool, PoolState> pools = new EnumMap<>(Pool.class);
+
+    TaskScheduler() {
+        for (Pool pool : Pool.values()) {
+            pools.put(pool, new PoolState(pool));
+        }
+    }
+
+    /**
+     * Gets the process-wide scheduler
+     * @return Scheduler instance
+     */
+    public static TaskScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs a task on a pool with normal priority
+     *
+     * @param pool Pool to run on
+     * @param runnable Work to do
+     * @return Task handle
+     */
+    public Task execute(Pool pool, Runnable runnable) {
+        return execute(pool, Priority.NORMAL, runnable);
+    }
+
+    /**
+     * Runs a task on a pool
+     *
+     * @param pool Pool to run on
+     * @param priority Order among waiting tasks of the pool
+     * @param runnable Work to do
+     * @return Task handle
+     */
+    public Task execute(Pool pool, Priority priority, Runnable runnable) {
+        Task task = new Task(pools.get(pool), priority, runnable);
+        pools.get(pool).executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs a task on a pool with normal priority, cancelled if the owner is destroyed first
+     *
+     * @param owner Activity or other lifecycle owner the result is for
+     * @param pool Pool to run on
+     * @param runnable Work to do
+     * @return Task handle
+     */
+    public Task execute(LifecycleOwner owner, Pool pool, Runnable runnable) {
+        return execute(owner, pool, Priority.NORMAL, runnable);
+    }
+
+    /**
+     * Runs a task on a pool, cancelled if the owner is destroyed before it starts
+     *
+     * @param owner Activity or other lifecycle owner the result is for
+     * @param pool Pool to run on
+     * @param priority Order among waiting tasks of the pool
+     * @param runnable Work to do
+     * @return Task handle
+     */
+    public Task execute(LifecycleOwner owner, Pool pool, Priority priority, Runnable runnable) {
+        Task task = execute(pool, priority, runnable);
+        // Lifecycle observers may only be added and removed on the main thread
+        Runnable bind = () -> {
+            if (task.isDone()) {
+                return;
+            }
+            Lifecycle lifecycle = owner.getLifecycle();
+            if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+                task.cancel();
+                return;
+            }
+            LifecycleEventObserver observer = (source, event) -> {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    task.cancel();
+                }
+            };
+            lifecycle.addObserver(observer);
+            task.unbind = () -> lifecycle.removeObserver(observer);
+            if (task.isDone()) {
+                // Finished while binding, possibly before done() could see unbind
+                lifecycle.removeObserver(observer);
+            }
+        };
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            bind.run();
+        } else {
+            MAIN_HANDLER.post(bind);
+        }
+        return task;
+    }
+
+    /**
+     * Gets an executor that runs tasks on a pool
+     *
+     * @param pool Pool to run on
+     * @param priority Priority of every task
+     * @return Executor
+     */
+    public Executor executor(Pool pool, Priority priority) {
+        return runnable -> execute(pool, priority, runnable);
+    }
+
+    /**
+     * Gets an executor that runs tasks one at a time, in order, on a pool
+     * For state that must only be touched by one thread at a time.
+     *
+     * @param pool Pool to run on
+     * @param priority Priority of every task
+     * @return Serial executor
+     */
+    public Executor serialExecutor(Pool pool, Priority priority) {
+        return new SerialExecutor(pool, priority);
+    }
+
+    /**
+     * Gets the current metrics of a pool
+     *
+     * @param pool Pool
+     * @return Metrics snapshot
+     */
+    public Metrics getMetrics(Pool pool) {
+        return new Metrics(pools.get(pool));
+    }
+
+    /**
+     * Gets a summary of all pools, one line each
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Pool pool : Pool.values()) {
+            if (summary.length() > 0) {
+                summary.append('\n');
+            }
+            summary.append(getMetrics(pool).getSummary());
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Executor of one pool plus its counters
+     */
+    private static final class PoolState {
+        final Pool pool;
+        final ThreadPoolExecutor executor;
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong cancelled = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLong runNanos = new AtomicLong();
+
+        PoolState(Pool pool) {
+            this.pool = pool;
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory factory = runnable -> new Thread(() -> {
+                Process.setThreadPriority(pool.threadPriority);
+                runnable.run();
+            }, pool.threadName + "-" + threadCount.incrementAndGet());
+            // Core size is the bound: with an unbounded queue the pool never grows past it
+            executor = new ThreadPoolExecutor(pool.threads, pool.threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), factory);
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        void recordStart(long waitedNanos) {
+            started.incrementAndGet();
+            waitNanos.addAndGet(waitedNanos);
+            maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+            if (waitedNanos > TimeUnit.MILLISECONDS.toNanos(SLOW_WAIT_MS)) {
+                Log.w(TAG, String.format(Locale.US, "Task waited %d ms in pool %s (%d queued)",
+                    TimeUnit.NANOSECONDS.toMillis(waitedNanos), pool.threadName, executor.getQueue().size()));
+            }
+        }
+
+        void recordRun(long ranNanos) {
+            completed.incrementAndGet();
+            runNanos.addAndGet(ranNanos);
+        }
+    }
+
+    /**
+     * Runs one task at a time on a shared pool, like a single-thread executor without its own thread
+     */
+    private final class SerialExecutor implements Executor {
+        private final Pool pool;
+        private final Priority priority;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean running;
+
+        SerialExecutor(Pool pool, Priority priority) {
+            this.pool = pool;
+            this.priority = priority;
+        }
+
+        @Override
+        public synchronized void execute(Runnable runnable) {
+            tasks.add(runnable);
+            if (!running) {
+                running = true;
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            Runnable next = tasks.poll();
+            if (next == null) {
+                running = false;
+                return;
+            }
+            TaskScheduler.this.execute(pool, priority, () -> {
+                try {
+                    next.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+        }
+    }
+}
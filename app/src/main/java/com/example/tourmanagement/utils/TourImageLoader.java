@@ -0,0 +1,171 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.util.DisplayMetrics;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.example.tourmanagement.R;
+
+/**
+ * Image pipeline for tour card images.
+ * Requests images at the card's size, shows a low-resolution thumbnail first
+ * and keeps both the source and the transformed card bitmap in the disk cache.
+ *
+ * Features:
+ * - Card-sized decode (screen width minus card margins by 200dp)
+ * - Sized fetches for Unsplash URLs so less data is downloaded
+ * - Thumbnail request at 1/8 of the card size
+ * - Identical request options for bind and preload so preloads hit the memory cache
+ * - Load metrics via ImageLoadMetrics
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class TourImageLoader {
+
+    /**
+     * Number of rows fetched ahead of the scroll position
+     */
+    public static final int DEFAULT_PRELOAD_ROWS = 4;
+
+    /**
+     * Card image height in item_tour.xml
+     */
+    private static final int CARD_IMAGE_HEIGHT_DP = 200;
+
+    /**
+     * Card margin on each side in item_tour.xml
+     */
+    private static final int CARD_MARGIN_DP = 8;
+
+    private static final int THUMBNAIL_DIVISOR = 8;
+
+    private static final String SIZED_HOST = "images.unsplash.com";
+
+    private final RequestManager glide;
+    private final int cardWidth;
+    private final int cardHeight;
+
+    /**
+     * Constructor
+     *
+     * @param context Context used to compute the card size
+     * @param glide Request manager bound to the screen's lifecycle
+     */
+    public TourImageLoader(Context context, RequestManager glide) {
+        this.glide = glide;
+        int[] size = cardSize(context);
+        this.cardWidth = size[0];
+        this.cardHeight = size[1];
+    }
+
+    /**
+     * Gets the card image size in pixels
+     *
+     * @param context Context for display metrics
+     * @return Array of {width, height}
+     */
+    public static int[] cardSize(Context context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int width = metrics.widthPixels - Math.round(2 * CARD_MARGIN_DP * metrics.density);
+        int height = Math.round(CARD_IMAGE_HEIGHT_DP * metrics.density);
+        return new int[]{Math.max(1, width), Math.max(1, height)};
+    }
+
+    /**
+     * Gets the URL for a card-sized image
+     *
+     * @param url Original image URL
+     * @param cardSize Card size from cardSize()
+     * @return URL requesting a card-sized image where the host supports it
+     */
+    public static String cardUrl(String url, int[] cardSize) {
+        return sizedUrl(url, cardSize[0], cardSize[1]);
+    }
+
+    /**
+     * Gets the URL for a card thumbnail
+     *
+     * @param url Original image URL
+     * @param cardSize Card size from cardSize()
+     * @return URL requesting a thumbnail-sized image where the host supports it
+     */
+    public static String thumbnailUrl(String url, int[] cardSize) {
+        return sizedUrl(url, Math.max(1, cardSize[0] / THUMBNAIL_DIVISOR),
+            Math.max(1, cardSize[1] / THUMBNAIL_DIVISOR));
+    }
+
+    /**
+     * Rewrites the size parameters of image CDN URLs that support resizing.
+     * Other URLs are returned unchanged.
+     *
+     * @param url Original image URL
+     * @param width Requested width in pixels
+     * @param height Requested height in pixels
+     * @return Sized URL
+     */
+    public static String sizedUrl(String url, int width, int height) {
+        if (url == null || url.trim().isEmpty()) {
+            return null;
+        }
+        Uri uri = Uri.parse(url);
+        if (!SIZED_HOST.equals(uri.getHost())) {
+            return url;
+        }
+
+        Uri.Builder builder = uri.buildUpon().clearQuery();
+        for (String name : uri.getQueryParameterNames()) {
+            if (!"w".equals(name) && !"h".equals(name) && !"fit".equals(name)) {
+                builder.appendQueryParameter(name, uri.getQueryParameter(name));
+            }
+        }
+        builder.appendQueryParameter("w", String.valueOf(width));
+        builder.appendQueryParameter("h", String.valueOf(height));
+        builder.appendQueryParameter("fit", "crop");
+        return builder.build().toString();
+    }
+
+    /**
+     * Gets the card image width in pixels
+     * @return Card width
+     */
+    public int getCardWidth() { return cardWidth; }
+
+    /**
+     * Gets the card image height in pixels
+     * @return Card height
+     */
+    public int getCardHeight() { return cardHeight; }
+
+    /**
+     * Builds the card image request
+     *
+     * @param imageUrl Card-sized image URL
+     * @param thumbnailUrl Thumbnail image URL (may equal imageUrl)
+     * @param trackMetrics Whether to record the load in ImageLoadMetrics (false for preloads)
+     * @return Request builder ready for into() or preload()
+     */
+    public RequestBuilder<Drawable> cardRequest(String imageUrl, String thumbnailUrl, boolean trackMetrics) {
+        RequestBuilder<Drawable> thumbnail = glide.load(thumbnailUrl)
+            .override(Math.max(1, cardWidth / THUMBNAIL_DIVISOR), Math.max(1, cardHeight / THUMBNAIL_DIVISOR))
+            .centerCrop()
+            .diskCacheStrategy(DiskCacheStrategy.ALL);
+
+        RequestBuilder<Drawable> request = glide.load(imageUrl)
+            .override(cardWidth, cardHeight)
+            .centerCrop()
+            .diskCacheStrategy(DiskCacheStrategy.ALL)
+            .placeholder(R.drawable.placeholder_tour)
+            .error(R.drawable.placeholder_tour)
+            .thumbnail(thumbnail);
+
+        if (trackMetrics) {
+            request = request.listener(ImageLoadMetrics.getInstance().<Drawable>newListener());
+        }
+        return request;
+    }
+}
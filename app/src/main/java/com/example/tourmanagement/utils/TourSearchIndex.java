@@ -0,0 +1,515 @@
+package com.example.tourmanagement.utils;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import com.example.tourmanagement.dao.TourDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.TourSearchTerm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory fuzzy search index over the names and locations of active tours.
+ * Tolerates missing diacritics and small typos ("Da Nang" finds "Đà Nẵng",
+ * "Ha Lnog" finds "Hạ Long") by matching folded tokens within a bounded edit distance.
+ *
+ * Features:
+ * - Symmetric-deletion (SymSpell-style) dictionary precomputed from the folded tour columns
+ * - Bounded Damerau-Levenshtein verification of candidates
+ * - Prefix completion for the last query token while the user is typing
+ * - Automatic rebuild after the tours table changes (Room invalidation tracker)
+ *
+ * Lookups only touch the delete dictionary and the posting lists of matching terms,
+ * so query cost depends on the number of matches rather than the number of tours;
+ * per-tour scratch buffers are kept per thread and reused, not allocated per query.
+ * The index is built lazily on first search; callers must search off the main thread.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class TourSearchIndex {
+
+    private static final String TAG = "TourSearchIndex";
+
+    /**
+     * Largest edit distance a query token may be from a dictionary term
+     */
+    private static final int MAX_EDIT_DISTANCE = 2;
+
+    /**
+     * Only this many leading characters of a term are used for delete generation
+     */
+    private static final int PREFIX_LENGTH = 7;
+
+    /**
+     * Maximum number of dictionary terms expanded for a prefix match
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /**
+     * Low bits of a search mark holding the number of matched query tokens
+     */
+    private static final int TOKEN_BITS = 8;
+    private static final int TOKEN_MASK = (1 << TOKEN_BITS) - 1;
+    private static final int MAX_QUERY_TOKENS = TOKEN_MASK;
+
+    private static volatile TourSearchIndex INSTANCE;
+
+    private final TourDao tourDao;
+
+    /**
+     * Incremented every time the tours table changes
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Current dictionary, null when it needs to be rebuilt
+     */
+    private volatile Dictionary dictionary;
+
+    TourSearchIndex(TourManagementDatabase database) {
+        this.tourDao = database.tourDao();
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("tours") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                generation.incrementAndGet();
+                dictionary = null;
+            }
+        });
+    }
+
+    /**
+     * Gets the singleton search index
+     *
+     * @param context Any context; the application context is used
+     * @return Search index instance
+     */
+    public static TourSearchIndex getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TourSearchIndex.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TourSearchIndex(TourManagementDatabase.getDatabase(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Searches tours by name and location, tolerating accents and typos.
+     * Every query token must match; results are ranked by total edit cost.
+     * Must be called from a background thread.
+     *
+     * @param query Raw user query
+     * @param limit Maximum number of results
+     * @return Ranked list of tour IDs, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        String[] tokens = TextNormalizer.tokenize(TextNormalizer.fold(query));
+        if (tokens.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Dictionary current = dictionary;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.search(tokens, limit);
+    }
+
+    /**
+     * Marks the index as stale so the next search rebuilds it
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        dictionary = null;
+    }
+
+    /**
+     * Rebuilds the dictionary from the folded tour columns
+     *
+     * @return Freshly built dictionary
+     */
+    private synchronized Dictionary rebuild() {
+        Dictionary current = dictionary;
+        if (current != null) {
+            return current;
+        }
+
+        int buildGeneration = generation.get();
+        long start = System.nanoTime();
+        Dictionary built = Dictionary.build(tourDao.getTourSearchTerms());
+        Log.d(TAG, "Built search index: " + built.terms.length + " terms, " +
+            built.deletes.size() + " deletes in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        // Do not publish a dictionary that missed a concurrent write
+        if (generation.get() == buildGeneration) {
+            dictionary = built;
+        }
+        return built;
+    }
+
+    /**
+     * Immutable symmetric-deletion dictionary built from one snapshot of the tours table
+     */
+    static final class Dictionary {
+
+        /**
+         * Sorted unique folded tokens
+         */
+        final String[] terms;
+
+        /**
+         * Dense tour indexes containing each term, parallel to terms
+         */
+        final int[][] termTours;
+
+        /**
+         * Tour IDs by dense index
+         */
+        final int[] tourIds;
+
+        /**
+         * Delete variant of a term prefix to the term indexes producing it
+         */
+        final Map<String, int[]> deletes;
+
+        /**
+         * Search buffers of each thread using this dictionary
+         */
+        private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+
+        private Dictionary(String[] terms, int[][] termTours, int[] tourIds, Map<String, int[]> deletes) {
+            this.terms = terms;
+            this.termTours = termTours;
+            this.tourIds = tourIds;
+            this.deletes = deletes;
+        }
+
+        /**
+         * Builds a dictionary from search term projections
+         *
+         * @param rows Folded name and location of each tour
+         * @return Built dictionary
+         */
+        static Dictionary build(List<TourSearchTerm> rows) {
+            int[] tourIds = new int[rows.size()];
+            Map<String, Set<Integer>> postings = new HashMap<>();
+
+            for (int tourIndex = 0; tourIndex < rows.size(); tourIndex++) {
+                TourSearchTerm row = rows.get(tourIndex);
+                tourIds[tourIndex] = row.id;
+                addPostings(postings, row.tourNameFolded, tourIndex);
+                addPostings(postings, row.tourLocationFolded, tourIndex);
+            }
+
+            String[] terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+
+            int[][] termTours = new int[terms.length][];
+            Map<String, List<Integer>> deleteLists = new HashMap<>();
+            Set<String> variants = new HashSet<>();
+
+            for (int termIndex = 0; termIndex < terms.length; termIndex++) {
+                Set<Integer> tours = postings.get(terms[termIndex]);
+                int[] sorted = new int[tours.size()];
+                int i = 0;
+                for (Integer tourIndex : tours) {
+                    sorted[i++] = tourIndex;
+                }
+                Arrays.sort(sorted);
+                termTours[termIndex] = sorted;
+
+                variants.clear();
+                String prefix = prefix(terms[termIndex]);
+                variants.add(prefix);
+                addDeletes(prefix, 0, MAX_EDIT_DISTANCE, variants);
+                for (String variant : variants) {
+                    List<Integer> list = deleteLists.get(variant);
+                    if (list == null) {
+                        list = new ArrayList<>(2);
+                        deleteLists.put(variant, list);
+                    }
+                    list.add(termIndex);
+                }
+            }
+
+            Map<String, int[]> deletes = new HashMap<>(deleteLists.size() * 4 / 3 + 1);
+            for (Map.Entry<String, List<Integer>> entry : deleteLists.entrySet()) {
+                List<Integer> list = entry.getValue();
+                int[] indexes = new int[list.size()];
+                for (int i = 0; i < indexes.length; i++) {
+                    indexes[i] = list.get(i);
+                }
+                deletes.put(entry.getKey(), indexes);
+            }
+
+            return new Dictionary(terms, termTours, tourIds, deletes);
+        }
+
+        /**
+         * Finds tours matching every query token
+         *
+         * @param tokens Folded query tokens
+         * @param limit Maximum number of results
+         * @return Ranked list of tour IDs
+         */
+        List<Integer> search(String[] tokens, int limit) {
+            int tokenCount = Math.min(tokens.length, MAX_QUERY_TOKENS);
+            Scratch scratch = this.scratch.get();
+            if (scratch == null) {
+                scratch = new Scratch(tourIds.length);
+                this.scratch.set(scratch);
+            }
+            int[] marks = scratch.marks;
+            int[] totalCost = scratch.costs;
+            int stamp = scratch.nextStamp();
+            long[] results = new long[0];
+            int resultCount = 0;
+
+            for (int t = 0; t < tokenCount; t++) {
+                boolean lastToken = t == tokenCount - 1;
+                long[] candidates = findTerms(tokens[t], lastToken);
+                if (candidates.length == 0) {
+                    return new ArrayList<>();
+                }
+
+                if (lastToken) {
+                    results = new long[Math.max(1, Math.min(tourIds.length, 256))];
+                }
+
+                // Candidates are sorted by cost, so the first hit per tour is its best match
+                for (long candidate : candidates) {
+                    int cost = (int) (candidate >>> 32);
+                    int termIndex = (int) candidate;
+                    for (int tourIndex : termTours[termIndex]) {
+                        int mark = marks[tourIndex];
+                        int matchedTokens = (mark & ~TOKEN_MASK) == stamp ? mark & TOKEN_MASK : 0;
+                        if (matchedTokens != t) {
+                            continue;
+                        }
+                        marks[tourIndex] = stamp | (t + 1);
+                        totalCost[tourIndex] = t == 0 ? cost : totalCost[tourIndex] + cost;
+                        if (lastToken) {
+                            if (resultCount == results.length) {
+                                results = Arrays.copyOf(results, resultCount * 2);
+                            }
+                            results[resultCount++] = ((long) totalCost[tourIndex] << 32) | tourIndex;
+                        }
+                    }
+                }
+            }
+
+            Arrays.sort(results, 0, resultCount);
+            int size = Math.min(limit, resultCount);
+            List<Integer> ranked = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ranked.add(tourIds[(int) results[i]]);
+            }
+            return ranked;
+        }
+
+        /**
+         * Finds dictionary terms close to a query token
+         *
+         * @param token Folded query token
+         * @param allowPrefix Whether terms starting with the token also match
+         * @return Packed (cost, term index) pairs sorted by ascending cost
+         */
+        private long[] findTerms(String token, boolean allowPrefix) {
+            int maxDistance = allowedDistance(token.length());
+            Map<Integer, Integer> costs = new HashMap<>();
+
+            Set<String> variants = new HashSet<>();
+            String prefix = prefix(token);
+            variants.add(prefix);
+            addDeletes(prefix, 0, maxDistance, variants);
+
+            for (String variant : variants) {
+                int[] termIndexes = deletes.get(variant);
+                if (termIndexes == null) {
+                    continue;
+                }
+                for (int termIndex : termIndexes) {
+                    if (costs.containsKey(termIndex)) {
+                        continue;
+                    }
+                    int distance = distance(token, terms[termIndex], maxDistance);
+                    if (distance >= 0) {
+                        // Edit matches rank below prefix completions of the same token
+                        costs.put(termIndex, distance * 2);
+                    }
+                }
+            }
+
+            if (allowPrefix && token.length() >= 2) {
+                int start = Arrays.binarySearch(terms, token);
+                if (start < 0) {
+                    start = -start - 1;
+                }
+                int end = Math.min(terms.length, start + MAX_PREFIX_EXPANSIONS);
+                for (int termIndex = start; termIndex < end && terms[termIndex].startsWith(token); termIndex++) {
+                    Integer existing = costs.get(termIndex);
+                    if (existing == null || existing > 1) {
+                        costs.put(termIndex, terms[termIndex].length() == token.length() ? 0 : 1);
+                    }
+                }
+            }
+
+            long[] packed = new long[costs.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : costs.entrySet()) {
+                packed[i++] = ((long) entry.getValue() << 32) | entry.getKey();
+            }
+            Arrays.sort(packed);
+            return packed;
+        }
+
+        private static void addPostings(Map<String, Set<Integer>> postings, String folded, int tourIndex) {
+            for (String token : TextNormalizer.tokenize(folded)) {
+                Set<Integer> tours = postings.get(token);
+                if (tours == null) {
+                    tours = new HashSet<>();
+                    postings.put(token, tours);
+                }
+                tours.add(tourIndex);
+            }
+        }
+    }
+
+    /**
+     * Per-thread search buffers indexed by dense tour index, reused across
+     * queries. Entries are stamped with the query that wrote them, so a query
+     * never clears or allocates anything proportional to the number of tours.
+     */
+    private static final class Scratch {
+        /**
+         * Query stamp in the high bits, number of tokens matched in the low bits
+         */
+        final int[] marks;
+
+        /**
+         * Total cost of the tokens matched so far; valid where the mark has the current stamp
+         */
+        final int[] costs;
+
+        private int sequence;
+
+        Scratch(int tourCount) {
+            marks = new int[tourCount];
+            costs = new int[tourCount];
+        }
+
+        /**
+         * Starts a query
+         *
+         * @return Stamp of the query, never seen in the marks before
+         */
+        int nextStamp() {
+            sequence++;
+            if (sequence >= 1 << (31 - TOKEN_BITS)) {
+                Arrays.fill(marks, 0);
+                sequence = 1;
+            }
+            return sequence << TOKEN_BITS;
+        }
+    }
+
+    /**
+     * Short tokens get a smaller typo budget so "ha" does not match every two-letter word
+     *
+     * @param length Token length
+     * @return Allowed edit distance
+     */
+    static int allowedDistance(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        if (length <= 5) {
+            return 1;
+        }
+        return MAX_EDIT_DISTANCE;
+    }
+
+    private static String prefix(String term) {
+        return term.length() > PREFIX_LENGTH ? term.substring(0, PREFIX_LENGTH) : term;
+    }
+
+    /**
+     * Adds all strings reachable from word by deleting up to maxDistance characters
+     */
+    private static void addDeletes(String word, int distance, int maxDistance, Set<String> out) {
+        if (distance >= maxDistance || word.length() <= 1) {
+            return;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            String deleted = word.substring(0, i) + word.substring(i + 1);
+            if (out.add(deleted)) {
+                addDeletes(deleted, distance + 1, maxDistance, out);
+            }
+        }
+    }
+
+    /**
+     * Optimal string alignment (restricted Damerau-Levenshtein) distance with early exit
+     *
+     * @param a First string
+     * @param b Second string
+     * @param maxDistance Largest distance of interest
+     * @return Distance, or -1 if it exceeds maxDistance
+     */
+    static int distance(String a, String b, int maxDistance) {
+        if (a.equals(b)) {
+            return 0;
+        }
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) > maxDistance) {
+            return -1;
+        }
+
+        int[] previousPrevious = new int[lengthB + 1];
+        int[] previous = new int[lengthB + 1];
+        int[] current = new int[lengthB + 1];
+        for (int j = 0; j <= lengthB; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= lengthA; i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            char charA = a.charAt(i - 1);
+
+            for (int j = 1; j <= lengthB; j++) {
+                char charB = b.charAt(j - 1);
+                int cost = charA == charB ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && charA == b.charAt(j - 2) && a.charAt(i - 2) == charB) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+
+            if (rowMinimum > maxDistance) {
+                return -1;
+            }
+
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return previous[lengthB] <= maxDistance ? previous[lengthB] : -1;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.tourmanagement.viewmodel;
+
+import android.app.Application;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.DashboardSnapshot;
+import com.example.tourmanagement.utils.RevenueSeries;
+import com.example.tourmanagement.utils.TaskScheduler;
+import java.util.List;
+
+/**
+ * ViewModel of the admin booking management screen.
+ * Holds the filtered booking list and the status counts across configuration
+ * changes. The status filter is kept in the SavedStateHandle, so it also
+ * survives process recreation.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BookingManagementViewModel extends AndroidViewModel {
+
+    private static final String TAG = "BookingManagementVM";
+    private static final String KEY_FILTER = "filter";
+
+    /**
+     * Filter value showing bookings of every status
+     */
+    public static final String FILTER_ALL = "ALL";
+
+    private final TourManagementDatabase database;
+    private final SavedStateHandle state;
+    private final MutableLiveData<List<Booking>> bookings = new MutableLiveData<>();
+    private final MutableLiveData<DashboardSnapshot> counts = new MutableLiveData<>();
+    private final MutableLiveData<String> error = new MutableLiveData<>();
+
+    private TaskScheduler.Task bookingsTask;
+    private TaskScheduler.Task countsTask;
+
+    /**
+     * Incremented per bookings load, so a slower superseded load does not overwrite a newer filter
+     */
+    private volatile int bookingsGeneration;
+
+    public BookingManagementViewModel(@NonNull Application application, @NonNull SavedStateHandle state) {
+        super(application);
+        this.database = TourManagementDatabase.getDatabase(application);
+        this.state = state;
+        loadBookings();
+        loadCounts();
+    }
+
+    /**
+     * Gets the current status filter (ALL, PENDING, CONFIRMED or CANCELLED)
+     */
+    public String getFilter() {
+        String filter = state.get(KEY_FILTER);
+        return filter != null ? filter : FILTER_ALL;
+    }
+
+    /**
+     * Changes the status filter and reloads the bookings
+     *
+     * @param filter ALL, PENDING, CONFIRMED or CANCELLED
+     */
+    public void setFilter(String filter) {
+        if (filter.equals(getFilter()) && bookings.getValue() != null) {
+            return;
+        }
+        state.set(KEY_FILTER, filter);
+        loadBookings();
+    }
+
+    /**
+     * Reloads bookings and counts, e.g. after a booking changed
+     */
+    public void refresh() {
+        loadBookings();
+        loadCounts();
+    }
+
+    /**
+     * Gets the bookings matching the filter
+     */
+    public LiveData<List<Booking>> getBookings() {
+        return bookings;
+    }
+
+    /**
+     * Gets the headline numbers with the status counts
+     */
+    public LiveData<DashboardSnapshot> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Gets the message of the last load error, null once shown
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Marks the last error as shown, so a recreated screen does not show it again
+     */
+    public void clearError() {
+        error.setValue(null);
+    }
+
+    private void loadBookings() {
+        if (bookingsTask != null) {
+            bookingsTask.cancel();
+        }
+        final String filter = getFilter();
+        final int generation = ++bookingsGeneration;
+        bookingsTask = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, () -> {
+            try {
+                List<Booking> result = FILTER_ALL.equals(filter) ? database.bookingDao().getAllBookings()
+                    : database.bookingDao().getBookingsByStatus(filter);
+                if (generation == bookingsGeneration) {
+                    bookings.postValue(result);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading bookings", e);
+                error.postValue("Error loading bookings: " + e.getMessage());
+            }
+        });
+    }
+
+    private void loadCounts() {
+        if (countsTask != null) {
+            countsTask.cancel();
+        }
+        countsTask = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, () -> {
+            try {
+                counts.postValue(database.dashboardDao().getSnapshot(-1,
+                    RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, 0, System.currentTimeMillis())));
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading booking statistics", e);
+                error.postValue("Error loading statistics: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (bookingsTask != null) {
+            bookingsTask.cancel();
+        }
+        if (countsTask != null) {
+            countsTask.cancel();
+        }
+    }
+}
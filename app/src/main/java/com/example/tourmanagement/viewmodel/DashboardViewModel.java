@@ -0,0 +1,140 @@
+package com.example.tourmanagement.viewmodel;
+
+import android.app.Application;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.DashboardSnapshot;
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.RevenueSeries;
+import com.example.tourmanagement.utils.TaskScheduler;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ViewModel of the dashboard.
+ * Holds the tour list, discount suggestions and headline numbers across
+ * configuration changes, so a rotation or theme change does not query the
+ * database again. The screen calls refresh() when the user comes back to it.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class DashboardViewModel extends AndroidViewModel {
+
+    private static final String TAG = "DashboardViewModel";
+
+    private final TourManagementDatabase database;
+    private final MutableLiveData<List<Tour>> tours = new MutableLiveData<>();
+    private final MutableLiveData<List<Discount>> discounts = new MutableLiveData<>();
+    private final MutableLiveData<DashboardSnapshot> stats = new MutableLiveData<>();
+
+    private int userId = -1;
+    private boolean admin;
+    private boolean started;
+    private TaskScheduler.Task loadTask;
+
+    public DashboardViewModel(@NonNull Application application) {
+        super(application);
+        database = TourManagementDatabase.getDatabase(application);
+    }
+
+    /**
+     * Loads the dashboard for a user, unless it is already loaded for them
+     *
+     * @param userId Signed-in user ID
+     * @param admin True for the admin, who sees every tour and discount
+     */
+    public void start(int userId, boolean admin) {
+        if (started && this.userId == userId && this.admin == admin) {
+            return;
+        }
+        this.userId = userId;
+        this.admin = admin;
+        started = true;
+        refresh();
+    }
+
+    /**
+     * Reloads tours, discounts and headline numbers
+     */
+    public void refresh() {
+        if (!started) {
+            return;
+        }
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        final int loadUserId = userId;
+        final boolean loadAdmin = admin;
+        loadTask = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, TaskScheduler.Priority.HIGH, () -> {
+            try {
+                List<Tour> activeTours = database.tourDao().getActiveTours();
+                if (!loadAdmin) {
+                    // Regular users only see tours they can still book
+                    List<Tour> bookable = new ArrayList<>(activeTours.size());
+                    for (Tour tour : activeTours) {
+                        if (tour.getAvailableSlots() > 0) {
+                            bookable.add(tour);
+                        }
+                    }
+                    activeTours = bookable;
+                }
+                tours.postValue(activeTours);
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading tours", e);
+                tours.postValue(new ArrayList<>());
+            }
+
+            try {
+                discounts.postValue(loadAdmin ? database.discountDao().getAllDiscounts()
+                    : database.discountDao().getActiveDiscounts());
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading discounts", e);
+                discounts.postValue(new ArrayList<>());
+            }
+
+            try {
+                long monthStart = RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, 0,
+                    System.currentTimeMillis());
+                stats.postValue(database.dashboardDao().getSnapshot(loadUserId, monthStart));
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading dashboard statistics", e);
+                stats.postValue(new DashboardSnapshot());
+            }
+        });
+    }
+
+    /**
+     * Gets the tours to show
+     */
+    public LiveData<List<Tour>> getTours() {
+        return tours;
+    }
+
+    /**
+     * Gets the discount suggestions
+     */
+    public LiveData<List<Discount>> getDiscounts() {
+        return discounts;
+    }
+
+    /**
+     * Gets the headline numbers
+     */
+    public LiveData<DashboardSnapshot> getStats() {
+        return stats;
+    }
+
+    @Override
+    protected void onCleared() {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+    }
+}
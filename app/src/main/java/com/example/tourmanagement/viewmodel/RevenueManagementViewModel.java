@@ -0,0 +1,165 @@
+package com.example.tourmanagement.viewmodel;
+
+import android.app.Application;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.DashboardSnapshot;
+import com.example.tourmanagement.model.RevenueBucket;
+import com.example.tourmanagement.model.TourRevenue;
+import com.example.tourmanagement.utils.BookingExport;
+import com.example.tourmanagement.utils.BookingFunnel;
+import com.example.tourmanagement.utils.RevenueSeries;
+import com.example.tourmanagement.utils.TaskScheduler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ViewModel of the revenue management screen.
+ * Loads the headline numbers, the per-tour breakdown, the monthly series and
+ * the booking funnel once and keeps them across configuration changes. The report picked for
+ * export and the running export are kept in the SavedStateHandle, so
+ * the progress dialog comes back after a rotation.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class RevenueManagementViewModel extends AndroidViewModel {
+
+    private static final String TAG = "RevenueManagementVM";
+    private static final String KEY_PENDING_EXPORT = "pending_export";
+    private static final String KEY_EXPORT_WORK_ID = "export_work_id";
+    private static final String KEY_EXPORT_REPORT = "export_report";
+
+    /**
+     * Number of months in the revenue trend, including the current one
+     */
+    private static final int TREND_MONTHS = 12;
+
+    /**
+     * Everything the revenue screen shows, loaded together
+     */
+    public static class RevenueData {
+
+        /**
+         * Headline numbers; revenue comes from the daily rollup
+         */
+        public DashboardSnapshot snapshot = new DashboardSnapshot();
+
+        /**
+         * Confirmed revenue per tour, highest first
+         */
+        public List<TourRevenue> tourRevenues = new ArrayList<>();
+
+        /**
+         * Zero-filled revenue of the last months, oldest first
+         */
+        public List<RevenueBucket> monthlyRevenues = new ArrayList<>();
+
+        /**
+         * Conversion, time to confirm and cancellation, folded from the booking event log
+         */
+        public BookingFunnel.Report funnel;
+    }
+
+    private final TourManagementDatabase database;
+    private final SavedStateHandle state;
+    private final MutableLiveData<RevenueData> revenueData = new MutableLiveData<>();
+
+    private TaskScheduler.Task loadTask;
+
+    public RevenueManagementViewModel(@NonNull Application application, @NonNull SavedStateHandle state) {
+        super(application);
+        this.database = TourManagementDatabase.getDatabase(application);
+        this.state = state;
+        refresh();
+    }
+
+    /**
+     * Reloads all revenue figures
+     */
+    public void refresh() {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        loadTask = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, () -> {
+            RevenueData data = new RevenueData();
+            try {
+                long now = System.currentTimeMillis();
+                data.snapshot = database.dashboardDao().getSnapshot(-1,
+                    RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, 0, now));
+                data.tourRevenues = database.revenueRollupDao().getRevenueByTour();
+                data.monthlyRevenues = RevenueSeries.load(database, RevenueSeries.Granularity.MONTH,
+                    RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, TREND_MONTHS - 1, now), now);
+                data.funnel = BookingFunnel.load(database);
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading revenue data", e);
+            }
+            revenueData.postValue(data);
+        });
+    }
+
+    /**
+     * Gets the revenue figures
+     */
+    public LiveData<RevenueData> getRevenueData() {
+        return revenueData;
+    }
+
+    /**
+     * Gets the report waiting for the user to pick an export file, or null
+     */
+    public BookingExport.Report getPendingExport() {
+        String name = state.get(KEY_PENDING_EXPORT);
+        return name != null ? BookingExport.Report.valueOf(name) : null;
+    }
+
+    /**
+     * Remembers the report to export while the file picker is shown
+     *
+     * @param report Report to export, or null once handled
+     */
+    public void setPendingExport(BookingExport.Report report) {
+        state.set(KEY_PENDING_EXPORT, report != null ? report.name() : null);
+    }
+
+    /**
+     * Gets the ID of the export whose progress is shown, or null
+     */
+    public UUID getExportWorkId() {
+        String id = state.get(KEY_EXPORT_WORK_ID);
+        return id != null ? UUID.fromString(id) : null;
+    }
+
+    /**
+     * Gets the report of the export whose progress is shown, or null
+     */
+    public BookingExport.Report getExportReport() {
+        String name = state.get(KEY_EXPORT_REPORT);
+        return name != null ? BookingExport.Report.valueOf(name) : null;
+    }
+
+    /**
+     * Remembers the export whose progress is shown
+     *
+     * @param workId Export work ID, or null once finished or hidden
+     * @param report Exported report, or null with the work ID
+     */
+    public void setExport(UUID workId, BookingExport.Report report) {
+        state.set(KEY_EXPORT_WORK_ID, workId != null ? workId.toString() : null);
+        state.set(KEY_EXPORT_REPORT, report != null ? report.name() : null);
+    }
+
+    @Override
+    protected void onCleared() {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.tourmanagement.viewmodel;
+
+import android.app.Application;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.utils.TaskScheduler;
+import com.example.tourmanagement.utils.TourSearchIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ViewModel of the tour search screen.
+ * Loads the tour list once and keeps it, with the results of the current
+ * query, across configuration changes. The query is kept in the
+ * SavedStateHandle, so it also survives process recreation.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class SearchToursViewModel extends AndroidViewModel {
+
+    private static final String TAG = "SearchToursViewModel";
+    private static final String KEY_QUERY = "query";
+    private static final int MAX_SEARCH_RESULTS = 200;
+
+    private final TourManagementDatabase database;
+    private final TourSearchIndex searchIndex;
+    private final SavedStateHandle state;
+    private final MutableLiveData<List<Tour>> results = new MutableLiveData<>();
+
+    /**
+     * All tours and the same tours by ID, replaced together on reload
+     */
+    private volatile List<Tour> allTours;
+    private volatile Map<Integer, Tour> toursById = Collections.emptyMap();
+
+    /**
+     * Incremented per search so results of superseded searches are dropped
+     */
+    private final AtomicInteger searchSequence = new AtomicInteger();
+    private TaskScheduler.Task searchTask;
+    private TaskScheduler.Task loadTask;
+
+    public SearchToursViewModel(@NonNull Application application, @NonNull SavedStateHandle state) {
+        super(application);
+        this.database = TourManagementDatabase.getDatabase(application);
+        this.searchIndex = TourSearchIndex.getInstance(application);
+        this.state = state;
+        refresh();
+    }
+
+    /**
+     * Gets the current search query
+     */
+    public String getQuery() {
+        String query = state.get(KEY_QUERY);
+        return query != null ? query : "";
+    }
+
+    /**
+     * Searches for a query, unless its results are already shown
+     *
+     * @param query Trimmed search text, empty for all tours
+     */
+    public void setQuery(String query) {
+        if (query.equals(getQuery()) && results.getValue() != null) {
+            return;
+        }
+        state.set(KEY_QUERY, query);
+        search();
+    }
+
+    /**
+     * Reloads the tour list and re-runs the current query, e.g. after a deletion
+     */
+    public void refresh() {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        loadTask = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, () -> {
+            try {
+                List<Tour> tours = database.tourDao().getAllTours();
+                Map<Integer, Tour> byId = new HashMap<>(tours.size() * 2);
+                for (Tour tour : tours) {
+                    byId.put(tour.getId(), tour);
+                }
+                toursById = byId;
+                allTours = tours;
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading tours", e);
+                toursById = Collections.emptyMap();
+                allTours = new ArrayList<>();
+            }
+            // Re-run the current query against the refreshed list
+            runSearch(getQuery(), searchSequence.incrementAndGet());
+        });
+    }
+
+    /**
+     * Gets the tours matching the current query
+     */
+    public LiveData<List<Tour>> getResults() {
+        return results;
+    }
+
+    private void search() {
+        final int sequence = searchSequence.incrementAndGet();
+        if (searchTask != null) {
+            // A search still waiting for a thread is superseded by this one
+            searchTask.cancel();
+        }
+        if (allTours == null) {
+            // The initial load runs the query once the tours are in
+            return;
+        }
+        final String query = getQuery();
+        searchTask = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI_READ, TaskScheduler.Priority.HIGH,
+            () -> runSearch(query, sequence));
+    }
+
+    /**
+     * Ranks tours by folded, typo-tolerant match on name or location. Runs on a pool thread.
+     */
+    private void runSearch(String query, int sequence) {
+        List<Tour> found;
+        if (query.isEmpty()) {
+            found = allTours;
+        } else {
+            List<Integer> rankedIds = searchIndex.search(query, MAX_SEARCH_RESULTS);
+            Map<Integer, Tour> byId = toursById;
+            found = new ArrayList<>(rankedIds.size());
+            for (Integer tourId : rankedIds) {
+                Tour tour = byId.get(tourId);
+                if (tour != null) {
+                    found.add(tour);
+                }
+            }
+        }
+        if (sequence == searchSequence.get()) {
+            results.postValue(found);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        if (searchTask != null) {
+            searchTask.cancel();
+        }
+    }
+}
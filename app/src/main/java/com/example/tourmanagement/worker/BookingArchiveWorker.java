@@ -0,0 +1,39 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.utils.BookingArchive;
+
+/**
+ * WorkManager worker that runs the booking archiver once a week.
+ * Moves finished bookings older than the archive horizon to the archive table.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BookingArchiveWorker extends Worker {
+
+    private static final String TAG = "BookingArchiveWorker";
+
+    public BookingArchiveWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        try {
+            BookingArchive.archive(context, TourManagementDatabase.getDatabase(context));
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error archiving bookings", e);
+            return Result.retry();
+        }
+    }
+}
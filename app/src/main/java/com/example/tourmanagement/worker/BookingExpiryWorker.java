@@ -0,0 +1,65 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+import com.example.tourmanagement.utils.BookingExpiry;
+import com.example.tourmanagement.utils.EmailService;
+import com.example.tourmanagement.utils.EntityCache;
+import com.example.tourmanagement.utils.NotificationDigests;
+
+/**
+ * WorkManager worker that cancels unpaid bookings whose hold has expired.
+ * Releases their seats, emails the customers and adds the expiries to the
+ * admin digest, then schedules itself for the next expiry.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BookingExpiryWorker extends Worker {
+
+    private static final String TAG = "BookingExpiryWorker";
+
+    public BookingExpiryWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        TourManagementDatabase database = TourManagementDatabase.getDatabase(context);
+        EntityCache entityCache = EntityCache.getInstance(context);
+
+        try {
+            BookingExpiry.Result result = BookingExpiry.create(database, BookingExpiry.SYSTEM_CLOCK).expireDue();
+
+            for (Booking booking : result.expired) {
+                entityCache.invalidateTour(booking.getTourId());
+                User user = entityCache.getUser(booking.getUserId());
+                Tour tour = entityCache.getTour(booking.getTourId());
+                if (user == null || tour == null) {
+                    continue;
+                }
+                NotificationDigests.notifyAdmin(context, NotificationEvent.Type.EXPIRED, user, tour, booking);
+                if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+                    EmailService.sendBookingExpiredEmail(context, user, tour, booking, null);
+                }
+            }
+
+            BookingExpiry.schedule(context, result.nextExpiry, BookingExpiry.SYSTEM_CLOCK);
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error expiring bookings", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.utils.BookingExport;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CancellationException;
+
+/**
+ * WorkManager worker that writes a booking export to a user-picked document.
+ * Publishes progress as KEY_ROWS / KEY_TOTAL_ROWS and stops between pages when
+ * the work is cancelled. A partially written document is deleted.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class BookingExportWorker extends Worker {
+
+    private static final String TAG = "BookingExportWorker";
+
+    public static final String KEY_URI = "uri";
+    public static final String KEY_REPORT = "report";
+    public static final String KEY_FORMAT = "format";
+    public static final String KEY_ROWS = "rows";
+    public static final String KEY_TOTAL_ROWS = "total_rows";
+
+    public BookingExportWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Uri uri = Uri.parse(getInputData().getString(KEY_URI));
+        BookingExport.Report report = BookingExport.Report.valueOf(getInputData().getString(KEY_REPORT));
+        BookingExport.Format format = BookingExport.Format.valueOf(getInputData().getString(KEY_FORMAT));
+
+        try {
+            OutputStream stream = getApplicationContext().getContentResolver().openOutputStream(uri, "wt");
+            if (stream == null) {
+                Log.e(TAG, "Cannot open export target " + uri);
+                return Result.failure();
+            }
+            long rows = BookingExport.export(TourManagementDatabase.getDatabase(getApplicationContext()), report,
+                format, new BufferedOutputStream(stream, 64 * 1024), new BookingExport.Progress() {
+                    @Override
+                    public void onProgress(long rows, long totalRows) {
+                        setProgressAsync(new Data.Builder()
+                            .putLong(KEY_ROWS, rows)
+                            .putLong(KEY_TOTAL_ROWS, totalRows)
+                            .build());
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return isStopped();
+                    }
+                });
+            return Result.success(new Data.Builder().putLong(KEY_ROWS, rows).build());
+        } catch (CancellationException e) {
+            Log.i(TAG, e.getMessage());
+            deletePartialDocument(uri);
+            return Result.failure();
+        } catch (Exception e) {
+            Log.e(TAG, "Error exporting " + report, e);
+            deletePartialDocument(uri);
+            return Result.failure();
+        }
+    }
+
+    private void deletePartialDocument(Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(getApplicationContext().getContentResolver(), uri);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not delete partial export " + uri, e);
+        }
+    }
+}
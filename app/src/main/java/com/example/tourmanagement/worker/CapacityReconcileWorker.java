@@ -0,0 +1,38 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.utils.CapacityReconciler;
+
+/**
+ * WorkManager worker that runs the capacity reconciler once a day.
+ * Repairs tours whose stored booking count drifted from their bookings.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class CapacityReconcileWorker extends Worker {
+
+    private static final String TAG = "CapacityReconcileWorker";
+
+    public CapacityReconcileWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            CapacityReconciler.reconcile(TourManagementDatabase.getDatabase(getApplicationContext()));
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error reconciling tour capacity", e);
+            return Result.retry();
+        }
+    }
+}
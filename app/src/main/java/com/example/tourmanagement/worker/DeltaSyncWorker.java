@@ -0,0 +1,54 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.utils.DeltaSync;
+import java.io.IOException;
+
+/**
+ * WorkManager worker that syncs the local database with the sync server.
+ * Runs hourly and on demand while a server is set; unreachable servers are
+ * retried with WorkManager's exponential backoff.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class DeltaSyncWorker extends Worker {
+
+    private static final String TAG = "DeltaSyncWorker";
+
+    /**
+     * Attempts of one run before giving up until the next scheduled sync
+     */
+    private static final int MAX_ATTEMPTS = 8;
+
+    public DeltaSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        String serverUrl = DeltaSync.getServerUrl(context);
+        if (serverUrl.isEmpty()) {
+            return Result.success();
+        }
+
+        try {
+            DeltaSync.sync(TourManagementDatabase.getDatabase(context), serverUrl);
+            return Result.success();
+        } catch (IOException e) {
+            Log.w(TAG, "Sync server unreachable (attempt " + (getRunAttemptCount() + 1) + ")", e);
+            return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        } catch (Exception e) {
+            Log.e(TAG, "Error syncing", e);
+            return Result.failure();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.dao.OutboxEmailDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.OutboxEmail;
+import com.example.tourmanagement.utils.EmailOutbox;
+import com.example.tourmanagement.utils.SmtpMailer;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.mail.MessagingException;
+
+/**
+ * WorkManager worker that drains the email outbox.
+ * Sends all due emails over one authenticated SMTP connection, records the
+ * outcome of every message and schedules the next run for retries.
+ *
+ * Features:
+ * - One SMTP connection per drain instead of one per email
+ * - Exponential backoff with jitter per email, permanent failures not retried
+ * - Per-minute and per-day quota based on emails sent in the window
+ * - Drains are serialized so an email is never sent twice
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class EmailOutboxWorker extends Worker {
+
+    private static final String TAG = "EmailOutboxWorker";
+
+    /**
+     * Emails fetched per query
+     */
+    private static final int BATCH_SIZE = 20;
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long DAY_MS = 24 * 60 * MINUTE_MS;
+
+    /**
+     * Sent and failed rows are kept this long (the quota counts sent rows)
+     */
+    private static final long RETENTION_MS = 2 * DAY_MS;
+
+    /**
+     * Serializes drains; the immediate drain and the retry may start together, and a
+     * replaced retry may still be finishing its current email
+     */
+    private static final ReentrantLock DRAIN_LOCK = new ReentrantLock();
+
+    private static volatile SmtpMailer mailer;
+
+    public EmailOutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        OutboxEmailDao outboxDao = TourManagementDatabase.getDatabase(getApplicationContext()).outboxEmailDao();
+
+        DRAIN_LOCK.lock();
+        try {
+            outboxDao.deleteFinishedBefore(System.currentTimeMillis() - RETENTION_MS);
+
+            SmtpMailer.Batch batch = null;
+            try {
+                while (!isStopped()) {
+                    long now = System.currentTimeMillis();
+                    int perMinute = EmailOutbox.MAX_SENDS_PER_MINUTE - outboxDao.countSentSince(now - MINUTE_MS);
+                    int perDay = EmailOutbox.MAX_SENDS_PER_DAY - outboxDao.countSentSince(now - DAY_MS);
+                    if (perMinute <= 0 || perDay <= 0) {
+                        // Quota used up; resume when the window has moved on
+                        EmailOutbox.scheduleRetry(getApplicationContext(), perDay <= 0 ? 60 * MINUTE_MS : MINUTE_MS);
+                        return Result.success();
+                    }
+
+                    List<OutboxEmail> due = outboxDao.getDueEmails(now, Math.min(BATCH_SIZE, Math.min(perMinute, perDay)));
+                    if (due.isEmpty()) {
+                        break;
+                    }
+
+                    if (batch == null) {
+                        try {
+                            batch = getMailer().openBatch();
+                        } catch (MessagingException e) {
+                            Log.w(TAG, "Could not connect to SMTP server", e);
+                            for (OutboxEmail email : due) {
+                                recordFailure(outboxDao, email, e, false);
+                            }
+                            break;
+                        }
+                    }
+
+                    for (OutboxEmail email : due) {
+                        try {
+                            batch.send(email.getRecipient(), email.getSubject(), email.getHtmlBody());
+                            outboxDao.markSent(email.getId(), System.currentTimeMillis());
+                        } catch (MessagingException e) {
+                            Log.w(TAG, "Failed to send email " + email.getId(), e);
+                            recordFailure(outboxDao, email, e, SmtpMailer.isPermanentFailure(e));
+                        }
+                        if (isStopped()) {
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                if (batch != null) {
+                    batch.close();
+                }
+            }
+
+            Long nextAttemptAt = outboxDao.getNextPendingAttemptAt();
+            if (nextAttemptAt != null) {
+                EmailOutbox.scheduleRetry(getApplicationContext(), nextAttemptAt - System.currentTimeMillis());
+            }
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error draining email outbox", e);
+            return Result.retry();
+        } finally {
+            DRAIN_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Records a failed attempt, scheduling a retry or giving up
+     */
+    private static void recordFailure(OutboxEmailDao outboxDao, OutboxEmail email,
+                                      MessagingException error, boolean permanent) {
+        int attempts = email.getAttempts() + 1;
+        String message = error.getMessage();
+        if (permanent || attempts >= EmailOutbox.MAX_ATTEMPTS) {
+            outboxDao.markFailed(email.getId(), attempts, message);
+        } else {
+            long delay = EmailOutbox.backoffDelayMs(attempts, ThreadLocalRandom.current().nextDouble());
+            outboxDao.markRetry(email.getId(), attempts, System.currentTimeMillis() + delay, message);
+        }
+    }
+
+    /**
+     * Gets the shared mailer; its Session is reused across drains
+     */
+    private static SmtpMailer getMailer() {
+        if (mailer == null) {
+            synchronized (EmailOutboxWorker.class) {
+                if (mailer == null) {
+                    mailer = new SmtpMailer(SmtpMailer.defaultConfig());
+                }
+            }
+        }
+        return mailer;
+    }
+}
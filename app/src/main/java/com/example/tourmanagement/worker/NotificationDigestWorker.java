@@ -0,0 +1,104 @@
+package com.example.tourmanagement.worker;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.tourmanagement.dao.NotificationEventDao;
+import com.example.tourmanagement.database.TourManagementDatabase;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.NotificationPreference;
+import com.example.tourmanagement.model.OutboxEmail;
+import com.example.tourmanagement.model.PendingDigest;
+import com.example.tourmanagement.utils.EmailOutbox;
+import com.example.tourmanagement.utils.EmailService;
+import com.example.tourmanagement.utils.NotificationDigests;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WorkManager worker that turns pending booking events into digest emails.
+ * For every recipient whose window has ended (or who has enough pending
+ * events) it renders one summary email, queues it in the email outbox and
+ * marks the events as sent in the same transaction.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public class NotificationDigestWorker extends Worker {
+
+    private static final String TAG = "NotificationDigestWorker";
+
+    /**
+     * Digested events are kept this long for troubleshooting
+     */
+    private static final long RETENTION_MS = TimeUnit.DAYS.toMillis(7);
+
+    /**
+     * Serializes runs; a replaced worker may still be finishing a recipient
+     */
+    private static final ReentrantLock DIGEST_LOCK = new ReentrantLock();
+
+    public NotificationDigestWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        TourManagementDatabase database = TourManagementDatabase.getDatabase(context);
+        NotificationEventDao eventDao = database.notificationEventDao();
+
+        DIGEST_LOCK.lock();
+        try {
+            long now = System.currentTimeMillis();
+            eventDao.deleteDigestedBefore(now - RETENTION_MS);
+
+            boolean queued = false;
+            for (PendingDigest pending : eventDao.getPendingDigests()) {
+                if (isStopped()) {
+                    break;
+                }
+                NotificationPreference preference = NotificationDigests.getPreference(
+                    database, pending.recipient, NotificationPreference.Mode.DIGEST);
+                if (NotificationDigests.dueAt(pending, preference) > now) {
+                    continue;
+                }
+
+                List<NotificationEvent> events = eventDao.getPendingEvents(pending.recipient);
+                if (events.isEmpty()) {
+                    continue;
+                }
+                OutboxEmail email = new OutboxEmail(pending.recipient, EmailService.bookingDigestSubject(events.size()),
+                    EmailService.renderBookingDigest(context, events, preference.getWindowMinutes()));
+                List<Integer> ids = new ArrayList<>(events.size());
+                for (NotificationEvent event : events) {
+                    ids.add(event.getId());
+                }
+
+                // Queue the digest and consume its events atomically
+                database.runInTransaction(() -> {
+                    database.outboxEmailDao().insertEmail(email);
+                    eventDao.markDigested(ids, now);
+                });
+                queued = true;
+            }
+
+            if (queued) {
+                EmailOutbox.scheduleDrain(context);
+            }
+            NotificationDigests.reschedule(context, database);
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error building notification digests", e);
+            return Result.retry();
+        } finally {
+            DIGEST_LOCK.unlock();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for creating bookings, using an in-memory store.
+ */
+public class BookingCreatorTest {
+
+    private FakeStore store;
+    private BookingCreator creator;
+
+    @Before
+    public void setUp() {
+        store = new FakeStore();
+        creator = new BookingCreator(store);
+    }
+
+    @Test
+    public void createdBookingTakesItsSeats() {
+        store.addTour(10, 5, true);
+
+        BookingCreator.Result result = creator.place(new Booking(1, 10, 3, 300.0));
+
+        assertTrue(result.isCreated());
+        assertEquals(1, result.booking.getId());
+        assertEquals(3, result.tour.getCurrentBookings());
+        assertEquals(1, store.inserted.size());
+        assertEquals(1, store.transactions);
+    }
+
+    @Test
+    public void lastSeatsGoToTheFirstBooking() {
+        store.addTour(10, 5, true);
+
+        assertTrue(creator.place(new Booking(1, 10, 4, 400.0)).isCreated());
+        BookingCreator.Result second = creator.place(new Booking(2, 10, 2, 200.0));
+
+        assertEquals(BookingCreator.Status.NOT_ENOUGH_SEATS, second.status);
+        assertNull(second.booking);
+        assertEquals(1, second.tour.getAvailableSlots());
+        assertEquals(1, store.inserted.size());
+        assertTrue(creator.place(new Booking(2, 10, 1, 100.0)).isCreated());
+    }
+
+    @Test
+    public void missingOrInactiveToursCannotBeBooked() {
+        store.addTour(20, 5, false);
+
+        assertEquals(BookingCreator.Status.TOUR_NOT_FOUND, creator.place(new Booking(1, 20, 1, 100.0)).status);
+        assertEquals(BookingCreator.Status.TOUR_NOT_FOUND, creator.place(new Booking(1, 99, 1, 100.0)).status);
+        assertEquals(0, store.tours.get(20).getCurrentBookings());
+        assertTrue(store.inserted.isEmpty());
+    }
+
+    @Test
+    public void bookingWithoutPeopleIsInvalid() {
+        store.addTour(10, 5, true);
+
+        assertEquals(BookingCreator.Status.INVALID, creator.place(new Booking(1, 10, 0, 0.0)).status);
+        assertEquals(0, store.transactions);
+    }
+
+    @Test
+    public void failedInsertReturnsTheSeats() {
+        store.addTour(10, 5, true);
+        store.failInsert = true;
+
+        try {
+            creator.place(new Booking(1, 10, 2, 200.0));
+            fail("Insert failure should propagate");
+        } catch (IllegalStateException expected) {
+            // The fake store rolled the transaction back
+        }
+
+        assertEquals(0, store.tours.get(10).getCurrentBookings());
+    }
+
+    /**
+     * Store keeping tours in memory; a transaction that throws restores the seat counts
+     */
+    private static final class FakeStore implements BookingCreator.Store {
+        final Map<Integer, Tour> tours = new HashMap<>();
+        final List<Booking> inserted = new ArrayList<>();
+        int transactions;
+        boolean failInsert;
+
+        void addTour(int id, int capacity, boolean active) {
+            Tour tour = new Tour("Tour " + id, "", "Da Nang", 0L, "", 100.0, capacity, 1);
+            tour.setId(id);
+            tour.setActive(active);
+            tours.put(id, tour);
+        }
+
+        @Override
+        public void runInTransaction(Runnable body) {
+            transactions++;
+            Map<Integer, Integer> booked = new HashMap<>();
+            for (Tour tour : tours.values()) {
+                booked.put(tour.getId(), tour.getCurrentBookings());
+            }
+            try {
+                body.run();
+            } catch (RuntimeException e) {
+                for (Tour tour : tours.values()) {
+                    tour.setCurrentBookings(booked.get(tour.getId()));
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public Tour getTour(int tourId) {
+            return tours.get(tourId);
+        }
+
+        @Override
+        public int reserveSeats(int tourId, int seats) {
+            Tour tour = tours.get(tourId);
+            if (tour == null || !tour.isActive() || tour.getCurrentBookings() + seats > tour.getNumberOfPeoples()) {
+                return 0;
+            }
+            tour.setCurrentBookings(tour.getCurrentBookings() + seats);
+            return 1;
+        }
+
+        @Override
+        public long insertBooking(Booking booking) {
+            if (failInsert) {
+                throw new IllegalStateException("disk full");
+            }
+            inserted.add(booking);
+            return inserted.size();
+        }
+    }
+}
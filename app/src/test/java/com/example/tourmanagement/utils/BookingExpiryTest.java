@@ -0,0 +1,193 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.Booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the expiry of unpaid pending bookings, using an in-memory store
+ * and a fixed clock.
+ */
+public class BookingExpiryTest {
+
+    private static final long NOW = 1_765_000_000_000L;
+
+    private FakeStore store;
+    private BookingExpiry expiry;
+
+    @Before
+    public void setUp() {
+        store = new FakeStore();
+        expiry = new BookingExpiry(store, () -> NOW);
+    }
+
+    @Test
+    public void expiresOnlyUnpaidPendingBookingsPastTheirHold() {
+        Booking due = store.add(1, 10, 2, NOW - 1, "PENDING", "PENDING");
+        Booking dueNow = store.add(2, 10, 1, NOW, "PENDING", "PENDING");
+        Booking later = store.add(3, 10, 4, NOW + 60_000, "PENDING", "PENDING");
+        Booking confirmed = store.add(4, 10, 3, NOW - 1, "CONFIRMED", "PAID");
+        Booking noHold = store.add(5, 10, 3, 0, "PENDING", "PENDING");
+
+        BookingExpiry.Result result = expiry.expireDue();
+
+        assertEquals(2, result.expired.size());
+        assertEquals("CANCELLED", due.getBookingStatus());
+        assertEquals(BookingExpiry.PAYMENT_EXPIRED, due.getPaymentStatus());
+        assertEquals("CANCELLED", dueNow.getBookingStatus());
+        assertEquals("PENDING", later.getBookingStatus());
+        assertEquals("CONFIRMED", confirmed.getBookingStatus());
+        assertEquals("PENDING", noHold.getBookingStatus());
+        assertEquals(NOW + 60_000, result.nextExpiry);
+    }
+
+    @Test
+    public void releasesSeatsPerTourInsideTheTransaction() {
+        store.add(1, 10, 2, NOW - 5, "PENDING", "PENDING");
+        store.add(2, 10, 3, NOW - 4, "PENDING", "PENDING");
+        store.add(3, 20, 1, NOW - 3, "PENDING", "PENDING");
+
+        expiry.expireDue();
+
+        assertEquals(Integer.valueOf(5), store.released.get(10));
+        assertEquals(Integer.valueOf(1), store.released.get(20));
+        assertEquals(0, store.writesOutsideTransaction);
+    }
+
+    @Test
+    public void expiresLargeBacklogInBatches() {
+        int count = BookingExpiry.BATCH_SIZE * 2 + 7;
+        for (int i = 1; i <= count; i++) {
+            store.add(i, 10, 1, NOW - i, "PENDING", "PENDING");
+        }
+
+        BookingExpiry.Result result = expiry.expireDue();
+
+        assertEquals(count, result.expired.size());
+        assertEquals(Integer.valueOf(count), store.released.get(10));
+        assertEquals(3, store.transactions);
+        assertEquals(0, result.nextExpiry);
+    }
+
+    @Test
+    public void nothingDueLeavesStoreUntouched() {
+        store.add(1, 10, 2, NOW + 1, "PENDING", "PENDING");
+
+        BookingExpiry.Result result = expiry.expireDue();
+
+        assertTrue(result.expired.isEmpty());
+        assertTrue(store.released.isEmpty());
+        assertEquals(NOW + 1, result.nextExpiry);
+    }
+
+    @Test
+    public void seatsByTourSumsPeople() {
+        List<Booking> bookings = new ArrayList<>();
+        bookings.add(booking(1, 10, 2));
+        bookings.add(booking(2, 11, 1));
+        bookings.add(booking(3, 10, 4));
+
+        Map<Integer, Integer> seats = BookingExpiry.seatsByTour(bookings);
+
+        assertEquals(2, seats.size());
+        assertEquals(Integer.valueOf(6), seats.get(10));
+        assertEquals(Integer.valueOf(1), seats.get(11));
+    }
+
+    private static Booking booking(int id, int tourId, int people) {
+        Booking booking = new Booking(1, tourId, people, 100);
+        booking.setId(id);
+        return booking;
+    }
+
+    /**
+     * In-memory bookings table with the same filters as BookingDao
+     */
+    private static class FakeStore implements BookingExpiry.Store {
+        final List<Booking> bookings = new ArrayList<>();
+        final Map<Integer, Integer> released = new HashMap<>();
+        int transactions;
+        int writesOutsideTransaction;
+        private boolean inTransaction;
+
+        Booking add(int id, int tourId, int people, long expiresAt, String status, String payment) {
+            Booking booking = booking(id, tourId, people);
+            booking.setExpiresAt(expiresAt);
+            booking.setBookingStatus(status);
+            booking.setPaymentStatus(payment);
+            bookings.add(booking);
+            return booking;
+        }
+
+        @Override
+        public void runInTransaction(Runnable body) {
+            transactions++;
+            inTransaction = true;
+            try {
+                body.run();
+            } finally {
+                inTransaction = false;
+            }
+        }
+
+        @Override
+        public List<Booking> getExpiredBookings(long now, int limit) {
+            List<Booking> expired = new ArrayList<>();
+            for (Booking booking : bookings) {
+                if (isHeld(booking) && booking.getExpiresAt() <= now && expired.size() < limit) {
+                    expired.add(booking);
+                }
+            }
+            return expired;
+        }
+
+        @Override
+        public int expireBookings(List<Integer> bookingIds) {
+            if (!inTransaction) {
+                writesOutsideTransaction++;
+            }
+            int count = 0;
+            for (Booking booking : bookings) {
+                if (bookingIds.contains(booking.getId()) && isHeld(booking)) {
+                    // Stored row changes; the returned objects are updated by BookingExpiry
+                    booking.setExpiresAt(-1);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void releaseSeats(int tourId, int seats) {
+            if (!inTransaction) {
+                writesOutsideTransaction++;
+            }
+            Integer current = released.get(tourId);
+            released.put(tourId, (current != null ? current : 0) + seats);
+        }
+
+        @Override
+        public long getNextExpiry() {
+            long next = 0;
+            for (Booking booking : bookings) {
+                if (isHeld(booking) && (next == 0 || booking.getExpiresAt() < next)) {
+                    next = booking.getExpiresAt();
+                }
+            }
+            return next;
+        }
+
+        private static boolean isHeld(Booking booking) {
+            return "PENDING".equals(booking.getBookingStatus()) && "PENDING".equals(booking.getPaymentStatus())
+                && booking.getExpiresAt() > 0;
+        }
+    }
+}
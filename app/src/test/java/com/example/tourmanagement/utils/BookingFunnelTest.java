@@ -0,0 +1,100 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.BookingEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the booking funnel consumers and their saved progress.
+ */
+public class BookingFunnelTest {
+
+    private static final long CREATED_AT = 1_000_000L;
+    private static final long MINUTE = 60_000L;
+
+    private long seq;
+
+    @Test
+    public void ratesAreRelativeToCreatedBookings() {
+        BookingFunnel.ConversionRate conversion = new BookingFunnel.ConversionRate();
+        BookingFunnel.CancellationRate cancellation = new BookingFunnel.CancellationRate();
+        for (BookingEvent event : new BookingEvent[] {
+                event(1, BookingEvent.TYPE_CREATED, CREATED_AT),
+                event(2, BookingEvent.TYPE_CREATED, CREATED_AT),
+                event(3, BookingEvent.TYPE_CREATED, CREATED_AT),
+                event(4, BookingEvent.TYPE_CREATED, CREATED_AT),
+                event(1, BookingEvent.TYPE_CONFIRMED, CREATED_AT + MINUTE),
+                event(1, BookingEvent.TYPE_PAID, CREATED_AT + MINUTE),
+                event(2, BookingEvent.TYPE_CONFIRMED, CREATED_AT + MINUTE),
+                event(3, BookingEvent.TYPE_CANCELLED, CREATED_AT + MINUTE)}) {
+            conversion.accept(event);
+            cancellation.accept(event);
+        }
+
+        assertEquals(4, conversion.getCreated());
+        assertEquals(0.5, conversion.getConversionRate(), 1e-9);
+        assertEquals(0.25, conversion.getPaymentRate(), 1e-9);
+        assertEquals(0.25, cancellation.getCancellationRate(), 1e-9);
+    }
+
+    @Test
+    public void timeToConfirmSkipsBookingsWrittenConfirmed() {
+        BookingFunnel.TimeToConfirm timeToConfirm = new BookingFunnel.TimeToConfirm();
+        timeToConfirm.accept(event(1, BookingEvent.TYPE_CONFIRMED, CREATED_AT + 10 * MINUTE));
+        timeToConfirm.accept(event(2, BookingEvent.TYPE_CONFIRMED, CREATED_AT + 30 * MINUTE));
+        // Inserted already confirmed: no measured delay
+        timeToConfirm.accept(event(3, BookingEvent.TYPE_CONFIRMED, CREATED_AT));
+
+        assertEquals(20 * MINUTE, timeToConfirm.getAverageMs());
+    }
+
+    @Test
+    public void emptyLogGivesZeros() {
+        BookingFunnel.ConversionRate conversion = new BookingFunnel.ConversionRate();
+        BookingFunnel.TimeToConfirm timeToConfirm = new BookingFunnel.TimeToConfirm();
+
+        assertEquals(0.0, conversion.getConversionRate(), 0.0);
+        assertEquals(0L, timeToConfirm.getAverageMs());
+        assertEquals(0L, conversion.getOffset());
+    }
+
+    @Test
+    public void restoredConsumerFoldsOnlyNewEvents() {
+        BookingFunnel.ConversionRate first = new BookingFunnel.ConversionRate();
+        BookingEvent created = event(1, BookingEvent.TYPE_CREATED, CREATED_AT);
+        BookingEvent confirmed = event(1, BookingEvent.TYPE_CONFIRMED, CREATED_AT + MINUTE);
+        first.accept(created);
+        first.accept(confirmed);
+
+        BookingFunnel.ConversionRate resumed = new BookingFunnel.ConversionRate();
+        resumed.restore(first.getOffset(), first.encodeState());
+        assertEquals(first.getOffset(), resumed.getOffset());
+        assertEquals(1, resumed.getCreated());
+
+        // Events up to the offset are not folded again
+        assertFalse(resumed.accept(created));
+        assertFalse(resumed.accept(confirmed));
+        assertTrue(resumed.accept(event(2, BookingEvent.TYPE_CREATED, CREATED_AT)));
+        assertEquals(2, resumed.getCreated());
+        assertEquals(0.5, resumed.getConversionRate(), 1e-9);
+    }
+
+    @Test
+    public void unreadableStateStartsCountersOver() {
+        BookingFunnel.CancellationRate consumer = new BookingFunnel.CancellationRate();
+        consumer.restore(0, "created=x;cancelled=1;garbage");
+
+        assertEquals(0.0, consumer.getCancellationRate(), 0.0);
+        consumer.accept(event(1, BookingEvent.TYPE_CREATED, CREATED_AT));
+        assertEquals(1, consumer.getOffset());
+        assertEquals(1.0, consumer.getCancellationRate(), 1e-9);
+    }
+
+    private BookingEvent event(int bookingId, String type, long occurredAt) {
+        BookingEvent event = new BookingEvent(bookingId, type, occurredAt, CREATED_AT);
+        event.setSeq(++seq);
+        return event;
+    }
+}
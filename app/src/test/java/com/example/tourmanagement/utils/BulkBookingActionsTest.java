@@ -0,0 +1,227 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.Booking;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for bulk confirmation and cancellation, using an in-memory store.
+ */
+public class BulkBookingActionsTest {
+
+    private FakeStore store;
+    private BulkBookingActions actions;
+
+    @Before
+    public void setUp() {
+        store = new FakeStore();
+        actions = new BulkBookingActions(store);
+    }
+
+    @Test
+    public void confirmMarksPendingBookingsPaidAndKeepsSeats() {
+        store.add(1, 10, 2, "PENDING");
+        store.add(2, 20, 1, "PENDING");
+
+        BulkBookingActions.Result result = actions.apply(BulkBookingActions.CONFIRM, Arrays.asList(1, 2), null);
+
+        assertEquals(2, result.updated.size());
+        assertEquals("CONFIRMED", store.get(1).getBookingStatus());
+        assertEquals("PAID", store.get(2).getPaymentStatus());
+        assertTrue(store.released.isEmpty());
+        assertEquals(Arrays.asList(1, 2), store.noticed);
+        assertFalse(result.isPartial());
+        assertEquals(1, store.transactions);
+    }
+
+    @Test
+    public void cancelReleasesSeatsPerTour() {
+        store.add(1, 10, 2, "PENDING");
+        store.add(2, 10, 3, "PENDING");
+        store.add(3, 20, 1, "PENDING");
+
+        actions.apply(BulkBookingActions.CANCEL, Arrays.asList(1, 2, 3), null);
+
+        assertEquals("CANCELLED", store.get(3).getBookingStatus());
+        assertEquals("CANCELLED", store.get(3).getPaymentStatus());
+        assertEquals(Integer.valueOf(5), store.released.get(10));
+        assertEquals(Integer.valueOf(1), store.released.get(20));
+        assertEquals(0, store.writesOutsideTransaction);
+    }
+
+    @Test
+    public void bookingsNoLongerPendingAreSkipped() {
+        store.add(1, 10, 2, "PENDING");
+        store.add(2, 10, 3, "CANCELLED");
+        store.add(3, 10, 1, "CONFIRMED");
+
+        BulkBookingActions.Result result = actions.apply(BulkBookingActions.CANCEL, Arrays.asList(1, 2, 3, 99), null);
+
+        assertEquals(1, result.updated.size());
+        assertEquals(Arrays.asList(2, 3, 99), result.skipped);
+        assertEquals("CONFIRMED", store.get(3).getBookingStatus());
+        assertEquals(Integer.valueOf(2), store.released.get(10));
+        assertTrue(result.isPartial());
+        assertEquals("Cancelled 1 of 4 booking(s); 3 skipped (no longer pending)", result.getSummary());
+    }
+
+    @Test
+    public void failedNoticesAreReportedWithoutUndoingTheChange() {
+        store.add(1, 10, 1, "PENDING");
+        store.add(2, 10, 1, "PENDING");
+        store.add(3, 10, 1, "PENDING");
+        store.withoutEmail.add(2);
+        store.unrenderable.add(3);
+
+        BulkBookingActions.Result result = actions.apply(BulkBookingActions.CONFIRM, Arrays.asList(1, 2, 3), null);
+
+        assertEquals(3, result.updated.size());
+        assertEquals(Arrays.asList(2, 3), result.notNotified);
+        assertEquals("CONFIRMED", store.get(3).getBookingStatus());
+        assertEquals("Confirmed 3 of 3 booking(s); 2 customer(s) not notified", result.getSummary());
+    }
+
+    @Test
+    public void largeSelectionIsChunkedInOneTransaction() {
+        int count = BulkBookingActions.CHUNK_SIZE * 2 + 3;
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            store.add(i, 10, 1, "PENDING");
+            ids.add(i);
+        }
+        List<Integer> progress = new ArrayList<>();
+
+        BulkBookingActions.Result result = actions.apply(BulkBookingActions.CANCEL, ids,
+            (processed, total) -> progress.add(processed));
+
+        assertEquals(count, result.updated.size());
+        assertEquals(1, store.transactions);
+        assertEquals(3, store.statements);
+        assertTrue(store.largestInList <= BulkBookingActions.CHUNK_SIZE);
+        assertEquals(Arrays.asList(BulkBookingActions.CHUNK_SIZE, BulkBookingActions.CHUNK_SIZE * 2, count), progress);
+        assertEquals(Integer.valueOf(count), store.released.get(10));
+    }
+
+    @Test
+    public void duplicateIdsAreProcessedOnce() {
+        store.add(1, 10, 2, "PENDING");
+
+        BulkBookingActions.Result result = actions.apply(BulkBookingActions.CANCEL, Arrays.asList(1, 1, 1), null);
+
+        assertEquals(1, result.requested);
+        assertEquals(Integer.valueOf(2), store.released.get(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownActionIsRejected() {
+        actions.apply("DELETE", Arrays.asList(1), null);
+    }
+
+    /**
+     * In-memory bookings table with the same filters as BookingDao
+     */
+    private static class FakeStore implements BulkBookingActions.Store {
+        final Map<Integer, Booking> bookings = new HashMap<>();
+        final Map<Integer, Integer> released = new HashMap<>();
+        final List<Integer> noticed = new ArrayList<>();
+        final List<Integer> withoutEmail = new ArrayList<>();
+        final List<Integer> unrenderable = new ArrayList<>();
+        int transactions;
+        int statements;
+        int largestInList;
+        int writesOutsideTransaction;
+        private boolean inTransaction;
+
+        void add(int id, int tourId, int people, String status) {
+            Booking booking = new Booking(1, tourId, people, 100);
+            booking.setId(id);
+            booking.setBookingStatus(status);
+            bookings.put(id, booking);
+        }
+
+        Booking get(int id) {
+            return bookings.get(id);
+        }
+
+        @Override
+        public void runInTransaction(Runnable body) {
+            transactions++;
+            inTransaction = true;
+            try {
+                body.run();
+            } finally {
+                inTransaction = false;
+            }
+        }
+
+        @Override
+        public List<Booking> getPendingBookings(List<Integer> bookingIds) {
+            largestInList = Math.max(largestInList, bookingIds.size());
+            List<Booking> pending = new ArrayList<>();
+            for (Integer id : bookingIds) {
+                Booking booking = bookings.get(id);
+                if (booking != null && "PENDING".equals(booking.getBookingStatus())) {
+                    // Room returns fresh objects, not the stored rows
+                    Booking copy = new Booking(booking.getUserId(), booking.getTourId(),
+                        booking.getNumberOfPeople(), booking.getTotalAmount());
+                    copy.setId(id);
+                    copy.setBookingStatus(booking.getBookingStatus());
+                    pending.add(copy);
+                }
+            }
+            return pending;
+        }
+
+        @Override
+        public int updateStatus(List<Integer> bookingIds, String bookingStatus, String paymentStatus) {
+            checkTransaction();
+            statements++;
+            largestInList = Math.max(largestInList, bookingIds.size());
+            int count = 0;
+            for (Integer id : bookingIds) {
+                Booking booking = bookings.get(id);
+                if (booking != null && "PENDING".equals(booking.getBookingStatus())) {
+                    booking.setBookingStatus(bookingStatus);
+                    booking.setPaymentStatus(paymentStatus);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public void releaseSeats(int tourId, int seats) {
+            checkTransaction();
+            Integer current = released.get(tourId);
+            released.put(tourId, (current != null ? current : 0) + seats);
+        }
+
+        @Override
+        public boolean storeNotice(Booking booking) {
+            checkTransaction();
+            if (unrenderable.contains(booking.getId())) {
+                throw new IllegalStateException("Template error");
+            }
+            if (withoutEmail.contains(booking.getId())) {
+                return false;
+            }
+            noticed.add(booking.getId());
+            return true;
+        }
+
+        private void checkTransaction() {
+            if (!inTransaction) {
+                writesOutsideTransaction++;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.tourmanagement.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CSV export writer.
+ */
+public class CsvWriterTest {
+
+    private static String write(String[]... rows) throws Exception {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeHeader(rows[0]);
+        for (int i = 1; i < rows.length; i++) {
+            writer.writeRow(rows[i]);
+        }
+        writer.close();
+        return out.toString();
+    }
+
+    @Test
+    public void plainCellsAreNotQuoted() throws Exception {
+        assertEquals("Reference,Amount\r\nBK001,125.50\r\n",
+            write(new String[] {"Reference", "Amount"}, new String[] {"BK001", "125.50"}));
+    }
+
+    @Test
+    public void separatorsQuotesAndNewlinesAreQuoted() throws Exception {
+        assertEquals("a\r\n\"Ha Long, Vietnam\"\r\n\"say \"\"hi\"\"\"\r\n\"two\nlines\"\r\n",
+            write(new String[] {"a"}, new String[] {"Ha Long, Vietnam"}, new String[] {"say \"hi\""},
+                new String[] {"two\nlines"}));
+    }
+
+    @Test
+    public void nullAndEmptyCellsAreEmpty() throws Exception {
+        assertEquals("a,b,c\r\n,,x\r\n", write(new String[] {"a", "b", "c"}, new String[] {null, "", "x"}));
+    }
+
+    @Test
+    public void formulasAreNeutralizedButNegativeAmountsAreNot() throws Exception {
+        assertEquals("a\r\n\"'=SUM(A1:A9)\"\r\n\"'@cmd\"\r\n-12.00\r\n",
+            write(new String[] {"a"}, new String[] {"=SUM(A1:A9)"}, new String[] {"@cmd"},
+                new String[] {"-12.00"}));
+    }
+
+    @Test
+    public void streamOutputIsUtf8WithByteOrderMark() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(bytes);
+        writer.writeHeader(new String[] {"Khách hàng"});
+        writer.close();
+        byte[] data = bytes.toByteArray();
+        assertEquals((byte) 0xEF, data[0]);
+        assertEquals((byte) 0xBB, data[1]);
+        assertEquals((byte) 0xBF, data[2]);
+        assertEquals("Khách hàng\r\n", new String(data, 3, data.length - 3, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark rendering 10,000 booking confirmation emails.
+ * Compares parsing the template for every email against rendering the
+ * precompiled template into one reused StringBuilder, and prints the
+ * per-email cost of each. Ignored in the regular build; remove @Ignore to run
+ * it locally. EmailTemplatesGoldenTest checks that both renders match.
+ */
+@Ignore("Benchmark, run manually")
+public class EmailTemplateBenchmark {
+
+    private static final int EMAILS = 10_000;
+    private static final int WARMUP = 1_000;
+
+    @Test
+    public void renderTenThousandConfirmations() throws Exception {
+        EmailTemplates.Source files = EmailTemplatesGoldenTest.fileSource(EmailTemplatesGoldenTest.ASSETS);
+        EmailTemplates templates = new EmailTemplates(files);
+        User user = EmailTemplatesGoldenTest.sampleUser();
+        Tour tour = EmailTemplatesGoldenTest.sampleTour();
+        Booking booking = EmailTemplatesGoldenTest.sampleBooking();
+        booking.setNotes("Window seat, please");
+        String source = files.read("email/" + EmailService.TEMPLATE_BOOKING_CONFIRMATION + ".html");
+        EmailTemplate.PartialLoader partials = name -> templates.get("_" + name, Locale.US);
+
+        // Parse on every email
+        long parsedChars = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            parsedChars += EmailTemplate.compile(source, partials).render(model(user, tour, booking, i)).length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < EMAILS; i++) {
+            parsedChars += EmailTemplate.compile(source, partials).render(model(user, tour, booking, i)).length();
+        }
+        long parseEachNanos = System.nanoTime() - start;
+
+        // Precompiled template, reused buffer
+        EmailTemplate compiled = templates.get(EmailService.TEMPLATE_BOOKING_CONFIRMATION, Locale.US);
+        StringBuilder out = new StringBuilder(compiled.getSizeHint());
+        long compiledChars = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            out.setLength(0);
+            compiled.render(model(user, tour, booking, i), out);
+            compiledChars += out.length();
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < EMAILS; i++) {
+            out.setLength(0);
+            compiled.render(model(user, tour, booking, i), out);
+            compiledChars += out.length();
+        }
+        long compiledNanos = System.nanoTime() - start;
+
+        System.out.println(String.format(Locale.US,
+            "EmailTemplateBenchmark: %d emails, parse each %.1fus/email, precompiled %.1fus/email, %d chars/email",
+            EMAILS, parseEachNanos / 1000.0 / EMAILS, compiledNanos / 1000.0 / EMAILS, out.length()));
+
+        assertEquals(parsedChars, compiledChars);
+    }
+
+    private static Map<String, Object> model(User user, Tour tour, Booking booking, int i) {
+        booking.setNumberOfPeople(1 + i % 5);
+        return EmailService.bookingConfirmationModel(user, tour, booking, Locale.US);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.tourmanagement.utils;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the email template syntax, escaping and locale resolution.
+ */
+public class EmailTemplateTest {
+
+    @Test
+    public void variablesAreEscapedUnlessTripleBraced() {
+        EmailTemplate template = EmailTemplate.compile("<p>{{name}}</p><p>{{{markup}}}</p>", null);
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", "<script>alert('x')</script> & \"co\"");
+        model.put("markup", "<b>ok</b>");
+
+        assertEquals("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;co&quot;</p><p><b>ok</b></p>",
+            template.render(model));
+    }
+
+    @Test
+    public void sectionsFollowTruthiness() {
+        EmailTemplate template = EmailTemplate.compile("{{#notes}}[{{notes}}]{{/notes}}{{^paid}}unpaid{{/paid}}", null);
+        Map<String, Object> model = new HashMap<>();
+        assertEquals("unpaid", template.render(model));
+
+        model.put("notes", "  ");
+        model.put("paid", Boolean.TRUE);
+        assertEquals("", template.render(model));
+
+        model.put("notes", "Vegetarian");
+        assertEquals("[Vegetarian]", template.render(model));
+    }
+
+    @Test
+    public void listSectionRendersEachItemWithOuterValuesInScope() {
+        EmailTemplate template = EmailTemplate.compile("{{#rows}}<li>{{name}} {{currency}}{{amount}}</li>{{/rows}}", null);
+        Map<String, Object> first = new HashMap<>();
+        first.put("name", "A&B");
+        first.put("amount", 10);
+        Map<String, Object> second = new HashMap<>();
+        second.put("name", "C");
+        second.put("amount", 20);
+        Map<String, Object> model = new HashMap<>();
+        model.put("rows", java.util.Arrays.asList(first, second));
+        model.put("currency", "$");
+
+        assertEquals("<li>A&amp;B $10</li><li>C $20</li>", template.render(model));
+    }
+
+    @Test
+    public void standaloneControlTagsRemoveTheirLine() {
+        EmailTemplate template = EmailTemplate.compile("<ul>\n  {{#show}}\n  <li>{{item}}</li>\n  {{/show}}\n</ul>\n", null);
+        Map<String, Object> model = new HashMap<>();
+        model.put("show", true);
+        model.put("item", 1);
+
+        assertEquals("<ul>\n  <li>1</li>\n</ul>\n", template.render(model));
+    }
+
+    @Test
+    public void renderAppendsToExistingBuffer() {
+        EmailTemplate template = EmailTemplate.compile("b{{x}}", null);
+        StringBuilder out = new StringBuilder("a");
+        template.render(java.util.Collections.singletonMap("x", "c"), out);
+        assertEquals("abc", out.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unclosedSectionIsRejected() {
+        EmailTemplate.compile("{{#a}}text", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedSectionIsRejected() {
+        EmailTemplate.compile("{{#a}}text{{/b}}", null);
+    }
+
+    @Test
+    public void mostSpecificLocaleVariantWinsAndPartialsFallBack() {
+        Map<String, String> files = new HashMap<>();
+        files.put("email/greeting.html", "{{> sign}}Hello {{name}}");
+        files.put("email/greeting_vi.html", "{{> sign}}Xin chào {{name}}");
+        files.put("email/_sign.html", "* ");
+        EmailTemplates templates = new EmailTemplates(files::get);
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", "An");
+
+        assertEquals("* Hello An", templates.render("greeting", Locale.US, model));
+        assertEquals("* Xin chào An", templates.render("greeting", new Locale("vi", "VN"), model));
+        assertSame(templates.get("greeting", Locale.US), templates.get("greeting", Locale.US));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingTemplateIsReported() {
+        new EmailTemplates(path -> null).get("missing", Locale.US);
+    }
+}
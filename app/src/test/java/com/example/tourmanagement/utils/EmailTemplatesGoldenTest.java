@@ -0,0 +1,179 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.Booking;
+import com.example.tourmanagement.model.NotificationEvent;
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Golden-file tests for the email templates in src/main/assets/email.
+ * Each template is rendered with fixed data and compared to the expected HTML
+ * in src/test/resources/golden/email. When a template changes on purpose,
+ * regenerate the golden file from the new output.
+ */
+public class EmailTemplatesGoldenTest {
+
+    /**
+     * Gradle runs unit tests with the module directory as working directory
+     */
+    static final File ASSETS = new File("src/main/assets");
+
+    private static final long TOUR_TIME = 1767225600000L;     // 2026-01-01 00:00 UTC
+    private static final long BOOKING_TIME = 1764590400000L;  // 2025-12-01 12:00 UTC
+    private static final long CANCEL_TIME = 1765022400000L;   // 2025-12-06 12:00 UTC
+
+    private TimeZone originalTimeZone;
+    private EmailTemplates templates;
+
+    @Before
+    public void setUp() {
+        originalTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        templates = new EmailTemplates(fileSource(ASSETS));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalTimeZone);
+    }
+
+    @Test
+    public void passwordReset() throws IOException {
+        String html = templates.render(EmailService.TEMPLATE_PASSWORD_RESET, Locale.US,
+            EmailService.passwordResetModel("Nguyen <Van> A", "Ab12Cd34"));
+        assertGolden("password_reset.html", html);
+    }
+
+    @Test
+    public void passwordResetVietnamese() throws IOException {
+        String html = templates.render(EmailService.TEMPLATE_PASSWORD_RESET, new Locale("vi", "VN"),
+            EmailService.passwordResetModel("Nguyễn Văn A", "Ab12Cd34"));
+        assertGolden("password_reset_vi.html", html);
+    }
+
+    @Test
+    public void bookingConfirmation() throws IOException {
+        Booking booking = sampleBooking();
+        booking.setBookingStatus("CONFIRMED");
+        booking.setNotes("Vegetarian meals & window seat");
+
+        String html = templates.render(EmailService.TEMPLATE_BOOKING_CONFIRMATION, Locale.US,
+            EmailService.bookingConfirmationModel(sampleUser(), sampleTour(), booking, Locale.US));
+        assertGolden("booking_confirmation.html", html);
+    }
+
+    @Test
+    public void precompiledRenderIntoReusedBufferMatchesParsing() throws IOException {
+        EmailTemplates.Source files = fileSource(ASSETS);
+        String source = files.read("email/" + EmailService.TEMPLATE_BOOKING_CONFIRMATION + ".html");
+        EmailTemplate.PartialLoader partials = name -> templates.get("_" + name, Locale.US);
+        EmailTemplate compiled = templates.get(EmailService.TEMPLATE_BOOKING_CONFIRMATION, Locale.US);
+        Booking booking = sampleBooking();
+        booking.setNotes("Window seat, please");
+
+        StringBuilder out = new StringBuilder(compiled.getSizeHint());
+        for (int people = 1; people <= 5; people++) {
+            booking.setNumberOfPeople(people);
+            Map<String, Object> model = EmailService.bookingConfirmationModel(sampleUser(), sampleTour(), booking, Locale.US);
+
+            out.setLength(0);
+            compiled.render(model, out);
+            assertEquals(EmailTemplate.compile(source, partials).render(model), out.toString());
+        }
+        assertTrue(out.indexOf("Booking Reference: TM000042") > 0);
+    }
+
+    @Test
+    public void bookingCancellation() throws IOException {
+        Booking booking = sampleBooking();
+        booking.setBookingStatus("CANCELLED");
+        booking.setPaymentStatus("PAID");
+
+        String html = templates.render(EmailService.TEMPLATE_BOOKING_CANCELLATION, Locale.US,
+            EmailService.bookingCancellationModel(sampleUser(), sampleTour(), booking, Locale.US, CANCEL_TIME));
+        assertGolden("booking_cancellation.html", html);
+    }
+
+    @Test
+    public void bookingExpired() throws IOException {
+        Booking booking = sampleBooking();
+        booking.setExpiresAt(BookingExpiry.expiresAt(BOOKING_TIME));
+        booking.setBookingStatus("CANCELLED");
+        booking.setPaymentStatus(BookingExpiry.PAYMENT_EXPIRED);
+
+        String html = templates.render(EmailService.TEMPLATE_BOOKING_EXPIRED, Locale.US,
+            EmailService.bookingExpiredModel(sampleUser(), sampleTour(), booking, Locale.US));
+        assertGolden("booking_expired.html", html);
+    }
+
+    @Test
+    public void bookingDigest() throws IOException {
+        Booking booking = sampleBooking();
+        NotificationEvent booked = new NotificationEvent("admin@example.com", NotificationEvent.Type.BOOKED,
+            sampleUser(), sampleTour(), booking);
+        booked.setCreatedAt(BOOKING_TIME);
+        NotificationEvent cancelled = new NotificationEvent("admin@example.com", NotificationEvent.Type.CANCELLED,
+            sampleUser(), sampleTour(), booking);
+        cancelled.setCreatedAt(CANCEL_TIME);
+        List<NotificationEvent> events = Arrays.asList(booked, cancelled);
+
+        String html = templates.render(EmailService.TEMPLATE_BOOKING_DIGEST, Locale.US,
+            EmailService.bookingDigestModel(events, 15, Locale.US));
+        assertGolden("booking_digest.html", html);
+    }
+
+    static User sampleUser() {
+        User user = new User("nva", "secret", "nva@example.com", "0900000000", "Nguyen <Van> A");
+        user.setId(7);
+        return user;
+    }
+
+    static Tour sampleTour() {
+        Tour tour = new Tour("Ha Long Bay & Islands", "", "Quang Ninh", TOUR_TIME,
+            "Two days on the bay", 2400000, 20, 2);
+        tour.setId(3);
+        return tour;
+    }
+
+    static Booking sampleBooking() {
+        Booking booking = new Booking(7, 3, 2, 4800000);
+        booking.setId(42);
+        booking.setBookingDate(BOOKING_TIME);
+        return booking;
+    }
+
+    static EmailTemplates.Source fileSource(File root) {
+        return path -> {
+            File file = new File(root, path);
+            if (!file.isFile()) {
+                return null;
+            }
+            try (InputStream in = new FileInputStream(file)) {
+                return EmailTemplates.readFully(in);
+            }
+        };
+    }
+
+    private static void assertGolden(String name, String actual) throws IOException {
+        try (InputStream in = EmailTemplatesGoldenTest.class.getResourceAsStream("/golden/email/" + name)) {
+            assertNotNull("Missing golden file " + name, in);
+            assertEquals(EmailTemplates.readFully(in), actual);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.Tour;
+import com.example.tourmanagement.model.User;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the entity cache, using loaders that count database lookups.
+ */
+public class EntityCacheTest {
+
+    private FakeLoader<User> userLoader;
+    private FakeLoader<Tour> tourLoader;
+    private EntityCache cache;
+
+    @Before
+    public void setUp() {
+        userLoader = new FakeLoader<>();
+        tourLoader = new FakeLoader<>();
+        cache = new EntityCache(userLoader, tourLoader);
+    }
+
+    @Test
+    public void repeatedLookupsHitTheCache() {
+        userLoader.rows.put(1, user(1, "An"));
+
+        User first = cache.getUser(1);
+        User second = cache.getUser(1);
+
+        assertSame(first, second);
+        assertEquals(1, userLoader.loads);
+    }
+
+    @Test
+    public void missingRowsAreNotCached() {
+        assertNull(cache.getTour(5));
+        tourLoader.rows.put(5, tour(5, "Ha Long Cruise"));
+
+        assertEquals("Ha Long Cruise", cache.getTour(5).getTourName());
+        assertEquals(2, tourLoader.loads);
+    }
+
+    @Test
+    public void invalidatingOneRowKeepsTheOthers() {
+        userLoader.rows.put(1, user(1, "An"));
+        userLoader.rows.put(2, user(2, "Binh"));
+        cache.getUser(1);
+        cache.getUser(2);
+
+        userLoader.rows.put(1, user(1, "An Nguyen"));
+        cache.invalidateUser(1);
+
+        assertEquals("An Nguyen", cache.getUser(1).getFullName());
+        assertEquals("Binh", cache.getUser(2).getFullName());
+        assertEquals(3, userLoader.loads);
+    }
+
+    @Test
+    public void tableChangeClearsOnlyThatTable() {
+        userLoader.rows.put(1, user(1, "An"));
+        tourLoader.rows.put(5, tour(5, "Hoi An Walk"));
+        cache.getUser(1);
+        cache.getTour(5);
+
+        cache.onTablesInvalidated(Collections.singleton("tours"));
+        cache.getUser(1);
+        cache.getTour(5);
+
+        assertEquals(1, userLoader.loads);
+        assertEquals(2, tourLoader.loads);
+
+        cache.onTablesInvalidated(Collections.singleton("users"));
+        cache.getUser(1);
+        assertEquals(2, userLoader.loads);
+    }
+
+    @Test
+    public void loadRacingARowInvalidationIsNotStored() {
+        userLoader.rows.put(1, user(1, "An"));
+        // The row changes while it is being read: the stale copy reaches the caller only
+        userLoader.duringLoad = () -> {
+            userLoader.rows.put(1, user(1, "An Nguyen"));
+            cache.invalidateUser(1);
+        };
+
+        assertEquals("An", cache.getUser(1).getFullName());
+        userLoader.duringLoad = null;
+
+        assertEquals("An Nguyen", cache.getUser(1).getFullName());
+        assertSame(cache.getUser(1), cache.getUser(1));
+        assertEquals(2, userLoader.loads);
+    }
+
+    @Test
+    public void loadRacingATableChangeIsNotStored() {
+        tourLoader.rows.put(5, tour(5, "Sa Pa Trek"));
+        tourLoader.duringLoad = () -> {
+            tourLoader.rows.put(5, tour(5, "Sa Pa Trek (3 days)"));
+            cache.onTablesInvalidated(Collections.singleton("tours"));
+        };
+
+        assertEquals("Sa Pa Trek", cache.getTour(5).getTourName());
+        tourLoader.duringLoad = null;
+
+        assertEquals("Sa Pa Trek (3 days)", cache.getTour(5).getTourName());
+        assertEquals(2, tourLoader.loads);
+    }
+
+    private static User user(int id, String fullName) {
+        User user = new User("user" + id, "secret", "user" + id + "@example.com", "0900000000", fullName);
+        user.setId(id);
+        return user;
+    }
+
+    private static Tour tour(int id, String name) {
+        Tour tour = new Tour(name, "", "Viet Nam", 0L, "", 100.0, 20, 1);
+        tour.setId(id);
+        return tour;
+    }
+
+    /**
+     * Loader reading from a map, counting loads; duringLoad runs after the row is read
+     */
+    private static final class FakeLoader<T> implements EntityCache.Loader<T> {
+        final Map<Integer, T> rows = new HashMap<>();
+        Runnable duringLoad;
+        int loads;
+
+        @Override
+        public T load(int id) {
+            loads++;
+            T row = rows.get(id);
+            if (duringLoad != null) {
+                duringLoad.run();
+            }
+            return row;
+        }
+    }
+}
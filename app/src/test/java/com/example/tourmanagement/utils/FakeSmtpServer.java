@@ -0,0 +1,147 @@
+package com.example.tourmanagement.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for unit tests.
+ * Speaks enough of ESMTP for javax.mail (EHLO, AUTH LOGIN/PLAIN, MAIL, RCPT,
+ * DATA, RSET, NOOP, QUIT), records delivered messages and counts connections
+ * and logins. Recipients containing "reject" are refused with 550.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger logins = new AtomicInteger();
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Close the connection after this many messages on it (0 = never)
+     */
+    private volatile int dropAfterMessages;
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptLoop, "fake-smtp");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    int getLoginCount() {
+        return logins.get();
+    }
+
+    List<String> getMessages() {
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
+    }
+
+    void dropConnectionAfter(int messageCount) {
+        dropAfterMessages = messageCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread handler = new Thread(() -> handle(socket), "fake-smtp-session");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = s.getOutputStream()) {
+            int messagesOnConnection = 0;
+            reply(out, "220 localhost fake ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost\r\n250-AUTH LOGIN PLAIN\r\n250 8BITMIME");
+                } else if (command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("AUTH LOGIN")) {
+                    String[] parts = line.split(" ");
+                    if (parts.length < 3) {
+                        reply(out, "334 VXNlcm5hbWU6");
+                        in.readLine();
+                    }
+                    reply(out, "334 UGFzc3dvcmQ6");
+                    in.readLine();
+                    logins.incrementAndGet();
+                    reply(out, "235 2.7.0 Authentication successful");
+                } else if (command.startsWith("AUTH PLAIN")) {
+                    if (line.split(" ").length < 3) {
+                        reply(out, "334 ");
+                        in.readLine();
+                    }
+                    logins.incrementAndGet();
+                    reply(out, "235 2.7.0 Authentication successful");
+                } else if (command.startsWith("MAIL FROM")) {
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    reply(out, command.contains("REJECT") ? "550 5.1.1 No such user" : "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    messages.add(data.toString());
+                    reply(out, "250 OK queued");
+                    messagesOnConnection++;
+                    if (dropAfterMessages > 0 && messagesOnConnection >= dropAfterMessages) {
+                        return;
+                    }
+                } else if (command.equals("RSET") || command.equals("NOOP")) {
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ignored) {
+            // Client went away
+        }
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
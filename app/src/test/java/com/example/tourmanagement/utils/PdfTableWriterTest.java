@@ -0,0 +1,96 @@
+package com.example.tourmanagement.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the streaming PDF report writer.
+ */
+public class PdfTableWriterTest {
+
+    private static final float[] WEIGHTS = {1, 3, 1};
+
+    private static String write(int rows) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PdfTableWriter writer = new PdfTableWriter(bytes, "Booking ledger", WEIGHTS);
+        writer.writeHeader(new String[] {"Ref", "Customer", "Amount"});
+        String[] row = new String[3];
+        for (int i = 0; i < rows; i++) {
+            row[0] = "BK" + i;
+            row[1] = "Customer " + i;
+            row[2] = "10.00";
+            writer.writeRow(row);
+        }
+        writer.close();
+        return new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static int count(String haystack, String needle) {
+        int count = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void crossReferenceOffsetsPointAtObjects() throws Exception {
+        String pdf = write(500);
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+
+        Matcher startxref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(pdf);
+        assertTrue(startxref.find());
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 ", xref));
+
+        String[] lines = pdf.substring(xref).split("\n");
+        int size = Integer.parseInt(lines[1].split(" ")[1]);
+        for (int object = 1; object < size; object++) {
+            String entry = lines[2 + object] + "\n";
+            assertEquals(20, entry.length());
+            int offset = Integer.parseInt(entry.substring(0, 10));
+            assertTrue("object " + object, pdf.startsWith(object + " 0 obj\n", offset));
+        }
+        assertTrue(pdf.contains("/Size " + size + " "));
+    }
+
+    @Test
+    public void rowsArePaginatedWithRepeatedHeaders() throws Exception {
+        String pdf = write(500);
+        int pages = count(pdf, "/Type /Page ");
+        assertTrue(pages > 1);
+        assertTrue(pdf.contains("/Count " + pages + " "));
+        assertEquals(pages, count(pdf, "(Ref) Tj"));
+        assertEquals(1, count(pdf, "(Booking ledger) Tj"));
+        assertTrue(pdf.contains("(Customer 499) Tj"));
+        assertTrue(pdf.contains("(Page " + pages + ") Tj"));
+    }
+
+    @Test
+    public void emptyReportHasOnePage() throws Exception {
+        String pdf = write(0);
+        assertEquals(1, count(pdf, "/Type /Page "));
+        assertTrue(pdf.contains("(Ref) Tj"));
+    }
+
+    @Test
+    public void textIsEscapedTruncatedAndReducedToLatin1() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PdfTableWriter writer = new PdfTableWriter(bytes, null, WEIGHTS);
+        writer.writeRow(new String[] {"(a)\\", "Nguyễn Đức Café", "x".repeat(200)});
+        writer.close();
+        String pdf = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+
+        assertTrue(pdf.contains("(\\(a\\)\\\\) Tj"));
+        assertTrue(pdf.contains("(Nguyen Duc Caf\\351) Tj"));
+        Matcher amount = Pattern.compile("\\((x+)\\.\\.\\.\\) Tj").matcher(pdf);
+        assertTrue(amount.find());
+        assertTrue(amount.group(1).length() < 200);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.tourmanagement.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the exponential backoff used by the email outbox.
+ */
+public class RetryBackoffTest {
+
+    private static final long BASE = 30_000L;
+    private static final long MAX = 60 * 60_000L;
+
+    @Test
+    public void delayDoublesPerAttempt() {
+        assertEquals(BASE, RetryBackoff.delayMs(1, BASE, MAX, 0.999999), 1);
+        assertEquals(2 * BASE, RetryBackoff.delayMs(2, BASE, MAX, 0.999999), 1);
+        assertEquals(4 * BASE, RetryBackoff.delayMs(3, BASE, MAX, 0.999999), 1);
+    }
+
+    @Test
+    public void delayIsCapped() {
+        assertEquals(MAX, RetryBackoff.delayMs(50, BASE, MAX, 0.999999), 1);
+        assertEquals(MAX / 2, RetryBackoff.delayMs(50, BASE, MAX, 0.0));
+    }
+
+    @Test
+    public void jitterKeepsDelayBetweenHalfAndFull() {
+        for (int attempts = 1; attempts <= 10; attempts++) {
+            long full = RetryBackoff.delayMs(attempts, BASE, MAX, 0.999999);
+            long low = RetryBackoff.delayMs(attempts, BASE, MAX, 0.0);
+            long mid = RetryBackoff.delayMs(attempts, BASE, MAX, 0.5);
+            assertEquals(full / 2, low, 1);
+            assertTrue(mid > low && mid < full);
+        }
+    }
+}
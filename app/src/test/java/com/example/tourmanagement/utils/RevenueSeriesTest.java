@@ -0,0 +1,52 @@
+package com.example.tourmanagement.utils;
+
+import java.util.Calendar;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the period arithmetic and labels of revenue series.
+ */
+public class RevenueSeriesTest {
+
+    private static long at(int year, int month, int day, int hour) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, 0, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    @Test
+    public void monthStartIsFirstOfMonthAtMidnight() {
+        long now = at(2025, Calendar.MARCH, 17, 15);
+        assertEquals(at(2025, Calendar.MARCH, 1, 0),
+            RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, 0, now));
+        assertEquals(at(2024, Calendar.APRIL, 1, 0),
+            RevenueSeries.periodStart(RevenueSeries.Granularity.MONTH, 11, now));
+    }
+
+    @Test
+    public void weekStartsOnMonday() {
+        // 17 March 2025 is a Monday, 23 March a Sunday
+        assertEquals(at(2025, Calendar.MARCH, 17, 0),
+            RevenueSeries.periodStart(RevenueSeries.Granularity.WEEK, 0, at(2025, Calendar.MARCH, 17, 9)));
+        assertEquals(at(2025, Calendar.MARCH, 17, 0),
+            RevenueSeries.periodStart(RevenueSeries.Granularity.WEEK, 0, at(2025, Calendar.MARCH, 23, 9)));
+        assertEquals(at(2025, Calendar.MARCH, 3, 0),
+            RevenueSeries.periodStart(RevenueSeries.Granularity.WEEK, 2, at(2025, Calendar.MARCH, 20, 9)));
+    }
+
+    @Test
+    public void dayStartIsMidnight() {
+        assertEquals(at(2025, Calendar.FEBRUARY, 28, 0),
+            RevenueSeries.periodStart(RevenueSeries.Granularity.DAY, 2, at(2025, Calendar.MARCH, 2, 23)));
+    }
+
+    @Test
+    public void labelsFollowGranularity() {
+        assertEquals("Mar 2025", RevenueSeries.label(RevenueSeries.Granularity.MONTH, "2025-03-01"));
+        assertEquals("17 Mar", RevenueSeries.label(RevenueSeries.Granularity.WEEK, "2025-03-17"));
+        assertEquals("bad", RevenueSeries.label(RevenueSeries.Granularity.DAY, "bad"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.tourmanagement.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.MessagingException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests SmtpMailer batching against an in-process fake SMTP server.
+ */
+public class SmtpMailerTest {
+
+    private FakeSmtpServer server;
+    private SmtpMailer mailer;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeSmtpServer();
+        mailer = new SmtpMailer(new SmtpMailer.Config(
+            "127.0.0.1", server.getPort(), "user@example.com", "secret", "tours@example.com", false));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void batchSendsAllMessagesOverOneAuthenticatedConnection() throws Exception {
+        try (SmtpMailer.Batch batch = mailer.openBatch()) {
+            for (int i = 0; i < 5; i++) {
+                batch.send("customer" + i + "@example.com", "Booking " + i, "<p>Booking " + i + "</p>");
+            }
+            assertEquals(1, batch.getConnectionCount());
+        }
+
+        assertEquals(5, server.getMessages().size());
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(1, server.getLoginCount());
+        assertTrue(server.getMessages().get(3).contains("Subject: Booking 3"));
+    }
+
+    @Test
+    public void batchReconnectsWhenServerDropsConnection() throws Exception {
+        server.dropConnectionAfter(2);
+
+        try (SmtpMailer.Batch batch = mailer.openBatch()) {
+            for (int i = 0; i < 4; i++) {
+                batch.send("customer" + i + "@example.com", "Booking " + i, "<p>Booking " + i + "</p>");
+            }
+            assertEquals(2, batch.getConnectionCount());
+        }
+
+        assertEquals(4, server.getMessages().size());
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    public void rejectedRecipientIsPermanentFailure() throws Exception {
+        try (SmtpMailer.Batch batch = mailer.openBatch()) {
+            try {
+                batch.send("reject@example.com", "Booking", "<p>Booking</p>");
+                fail("Expected the recipient to be rejected");
+            } catch (MessagingException e) {
+                assertTrue(SmtpMailer.isPermanentFailure(e));
+            }
+
+            // The connection stays usable for the next message
+            batch.send("customer@example.com", "Booking", "<p>Booking</p>");
+        }
+
+        assertEquals(1, server.getMessages().size());
+        assertEquals(1, server.getConnectionCount());
+    }
+}
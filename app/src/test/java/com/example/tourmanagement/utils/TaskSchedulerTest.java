@@ -0,0 +1,109 @@
+package com.example.tourmanagement.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the application-wide task scheduler.
+ */
+public class TaskSchedulerTest {
+
+    private final TaskScheduler scheduler = new TaskScheduler();
+
+    /**
+     * Occupies the single WRITE thread until the returned latch is released
+     */
+    private CountDownLatch blockWritePool() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    public void waitingTasksRunByPriorityThenInOrder() throws Exception {
+        CountDownLatch release = blockWritePool();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        scheduler.execute(TaskScheduler.Pool.WRITE, TaskScheduler.Priority.LOW, () -> order.add("low"));
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> order.add("normal 1"));
+        scheduler.execute(TaskScheduler.Pool.WRITE, TaskScheduler.Priority.HIGH, () -> order.add("high"));
+        TaskScheduler.Task last = scheduler.execute(TaskScheduler.Pool.WRITE, () -> order.add("normal 2"));
+        release.countDown();
+        last.get(5, TimeUnit.SECONDS);
+        Thread.sleep(50);
+
+        assertEquals(List.of("high", "normal 1", "normal 2", "low"), order);
+    }
+
+    @Test
+    public void cancelledTaskIsRemovedFromTheQueue() throws Exception {
+        CountDownLatch release = blockWritePool();
+        AtomicInteger runs = new AtomicInteger();
+        TaskScheduler.Task task = scheduler.execute(TaskScheduler.Pool.WRITE, runs::incrementAndGet);
+        assertEquals(1, scheduler.getMetrics(TaskScheduler.Pool.WRITE).queueDepth);
+
+        assertTrue(task.cancel());
+        assertEquals(0, scheduler.getMetrics(TaskScheduler.Pool.WRITE).queueDepth);
+        release.countDown();
+        scheduler.execute(TaskScheduler.Pool.WRITE, () -> { }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, runs.get());
+        assertEquals(1, scheduler.getMetrics(TaskScheduler.Pool.WRITE).cancelled);
+    }
+
+    @Test
+    public void serialExecutorRunsOneTaskAtATimeInOrder() throws Exception {
+        Executor serial = scheduler.serialExecutor(TaskScheduler.Pool.IO, TaskScheduler.Priority.NORMAL);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            serial.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void failuresAreCountedAndDoNotStopThePool() throws Exception {
+        scheduler.execute(TaskScheduler.Pool.ANALYTICS, () -> {
+            throw new IllegalStateException("boom");
+        });
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.execute(TaskScheduler.Pool.ANALYTICS, runs::incrementAndGet).get(5, TimeUnit.SECONDS);
+        Thread.sleep(50);
+
+        TaskScheduler.Metrics metrics = scheduler.getMetrics(TaskScheduler.Pool.ANALYTICS);
+        assertEquals(1, runs.get());
+        assertEquals(2, metrics.completed);
+        assertEquals(1, metrics.failed);
+        assertTrue(metrics.getSummary().startsWith("analytics: 0 queued"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.tourmanagement.utils;
+
+import com.example.tourmanagement.model.TourSearchTerm;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the fuzzy tour search dictionary.
+ */
+public class TourSearchIndexTest {
+
+    private TourSearchIndex.Dictionary dictionary;
+
+    @Before
+    public void setUp() {
+        List<TourSearchTerm> rows = new ArrayList<>();
+        rows.add(term(1, "Vịnh Hạ Long", "Quảng Ninh"));
+        rows.add(term(2, "Phố cổ Hội An", "Quảng Nam"));
+        rows.add(term(3, "Bà Nà Hills", "Đà Nẵng"));
+        rows.add(term(4, "Đà Lạt mộng mơ", "Lâm Đồng"));
+        rows.add(term(5, "Hạ Long Luxury Cruise", "Quảng Ninh"));
+        dictionary = TourSearchIndex.Dictionary.build(rows);
+    }
+
+    @Test
+    public void queryWithoutAccentsFindsAccentedNames() {
+        assertEquals(Collections.singletonList(3), search("Da Nang"));
+        assertEquals(Collections.singletonList(2), search("hoi an"));
+    }
+
+    @Test
+    public void typosWithinTheBudgetStillMatch() {
+        assertEquals(Arrays.asList(1, 5), sorted(search("Ha Lnog")));
+        assertEquals(Collections.singletonList(4), search("da lta mong"));
+    }
+
+    @Test
+    public void everyTokenMustMatch() {
+        assertEquals(Collections.singletonList(5), search("long cruise"));
+        assertTrue(search("long hills").isEmpty());
+    }
+
+    @Test
+    public void lastTokenCompletesAsPrefix() {
+        assertEquals(Collections.singletonList(5), search("long lux"));
+        assertEquals(Arrays.asList(1, 5), sorted(search("quang ni")));
+    }
+
+    @Test
+    public void exactMatchesRankBeforeTypos() {
+        List<TourSearchTerm> rows = new ArrayList<>();
+        rows.add(term(10, "Sapa", "Lao Cai"));
+        rows.add(term(11, "Sapo Trek", "Lao Cai"));
+        List<Integer> ranked = TourSearchIndex.Dictionary.build(rows).search(new String[] {"sapa"}, 10);
+
+        assertEquals(Arrays.asList(10, 11), ranked);
+    }
+
+    @Test
+    public void limitAndMissesAreHonoured() {
+        assertEquals(1, search("quang", 1).size());
+        assertTrue(search("xyzzy").isEmpty());
+    }
+
+    @Test
+    public void shortTokensGetASmallerTypoBudget() {
+        assertEquals(0, TourSearchIndex.allowedDistance(2));
+        assertEquals(1, TourSearchIndex.allowedDistance(5));
+        assertEquals(2, TourSearchIndex.allowedDistance(6));
+    }
+
+    private List<Integer> search(String query) {
+        return search(query, 10);
+    }
+
+    private List<Integer> search(String query, int limit) {
+        return dictionary.search(TextNormalizer.tokenize(TextNormalizer.fold(query)), limit);
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        List<Integer> copy = new ArrayList<>(ids);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private static TourSearchTerm term(int id, String name, String location) {
+        TourSearchTerm term = new TourSearchTerm();
+        term.id = id;
+        term.tourNameFolded = TextNormalizer.fold(name);
+        term.tourLocationFolded = TextNormalizer.fold(location);
+        return term;
+    }
+}
@@ -0,0 +1,33 @@
+// Domain model, pricing engine and repository interfaces, free of Android
+// dependencies so they run on any JVM. The Room implementation stays in :app.
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Sources contain Vietnamese text; do not depend on the platform default encoding
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // Room annotations only (plain Java), so the model classes stay entities of the app database
+    api(libs.room.common)
+
+    // Test dependencies
+    testImplementation(libs.junit)
+}
+
+// Microbenchmarks in src/jmh: ./gradlew :core:jmh
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+}
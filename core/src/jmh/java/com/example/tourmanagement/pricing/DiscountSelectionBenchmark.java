@@ -0,0 +1,93 @@
+package com.example.tourmanagement.pricing;
+
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmark of picking the best discount for a page of tour cards.
+ * Compares DiscountSelector, which splits the discounts by tour once per
+ * batch, with scanning every discount for every tour.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiscountSelectionBenchmark {
+
+    private static final int GLOBAL_DISCOUNTS = 3;
+
+    @Param({"20", "200"})
+    public int tours;
+
+    @Param({"10", "100"})
+    public int discountsPerTenTours;
+
+    private List<Tour> tourList;
+    private List<Discount> discounts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        tourList = new ArrayList<>(tours);
+        for (int i = 1; i <= tours; i++) {
+            Tour tour = new Tour("Tour " + i, "", "Location " + i, PricingBenchmark.NOW + i * PricingBenchmark.DAY,
+                "", 50 + random.nextInt(450), 30, 1 + random.nextInt(5));
+            tour.setId(i);
+            tourList.add(tour);
+        }
+
+        discounts = new ArrayList<>();
+        for (int i = 0; i < GLOBAL_DISCOUNTS; i++) {
+            discounts.add(PricingBenchmark.discount(null, Discount.DiscountType.PERCENTAGE, 5 + i, 30));
+        }
+        int tourDiscounts = tours * discountsPerTenTours / 10;
+        for (int i = 0; i < tourDiscounts; i++) {
+            String type = random.nextBoolean() ? Discount.DiscountType.PERCENTAGE : Discount.DiscountType.FIXED_AMOUNT;
+            discounts.add(PricingBenchmark.discount(1 + random.nextInt(tours), type, 5 + random.nextInt(30),
+                random.nextBoolean() ? 50 : 0));
+        }
+    }
+
+    @Benchmark
+    public void selector(Blackhole blackhole) {
+        DiscountSelector selector = new DiscountSelector(discounts);
+        for (int i = 0, size = tourList.size(); i < size; i++) {
+            Tour tour = tourList.get(i);
+            blackhole.consume(selector.bestFor(tour.getId(), tour.getTourCost(), PricingBenchmark.NOW));
+        }
+    }
+
+    @Benchmark
+    public void scanAll(Blackhole blackhole) {
+        for (int i = 0, size = tourList.size(); i < size; i++) {
+            Tour tour = tourList.get(i);
+            Discount best = null;
+            double bestAmount = 0.0;
+            for (int j = 0, count = discounts.size(); j < count; j++) {
+                Discount candidate = discounts.get(j);
+                Integer tourId = candidate.getTourId();
+                if (tourId != null && tourId != tour.getId()) {
+                    continue;
+                }
+                double amount = candidate.calculateDiscountAmount(tour.getTourCost(), PricingBenchmark.NOW);
+                if (amount > bestAmount) {
+                    best = candidate;
+                    bestAmount = amount;
+                }
+            }
+            blackhole.consume(best);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.tourmanagement.pricing;
+
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Microbenchmark of pricing one booking, as the booking screen does on
+ * every change of the number of people: without a discount, with a capped
+ * percentage discount and with a fixed amount discount.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    static final long NOW = 1_753_142_400_000L;
+    static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private Tour tour;
+    private Discount percentage;
+    private Discount fixedAmount;
+    private int people;
+
+    @Setup
+    public void setUp() {
+        tour = new Tour("Ha Long Bay Cruise", "", "Quang Ninh", NOW + 30 * DAY, "Two days on the bay", 149.99, 40, 2);
+        tour.setId(1);
+        percentage = discount(1, Discount.DiscountType.PERCENTAGE, 15, 60);
+        fixedAmount = discount(null, Discount.DiscountType.FIXED_AMOUNT, 25, 0);
+    }
+
+    @Benchmark
+    public PricingEngine.Quote quoteWithoutDiscount() {
+        return PricingEngine.quote(tour, nextPeople(), null, NOW);
+    }
+
+    @Benchmark
+    public PricingEngine.Quote quoteWithPercentageDiscount() {
+        return PricingEngine.quote(tour, nextPeople(), percentage, NOW);
+    }
+
+    @Benchmark
+    public PricingEngine.Quote quoteWithFixedDiscount() {
+        return PricingEngine.quote(tour, nextPeople(), fixedAmount, NOW);
+    }
+
+    /**
+     * Cycles through 1 to 10 people, so the cap is hit only for larger groups
+     */
+    private int nextPeople() {
+        people = people % 10 + 1;
+        return people;
+    }
+
+    static Discount discount(Integer tourId, String type, double value, double maxAmount) {
+        Discount discount = new Discount(tourId, type + " " + value, type, value, NOW - DAY, NOW + 30 * DAY);
+        discount.setMaxDiscountAmount(maxAmount);
+        return discount;
+    }
+}
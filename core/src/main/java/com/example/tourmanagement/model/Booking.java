@@ -1,6 +1,7 @@
 package com.example.tourmanagement.model;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.ForeignKey;
 
@@ -28,6 +29,11 @@ import androidx.room.ForeignKey;
                        parentColumns = "id",
                        childColumns = "tourId",
                        onDelete = ForeignKey.CASCADE)
+        },
+        indices = {
+            @Index(value = {"tourId", "bookingStatus", "numberOfPeople"}),
+            @Index(value = {"bookingStatus", "expiresAt"}),
+            @Index(value = {"bookingDate"})
         })
 public class Booking {
     /**
@@ -62,7 +68,7 @@ public class Booking {
     private String bookingStatus;
 
     /**
-     * Payment status (PENDING, PAID, REFUNDED)
+     * Payment status (PENDING, PAID, REFUNDED, EXPIRED)
      */
     private String paymentStatus;
 
@@ -86,6 +92,11 @@ public class Booking {
      */
     private String notes;
 
+    /**
+     * Time after which an unpaid pending booking is cancelled (0 = never)
+     */
+    private long expiresAt;
+
     /**
      * Default constructor
      * Initializes booking with default values and current timestamp
@@ -259,6 +270,18 @@ public class Booking {
      */
     public void setNotes(String notes) { this.notes = notes; }
 
+    /**
+     * Gets the time after which the unpaid booking expires
+     * @return Expiry timestamp in milliseconds, 0 if it never expires
+     */
+    public long getExpiresAt() { return expiresAt; }
+
+    /**
+     * Sets the time after which the unpaid booking expires
+     * @param expiresAt Expiry timestamp in milliseconds, 0 if it never expires
+     */
+    public void setExpiresAt(long expiresAt) { this.expiresAt = expiresAt; }
+
     /**
      * Checks if booking is confirmed
      * @return true if booking status is CONFIRMED
@@ -212,11 +212,19 @@ public class Discount {
      * @return true if discount is active and within date range
      */
     public boolean isValid() {
+        return isValidAt(System.currentTimeMillis());
+    }
+
+    /**
+     * Checks if the discount is valid at a given time
+     * @param currentTime Time to check (in milliseconds)
+     * @return true if discount is active and within date range at that time
+     */
+    public boolean isValidAt(long currentTime) {
         if (!isActive) {
             return false;
         }
 
-        long currentTime = System.currentTimeMillis();
         boolean withinDateRange = currentTime >= startDate && currentTime <= endDate;
         boolean withinUsageLimit = usageLimit <= 0 || currentUsage < usageLimit;
 
@@ -229,7 +237,17 @@ public class Discount {
      * @return Discount amount to apply
      */
     public double calculateDiscountAmount(double orderTotal) {
-        if (!isValid() || orderTotal < minOrderAmount) {
+        return calculateDiscountAmount(orderTotal, System.currentTimeMillis());
+    }
+
+    /**
+     * Calculates discount amount for a given order total at a given time
+     * @param orderTotal Total order amount
+     * @param currentTime Time of the order (in milliseconds)
+     * @return Discount amount to apply
+     */
+    public double calculateDiscountAmount(double orderTotal, long currentTime) {
+        if (!isValidAt(currentTime) || orderTotal < minOrderAmount) {
             return 0.0;
         }
 
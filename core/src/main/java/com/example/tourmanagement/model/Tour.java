@@ -2,6 +2,7 @@ package com.example.tourmanagement.model;
 
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
+import com.example.tourmanagement.utils.TextNormalizer;
 
 /**
  * Tour entity class representing tour packages in the tour management system.
@@ -32,6 +33,12 @@ public class Tour {
      */
     private String tourName;
 
+    /**
+     * Accent-free, lower-case copy of the tour name
+     * Maintained by setTourName for diacritic-insensitive search
+     */
+    private String tourNameFolded;
+
     /**
      * Image URL or local path for the tour
      * Used for displaying tour visuals in the app
@@ -44,6 +51,12 @@ public class Tour {
      */
     private String tourLocation;
 
+    /**
+     * Accent-free, lower-case copy of the tour location
+     * Maintained by setTourLocation for diacritic-insensitive search
+     */
+    private String tourLocationFolded;
+
     /**
      * Tour start date and time (timestamp in milliseconds)
      * When the tour is scheduled to begin
@@ -117,8 +130,10 @@ public class Tour {
     public Tour(String tourName, String tourImage, String tourLocation, long tourTime,
                 String tourDescription, double tourCost, int numberOfPeoples, int duration) {
         this.tourName = tourName;
+        this.tourNameFolded = TextNormalizer.fold(tourName);
         this.tourImage = tourImage;
         this.tourLocation = tourLocation;
+        this.tourLocationFolded = TextNormalizer.fold(tourLocation);
         this.tourTime = tourTime;
         this.tourDescription = tourDescription;
         this.tourCost = tourCost;
@@ -153,7 +168,22 @@ public class Tour {
      * Sets the tour name
      * @param tourName Tour name string
      */
-    public void setTourName(String tourName) { this.tourName = tourName; }
+    public void setTourName(String tourName) {
+        this.tourName = tourName;
+        this.tourNameFolded = TextNormalizer.fold(tourName);
+    }
+
+    /**
+     * Gets the folded tour name used for search
+     * @return Folded tour name string
+     */
+    public String getTourNameFolded() { return tourNameFolded; }
+
+    /**
+     * Sets the folded tour name used for search
+     * @param tourNameFolded Folded tour name string
+     */
+    public void setTourNameFolded(String tourNameFolded) { this.tourNameFolded = tourNameFolded; }
 
     /**
      * Gets the tour image path/URL
@@ -177,7 +207,22 @@ public class Tour {
      * Sets the tour location
      * @param tourLocation Tour location string
      */
-    public void setTourLocation(String tourLocation) { this.tourLocation = tourLocation; }
+    public void setTourLocation(String tourLocation) {
+        this.tourLocation = tourLocation;
+        this.tourLocationFolded = TextNormalizer.fold(tourLocation);
+    }
+
+    /**
+     * Gets the folded tour location used for search
+     * @return Folded tour location string
+     */
+    public String getTourLocationFolded() { return tourLocationFolded; }
+
+    /**
+     * Sets the folded tour location used for search
+     * @param tourLocationFolded Folded tour location string
+     */
+    public void setTourLocationFolded(String tourLocationFolded) { this.tourLocationFolded = tourLocationFolded; }
 
     /**
      * Gets the tour start time
@@ -0,0 +1,56 @@
+package com.example.tourmanagement.pricing;
+
+import com.example.tourmanagement.model.Discount;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the best discount for many tours from one list of discounts.
+ * Splits the discounts once into global and per-tour candidates, so each
+ * tour is priced against its own discounts and the global ones instead of
+ * querying the database per tour.
+ *
+ * Not thread-safe; create one per batch.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class DiscountSelector {
+
+    private final List<Discount> globalDiscounts = new ArrayList<>();
+    private final Map<Integer, List<Discount>> discountsByTour = new HashMap<>();
+
+    /**
+     * @param discounts Candidate discounts (tour-specific and global), e.g. the currently valid ones
+     */
+    public DiscountSelector(List<Discount> discounts) {
+        for (Discount discount : discounts) {
+            if (discount.getTourId() == null) {
+                globalDiscounts.add(discount);
+            } else {
+                List<Discount> list = discountsByTour.get(discount.getTourId());
+                if (list == null) {
+                    list = new ArrayList<>(2);
+                    discountsByTour.put(discount.getTourId(), list);
+                }
+                list.add(discount);
+            }
+        }
+    }
+
+    /**
+     * Picks the best discount for an order of a tour
+     *
+     * @param tourId Tour ID
+     * @param orderAmount Order amount
+     * @param now Time of the order (in milliseconds)
+     * @return Best discount, or null if none applies
+     */
+    public Discount bestFor(int tourId, double orderAmount, long now) {
+        Discount best = PricingEngine.bestDiscount(orderAmount, globalDiscounts, null, now);
+        return PricingEngine.bestDiscount(orderAmount, discountsByTour.get(tourId), best, now);
+    }
+}
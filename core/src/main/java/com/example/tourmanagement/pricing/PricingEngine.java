@@ -0,0 +1,117 @@
+package com.example.tourmanagement.pricing;
+
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+import java.util.List;
+
+/**
+ * Prices tour bookings.
+ * The price of a booking is the tour cost per person times the number of
+ * people, less the best applicable discount. Everything here is plain Java
+ * with the time passed in, so the same rules serve the booking screen, the
+ * tour cards, a backend and the JMH benchmarks.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class PricingEngine {
+
+    /**
+     * Price of one booking
+     */
+    public static final class Quote {
+        /**
+         * Price before discount
+         */
+        public final double originalPrice;
+
+        /**
+         * Applied discount, or null if none applies
+         */
+        public final Discount discount;
+
+        /**
+         * Amount taken off by the discount
+         */
+        public final double discountAmount;
+
+        /**
+         * Price to pay
+         */
+        public final double total;
+
+        Quote(double originalPrice, Discount discount, double discountAmount) {
+            this.originalPrice = originalPrice;
+            this.discount = discount;
+            this.discountAmount = discountAmount;
+            this.total = originalPrice - discountAmount;
+        }
+
+        /**
+         * Checks if a discount was applied
+         */
+        public boolean isDiscounted() {
+            return discount != null;
+        }
+    }
+
+    private PricingEngine() {
+    }
+
+    /**
+     * Prices a booking of a tour
+     *
+     * @param tour Booked tour
+     * @param people Number of people
+     * @param discount Discount to apply, or null
+     * @param now Time of the booking (in milliseconds)
+     * @return Quote; without a discount if the given one does not apply
+     */
+    public static Quote quote(Tour tour, int people, Discount discount, long now) {
+        return quote(tour.getTourCost(), people, discount, now);
+    }
+
+    /**
+     * Prices a booking at a cost per person
+     *
+     * @param unitPrice Cost per person
+     * @param people Number of people
+     * @param discount Discount to apply, or null
+     * @param now Time of the booking (in milliseconds)
+     * @return Quote; without a discount if the given one does not apply
+     */
+    public static Quote quote(double unitPrice, int people, Discount discount, long now) {
+        double originalPrice = unitPrice * people;
+        double discountAmount = discount != null ? discount.calculateDiscountAmount(originalPrice, now) : 0.0;
+        return discountAmount > 0 ? new Quote(originalPrice, discount, discountAmount)
+            : new Quote(originalPrice, null, 0.0);
+    }
+
+    /**
+     * Picks the discount with the largest saving for an order amount
+     * Mirrors the ordering of the best-discount query of the app database.
+     *
+     * @param orderAmount Order amount
+     * @param candidates Candidate discounts (may be null)
+     * @param currentBest Best discount found so far (may be null)
+     * @param now Time of the order (in milliseconds)
+     * @return Best discount, or null if none applies
+     */
+    public static Discount bestDiscount(double orderAmount, List<Discount> candidates, Discount currentBest, long now) {
+        if (candidates == null) {
+            return currentBest;
+        }
+        Discount best = currentBest;
+        double bestAmount = best != null ? best.calculateDiscountAmount(orderAmount, now) : 0.0;
+        for (int i = 0, size = candidates.size(); i < size; i++) {
+            Discount candidate = candidates.get(i);
+            double amount = candidate.calculateDiscountAmount(orderAmount, now);
+            if (amount > bestAmount) {
+                best = candidate;
+                bestAmount = amount;
+            }
+        }
+        return best;
+    }
+}
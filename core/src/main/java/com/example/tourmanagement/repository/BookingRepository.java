@@ -0,0 +1,72 @@
+package com.example.tourmanagement.repository;
+
+import com.example.tourmanagement.model.Booking;
+import java.util.List;
+
+/**
+ * Storage of bookings.
+ * Implemented by the Room BookingDao in the app; other implementations (e.g. a
+ * backend service) provide the same operations.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public interface BookingRepository {
+
+    /**
+     * Stores a new booking
+     *
+     * @param booking Booking to store
+     * @return ID of the new booking
+     */
+    long insertBooking(Booking booking);
+
+    /**
+     * Updates a stored booking
+     *
+     * @param booking Booking with its ID set
+     */
+    void updateBooking(Booking booking);
+
+    /**
+     * Gets a booking by ID
+     *
+     * @param id Booking ID
+     * @return Booking, or null if not found
+     */
+    Booking getBookingById(int id);
+
+    /**
+     * Gets a booking by its reference, e.g. from a ticket
+     *
+     * @param reference Booking reference
+     * @return Booking, or null if not found
+     */
+    Booking getBookingByReference(String reference);
+
+    /**
+     * Gets the bookings of a user, newest first
+     *
+     * @param userId User ID
+     * @return Bookings of the user
+     */
+    List<Booking> getBookingsByUserId(int userId);
+
+    /**
+     * Gets the bookings of a tour, newest first
+     *
+     * @param tourId Tour ID
+     * @return Bookings of the tour
+     */
+    List<Booking> getBookingsByTourId(int tourId);
+
+    /**
+     * Sets the booking and payment status of a booking
+     *
+     * @param bookingId Booking ID
+     * @param bookingStatus New booking status
+     * @param paymentStatus New payment status
+     */
+    void updateBookingAndPaymentStatus(int bookingId, String bookingStatus, String paymentStatus);
+}
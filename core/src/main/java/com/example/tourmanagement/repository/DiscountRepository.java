@@ -0,0 +1,51 @@
+package com.example.tourmanagement.repository;
+
+import com.example.tourmanagement.model.Discount;
+import java.util.List;
+
+/**
+ * Storage of discounts.
+ * Implemented by the Room DiscountDao in the app; other implementations (e.g. a
+ * backend service) provide the same operations. The best discount is picked
+ * with the rules of PricingEngine.bestDiscount.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public interface DiscountRepository {
+
+    /**
+     * Gets the discounts valid at a time, tour-specific and global
+     *
+     * @param currentTime Time (in milliseconds)
+     * @return Valid discounts
+     */
+    List<Discount> getValidDiscounts(long currentTime);
+
+    /**
+     * Gets the discounts valid for a tour at a time, including global ones
+     *
+     * @param tourId Tour ID
+     * @param currentTime Time (in milliseconds)
+     * @return Valid discounts for the tour
+     */
+    List<Discount> getValidDiscountsForTour(int tourId, long currentTime);
+
+    /**
+     * Gets the discount with the largest saving for an order of a tour
+     *
+     * @param tourId Tour ID
+     * @param orderAmount Order amount
+     * @param currentTime Time of the order (in milliseconds)
+     * @return Best applicable discount, or null
+     */
+    Discount getBestDiscountForTour(int tourId, double orderAmount, long currentTime);
+
+    /**
+     * Counts one use of a discount
+     *
+     * @param discountId Discount ID
+     */
+    void incrementDiscountUsage(int discountId);
+}
@@ -0,0 +1,61 @@
+package com.example.tourmanagement.repository;
+
+import com.example.tourmanagement.model.Tour;
+import java.util.List;
+
+/**
+ * Storage of tours.
+ * Implemented by the Room TourDao in the app; other implementations (e.g. a
+ * backend service) provide the same operations.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public interface TourRepository {
+
+    /**
+     * Stores a new tour
+     *
+     * @param tour Tour to store
+     * @return ID of the new tour
+     */
+    long insertTour(Tour tour);
+
+    /**
+     * Updates a stored tour
+     *
+     * @param tour Tour with its ID set
+     */
+    void updateTour(Tour tour);
+
+    /**
+     * Gets a tour by ID
+     *
+     * @param id Tour ID
+     * @return Tour, or null if not found
+     */
+    Tour getTourById(int id);
+
+    /**
+     * Gets all active tours
+     *
+     * @return Active tours
+     */
+    List<Tour> getActiveTours();
+
+    /**
+     * Gets active tours with free seats
+     *
+     * @return Bookable tours
+     */
+    List<Tour> getAvailableTours();
+
+    /**
+     * Changes the booked seat count of a tour
+     *
+     * @param tourId Tour ID
+     * @param increment Seats to add (negative to release)
+     */
+    void updateBookingCount(int tourId, int increment);
+}
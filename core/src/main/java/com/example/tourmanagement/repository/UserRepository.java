@@ -0,0 +1,54 @@
+package com.example.tourmanagement.repository;
+
+import com.example.tourmanagement.model.User;
+
+/**
+ * Storage of users.
+ * Implemented by the Room UserDao in the app; other implementations (e.g. a
+ * backend service) provide the same operations.
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public interface UserRepository {
+
+    /**
+     * Stores a new user
+     *
+     * @param user User to store
+     * @return ID of the new user
+     */
+    long insertUser(User user);
+
+    /**
+     * Updates a stored user
+     *
+     * @param user User with its ID set
+     */
+    void updateUser(User user);
+
+    /**
+     * Gets a user by ID
+     *
+     * @param id User ID
+     * @return User, or null if not found
+     */
+    User getUserById(int id);
+
+    /**
+     * Gets a user by username
+     *
+     * @param username Username
+     * @return User, or null if not found
+     */
+    User getUserByUsername(String username);
+
+    /**
+     * Gets a user by email address
+     *
+     * @param email Email address
+     * @return User, or null if not found
+     */
+    User getUserByEmail(String email);
+}
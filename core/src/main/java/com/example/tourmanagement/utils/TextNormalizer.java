@@ -0,0 +1,62 @@
+package com.example.tourmanagement.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for folding free text into an accent- and case-insensitive form.
+ * Used for the stored search columns on tours and for normalizing search queries,
+ * so that "Da Nang" matches "Đà Nẵng" and "Ha Long" matches "Hạ Long".
+ *
+ * Folding steps:
+ * - Vietnamese đ/Đ mapped to d (not decomposed by Unicode NFD)
+ * - Unicode NFD decomposition followed by removal of combining marks
+ * - Lower-casing with the root locale
+ * - Punctuation collapsed into single spaces
+ *
+ * @author Tour Management Team
+ * @version 1.0
+ * @since 2025-07-22
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String[] EMPTY_TOKENS = new String[0];
+
+    private TextNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Folds text into its accent-free, lower-case search form
+     *
+     * @param text Text to fold (may be null)
+     * @return Folded text, or an empty string for null input
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        String mapped = text.replace('\u0111', 'd').replace('\u0110', 'D');
+        String decomposed = Normalizer.normalize(mapped, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        String lowerCase = stripped.toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(lowerCase).replaceAll(" ").trim();
+    }
+
+    /**
+     * Splits already folded text into search tokens
+     *
+     * @param folded Text produced by {@link #fold(String)}
+     * @return Array of tokens, empty if there are none
+     */
+    public static String[] tokenize(String folded) {
+        if (folded == null || folded.isEmpty()) {
+            return EMPTY_TOKENS;
+        }
+        return folded.split(" ");
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.tourmanagement.pricing;
+
+import com.example.tourmanagement.model.Discount;
+import com.example.tourmanagement.model.Tour;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for booking prices and best discount selection.
+ */
+public class PricingEngineTest {
+
+    private static final long NOW = 1_753_142_400_000L;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Test
+    public void priceIsCostTimesPeopleWithoutDiscount() {
+        PricingEngine.Quote quote = PricingEngine.quote(tour(1, 120.0), 3, null, NOW);
+
+        assertEquals(360.0, quote.originalPrice, 1e-9);
+        assertEquals(360.0, quote.total, 1e-9);
+        assertFalse(quote.isDiscounted());
+    }
+
+    @Test
+    public void percentageDiscountIsCapped() {
+        Discount tenPercent = discount(null, Discount.DiscountType.PERCENTAGE, 10);
+        tenPercent.setMaxDiscountAmount(50);
+
+        assertEquals(30.0, PricingEngine.quote(tour(1, 100.0), 3, tenPercent, NOW).discountAmount, 1e-9);
+        PricingEngine.Quote capped = PricingEngine.quote(tour(1, 100.0), 10, tenPercent, NOW);
+        assertEquals(50.0, capped.discountAmount, 1e-9);
+        assertEquals(950.0, capped.total, 1e-9);
+    }
+
+    @Test
+    public void fixedDiscountNeverExceedsPrice() {
+        Discount hundredOff = discount(null, Discount.DiscountType.FIXED_AMOUNT, 100);
+
+        assertEquals(0.0, PricingEngine.quote(tour(1, 40.0), 2, hundredOff, NOW).total, 1e-9);
+    }
+
+    @Test
+    public void inapplicableDiscountIsDropped() {
+        Discount expired = discount(null, Discount.DiscountType.PERCENTAGE, 20);
+        Discount minimum = discount(null, Discount.DiscountType.PERCENTAGE, 20);
+        minimum.setMinOrderAmount(500);
+
+        assertFalse(PricingEngine.quote(tour(1, 100.0), 2, expired, NOW + 60 * DAY).isDiscounted());
+        assertFalse(PricingEngine.quote(tour(1, 100.0), 2, minimum, NOW).isDiscounted());
+        assertTrue(PricingEngine.quote(tour(1, 100.0), 5, minimum, NOW).isDiscounted());
+    }
+
+    @Test
+    public void largestSavingWins() {
+        Discount fivePercent = discount(null, Discount.DiscountType.PERCENTAGE, 5);
+        Discount tenOff = discount(null, Discount.DiscountType.FIXED_AMOUNT, 10);
+
+        // 5% of 100 is less than 10 off, 5% of 400 is more
+        assertSame(tenOff, PricingEngine.bestDiscount(100, Arrays.asList(fivePercent, tenOff), null, NOW));
+        assertSame(fivePercent, PricingEngine.bestDiscount(400, Arrays.asList(fivePercent, tenOff), null, NOW));
+        assertNull(PricingEngine.bestDiscount(100, Collections.emptyList(), null, NOW));
+    }
+
+    @Test
+    public void selectorOnlyOffersTourDiscountsToTheirTour() {
+        Discount global = discount(null, Discount.DiscountType.PERCENTAGE, 5);
+        Discount tourOne = discount(1, Discount.DiscountType.PERCENTAGE, 20);
+        Discount tourTwo = discount(2, Discount.DiscountType.FIXED_AMOUNT, 1);
+        DiscountSelector selector = new DiscountSelector(Arrays.asList(global, tourOne, tourTwo));
+
+        assertSame(tourOne, selector.bestFor(1, 100, NOW));
+        assertSame(global, selector.bestFor(2, 100, NOW));
+        assertSame(global, selector.bestFor(3, 100, NOW));
+    }
+
+    private static Tour tour(int id, double cost) {
+        Tour tour = new Tour("Tour " + id, "", "Hue", NOW + 10 * DAY, "", cost, 20, 1);
+        tour.setId(id);
+        return tour;
+    }
+
+    private static Discount discount(Integer tourId, String type, double value) {
+        return new Discount(tourId, type + " " + value, type, value, NOW - DAY, NOW + 30 * DAY);
+    }
+}
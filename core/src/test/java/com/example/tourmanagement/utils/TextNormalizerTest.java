@@ -0,0 +1,49 @@
+package com.example.tourmanagement.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for folding Vietnamese and international place names into their search form.
+ */
+public class TextNormalizerTest {
+
+    @Test
+    public void vietnameseDiacriticsAreStripped() {
+        assertEquals("ha long", TextNormalizer.fold("Hạ Long"));
+        assertEquals("hoi an", TextNormalizer.fold("Hội An"));
+        assertEquals("phu quoc", TextNormalizer.fold("Phú Quốc"));
+    }
+
+    @Test
+    public void dWithStrokeBecomesD() {
+        assertEquals("da nang", TextNormalizer.fold("Đà Nẵng"));
+        assertEquals("da lat", TextNormalizer.fold("đà lạt"));
+    }
+
+    @Test
+    public void otherLatinAccentsAreStripped() {
+        assertEquals("sao paulo", TextNormalizer.fold("São Paulo"));
+        assertEquals("zurich", TextNormalizer.fold("ZÜRICH"));
+    }
+
+    @Test
+    public void punctuationCollapsesIntoSingleSpaces() {
+        assertEquals("ha long bay 2 days", TextNormalizer.fold("  Hạ Long Bay -- (2 days)! "));
+    }
+
+    @Test
+    public void nullAndEmptyFoldToEmpty() {
+        assertEquals("", TextNormalizer.fold(null));
+        assertEquals("", TextNormalizer.fold(""));
+        assertEquals("", TextNormalizer.fold(" - "));
+    }
+
+    @Test
+    public void tokenizeSplitsFoldedText() {
+        assertArrayEquals(new String[] {"ha", "long", "bay"}, TextNormalizer.tokenize("ha long bay"));
+        assertEquals(0, TextNormalizer.tokenize("").length);
+        assertEquals(0, TextNormalizer.tokenize(null).length);
+    }
+}
@@ -22,3 +22,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "TourManagement"
 include(":app")
+include(":core")